@@ -3,16 +3,22 @@ package org.dgraph.graph;
 import org.dgraph.graph.edge.Edge;
 
 import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
@@ -28,7 +34,12 @@ import java.util.function.Predicate;
 public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
         implements Graph<V, E>, Serializable {
 
-    final class EdgeMap extends HashMap<V, SetExtension<E>> {
+    /**
+     * Outgoing edges of a vertex grouped by target. A target maps to its only
+     * edge, or to a {@link PairSet} once a parallel edge is added.
+     */
+    @SuppressWarnings("unchecked")
+    final class EdgeMap extends HashMap<V, Object> {
 
         SetExtension<E> edges;
 
@@ -39,38 +50,153 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
             this.source = source;
         }
 
+        EdgeMap(V source, int outDegree) {
+            super(capacityFor(outDegree));
+            edges = new EdgeSetOutgoing(source, outDegree);
+            this.source = source;
+        }
+
+        boolean addToPair(V target, E e) {
+            final Object stored = get(target);
+            if (stored == null) {
+                put(target, e);
+                return true;
+            }
+            if (stored instanceof AbstractDirectedGraph.PairSet) {
+                return ((PairSet) stored).add(e);
+            }
+            if (stored.equals(e)) {
+                return false;
+            }
+            final PairSet set = new PairSet();
+            set.add((E) stored);
+            set.add(e);
+            put(target, set);
+            return true;
+        }
+
+        Collection<E> getPair(V target) {
+            final Object stored = get(target);
+            if (stored == null) {
+                return Collections.emptySet();
+            }
+            return stored instanceof AbstractDirectedGraph.PairSet ? (PairSet) stored
+                    : Collections.singleton((E) stored);
+        }
+
+        boolean removeFromPair(Object target, Object e) {
+            final Object stored = get(target);
+            if (stored instanceof AbstractDirectedGraph.PairSet) {
+                final PairSet set = (PairSet) stored;
+                if (!set.remove(e)) {
+                    return false;
+                }
+                if (set.size() == 1) {
+                    put((V) target, set.iterator().next());
+                }
+                return true;
+            }
+            if (stored == null || !stored.equals(e)) {
+                return false;
+            }
+            remove(target);
+            return true;
+        }
+
+    }
+
+    /**
+     * Live view of the edges between two vertices.
+     */
+    final class EdgePairView extends AbstractSet<E> {
+
+        private final V source, target;
+
+        EdgePairView(V source, V target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        private Collection<E> pair() {
+            final EdgeMap map = graph.get(source);
+            return map == null ? Collections.emptySet() : map.getPair(target);
+        }
+
+        @Override
+        public boolean add(E e) {
+            return Objects.requireNonNull(e.getSource()).equals(source)
+                    && Objects.requireNonNull(e.getTarget()).equals(target) && edges.add(e);
+        }
+
+        @Override
+        public void clear() {
+            removeAll(new ArrayList<>(pair()));
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return pair().contains(o);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return Collections.unmodifiableCollection(pair()).iterator();
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return contains(o) && edges.remove(o);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            Objects.requireNonNull(c);
+            boolean modified = false;
+            for (Object o : c) {
+                modified |= remove(o);
+            }
+            return modified;
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            Objects.requireNonNull(c);
+            final ArrayList<E> toRemove = new ArrayList<>(pair());
+            toRemove.removeAll(c);
+            return removeAll(toRemove);
+        }
+
+        @Override
+        public int size() {
+            return pair().size();
+        }
+
     }
 
     final class EdgeSetAll extends SetExtension<E> {
 
-        EdgeSetAll() {
+        EdgeSetAll(int expectedEdges) {
+            super(expectedEdges);
         }
 
         @Override
         public boolean add(E e) {
             final V source = Objects.requireNonNull(e.getSource());
             final V target = Objects.requireNonNull(e.getTarget());
-            return (!withLoops || !source.equals(target)) && super.add(e);
+            return (withLoops || !source.equals(target)) && super.add(e);
         }
 
         @Override
         public boolean addToOthers(E e) {
-            final V source = e.getSource();
-            final V target = e.getTarget();
-            if (vertices.superAdd(source)) {
-                vertices.addToOthers(source);
-            }
-            if (vertices.superAdd(target)) {
-                vertices.addToOthers(target);
-            }
-            final EdgeMap map = graph.get(source);
-            SetExtension<E> set = map.get(target);
-            if (set == null) {
-                set = new EdgeSetSpecific(source, target);
-                map.put(target, set);
+            return linkEdge(e, this);
+        }
+
+        @Override
+        public void clear() {
+            for (E e : this) {
+                edgeRemoved(e);
             }
-            return set.superAdd(e) && map.edges.superAdd(e)
-                    && incomingEdges.get(target).superAdd(e);
+            super.clear();
         }
 
         @Override
@@ -80,11 +206,26 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
 
         @Override
         boolean removeFromOthers(Object o) {
-            final E e = (E) o;
-            final V target = e.getTarget();
-            final EdgeMap map = graph.get(e.getSource());
-            return map.get(target).superRemove(o) && map.edges.superRemove(o)
-                    && incomingEdges.get(target).superRemove(o);
+            return unlinkEdge(o, this);
+        }
+
+        @Override
+        boolean superAdd(E e) {
+            if (super.superAdd(e)) {
+                edgeAdded(e);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        boolean superRemove(Object o) {
+            if (super.superRemove(o)) {
+                @SuppressWarnings("unchecked") final E e = (E) o;
+                edgeRemoved(e);
+                return true;
+            }
+            return false;
         }
 
     }
@@ -98,37 +239,26 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
             this.target = target;
         }
 
+        EdgeSetIncoming(V target, int inDegree) {
+            super(inDegree);
+            this.target = Objects.requireNonNull(target);
+        }
+
         @Override
         public boolean add(E e) {
             final V source = Objects.requireNonNull(e.getSource());
             return Objects.requireNonNull(e.getTarget()).equals(target)
-                    && (!withLoops || !source.equals(target)) && super.add(e);
+                    && (withLoops || !source.equals(target)) && super.add(e);
         }
 
         @Override
         public boolean addToOthers(E e) {
-            final V source = e.getSource();
-            if (vertices.superAdd(source)) {
-                vertices.addToOthers(source);
-            }
-            if (vertices.superAdd(target)) {
-                vertices.addToOthers(target);
-            }
-            final EdgeMap map = graph.get(source);
-            SetExtension<E> set = map.get(target);
-            if (set == null) {
-                set = new EdgeSetSpecific(source, target);
-                map.put(target, set);
-            }
-            return set.superAdd(e) && map.edges.superAdd(e) && edges.superAdd(e);
+            return linkEdge(e, this);
         }
 
         @Override
         public boolean removeFromOthers(Object o) {
-            final E e = (E) o;
-            final EdgeMap map = graph.get(e.getSource());
-            return edges.superRemove(o) && map.get(target).superRemove(o)
-                    && map.edges.superRemove(o);
+            return unlinkEdge(o, this);
         }
 
         @Override
@@ -147,40 +277,26 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
             this.source = source;
         }
 
+        EdgeSetOutgoing(V source, int outDegree) {
+            super(outDegree);
+            this.source = Objects.requireNonNull(source);
+        }
+
         @Override
         public boolean add(E e) {
             final V target = Objects.requireNonNull(e.getTarget());
             return Objects.requireNonNull(e.getSource()).equals(source)
-                    && (!withLoops || !source.equals(target)) && super.add(e);
+                    && (withLoops || !source.equals(target)) && super.add(e);
         }
 
         @Override
         public boolean addToOthers(E e) {
-            final V target = e.getTarget();
-            if (vertices.superAdd(source)) {
-                vertices.addToOthers(source);
-            }
-            if (vertices.superAdd(target)) {
-                vertices.addToOthers(target);
-            }
-            final EdgeMap map = graph.get(source);
-            SetExtension<E> set = map.get(target);
-            if (set == null) {
-                set = new EdgeSetSpecific(source, target);
-                map.put(target, set);
-            }
-            return set.superAdd(e) && edges.superAdd(e)
-                    && incomingEdges.get(target).superAdd(e);
+            return linkEdge(e, this);
         }
 
         @Override
         public boolean removeFromOthers(Object o) {
-            final E e = (E) o;
-            final V target = e.getTarget();
-            final EdgeMap map = graph.get(source);
-            final SetExtension<E> set = map.get(target);
-            return edges.superRemove(o) && set.superRemove(o)
-                    && incomingEdges.get(target).superRemove(o);
+            return unlinkEdge(o, this);
         }
 
         @Override
@@ -190,73 +306,28 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
 
     }
 
-    final class EdgeSetSpecific extends SetExtension<E> {
+    /**
+     * Edges between two vertices, once there is more than one of them.
+     */
+    final class PairSet extends HashSet<E> {
 
-        private V source, target;
+        private static final long serialVersionUID = 7316530845327761924L;
 
-        EdgeSetSpecific(V source, V target) {
-            Objects.requireNonNull(source);
-            Objects.requireNonNull(target);
-            this.source = source;
-            this.target = target;
+        PairSet() {
+            super(4);
         }
 
-        @Override
-        public boolean add(E e) {
-            return Objects.requireNonNull(e.getSource()).equals(source)
-                    && Objects.requireNonNull(e.getTarget()).equals(target)
-                    && (!withLoops || !source.equals(target)) && super.add(e);
-        }
-
-        @Override
-        public boolean addToOthers(E e) {
-            if (vertices.superAdd(source)) {
-                vertices.addToOthers(source);
-            }
-            if (vertices.superAdd(target)) {
-                vertices.addToOthers(target);
-            }
-            final EdgeMap map = graph.get(source);
-            return edges.add(e) && map.edges.superAdd(e)
-                    && incomingEdges.get(target).superAdd(e);
-        }
-
-        @Override
-        public void clear() {
-            detach();
-            super.clear();
-        }
+    }
 
-        @Override
-        public boolean removeFromOthers(Object o) {
-            final EdgeMap map = graph.get(source);
-            return edges.superRemove(o) && map.edges.superRemove(o)
-                    && incomingEdges.get(target).superRemove(o);
-        }
+    abstract class SetExtension<T> extends HashSet<T> {
 
-        @Override
-        void detach() {
-            if (graph.get(source).remove(target) == null) {
-                throw new ConcurrentModificationException();
-            }
-            source = target = null;
+        SetExtension() {
         }
 
-        @Override
-        boolean superRemove(Object o) {
-            if (super.superRemove(o)) {
-                if (size() == 0) {
-                    detach();
-                }
-                return true;
-            }
-            return false;
+        SetExtension(int expectedSize) {
+            super(capacityFor(expectedSize));
         }
 
-    }
-
-    abstract class SetExtension<T> extends HashSet<T> {
-
         class SetIterator implements Iterator<T> {
 
             final Iterator<T> iterator;
@@ -331,19 +402,16 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
         @Override
         public boolean removeIf(Predicate<? super T> filter) {
             Objects.requireNonNull(filter);
-            boolean removed = false;
-            final Iterator<T> each = iterator();
-            while (each.hasNext()) {
-                final T next = each.next();
-                if (filter.test(next)) {
-                    removeFromOthers(next);
-                    removed = true;
+            final List<T> toRemove = new ArrayList<>();
+            for (T t : this) {
+                if (filter.test(t)) {
+                    toRemove.add(t);
                 }
             }
-            if (removed ^ super.removeIf(filter)) {
-                throw new ConcurrentModificationException();
+            for (T t : toRemove) {
+                remove(t);
             }
-            return removed;
+            return !toRemove.isEmpty();
         }
 
         @Override
@@ -386,6 +454,10 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
 
     final class VertexSet extends SetExtension<V> {
 
+        VertexSet(int expectedVertices) {
+            super(expectedVertices);
+        }
+
         @Override
         public boolean add(V v) {
             Objects.requireNonNull(v);
@@ -394,8 +466,12 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
 
         @Override
         public boolean addToOthers(V v) {
-            return graph.put(v, new EdgeMap(v)) == null
-                    && incomingEdges.put(v, new EdgeSetIncoming(v)) == null;
+            index.add(v);
+            if (graph.put(v, new EdgeMap(v)) == null && incomingEdges.put(v, new EdgeSetIncoming(v)) == null) {
+                fireVertexAdded(v);
+                return true;
+            }
+            return false;
         }
 
         @Override
@@ -405,30 +481,43 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
             if (map == null) {
                 return false;
             }
+            /* The stored vertex is equal to the given object and already typed. */
+            final V vertex = map.source;
             map.source = null;
             map.edges.detach();
+            final List<E> removed = hasListeners() ? new ArrayList<>() : null;
             for (V v : map.keySet()) {
-                final SetExtension<E> set = map.get(v);
-                set.detach();
                 final SetExtension<E> incomingSet = incomingEdges.get(v);
-                for (E e : set) {
+                for (E e : map.getPair(v)) {
+                    if (removed != null) {
+                        removed.add(e);
+                    }
                     result &= edges.superRemove(e);
                     result &= map.edges.superRemove(e);
                     result &= incomingSet.superRemove(e);
                 }
-                set.superClear();
             }
+            map.clear();
             graph.remove(o);
+            index.remove(o);
             final SetExtension<E> incomingSet = incomingEdges.remove(o);
             incomingSet.detach();
             for (E e : incomingSet) {
+                if (removed != null) {
+                    removed.add(e);
+                }
                 result &= edges.superRemove(e);
                 final EdgeMap tempMap = graph.get(e.getSource());
                 result &= tempMap.edges.superRemove(e);
-                final SetExtension<E> set = tempMap.get(e.getTarget());
-                result &= set.superRemove(e);
+                result &= tempMap.removeFromPair(e.getTarget(), e);
             }
             incomingSet.superClear();
+            if (removed != null) {
+                for (E e : removed) {
+                    fireEdgeRemoved(e);
+                }
+                fireVertexRemoved(vertex);
+            }
             return result;
         }
 
@@ -441,23 +530,61 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
 
     private static final long serialVersionUID = -4055201812984599572L;
 
-    private final SetExtension<E> edges = new EdgeSetAll();
+    private final SetExtension<E> edges;
 
-    private final Map<V, EdgeMap> graph = new HashMap<>();
+    private final Map<V, EdgeMap> graph;
 
-    private final Map<V, SetExtension<E>> incomingEdges = new HashMap<>();
+    private final Map<V, SetExtension<E>> incomingEdges;
 
-    private final SetExtension<V> vertices = new VertexSet();
+    private final SetExtension<V> vertices;
+
+    private final VertexIndex<V> index;
 
     private final boolean withLoops;
 
     private transient int modCount = 0;
 
+    private final transient List<GraphListener<? super V, ? super E>> listeners;
+
+    private final transient List<GraphListener<? super V, ? super E>> batchedListeners;
+
+    private transient GraphDelta<V, E> delta;
+
     protected final BiFunction<V, V, E> edgeFactory;
 
     public AbstractDirectedGraph(BiFunction<V, V, E> edgeFactory, boolean withLoops) {
+        this(edgeFactory, withLoops, 12, 12);
+    }
+
+    /**
+     * Creates a graph with space preallocated for the expected number of
+     * vertices and edges, so that loading them does not resize the hash tables.
+     *
+     * @param edgeFactory      the edge factory to create edge by given source and
+     *                         target vertices
+     * @param withLoops        specifies whether the graph can contain loops or not
+     * @param expectedVertices expected number of vertices
+     * @param expectedEdges    expected number of edges
+     */
+    public AbstractDirectedGraph(BiFunction<V, V, E> edgeFactory, boolean withLoops, int expectedVertices,
+            int expectedEdges) {
         this.edgeFactory = edgeFactory;
         this.withLoops = withLoops;
+        edges = new EdgeSetAll(expectedEdges);
+        graph = new HashMap<>(capacityFor(expectedVertices));
+        incomingEdges = new HashMap<>(capacityFor(expectedVertices));
+        vertices = new VertexSet(expectedVertices);
+        index = new VertexIndex<>(Math.max(expectedVertices, 1));
+        listeners = new CopyOnWriteArrayList<>();
+        batchedListeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Returns the initial capacity of a hash table, which holds the given number
+     * of elements without resizing.
+     */
+    static int capacityFor(int size) {
+        return size < 3 ? size + 1 : (int) (size / 0.75f) + 1;
     }
 
     @SuppressWarnings("unchecked")
@@ -477,6 +604,185 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
         }
     }
 
+    /**
+     * Called after an edge has been added to this graph. Subclasses may override
+     * this method to keep additional per-edge data.
+     *
+     * @param e the added edge
+     */
+    void edgeAdded(E e) {
+    }
+
+    /**
+     * Called after an edge has been removed from this graph. The given edge may
+     * be equal to the removed one, but not the same instance.
+     *
+     * @param e the removed edge
+     */
+    void edgeRemoved(E e) {
+    }
+
+    /**
+     * Registers a listener, which is notified immediately after every change of
+     * this graph.
+     *
+     * @param listener the listener
+     */
+    public void addGraphListener(GraphListener<? super V, ? super E> listener) {
+        addGraphListener(listener, false);
+    }
+
+    /**
+     * Registers a listener. A batched listener is notified only by
+     * {@link #commitChanges()} with the net changes since the previous commit.
+     * Changes are accumulated only while there are batched listeners.
+     *
+     * @param listener the listener
+     * @param batched  specifies whether the listener is notified at commits
+     *                 only
+     */
+    public void addGraphListener(GraphListener<? super V, ? super E> listener, boolean batched) {
+        Objects.requireNonNull(listener);
+        if (batched) {
+            if (delta == null) {
+                delta = new GraphDelta<>();
+            }
+            batchedListeners.add(listener);
+        } else {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener
+     * @return <tt>true</tt> if the listener was registered
+     */
+    public boolean removeGraphListener(GraphListener<? super V, ? super E> listener) {
+        final boolean removed = listeners.remove(listener) | batchedListeners.remove(listener);
+        if (batchedListeners.isEmpty()) {
+            delta = null;
+        }
+        return removed;
+    }
+
+    /**
+     * Delivers the changes accumulated since the previous commit to batched
+     * listeners. Nothing is delivered, if there were no changes.
+     */
+    public void commitChanges() {
+        if (delta == null || delta.isEmpty()) {
+            return;
+        }
+        final GraphDelta<V, E> committed = delta;
+        delta = new GraphDelta<>();
+        for (GraphListener<? super V, ? super E> listener : batchedListeners) {
+            listener.changesCommitted(committed);
+        }
+    }
+
+    boolean hasListeners() {
+        return delta != null || !listeners.isEmpty();
+    }
+
+    void fireVertexAdded(V v) {
+        for (GraphListener<? super V, ? super E> listener : listeners) {
+            listener.vertexAdded(v);
+        }
+        if (delta != null) {
+            delta.vertexAdded(v);
+        }
+    }
+
+    void fireVertexRemoved(V v) {
+        for (GraphListener<? super V, ? super E> listener : listeners) {
+            listener.vertexRemoved(v);
+        }
+        if (delta != null) {
+            delta.vertexRemoved(v);
+        }
+    }
+
+    /**
+     * Adds an edge, which has just been added to one of the edge sets of this
+     * graph, to the other edge sets and notifies the listeners. Missing
+     * vertices of the edge are added first. Every edge set adds its edges
+     * through this method, so the graph and its listeners stay in sync
+     * whichever set is modified.
+     *
+     * @param e     the added edge
+     * @param added the edge set, which already contains the edge
+     * @return <tt>true</tt> if the edge has been added to all other sets
+     */
+    boolean linkEdge(E e, SetExtension<E> added) {
+        final V source = e.getSource();
+        final V target = e.getTarget();
+        if (vertices.superAdd(source)) {
+            vertices.addToOthers(source);
+        }
+        if (vertices.superAdd(target)) {
+            vertices.addToOthers(target);
+        }
+        final EdgeMap map = graph.get(source);
+        final SetExtension<E> incoming = incomingEdges.get(target);
+        if ((added == edges || edges.superAdd(e)) && map.addToPair(target, e)
+                && (added == map.edges || map.edges.superAdd(e)) && (added == incoming || incoming.superAdd(e))) {
+            fireEdgeAdded(e);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes an edge, which has just been removed from one of the edge sets of
+     * this graph, from the other edge sets and notifies the listeners.
+     *
+     * @param o       the removed edge
+     * @param removed the edge set, which does not contain the edge anymore
+     * @return <tt>true</tt> if the edge has been removed from all other sets
+     */
+    boolean unlinkEdge(Object o, SetExtension<E> removed) {
+        @SuppressWarnings("unchecked") final E e = (E) o;
+        final V target = e.getTarget();
+        final EdgeMap map = graph.get(e.getSource());
+        final SetExtension<E> incoming = incomingEdges.get(target);
+        if ((removed == edges || edges.superRemove(o)) && map.removeFromPair(target, o)
+                && (removed == map.edges || map.edges.superRemove(o))
+                && (removed == incoming || incoming.superRemove(o))) {
+            fireEdgeRemoved(e);
+            return true;
+        }
+        return false;
+    }
+
+    void fireEdgeAdded(E e) {
+        for (GraphListener<? super V, ? super E> listener : listeners) {
+            listener.edgeAdded(e);
+        }
+        if (delta != null) {
+            delta.edgeAdded(e);
+        }
+    }
+
+    void fireEdgeRemoved(E e) {
+        for (GraphListener<? super V, ? super E> listener : listeners) {
+            listener.edgeRemoved(e);
+        }
+        if (delta != null) {
+            delta.edgeRemoved(e);
+        }
+    }
+
+    void fireWeightChanged(E e) {
+        for (GraphListener<? super V, ? super E> listener : listeners) {
+            listener.weightChanged(e);
+        }
+        if (delta != null) {
+            delta.weightChanged(e);
+        }
+    }
+
     @Override
     public boolean addEdge(E e) {
         return edges.add(e);
@@ -488,6 +794,77 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
         return edges.add(e);
     }
 
+    /**
+     * Adds all edges of the collection to the graph at once. Degrees of the
+     * vertices are counted first, so the edge sets of new vertices are created
+     * with the right size, and edges are inserted without the per-edge
+     * bookkeeping of {@link #addEdge(Edge)}. Edges grouped by source are added
+     * faster, since consecutive edges reuse the lookup of their source.
+     *
+     * <p>
+     * Loops and edges already contained in the graph are skipped in the same
+     * way as in {@link #addEdge(Edge)}.
+     * </p>
+     *
+     * @param c edges to be added to the graph
+     * @return <tt>true</tt> if this graph changed as a result of the call
+     * @throws NullPointerException if the collection, any edge or any vertices
+     *                              it connects are <tt>null</tt>
+     */
+    public boolean addEdges(Collection<? extends E> c) {
+        Objects.requireNonNull(c);
+        final int mc = ++modCount;
+
+        /* Count degrees of new vertices to create their sets with the right size. */
+        final Map<V, int[]> degrees = new HashMap<>();
+        for (E e : c) {
+            final V source = Objects.requireNonNull(e.getSource());
+            final V target = Objects.requireNonNull(e.getTarget());
+            if (!withLoops && source.equals(target)) {
+                continue;
+            }
+            if (!graph.containsKey(source)) {
+                degrees.computeIfAbsent(source, v -> new int[2])[0]++;
+            }
+            if (!graph.containsKey(target)) {
+                degrees.computeIfAbsent(target, v -> new int[2])[1]++;
+            }
+        }
+        for (Map.Entry<V, int[]> entry : degrees.entrySet()) {
+            final V v = entry.getKey();
+            final int[] degree = entry.getValue();
+            vertices.superAdd(v);
+            index.add(v);
+            graph.put(v, new EdgeMap(v, degree[0]));
+            incomingEdges.put(v, new EdgeSetIncoming(v, degree[1]));
+            fireVertexAdded(v);
+        }
+
+        boolean modified = !degrees.isEmpty();
+        V lastSource = null;
+        EdgeMap map = null;
+        for (E e : c) {
+            final V source = e.getSource();
+            final V target = e.getTarget();
+            if (!withLoops && source.equals(target) || !edges.superAdd(e)) {
+                continue;
+            }
+            if (!source.equals(lastSource)) {
+                lastSource = source;
+                map = graph.get(source);
+            }
+            if (!map.addToPair(target, e) || !map.edges.superAdd(e) || !incomingEdges.get(target).superAdd(e)) {
+                throw new ConcurrentModificationException();
+            }
+            fireEdgeAdded(e);
+            modified = true;
+        }
+        if (mc != modCount) {
+            throw new ConcurrentModificationException();
+        }
+        return modified;
+    }
+
     @Override
     public boolean addVertex(V v) {
         return vertices.add(v);
@@ -496,6 +873,7 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
     @Override
     public void clear() {
         vertices.clear();
+        index.clear();
     }
 
     @Override
@@ -506,6 +884,26 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
         return edges.contains(e);
     }
 
+    /**
+     * Returns the instance of an edge, which is stored in this graph and equal
+     * to the given one.
+     *
+     * @param e edge equal to the stored one
+     * @return the stored edge, or <tt>null</tt> if this graph does not contain
+     * an equal edge
+     */
+    E getStoredEdge(E e) {
+        final EdgeMap map = graph.get(e.getSource());
+        if (map != null) {
+            for (E stored : map.getPair(e.getTarget())) {
+                if (stored.equals(e)) {
+                    return stored;
+                }
+            }
+        }
+        return null;
+    }
+
     @Override
     public boolean containsEdge(V v1, V v2) {
         final EdgeMap map = graph.get(v1);
@@ -527,10 +925,31 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
         return vertices;
     }
 
+    /**
+     * Returns the index of the vertices of this graph. The index is maintained
+     * by the graph: added vertices get a vacant index of previously removed
+     * vertices or a new one, so the index stays valid between modifications.
+     *
+     * @return the vertex index of this graph
+     */
+    @Override
+    public VertexIndex<V> getVertexIndex() {
+        return index;
+    }
+
+    /**
+     * Renumbers the vertices of this graph, so that their indices are dense from
+     * 0 to the number of vertices exclusive. Indices obtained before this call
+     * become invalid.
+     */
+    public void compactVertexIndex() {
+        index.compact();
+    }
+
     @Override
     public Set<E> getEdges(V v1, V v2) {
         final EdgeMap map = graph.get(v1);
-        return map == null ? null : map.get(v2);
+        return map == null || !map.containsKey(v2) ? null : new EdgePairView(v1, v2);
     }
 
     @Override
@@ -544,6 +963,38 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
         return incomingEdges.get(v);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The edges are walked through the spliterator of the hash set, which
+     * visits its table directly, instead of its iterator.
+     * </p>
+     */
+    @Override
+    public void forEachOutEdge(V v, Consumer<? super E> action) {
+        final EdgeMap map = graph.get(v);
+        if (map != null) {
+            map.edges.spliterator().forEachRemaining(action);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The edges are walked through the spliterator of the hash set, which
+     * visits its table directly, instead of its iterator.
+     * </p>
+     */
+    @Override
+    public void forEachInEdge(V v, Consumer<? super E> action) {
+        final SetExtension<E> set = incomingEdges.get(v);
+        if (set != null) {
+            set.spliterator().forEachRemaining(action);
+        }
+    }
+
     @Override
     public int getInDegree(V v) {
         final SetExtension<E> set = incomingEdges.get(v);
@@ -596,6 +1047,49 @@ public abstract class AbstractDirectedGraph<V, E extends Edge<V>>
         return graph.size();
     }
 
+    /**
+     * Estimates the heap memory held by this graph, broken down by structure.
+     * The estimate takes time linear in the number of vertices and pairs of
+     * adjacent vertices and does not copy anything, so it can be collected
+     * periodically as a metric.
+     *
+     * @return the memory report of this graph
+     */
+    public MemoryReport memoryReport() {
+        long adjacency = MemoryReport.hashMap(graph.size(), 0);
+        long pairSets = 0;
+        for (EdgeMap map : graph.values()) {
+            adjacency += MemoryReport.hashMap(map.size(), 3) + MemoryReport.hashSet(map.edges.size(), 2);
+            if (map.size() < map.edges.size()) {
+                for (Object stored : map.values()) {
+                    if (stored instanceof AbstractDirectedGraph.PairSet) {
+                        pairSets += MemoryReport.hashSet(((Collection<?>) stored).size(), 4, 1);
+                    }
+                }
+            }
+        }
+        long incoming = MemoryReport.hashMap(incomingEdges.size(), 0);
+        for (SetExtension<E> set : incomingEdges.values()) {
+            incoming += MemoryReport.hashSet(set.size(), 2);
+        }
+        final long edgeObjects = edges.isEmpty() ? 0
+                : edges.size() * MemoryReport.shallowSize(edges.iterator().next().getClass());
+        return new MemoryReport(MemoryReport.hashSet(vertices.size(), 1), index.footprint(), adjacency, incoming,
+                pairSets, MemoryReport.hashSet(edges.size(), 1), edgeObjects, edges.size());
+    }
+
+    /**
+     * Creates an immutable compressed snapshot of this graph. The snapshot keeps
+     * its adjacency in flat arrays, so algorithms can traverse it without
+     * hashing vertices or walking hash sets. Later modifications of this graph
+     * are not reflected in the snapshot.
+     *
+     * @return a compressed snapshot of this graph
+     */
+    public CompressedDirectedGraph<V, E> toCompressedSnapshot() {
+        return new CompressedDirectedGraph<>(this);
+    }
+
     @Override
     public String toString() {
         return "Graph:" + edges;
@@ -34,6 +34,22 @@ public abstract class AbstractWeightedDirectedGraph<V, E extends WeightedEdge<V,
         super(edgeFactory, withLoops);
     }
 
+    /**
+     * This constructor allows a creation of an instances of a directed weighted
+     * graph with edge factory and with space preallocated for the expected
+     * number of vertices and edges.
+     *
+     * @param edgeFactory      the edge factory to create edge by given source and
+     *                         target vertices
+     * @param withLoops        specifies whether the graph can contain loops or not
+     * @param expectedVertices expected number of vertices
+     * @param expectedEdges    expected number of edges
+     */
+    public AbstractWeightedDirectedGraph(BiFunction<V, V, E> edgeFactory, boolean withLoops, int expectedVertices,
+            int expectedEdges) {
+        super(edgeFactory, withLoops, expectedVertices, expectedEdges);
+    }
+
     @Override
     public boolean addEdge(E e, W w) {
         e.setWeight(w);
@@ -46,4 +62,24 @@ public abstract class AbstractWeightedDirectedGraph<V, E extends WeightedEdge<V,
         return addEdge(e, w);
     }
 
+    /**
+     * Assigns a new weight to an edge of this graph and notifies the
+     * {@link GraphListener listeners} of this graph. Weights assigned directly
+     * through the edge are not reported. If the given edge is only equal to
+     * the stored one, the weight is assigned to the stored edge.
+     *
+     * @param e edge of this graph
+     * @param w new weight of the edge
+     * @return <tt>true</tt> if the edge is contained in this graph
+     */
+    public boolean setWeight(E e, W w) {
+        final E stored = e == null ? null : getStoredEdge(e);
+        if (stored == null) {
+            return false;
+        }
+        stored.setWeight(w);
+        fireWeightChanged(stored);
+        return true;
+    }
+
 }
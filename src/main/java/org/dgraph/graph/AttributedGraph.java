@@ -0,0 +1,68 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.Edge;
+
+import java.util.BitSet;
+import java.util.function.Predicate;
+
+/**
+ * Interface for graphs, which give their edges dense ids and keep attributes
+ * of the edges in primitive columns.
+ *
+ * <p>
+ * Edge ids go from <tt>0</tt> to {@code sizeOfEdges() - 1}. Algorithms can be
+ * given columns of such a graph to read weights, capacities or flows from
+ * instead of the fields of the edges.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @param <E> type for edges. Should implement
+ *            {@link org.dgraph.graph.edge.Edge Edge&lt;V&gt;} interface
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public interface AttributedGraph<V, E extends Edge<V>> extends Graph<V, E> {
+
+    /**
+     * Returns the id of the given edge.
+     *
+     * @param e edge of this graph
+     * @return the id, or -1 if the edge does not belong to this graph
+     */
+    int getEdgeId(E e);
+
+    /**
+     * Returns the store of attribute columns of the edges.
+     *
+     * @return the attributes
+     */
+    EdgeAttributes getEdgeAttributes();
+
+    /**
+     * Returns a read-only view of this graph, which contains the vertices with
+     * the indices set in the vertex mask and the edges between them with the
+     * ids set in the edge mask. Ids of the edges change, when edges are removed,
+     * so the edge mask is valid only while no edges are removed.
+     *
+     * @param vertexMask indices of the vertices in the view, <tt>null</tt> for
+     *                   all vertices
+     * @param edgeMask   ids of the edges in the view
+     * @return the subgraph view
+     * @see Graph#subgraph(BitSet)
+     */
+    default Graph<V, E> subgraph(BitSet vertexMask, BitSet edgeMask) {
+        final Predicate<E> edgeFilter = e -> {
+            final int id = getEdgeId(e);
+            return id >= 0 && edgeMask.get(id);
+        };
+        if (vertexMask == null) {
+            return subgraph(null, edgeFilter);
+        }
+        final VertexIndex<V> index = getVertexIndex();
+        return subgraph(v -> {
+            final int i = index.indexOf(v);
+            return i >= 0 && vertexMask.get(i);
+        }, edgeFilter);
+    }
+
+}
@@ -0,0 +1,301 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.SimpleEdge;
+import org.dgraph.graph.edge.WeightedEdge;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Implementation of a weighted directed graph, which keeps the weights of its
+ * edges in a primitive <tt>double</tt> column owned by the graph.
+ *
+ * <p>
+ * Every edge of the graph gets an id from <tt>0</tt> to
+ * {@code sizeOfEdges() - 1}, which is the position of its weight in the
+ * column. When an edge is removed, the last edge takes its id, so the column
+ * stays dense. Ids are stable only while no edges are removed.
+ * </p>
+ *
+ * <p>
+ * Edges can be created only by this graph, using one of the
+ * {@link #addEdge(Object, Object, Double) addEdge} methods. Reading a weight
+ * of an edge does not unbox it, and all weights can be replaced at once with
+ * {@link #setWeights(double[])}.
+ * </p>
+ *
+ * <p>
+ * Other attributes of the edges, like costs, capacities or flows, are kept in
+ * named columns of {@link #getEdgeAttributes()}, which follow the ids of the
+ * edges as well.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class ColumnWeightedDirectedGraph<V>
+        extends AbstractWeightedDirectedGraph<V, ColumnWeightedDirectedGraph<V>.ColumnEdge, Double>
+        implements AttributedGraph<V, ColumnWeightedDirectedGraph<V>.ColumnEdge> {
+
+    /**
+     * Weighted simple edge, which keeps its weight in the column of the graph
+     * it belongs to. While the edge is not in the graph, its weight is kept in
+     * the edge itself.
+     */
+    public final class ColumnEdge extends SimpleEdge<V> implements WeightedEdge<V, Double> {
+
+        private static final String TO_STRING_FORMAT = "(%s) -{%.2f}-> (%s)";
+
+        private int id = -1;
+
+        private double weight;
+
+        private ColumnEdge(V source, V target, double weight) {
+            super(source, target);
+            this.weight = weight;
+        }
+
+        /**
+         * Returns the id of this edge, which is the position of its weight in the
+         * column of the graph.
+         *
+         * @return the id of this edge, or -1 if the edge is not in the graph
+         */
+        public int getId() {
+            return id;
+        }
+
+        private ColumnWeightedDirectedGraph<V> graph() {
+            return ColumnWeightedDirectedGraph.this;
+        }
+
+        @Override
+        public double getWeight() {
+            return id < 0 ? weight : weights.get(id);
+        }
+
+        @Override
+        public void setWeight(Double weight) {
+            setWeight(weight.doubleValue());
+        }
+
+        /**
+         * Assigns the weight to this edge.
+         *
+         * @param weight new weight for this edge
+         */
+        public void setWeight(double weight) {
+            if (id < 0) {
+                this.weight = weight;
+            } else {
+                weights.set(id, weight);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format(TO_STRING_FORMAT, source, getWeight(), target);
+        }
+
+    }
+
+    private static final long serialVersionUID = 8473621069355093102L;
+
+    private static final String FOREIGN_EDGE = "Edge was created by another graph.";
+
+    /** Default weight of the edges added without weight. */
+    public static final double DEFAULT_WEIGHT = 0d;
+
+    /** Name of the weight column. */
+    public static final String WEIGHT = "weight";
+
+    private final DoubleEdgeColumn weights = new DoubleEdgeColumn(WEIGHT, 0, DEFAULT_WEIGHT);
+
+    private final EdgeAttributes attributes = new EdgeAttributes();
+
+    private Object[] edgesById = new Object[16];
+
+    private int edgeCount;
+
+    /**
+     * Creates an instance of a new column weighted directed graph, which can contain loops.
+     */
+    public ColumnWeightedDirectedGraph() {
+        super(null, true);
+    }
+
+    /**
+     * Creates an instance of a new column weighted directed graph.
+     *
+     * @param withLoops specifies whether the graph can contain loops or not
+     */
+    public ColumnWeightedDirectedGraph(boolean withLoops) {
+        super(null, withLoops);
+    }
+
+    @Override
+    void edgeAdded(ColumnEdge e) {
+        if (e.graph() != this) {
+            throw new IllegalArgumentException(FOREIGN_EDGE);
+        }
+        final int id = edgeCount++;
+        if (id == edgesById.length) {
+            edgesById = Arrays.copyOf(edgesById, id << 1);
+        }
+        weights.append();
+        weights.set(id, e.weight);
+        attributes.edgeAdded();
+        edgesById[id] = e;
+        e.id = id;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    void edgeRemoved(ColumnEdge e) {
+        ColumnEdge removed = e;
+        if (e.id < 0 || edgesById[e.id] != e) {
+            /* An equal edge has been removed, so look up the stored one. */
+            removed = null;
+            for (int i = 0; i < edgeCount; i++) {
+                if (e.equals(edgesById[i])) {
+                    removed = (ColumnEdge) edgesById[i];
+                    break;
+                }
+            }
+        }
+        final int id = removed.id;
+        final int last = --edgeCount;
+        removed.weight = weights.get(id);
+        removed.id = -1;
+        weights.removeAt(id);
+        attributes.edgeRemoved(id);
+        if (id != last) {
+            final ColumnEdge moved = (ColumnEdge) edgesById[last];
+            edgesById[id] = moved;
+            moved.id = id;
+        }
+        edgesById[last] = null;
+    }
+
+    @Override
+    public boolean addEdge(ColumnEdge e) {
+        if (e.graph() != this) {
+            throw new IllegalArgumentException(FOREIGN_EDGE);
+        }
+        return super.addEdge(e);
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2) {
+        return super.addEdge(new ColumnEdge(v1, v2, DEFAULT_WEIGHT));
+    }
+
+    /**
+     * Adds a new weighted edge to the graph, writing its weight directly to the
+     * column.
+     *
+     * <p>
+     * If current graph doesn't contain any of the vertices from the edge, they
+     * will be added to the graph automatically.
+     * </p>
+     *
+     * @param v1 source vertex of the edge
+     * @param v2 target vertex of the edge
+     * @param w  weight of the edge
+     * @return <tt>true</tt> if this graph did not already contain an edge
+     * between the given vertices
+     * @throws NullPointerException if any of the vertices or the weight is
+     *                              <tt>null</tt>
+     */
+    @Override
+    public boolean addEdge(V v1, V v2, Double w) {
+        return super.addEdge(new ColumnEdge(v1, v2, w.doubleValue()));
+    }
+
+    /**
+     * Returns the edge with the specified id.
+     *
+     * @param id id of the edge, from 0 to the number of edges exclusive
+     * @return the edge
+     * @throws IndexOutOfBoundsException if there is no edge with the given id
+     */
+    @SuppressWarnings("unchecked")
+    public ColumnEdge getEdge(int id) {
+        Objects.checkIndex(id, edgeCount);
+        return (ColumnEdge) edgesById[id];
+    }
+
+    /**
+     * Returns the weight of the edge with the specified id.
+     *
+     * @param id id of the edge, from 0 to the number of edges exclusive
+     * @return weight of the edge
+     * @throws IndexOutOfBoundsException if there is no edge with the given id
+     */
+    public double getWeight(int id) {
+        return weights.get(id);
+    }
+
+    /**
+     * Assigns a new weight to the edge with the specified id.
+     *
+     * @param id id of the edge, from 0 to the number of edges exclusive
+     * @param w  new weight of the edge
+     * @throws IndexOutOfBoundsException if there is no edge with the given id
+     */
+    public void setWeight(int id, double w) {
+        weights.set(id, w);
+        if (hasListeners()) {
+            fireWeightChanged(getEdge(id));
+        }
+    }
+
+    /**
+     * Returns a copy of the weight column. The weight of the edge with id
+     * <tt>i</tt> is at position <tt>i</tt>.
+     *
+     * @return weights of all edges ordered by their ids
+     */
+    public double[] getWeights() {
+        return weights.toArray();
+    }
+
+    /**
+     * Replaces the weights of all edges with a single array copy. The weight of
+     * the edge with id <tt>i</tt> is taken from position <tt>i</tt>.
+     *
+     * @param weights new weights of all edges ordered by their ids
+     * @throws IllegalArgumentException if the length of the array differs from
+     *                                  the number of edges
+     */
+    public void setWeights(double[] weights) {
+        this.weights.setAll(weights);
+        if (hasListeners()) {
+            for (int id = 0; id < edgeCount; id++) {
+                fireWeightChanged(getEdge(id));
+            }
+        }
+    }
+
+    /**
+     * Returns the weight column. Values written to the column directly are not
+     * reported to the listeners of this graph.
+     *
+     * @return weights of all edges keyed by their ids
+     */
+    public DoubleEdgeColumn getWeightColumn() {
+        return weights;
+    }
+
+    @Override
+    public int getEdgeId(ColumnEdge e) {
+        return e.graph() == this ? e.id : -1;
+    }
+
+    @Override
+    public EdgeAttributes getEdgeAttributes() {
+        return attributes;
+    }
+
+}
@@ -0,0 +1,474 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.Edge;
+import org.dgraph.graph.edge.WeightedEdge;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Immutable directed graph, which keeps its adjacency in compressed sparse row
+ * (CSR) form.
+ *
+ * <p>
+ * Vertices are given dense indices and both outgoing and incoming edges are
+ * stored in flat arrays ordered by these indices. Outgoing edges of each
+ * vertex are sorted by the index of their target, incoming edges are sorted
+ * by the index of their source. Weights of weighted edges are copied at the
+ * moment the snapshot is taken.
+ * </p>
+ *
+ * <p>
+ * The adjacency is taken from {@link Graph#forEachOutEdge}, with the other end
+ * of each edge given by {@link Graph#getOpposite}. An edge of an undirected
+ * graph is therefore stored at both of its ends, as outgoing from either of
+ * them, but it is counted once by {@link #sizeOfEdges()} and
+ * {@link #getAllEdges()}.
+ * </p>
+ *
+ * <p>
+ * All views returned by this graph are read-only. Every method, which
+ * modifies the graph, throws {@link UnsupportedOperationException}.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @param <E> type for edges. Should implement
+ *            {@link org.dgraph.graph.edge.Edge Edge&lt;V&gt;} interface
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class CompressedDirectedGraph<V, E extends Edge<V>> implements IndexedGraph<V, E> {
+
+    final class EdgeRange extends AbstractSet<E> {
+
+        private final Object[] array;
+
+        private final int from, to;
+
+        EdgeRange(Object[] array, int from, int to) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            for (int i = from; i < to; i++) {
+                if (array[i].equals(o)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+
+                private int position = from;
+
+                @Override
+                public boolean hasNext() {
+                    return position < to;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public E next() {
+                    if (position >= to) {
+                        throw new NoSuchElementException();
+                    }
+                    return (E) array[position++];
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+    }
+
+    final class VertexSet extends AbstractSet<V> {
+
+        @Override
+        public boolean contains(Object o) {
+            return index.indexOf(o) >= 0;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new Iterator<V>() {
+
+                private int i = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return i < index.bound();
+                }
+
+                @Override
+                public V next() {
+                    if (i >= index.bound()) {
+                        throw new NoSuchElementException();
+                    }
+                    return index.vertexAt(i++);
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+
+    }
+
+    private static final String READ_ONLY = "Compressed graph is read-only.";
+
+    private final VertexIndex<V> index;
+
+    private final int[] outOffsets, outTargets, inOffsets, inSources;
+
+    private final Object[] outEdges, inEdges, allEdges;
+
+    private final double[] outWeights;
+
+    /**
+     * Creates a compressed snapshot of the given graph.
+     *
+     * @param graph graph to be compressed
+     */
+    public CompressedDirectedGraph(Graph<V, E> graph) {
+        this(graph, VertexOrdering.NATURAL);
+    }
+
+    /**
+     * Creates a compressed snapshot of the given graph, which indexes its
+     * vertices in the given order.
+     *
+     * @param graph    graph to be compressed
+     * @param ordering order of the vertex indices
+     */
+    public CompressedDirectedGraph(Graph<V, E> graph, VertexOrdering ordering) {
+        final int n = graph.sizeOfVertices();
+        final int m = graph.sizeOfEdges();
+        index = new VertexIndex<>(n);
+        for (V v : ordering.order(graph)) {
+            index.add(v);
+        }
+
+        /*
+         * Collect edges ordered by the index of their source. Graphs like undirected
+         * ones report an edge from both of its ends, so there may be more of them
+         * than the graph contains.
+         */
+        final class Collector implements Consumer<E> {
+
+            int[] sources = new int[m], targets = new int[m];
+
+            Object[] edges = new Object[m];
+
+            int u, k;
+
+            V from;
+
+            @Override
+            public void accept(E e) {
+                if (k == edges.length) {
+                    final int length = Math.max(16, k << 1);
+                    sources = Arrays.copyOf(sources, length);
+                    targets = Arrays.copyOf(targets, length);
+                    edges = Arrays.copyOf(edges, length);
+                }
+                sources[k] = u;
+                targets[k] = index.indexOf(graph.getOpposite(e, from));
+                edges[k++] = e;
+            }
+
+        }
+        final Collector collector = new Collector();
+        for (int u = 0; u < n; u++) {
+            collector.u = u;
+            collector.from = index.vertexAt(u);
+            graph.forEachOutEdge(collector.from, collector);
+        }
+        final int[] sources = collector.sources;
+        final int[] targets = collector.targets;
+        final Object[] edges = collector.edges;
+        final int arcs = collector.k;
+
+        /* Counting sort by target keeps incoming edges sorted by source. */
+        inOffsets = new int[n + 1];
+        inSources = new int[arcs];
+        inEdges = new Object[arcs];
+        for (int i = 0; i < arcs; i++) {
+            inOffsets[targets[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        final int[] next = new int[n];
+        System.arraycopy(inOffsets, 0, next, 0, n);
+        for (int i = 0; i < arcs; i++) {
+            final int position = next[targets[i]]++;
+            inSources[position] = sources[i];
+            inEdges[position] = edges[i];
+        }
+
+        /* Counting sort of incoming edges by source sorts outgoing edges by target. */
+        outOffsets = new int[n + 1];
+        outTargets = new int[arcs];
+        outEdges = new Object[arcs];
+        outWeights = new double[arcs];
+        for (int i = 0; i < arcs; i++) {
+            outOffsets[sources[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            outOffsets[v + 1] += outOffsets[v];
+        }
+        System.arraycopy(outOffsets, 0, next, 0, n);
+        for (int v = 0; v < n; v++) {
+            for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++) {
+                final int position = next[inSources[i]]++;
+                final Object e = inEdges[i];
+                outTargets[position] = v;
+                outEdges[position] = e;
+                outWeights[position] = e instanceof WeightedEdge ? ((WeightedEdge<?, ?>) e).getWeight() : 1d;
+            }
+        }
+
+        /* An edge reported from both ends is listed once, at its source. */
+        if (arcs == m) {
+            allEdges = outEdges;
+        } else {
+            final boolean[] atSource = new boolean[arcs];
+            int count = 0;
+            for (int v = 0; v < n; v++) {
+                for (int i = outOffsets[v]; i < outOffsets[v + 1]; i++) {
+                    if (index.indexOf(((Edge<?>) outEdges[i]).getSource()) == v) {
+                        atSource[i] = true;
+                        count++;
+                    }
+                }
+            }
+            allEdges = new Object[count];
+            for (int i = 0, k = 0; i < arcs; i++) {
+                if (atSource[i]) {
+                    allEdges[k++] = outEdges[i];
+                }
+            }
+        }
+    }
+
+    private int lowerBound(int from, int to, int target) {
+        while (from < to) {
+            final int mid = (from + to) >>> 1;
+            if (outTargets[mid] < target) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    @Override
+    public VertexIndex<V> getVertexIndex() {
+        return index;
+    }
+
+    @Override
+    public int getOutOffset(int v) {
+        return outOffsets[v];
+    }
+
+    @Override
+    public int getOutTarget(int position) {
+        return outTargets[position];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E getOutEdge(int position) {
+        return (E) outEdges[position];
+    }
+
+    @Override
+    public double getOutWeight(int position) {
+        return outWeights[position];
+    }
+
+    @Override
+    public int getInOffset(int v) {
+        return inOffsets[v];
+    }
+
+    @Override
+    public int getInSource(int position) {
+        return inSources[position];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E getInEdge(int position) {
+        return (E) inEdges[position];
+    }
+
+    @Override
+    public boolean addEdge(E e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean addVertex(V v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        if (e == null) {
+            return false;
+        }
+        /* Edges of reversed views are stored at their targets. */
+        return containsEdge(index.indexOf(e.getSource()), e) || containsEdge(index.indexOf(e.getTarget()), e);
+    }
+
+    private boolean containsEdge(int u, E e) {
+        return u >= 0 && new EdgeRange(outEdges, outOffsets[u], outOffsets[u + 1]).contains(e);
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) {
+        final int u = index.indexOf(v1);
+        final int v = index.indexOf(v2);
+        if (u < 0 || v < 0) {
+            return false;
+        }
+        final int position = lowerBound(outOffsets[u], outOffsets[u + 1], v);
+        return position < outOffsets[u + 1] && outTargets[position] == v;
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return index.indexOf(v) >= 0;
+    }
+
+    @Override
+    public Set<E> getAllEdges() {
+        return new EdgeRange(allEdges, 0, allEdges.length);
+    }
+
+    @Override
+    public Set<V> getAllVertices() {
+        return new VertexSet();
+    }
+
+    @Override
+    public Set<E> getEdges(V v1, V v2) {
+        final int u = index.indexOf(v1);
+        if (u < 0) {
+            return null;
+        }
+        final int v = index.indexOf(v2);
+        final int from = lowerBound(outOffsets[u], outOffsets[u + 1], v);
+        int to = from;
+        while (v >= 0 && to < outOffsets[u + 1] && outTargets[to] == v) {
+            to++;
+        }
+        return from == to ? null : new EdgeRange(outEdges, from, to);
+    }
+
+    @Override
+    public Set<E> getEdgesFromSource(V v) {
+        final int u = index.indexOf(v);
+        return u < 0 ? null : new EdgeRange(outEdges, outOffsets[u], outOffsets[u + 1]);
+    }
+
+    @Override
+    public Set<E> getEdgesToTarget(V v) {
+        final int u = index.indexOf(v);
+        return u < 0 ? null : new EdgeRange(inEdges, inOffsets[u], inOffsets[u + 1]);
+    }
+
+    @Override
+    public int getInDegree(V v) {
+        final int u = index.indexOf(v);
+        return u < 0 ? -1 : inOffsets[u + 1] - inOffsets[u];
+    }
+
+    @Override
+    public int getOutDegree(V v) {
+        final int u = index.indexOf(v);
+        return u < 0 ? -1 : outOffsets[u + 1] - outOffsets[u];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Edges taken from reversed views or undirected graphs may be stored
+     * against their own direction, so the end of the edge other than
+     * <tt>v</tt> is returned.
+     * </p>
+     */
+    @Override
+    public V getOpposite(E e, V v) {
+        final V target = e.getTarget();
+        return target.equals(v) ? e.getSource() : target;
+    }
+
+    @Override
+    public boolean removeAllEdges(Collection<E> e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeAllVertices(Collection<V> v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeEdge(E e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public int sizeOfEdges() {
+        return allEdges.length;
+    }
+
+    @Override
+    public int sizeOfVertices() {
+        return index.bound();
+    }
+
+    @Override
+    public String toString() {
+        return "Graph:" + getAllEdges();
+    }
+
+}
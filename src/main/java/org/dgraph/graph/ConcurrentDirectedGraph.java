@@ -0,0 +1,367 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.Edge;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * Thread-safe implementation of a directed graph.
+ *
+ * <p>
+ * Vertices, edges and the outgoing and incoming edges of every vertex are kept
+ * in concurrent hash sets, so reading methods never block and can run while
+ * the graph is modified. Modifications lock the stripes of the vertices they
+ * touch, so writers of edges between different vertices proceed in parallel.
+ * A vertex is removed together with its edges atomically.
+ * </p>
+ *
+ * <p>
+ * Returned sets are unmodifiable live views, except for
+ * {@link #getEdges(Object, Object)}, which returns a snapshot. Their iterators
+ * are weakly consistent: they never throw
+ * {@link java.util.ConcurrentModificationException}, but may or may not
+ * reflect modifications made after they were created. Searches can run on
+ * the graph directly, while it is being modified: they index the vertices,
+ * which are present when they start, and do not reach vertices added later.
+ * Algorithms, which need a consistent state of the graph, should be run on a
+ * {@link #snapshot() snapshot}.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @param <E> type for edges. Should implement
+ *            {@link org.dgraph.graph.edge.Edge Edge&lt;V&gt;} interface
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class ConcurrentDirectedGraph<V, E extends Edge<V>> implements Graph<V, E> {
+
+    static final class Adjacency<E> {
+
+        final Set<E> outgoing = ConcurrentHashMap.newKeySet();
+
+        final Set<E> incoming = ConcurrentHashMap.newKeySet();
+
+    }
+
+    private static final int STRIPES = 256;
+
+    private static final int[] ALL_STRIPES = new int[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            ALL_STRIPES[i] = i;
+        }
+    }
+
+    private final ConcurrentHashMap<V, Adjacency<E>> vertices = new ConcurrentHashMap<>();
+
+    private final Set<E> edges = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    private final boolean withLoops;
+
+    private final BiFunction<V, V, E> edgeFactory;
+
+    /** Creates an instance of a new concurrent directed graph without loops. */
+    public ConcurrentDirectedGraph() {
+        this(null, false);
+    }
+
+    /**
+     * Creates an instance of a new concurrent directed graph with edge factory.
+     * The edge factory will be used in the {@link #addEdge(Object, Object)
+     * addEdge(V v1, V v2)} method. Otherwise, if no edge factory is given, this
+     * method will throw {@link UnsupportedOperationException}.
+     *
+     * @param edgeFactory the edge factory to create edge by given source and
+     *                    target vertices
+     * @param withLoops   specifies whether the graph can contain loops or not
+     */
+    public ConcurrentDirectedGraph(BiFunction<V, V, E> edgeFactory, boolean withLoops) {
+        this.edgeFactory = edgeFactory;
+        this.withLoops = withLoops;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    private static int stripe(Object v) {
+        final int h = v.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    private Adjacency<E> adjacency(V v) {
+        return vertices.computeIfAbsent(v, k -> new Adjacency<>());
+    }
+
+    private void lock(int[] stripes) {
+        for (int s : stripes) {
+            locks[s].lock();
+        }
+    }
+
+    private void unlock(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    /**
+     * Returns the sorted stripes of the given vertex and all its neighbours.
+     */
+    private int[] stripesOf(V v, Adjacency<E> adjacency) {
+        final BitSet stripes = new BitSet(STRIPES);
+        stripes.set(stripe(v));
+        for (E e : adjacency.outgoing) {
+            stripes.set(stripe(e.getTarget()));
+        }
+        for (E e : adjacency.incoming) {
+            stripes.set(stripe(e.getSource()));
+        }
+        return stripes.stream().toArray();
+    }
+
+    private int[] stripesOf(V v1, V v2) {
+        final int s1 = stripe(v1);
+        final int s2 = stripe(v2);
+        return s1 == s2 ? new int[]{s1} : s1 < s2 ? new int[]{s1, s2} : new int[]{s2, s1};
+    }
+
+    @Override
+    public boolean addEdge(E e) {
+        final V source = Objects.requireNonNull(e.getSource());
+        final V target = Objects.requireNonNull(e.getTarget());
+        if (!withLoops && source.equals(target)) {
+            return false;
+        }
+        final int[] stripes = stripesOf(source, target);
+        lock(stripes);
+        try {
+            final Adjacency<E> from = adjacency(source);
+            final Adjacency<E> to = adjacency(target);
+            if (!edges.add(e)) {
+                return false;
+            }
+            from.outgoing.add(e);
+            to.incoming.add(e);
+            return true;
+        } finally {
+            unlock(stripes);
+        }
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2) {
+        if (edgeFactory == null) {
+            throw new UnsupportedOperationException("Edge factory is not specified.");
+        }
+        return addEdge(edgeFactory.apply(v1, v2));
+    }
+
+    @Override
+    public boolean addVertex(V v) {
+        Objects.requireNonNull(v);
+        if (vertices.containsKey(v)) {
+            return false;
+        }
+        final ReentrantLock lock = locks[stripe(v)];
+        lock.lock();
+        try {
+            return vertices.putIfAbsent(v, new Adjacency<>()) == null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (V v : vertices.keySet()) {
+            removeVertex(v);
+        }
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        return e != null && edges.contains(e);
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) {
+        final Adjacency<E> adjacency = vertices.get(v1);
+        if (adjacency == null) {
+            return false;
+        }
+        for (E e : adjacency.outgoing) {
+            if (e.getTarget().equals(v2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return vertices.containsKey(v);
+    }
+
+    @Override
+    public Set<E> getAllEdges() {
+        return Collections.unmodifiableSet(edges);
+    }
+
+    @Override
+    public Set<V> getAllVertices() {
+        return Collections.unmodifiableSet(vertices.keySet());
+    }
+
+    @Override
+    public Set<E> getEdges(V v1, V v2) {
+        final Adjacency<E> adjacency = vertices.get(v1);
+        if (adjacency == null) {
+            return null;
+        }
+        final Set<E> result = new HashSet<>();
+        for (E e : adjacency.outgoing) {
+            if (e.getTarget().equals(v2)) {
+                result.add(e);
+            }
+        }
+        return result.isEmpty() ? null : Collections.unmodifiableSet(result);
+    }
+
+    @Override
+    public Set<E> getEdgesFromSource(V v) {
+        final Adjacency<E> adjacency = vertices.get(v);
+        return adjacency == null ? null : Collections.unmodifiableSet(adjacency.outgoing);
+    }
+
+    @Override
+    public Set<E> getEdgesToTarget(V v) {
+        final Adjacency<E> adjacency = vertices.get(v);
+        return adjacency == null ? null : Collections.unmodifiableSet(adjacency.incoming);
+    }
+
+    @Override
+    public int getInDegree(V v) {
+        final Adjacency<E> adjacency = vertices.get(v);
+        return adjacency == null ? -1 : adjacency.incoming.size();
+    }
+
+    @Override
+    public int getOutDegree(V v) {
+        final Adjacency<E> adjacency = vertices.get(v);
+        return adjacency == null ? -1 : adjacency.outgoing.size();
+    }
+
+    @Override
+    public boolean removeAllEdges(Collection<E> e) {
+        Objects.requireNonNull(e);
+        boolean modified = false;
+        for (final Iterator<E> i = e.iterator(); i.hasNext(); ) {
+            modified |= removeEdge(i.next());
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeAllVertices(Collection<V> v) {
+        Objects.requireNonNull(v);
+        boolean modified = false;
+        for (final Iterator<V> i = v.iterator(); i.hasNext(); ) {
+            modified |= removeVertex(i.next());
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeEdge(E e) {
+        if (e == null || !edges.contains(e)) {
+            return false;
+        }
+        final int[] stripes = stripesOf(e.getSource(), e.getTarget());
+        lock(stripes);
+        try {
+            if (!edges.remove(e)) {
+                return false;
+            }
+            vertices.get(e.getSource()).outgoing.remove(e);
+            vertices.get(e.getTarget()).incoming.remove(e);
+            return true;
+        } finally {
+            unlock(stripes);
+        }
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+        while (true) {
+            final Adjacency<E> adjacency = vertices.get(v);
+            if (adjacency == null) {
+                return false;
+            }
+            final int[] stripes = stripesOf(v, adjacency);
+            lock(stripes);
+            try {
+                /* Edges of the vertex can change only under its lock, so check the neighbours once more. */
+                if (vertices.get(v) != adjacency || !Arrays.equals(stripes, stripesOf(v, adjacency))) {
+                    continue;
+                }
+                for (E e : adjacency.outgoing) {
+                    edges.remove(e);
+                    vertices.get(e.getTarget()).incoming.remove(e);
+                }
+                for (E e : adjacency.incoming) {
+                    edges.remove(e);
+                    vertices.get(e.getSource()).outgoing.remove(e);
+                }
+                vertices.remove(v);
+                return true;
+            } finally {
+                unlock(stripes);
+            }
+        }
+    }
+
+    @Override
+    public int sizeOfEdges() {
+        return edges.size();
+    }
+
+    @Override
+    public int sizeOfVertices() {
+        return vertices.size();
+    }
+
+    /**
+     * Returns a consistent compressed snapshot of this graph. Modifications are
+     * blocked while the snapshot is taken, reading is not. Algorithms should run
+     * on a snapshot, if the graph can be modified concurrently.
+     *
+     * @return the snapshot of this graph
+     */
+    public CompressedDirectedGraph<V, E> snapshot() {
+        lock(ALL_STRIPES);
+        try {
+            return new CompressedDirectedGraph<>(this);
+        } finally {
+            unlock(ALL_STRIPES);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Graph:" + edges;
+    }
+
+}
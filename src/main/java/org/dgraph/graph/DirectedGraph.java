@@ -18,9 +18,9 @@ public class DirectedGraph<V, E extends Edge<V>> extends AbstractDirectedGraph<V
 
     private static final long serialVersionUID = 396772382551003763L;
 
-    /** Creates an instance of a new directed graph without loops. */
+    /** Creates an instance of a new directed graph, which can contain loops. */
     public DirectedGraph() {
-        super(null, false);
+        super(null, true);
     }
 
     /**
@@ -33,8 +33,8 @@ public class DirectedGraph<V, E extends Edge<V>> extends AbstractDirectedGraph<V
     }
 
     /**
-     * Creates an instance of a new directed graph without loops and with edge
-     * factory. The edge factory will be used in the
+     * Creates an instance of a new directed graph, which can contain loops, with
+     * edge factory. The edge factory will be used in the
      * {@link #addEdge(Object, Object) addEdge(V v1, V v2)} method. Otherwise, if
      * no edge factory is given, this method will throw
      * {@link UnsupportedOperationException}.
@@ -43,7 +43,7 @@ public class DirectedGraph<V, E extends Edge<V>> extends AbstractDirectedGraph<V
      *                    target vertices
      */
     public DirectedGraph(BiFunction<V, V, E> edgeFactory) {
-        super(edgeFactory, false);
+        super(edgeFactory, true);
     }
 
     /**
@@ -60,4 +60,20 @@ public class DirectedGraph<V, E extends Edge<V>> extends AbstractDirectedGraph<V
         super(edgeFactory, withLoops);
     }
 
+    /**
+     * Creates an instance of a new directed graph with edge factory and with
+     * space preallocated for the expected number of vertices and edges. Use it
+     * together with {@link #addEdges(java.util.Collection) addEdges} to load
+     * large graphs.
+     *
+     * @param edgeFactory      the edge factory to create edge by given source and
+     *                         target vertices, or <tt>null</tt>
+     * @param withLoops        specifies whether the graph can contain loops or not
+     * @param expectedVertices expected number of vertices
+     * @param expectedEdges    expected number of edges
+     */
+    public DirectedGraph(BiFunction<V, V, E> edgeFactory, boolean withLoops, int expectedVertices, int expectedEdges) {
+        super(edgeFactory, withLoops, expectedVertices, expectedEdges);
+    }
+
 }
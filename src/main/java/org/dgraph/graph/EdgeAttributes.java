@@ -0,0 +1,168 @@
+package org.dgraph.graph;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Store of named attribute columns for the edges of a graph, which owns it.
+ *
+ * <p>
+ * Every column keeps one value for every edge of the graph at the position of
+ * the edge id. The graph grows all its columns, when an edge is added, and
+ * moves the values of the last edge, when another edge takes its id after a
+ * removal. Several metrics can thus be kept and switched over the same
+ * topology without creating new edges.
+ * </p>
+ *
+ * <p>
+ * The store is not synchronized. Columns can be read and written concurrently
+ * only while no edges and columns are added or removed.
+ * </p>
+ *
+ * @author Andrii Dzhyrma
+ * @see AttributedGraph
+ * @since 1.0
+ */
+public final class EdgeAttributes implements Serializable {
+
+    private static final long serialVersionUID = -5037468251095226317L;
+
+    private final Map<String, EdgeColumn> columns = new LinkedHashMap<>();
+
+    private int edgeCount;
+
+    EdgeAttributes() {
+    }
+
+    /**
+     * Adds a new column of <tt>double</tt> values.
+     *
+     * @param name         name of the column
+     * @param defaultValue value of all current and new edges
+     * @return the column
+     * @throws IllegalArgumentException if there is a column with the same name
+     */
+    public DoubleEdgeColumn addDoubleColumn(String name, double defaultValue) {
+        return add(new DoubleEdgeColumn(name, edgeCount, defaultValue));
+    }
+
+    /**
+     * Adds a new column of <tt>int</tt> values.
+     *
+     * @param name         name of the column
+     * @param defaultValue value of all current and new edges
+     * @return the column
+     * @throws IllegalArgumentException if there is a column with the same name
+     */
+    public IntEdgeColumn addIntColumn(String name, int defaultValue) {
+        return add(new IntEdgeColumn(name, edgeCount, defaultValue));
+    }
+
+    /**
+     * Adds a new column of <tt>long</tt> values.
+     *
+     * @param name         name of the column
+     * @param defaultValue value of all current and new edges
+     * @return the column
+     * @throws IllegalArgumentException if there is a column with the same name
+     */
+    public LongEdgeColumn addLongColumn(String name, long defaultValue) {
+        return add(new LongEdgeColumn(name, edgeCount, defaultValue));
+    }
+
+    private <C extends EdgeColumn> C add(C column) {
+        if (columns.putIfAbsent(column.getName(), column) != null) {
+            throw new IllegalArgumentException("Column " + column.getName() + " already exists.");
+        }
+        return column;
+    }
+
+    /**
+     * Returns the column of <tt>double</tt> values with the given name.
+     *
+     * @param name name of the column
+     * @return the column, or <tt>null</tt> if there is no column with this name
+     * @throws IllegalArgumentException if the column has another type
+     */
+    public DoubleEdgeColumn getDoubleColumn(String name) {
+        return get(name, DoubleEdgeColumn.class);
+    }
+
+    /**
+     * Returns the column of <tt>int</tt> values with the given name.
+     *
+     * @param name name of the column
+     * @return the column, or <tt>null</tt> if there is no column with this name
+     * @throws IllegalArgumentException if the column has another type
+     */
+    public IntEdgeColumn getIntColumn(String name) {
+        return get(name, IntEdgeColumn.class);
+    }
+
+    /**
+     * Returns the column of <tt>long</tt> values with the given name.
+     *
+     * @param name name of the column
+     * @return the column, or <tt>null</tt> if there is no column with this name
+     * @throws IllegalArgumentException if the column has another type
+     */
+    public LongEdgeColumn getLongColumn(String name) {
+        return get(name, LongEdgeColumn.class);
+    }
+
+    private <C extends EdgeColumn> C get(String name, Class<C> type) {
+        final EdgeColumn column = columns.get(name);
+        if (column != null && !type.isInstance(column)) {
+            throw new IllegalArgumentException("Column " + name + " is a " + column.getClass().getSimpleName() + ".");
+        }
+        return type.cast(column);
+    }
+
+    /**
+     * Removes the column with the given name. The removed column keeps its
+     * values, but does not follow later changes of the graph.
+     *
+     * @param name name of the column
+     * @return <tt>true</tt> if the column has been removed
+     */
+    public boolean removeColumn(String name) {
+        return columns.remove(name) != null;
+    }
+
+    /**
+     * Returns a read-only view of the names of all columns in the order they
+     * were added.
+     *
+     * @return names of the columns
+     */
+    public Set<String> getColumnNames() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    /**
+     * Returns the number of edges, which is the size of every column.
+     *
+     * @return the number of edges
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    void edgeAdded() {
+        edgeCount++;
+        for (EdgeColumn column : columns.values()) {
+            column.append();
+        }
+    }
+
+    void edgeRemoved(int id) {
+        edgeCount--;
+        for (EdgeColumn column : columns.values()) {
+            column.removeAt(id);
+        }
+    }
+
+}
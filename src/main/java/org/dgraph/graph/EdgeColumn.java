@@ -0,0 +1,77 @@
+package org.dgraph.graph;
+
+import java.io.Serializable;
+
+/**
+ * Named column of primitive values, one for every edge of a graph, keyed by
+ * the id of the edge.
+ *
+ * <p>
+ * A column either belongs to the {@link EdgeAttributes} of a graph, which
+ * grows and shrinks it together with its edges, or it is detached with a fixed
+ * number of values. Detached columns are useful for temporary values of a
+ * single computation, like flows, over a graph, which is not modified.
+ * </p>
+ *
+ * <p>
+ * Columns are not synchronized. Distinct columns of the same graph can be
+ * written by different threads at the same time.
+ * </p>
+ *
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public abstract class EdgeColumn implements Serializable {
+
+    private static final long serialVersionUID = -2205470163187460812L;
+
+    static final int MIN_CAPACITY = 16;
+
+    private final String name;
+
+    int size;
+
+    EdgeColumn(String name, int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size of a column can not be negative: " + size);
+        }
+        this.name = name;
+        this.size = size;
+    }
+
+    /**
+     * Returns the name of this column.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of values in this column, which is the number of edges
+     * of the graph it belongs to.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a default value for a new edge with the id equal to the current size.
+     */
+    abstract void append();
+
+    /**
+     * Moves the value of the last edge to the given id, which is taken by the
+     * last edge after the edge with this id has been removed.
+     */
+    abstract void removeAt(int id);
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + name + ", " + size + ")";
+    }
+
+}
@@ -0,0 +1,629 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.Edge;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Immutable directed graph, which keeps its adjacency lists gap-encoded in
+ * byte arrays.
+ *
+ * <p>
+ * Vertices are given dense indices. The list of every vertex is sorted and
+ * written as its length followed by gaps between consecutive indices: the
+ * first index relative to the index of the vertex itself, in zigzag form to
+ * allow negative gaps, and every further index relative to the previous one
+ * minus one. All numbers are varints, which use 7 bits per byte, so graphs,
+ * where neighbours have close indices, need one or two bytes per edge. Lists
+ * are decoded on the fly by a {@link NeighborIterator}.
+ * </p>
+ *
+ * <p>
+ * Edges are not stored. They are created by the edge factory every time they
+ * are returned, so only the source and the target of an edge are kept and
+ * parallel edges are stored once. Incoming lists can be left out to halve the
+ * size of the graph, then methods working with incoming edges throw
+ * {@link UnsupportedOperationException}. Every method, which modifies the
+ * graph, throws {@link UnsupportedOperationException} as well.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @param <E> type for edges. Should implement
+ *            {@link org.dgraph.graph.edge.Edge Edge&lt;V&gt;} interface
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class GapCompressedDirectedGraph<V, E extends Edge<V>> implements Graph<V, E> {
+
+    /**
+     * Iterator over a gap-encoded list of vertex indices. An iterator can be
+     * moved to the list of another vertex by {@link #reset(int)}, so a single
+     * instance serves a whole traversal.
+     */
+    public static final class NeighborIterator implements PrimitiveIterator.OfInt {
+
+        private final byte[] data;
+
+        private final int[] offsets;
+
+        private int position, remaining, previous;
+
+        private boolean first;
+
+        NeighborIterator(byte[] data, int[] offsets) {
+            this.data = data;
+            this.offsets = offsets;
+        }
+
+        /**
+         * Moves this iterator to the beginning of the list of the vertex with the
+         * specified index.
+         *
+         * @param v index of the vertex
+         * @return this iterator
+         */
+        public NeighborIterator reset(int v) {
+            position = offsets[v];
+            remaining = readVarInt();
+            previous = v;
+            first = true;
+            return this;
+        }
+
+        /**
+         * Returns the number of indices, which are not read yet.
+         *
+         * @return the number of remaining indices
+         */
+        public int remaining() {
+            return remaining;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                final byte b = data[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            final int gap = readVarInt();
+            if (first) {
+                first = false;
+                previous += (gap >>> 1) ^ -(gap & 1);
+            } else {
+                previous += gap + 1;
+            }
+            return previous;
+        }
+
+    }
+
+    /**
+     * Growable array of varints.
+     */
+    private static final class ByteWriter {
+
+        private byte[] data = new byte[1 << 10];
+
+        private int size;
+
+        void writeVarInt(int value) {
+            if (data.length - size < 5) {
+                data = Arrays.copyOf(data, data.length << 1);
+            }
+            while ((value & ~0x7F) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        /**
+         * Writes a sorted list of distinct indices of the neighbours of the
+         * vertex <tt>v</tt>.
+         */
+        void writeList(int v, int[] list, int from, int length) {
+            writeVarInt(length);
+            int previous = v;
+            for (int k = from; k < from + length; k++) {
+                final int gap = list[k] - previous;
+                writeVarInt(k == from ? (gap << 1) ^ (gap >> 31) : gap - 1);
+                previous = list[k];
+            }
+        }
+
+    }
+
+    /**
+     * Read-only view of the edges of a vertex, which are created while iterated.
+     */
+    private final class EdgeList extends AbstractSet<E> {
+
+        private final int v;
+
+        private final boolean outgoing;
+
+        EdgeList(int v, boolean outgoing) {
+            this.v = v;
+            this.outgoing = outgoing;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge) || !isStored((Edge<?>) o)) {
+                return false;
+            }
+            return index.vertexAt(v).equals(outgoing ? ((Edge<?>) o).getSource() : ((Edge<?>) o).getTarget());
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            final NeighborIterator neighbors = (outgoing ? successors(v) : predecessors(v));
+            return new Iterator<E>() {
+
+                @Override
+                public boolean hasNext() {
+                    return neighbors.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    final int u = neighbors.nextInt();
+                    return outgoing ? createEdge(v, u) : createEdge(u, v);
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+            return outgoing ? successors(v).remaining() : predecessors(v).remaining();
+        }
+
+    }
+
+    private final class AllEdges extends AbstractSet<E> {
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Edge && isStored((Edge<?>) o);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            final NeighborIterator neighbors = new NeighborIterator(outData, outOffsets);
+            return new Iterator<E>() {
+
+                private int v = -1;
+
+                @Override
+                public boolean hasNext() {
+                    while (!neighbors.hasNext()) {
+                        if (v + 1 >= index.bound()) {
+                            return false;
+                        }
+                        neighbors.reset(++v);
+                    }
+                    return true;
+                }
+
+                @Override
+                public E next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return createEdge(v, neighbors.nextInt());
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+            return edgeCount;
+        }
+
+    }
+
+    private final class VertexSet extends AbstractSet<V> {
+
+        @Override
+        public boolean contains(Object o) {
+            return index.indexOf(o) >= 0;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new Iterator<V>() {
+
+                private int i = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return i < index.bound();
+                }
+
+                @Override
+                public V next() {
+                    if (i >= index.bound()) {
+                        throw new NoSuchElementException();
+                    }
+                    return index.vertexAt(i++);
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+
+    }
+
+    private static final String READ_ONLY = "Compressed graph is read-only.";
+
+    private static final String NO_INCOMING = "Incoming edges are not stored.";
+
+    private final VertexIndex<V> index;
+
+    private final BiFunction<V, V, E> edgeFactory;
+
+    private final byte[] outData, inData;
+
+    private final int[] outOffsets, inOffsets;
+
+    private final int edgeCount;
+
+    /**
+     * Creates a compressed snapshot of the given graph with both outgoing and
+     * incoming lists.
+     *
+     * @param graph       graph to be compressed
+     * @param edgeFactory the edge factory to create edge by given source and
+     *                    target vertices
+     */
+    public GapCompressedDirectedGraph(Graph<V, E> graph, BiFunction<V, V, E> edgeFactory) {
+        this(graph, edgeFactory, true);
+    }
+
+    /**
+     * Creates a compressed snapshot of the given graph.
+     *
+     * @param graph        graph to be compressed
+     * @param edgeFactory  the edge factory to create edge by given source and
+     *                     target vertices
+     * @param withIncoming specifies whether incoming lists are stored
+     */
+    public GapCompressedDirectedGraph(Graph<V, E> graph, BiFunction<V, V, E> edgeFactory, boolean withIncoming) {
+        this(graph, edgeFactory, withIncoming, VertexOrdering.NATURAL);
+    }
+
+    /**
+     * Creates a compressed snapshot of the given graph, which indexes its
+     * vertices in the given order. Orders, which keep neighbours close, make
+     * gaps and thus the encoded lists shorter.
+     *
+     * @param graph        graph to be compressed
+     * @param edgeFactory  the edge factory to create edge by given source and
+     *                     target vertices
+     * @param withIncoming specifies whether incoming lists are stored
+     * @param ordering     order of the vertex indices
+     */
+    public GapCompressedDirectedGraph(Graph<V, E> graph, BiFunction<V, V, E> edgeFactory, boolean withIncoming,
+            VertexOrdering ordering) {
+        this.edgeFactory = edgeFactory;
+        final int n = graph.sizeOfVertices();
+        index = new VertexIndex<>(n);
+        for (V v : ordering.order(graph)) {
+            index.add(v);
+        }
+
+        /* Collect, sort and encode the targets of every vertex. */
+        final class Collector implements ObjDoubleConsumer<V> {
+
+            int[] targets = new int[16];
+
+            int size;
+
+            @Override
+            public void accept(V target, double weight) {
+                if (size == targets.length) {
+                    targets = Arrays.copyOf(targets, size << 1);
+                }
+                targets[size++] = index.indexOf(target);
+            }
+
+        }
+        final Collector collector = new Collector();
+        final ByteWriter out = new ByteWriter();
+        outOffsets = new int[n + 1];
+        final int[] inDegrees = new int[n];
+        int m = 0;
+        for (int u = 0; u < n; u++) {
+            collector.size = 0;
+            graph.forEachOutNeighbor(index.vertexAt(u), collector);
+            final int[] targets = collector.targets;
+            Arrays.sort(targets, 0, collector.size);
+            int length = 0;
+            for (int k = 0; k < collector.size; k++) {
+                if (length == 0 || targets[k] != targets[length - 1]) {
+                    targets[length++] = targets[k];
+                    inDegrees[targets[k]]++;
+                }
+            }
+            outOffsets[u] = out.size;
+            out.writeList(u, targets, 0, length);
+            m += length;
+        }
+        outOffsets[n] = out.size;
+        outData = Arrays.copyOf(out.data, out.size);
+        edgeCount = m;
+
+        if (!withIncoming) {
+            inData = null;
+            inOffsets = null;
+            return;
+        }
+        /* Sources are visited in increasing order, so incoming lists come out sorted. */
+        final int[] starts = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            starts[v + 1] = starts[v] + inDegrees[v];
+        }
+        final int[] next = Arrays.copyOf(starts, n);
+        final int[] sources = new int[m];
+        final NeighborIterator successors = new NeighborIterator(outData, outOffsets);
+        for (int u = 0; u < n; u++) {
+            successors.reset(u);
+            while (successors.hasNext()) {
+                sources[next[successors.nextInt()]++] = u;
+            }
+        }
+        final ByteWriter in = new ByteWriter();
+        inOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            inOffsets[v] = in.size;
+            in.writeList(v, sources, starts[v], inDegrees[v]);
+        }
+        inOffsets[n] = in.size;
+        inData = Arrays.copyOf(in.data, in.size);
+    }
+
+    /**
+     * Returns a new iterator over the indices of the targets of the outgoing
+     * edges of the vertex with the specified index, in increasing order.
+     *
+     * @param v index of the vertex
+     * @return the iterator
+     */
+    public NeighborIterator successors(int v) {
+        return new NeighborIterator(outData, outOffsets).reset(v);
+    }
+
+    /**
+     * Returns a new iterator over the indices of the sources of the incoming
+     * edges of the vertex with the specified index, in increasing order.
+     *
+     * @param v index of the vertex
+     * @return the iterator
+     * @throws UnsupportedOperationException if incoming lists are not stored
+     */
+    public NeighborIterator predecessors(int v) {
+        if (inData == null) {
+            throw new UnsupportedOperationException(NO_INCOMING);
+        }
+        return new NeighborIterator(inData, inOffsets).reset(v);
+    }
+
+    /**
+     * Creates the edge between the vertices with the specified indices by the
+     * edge factory. Existence of the edge is not checked.
+     *
+     * @param source index of the source vertex
+     * @param target index of the target vertex
+     * @return the edge
+     */
+    public E createEdge(int source, int target) {
+        return edgeFactory.apply(index.vertexAt(source), index.vertexAt(target));
+    }
+
+    /**
+     * Returns the number of bytes held by the encoded lists and their offsets.
+     * The vertex index is not counted.
+     *
+     * @return bytes of the adjacency
+     */
+    public long getAdjacencyBytes() {
+        long bytes = outData.length + 4L * outOffsets.length;
+        if (inData != null) {
+            bytes += inData.length + 4L * inOffsets.length;
+        }
+        return bytes;
+    }
+
+    @Override
+    public VertexIndex<V> getVertexIndex() {
+        return index;
+    }
+
+    @Override
+    public void forEachOutEdge(V v, Consumer<? super E> action) {
+        final int u = index.indexOf(v);
+        if (u >= 0) {
+            for (final NeighborIterator i = successors(u); i.hasNext(); ) {
+                action.accept(createEdge(u, i.nextInt()));
+            }
+        }
+    }
+
+    @Override
+    public void forEachInEdge(V v, Consumer<? super E> action) {
+        final int u = index.indexOf(v);
+        if (u >= 0) {
+            for (final NeighborIterator i = predecessors(u); i.hasNext(); ) {
+                action.accept(createEdge(i.nextInt(), u));
+            }
+        }
+    }
+
+    @Override
+    public boolean addEdge(E e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean addVertex(V v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        return e != null && isStored(e);
+    }
+
+    private boolean isStored(Edge<?> e) {
+        final int u = index.indexOf(e.getSource());
+        final int v = index.indexOf(e.getTarget());
+        return u >= 0 && v >= 0 && hasEdge(u, v) && e.equals(createEdge(u, v));
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) {
+        final int u = index.indexOf(v1);
+        final int v = index.indexOf(v2);
+        return u >= 0 && v >= 0 && hasEdge(u, v);
+    }
+
+    private boolean hasEdge(int u, int v) {
+        for (final NeighborIterator i = successors(u); i.hasNext(); ) {
+            final int target = i.nextInt();
+            if (target >= v) {
+                return target == v;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return index.indexOf(v) >= 0;
+    }
+
+    @Override
+    public Set<E> getAllEdges() {
+        return new AllEdges();
+    }
+
+    @Override
+    public Set<V> getAllVertices() {
+        return new VertexSet();
+    }
+
+    @Override
+    public Set<E> getEdges(V v1, V v2) {
+        final int u = index.indexOf(v1);
+        if (u < 0) {
+            return null;
+        }
+        final int v = index.indexOf(v2);
+        return v >= 0 && hasEdge(u, v) ? Collections.singleton(createEdge(u, v)) : null;
+    }
+
+    @Override
+    public Set<E> getEdgesFromSource(V v) {
+        final int u = index.indexOf(v);
+        return u < 0 ? null : new EdgeList(u, true);
+    }
+
+    @Override
+    public Set<E> getEdgesToTarget(V v) {
+        if (inData == null) {
+            throw new UnsupportedOperationException(NO_INCOMING);
+        }
+        final int u = index.indexOf(v);
+        return u < 0 ? null : new EdgeList(u, false);
+    }
+
+    @Override
+    public int getInDegree(V v) {
+        final int u = index.indexOf(v);
+        return u < 0 ? -1 : predecessors(u).remaining();
+    }
+
+    @Override
+    public int getOutDegree(V v) {
+        final int u = index.indexOf(v);
+        return u < 0 ? -1 : successors(u).remaining();
+    }
+
+    @Override
+    public boolean removeAllEdges(Collection<E> e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeAllVertices(Collection<V> v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeEdge(E e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public int sizeOfEdges() {
+        return edgeCount;
+    }
+
+    @Override
+    public int sizeOfVertices() {
+        return index.bound();
+    }
+
+    @Override
+    public String toString() {
+        return "Graph:" + getAllEdges();
+    }
+
+}
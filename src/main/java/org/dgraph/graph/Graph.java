@@ -1,9 +1,14 @@
 package org.dgraph.graph;
 
 import org.dgraph.graph.edge.Edge;
+import org.dgraph.graph.edge.WeightedEdge;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.Predicate;
 
 /**
  * Main interface for all graphs in DGraph library.
@@ -24,6 +29,13 @@ public interface Graph<V, E extends Edge<V>> {
      * will be added to the graph automatically.
      * </p>
      *
+     * <p>
+     * A loop, an edge from a vertex to itself, is added only to a graph created
+     * with <tt>withLoops</tt> set to <tt>true</tt>. Otherwise it is rejected
+     * and this method returns <tt>false</tt>. The flag has this meaning in every
+     * implementation of this library.
+     * </p>
+     *
      * @param e edge to be added to the graph
      * @return <tt>true</tt> if this graph did not already contain the specified
      * edge
@@ -149,6 +161,28 @@ public interface Graph<V, E extends Edge<V>> {
      */
 	int getInDegree(V v);
 
+    /**
+     * Returns an index, which maps the vertices of this graph to small integers.
+     * Algorithms use it to keep their state in arrays.
+     *
+     * <p>
+     * Graphs, which maintain an index, return it directly, and the index stays
+     * up to date with later modifications. By default, a new index is built from
+     * the current vertices on every call. If the graph is modified concurrently,
+     * vertices added after the index is built have no index, so searches skip
+     * the edges leading to them.
+     * </p>
+     *
+     * @return an index of the vertices of this graph
+     */
+    default VertexIndex<V> getVertexIndex() {
+        final VertexIndex<V> index = new VertexIndex<>(sizeOfVertices());
+        for (V v : getAllVertices()) {
+            index.add(v);
+        }
+        return index;
+    }
+
     /**
      * Returns a {@link Set} view of the edges between the source vertex
      * <tt>v1</tt> and the target vertex <tt>v2</tt> contained in this graph. The
@@ -208,6 +242,143 @@ public interface Graph<V, E extends Edge<V>> {
      */
 	Set<E> getEdgesToTarget(V v);
 
+    /**
+     * Performs the given action for each edge from the source vertex
+     * <tt>v</tt>. Unlike iterating over {@link #getEdgesFromSource(Object)},
+     * implementations walk their storage directly and do not create iterators.
+     * Searches pass one visitor object for all vertices they expand, so a
+     * traversal allocates nothing per vertex. The action must not modify the
+     * graph. Nothing is done, if the graph does not contain the vertex.
+     * <p>
+     * The action receives every edge, along which <tt>v</tt> can be left, that
+     * is the same edges as {@link #getEdgesFromSource(Object)}, and exactly
+     * {@link #getOutDegree(Object)} of them. The edge is passed as stored, so
+     * the vertex it leads to must be resolved with
+     * {@link #getOpposite(Edge, Object)} instead of the target of the edge:
+     * undirected graphs report each edge from both of its ends and reversed
+     * views report the incoming edges of the underlying graph. Summed over all
+     * vertices, the number of reported edges may therefore differ from
+     * {@link #sizeOfEdges()}.
+     *
+     * @param v      source vertex of the edges
+     * @param action action to be performed for each edge
+     */
+    default void forEachOutEdge(V v, Consumer<? super E> action) {
+        final Set<E> edges = getEdgesFromSource(v);
+        if (edges != null) {
+            edges.forEach(action);
+        }
+    }
+
+    /**
+     * Performs the given action for each edge to the target vertex <tt>v</tt>.
+     * Unlike iterating over {@link #getEdgesToTarget(Object)}, implementations
+     * walk their storage directly and do not create iterators. The action must
+     * not modify the graph. Nothing is done, if the graph does not contain the
+     * vertex.
+     * <p>
+     * The action receives the same edges as
+     * {@link #getEdgesToTarget(Object)}, and exactly
+     * {@link #getInDegree(Object)} of them, with the same orientation caveats
+     * as {@link #forEachOutEdge(Object, Consumer)}.
+     *
+     * @param v      target vertex of the edges
+     * @param action action to be performed for each edge
+     */
+    default void forEachInEdge(V v, Consumer<? super E> action) {
+        final Set<E> edges = getEdgesToTarget(v);
+        if (edges != null) {
+            edges.forEach(action);
+        }
+    }
+
+    /**
+     * Performs the given action for the target and the weight of each edge from
+     * the source vertex <tt>v</tt>. Weights are passed as primitive
+     * <tt>double</tt>s, edges, which are not weighted, have weight of 1.
+     *
+     * @param v      source vertex of the edges
+     * @param action action to be performed for the target and the weight of
+     *               each edge
+     */
+    default void forEachOutNeighbor(V v, ObjDoubleConsumer<? super V> action) {
+        forEachOutEdge(v, e -> action.accept(getOpposite(e, v),
+                e instanceof WeightedEdge ? ((WeightedEdge<?, ?>) e).getWeight() : 1d));
+    }
+
+    /**
+     * Returns the vertex, which the given edge from the vertex <tt>v</tt> leads
+     * to. Edges of directed graphs lead from their source to their target, so
+     * this is the target of the edge by default. Undirected graphs return the
+     * end of the edge opposite to <tt>v</tt>.
+     *
+     * @param e edge from the vertex <tt>v</tt>
+     * @param v vertex, from which the edge is traversed
+     * @return the vertex, which the edge leads to
+     */
+    default V getOpposite(E e, V v) {
+        return e.getTarget();
+    }
+
+    /**
+     * Returns a read-only view of this graph with all edges reversed. Outgoing
+     * edges of a vertex in the view are its incoming edges in this graph and vice
+     * versa, and {@link #getOpposite(Edge, Object)} of the view leads from the
+     * target of an edge to its source. Edges are not copied, so the view is
+     * created in constant time and reflects later changes of this graph.
+     * Undirected graphs return themselves.
+     *
+     * @return the reversed view
+     */
+    default Graph<V, E> reversed() {
+        return new ReversedView<>(this);
+    }
+
+    /**
+     * Returns a read-only view of this graph, which contains only the vertices
+     * and edges accepted by the given filters. An edge is in the view, if it is
+     * accepted and both its vertices are in the view. Nothing is copied: the
+     * filters are applied while the view is traversed, so it reflects later
+     * changes of this graph.
+     *
+     * @param vertexFilter filter of the vertices, <tt>null</tt> to accept all
+     * @param edgeFilter   filter of the edges, <tt>null</tt> to accept all
+     * @return the subgraph view
+     */
+    default Graph<V, E> subgraph(Predicate<? super V> vertexFilter, Predicate<? super E> edgeFilter) {
+        return new SubgraphView<>(this, vertexFilter, edgeFilter);
+    }
+
+    /**
+     * Returns a read-only view of this graph, which contains the vertices with
+     * the indices set in the given mask, and all edges between them. A mask
+     * takes a bit per vertex, so it is cheaper than a set, when many vertices
+     * are selected. Indices are taken from {@link #getVertexIndex()} once, and
+     * the mask is read on every access.
+     *
+     * @param vertexMask indices of the vertices in the view
+     * @return the subgraph view
+     */
+    default Graph<V, E> subgraph(BitSet vertexMask) {
+        final VertexIndex<V> index = getVertexIndex();
+        return subgraph(v -> {
+            final int i = index.indexOf(v);
+            return i >= 0 && vertexMask.get(i);
+        }, null);
+    }
+
+    /**
+     * Returns a read-only view of the subgraph induced by the given vertices,
+     * which contains the vertices of this graph present in the set and all
+     * edges between them. The set is not copied.
+     *
+     * @param vertices vertices of the subgraph
+     * @return the subgraph view
+     */
+    default Graph<V, E> induced(Set<? extends V> vertices) {
+        return subgraph(vertices::contains, null);
+    }
+
     /**
      * Removes all edges specified in the given collection from this graph.
      *
@@ -0,0 +1,128 @@
+package org.dgraph.graph;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Net changes of a graph between two commits. Changes, which cancel each
+ * other out, are not included: an edge added and removed again is neither in
+ * {@link #getAddedEdges()} nor in {@link #getRemovedEdges()}. An edge removed
+ * and added again is reported as changed.
+ *
+ * @param <V> type for vertices
+ * @param <E> type for edges
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public final class GraphDelta<V, E> {
+
+    private final Set<V> addedVertices = new LinkedHashSet<>();
+
+    private final Set<V> removedVertices = new LinkedHashSet<>();
+
+    private final Set<E> addedEdges = new LinkedHashSet<>();
+
+    private final Set<E> removedEdges = new LinkedHashSet<>();
+
+    private final Set<E> changedEdges = new LinkedHashSet<>();
+
+    GraphDelta() {
+    }
+
+    void vertexAdded(V v) {
+        if (!removedVertices.remove(v)) {
+            addedVertices.add(v);
+        }
+    }
+
+    void vertexRemoved(V v) {
+        if (!addedVertices.remove(v)) {
+            removedVertices.add(v);
+        }
+    }
+
+    void edgeAdded(E e) {
+        if (removedEdges.remove(e)) {
+            changedEdges.add(e);
+        } else {
+            addedEdges.add(e);
+        }
+    }
+
+    void edgeRemoved(E e) {
+        changedEdges.remove(e);
+        if (!addedEdges.remove(e)) {
+            removedEdges.add(e);
+        }
+    }
+
+    void weightChanged(E e) {
+        if (!addedEdges.contains(e)) {
+            changedEdges.add(e);
+        }
+    }
+
+    /**
+     * Returns vertices added to the graph.
+     *
+     * @return unmodifiable set of added vertices
+     */
+    public Set<V> getAddedVertices() {
+        return Collections.unmodifiableSet(addedVertices);
+    }
+
+    /**
+     * Returns vertices removed from the graph.
+     *
+     * @return unmodifiable set of removed vertices
+     */
+    public Set<V> getRemovedVertices() {
+        return Collections.unmodifiableSet(removedVertices);
+    }
+
+    /**
+     * Returns edges added to the graph.
+     *
+     * @return unmodifiable set of added edges
+     */
+    public Set<E> getAddedEdges() {
+        return Collections.unmodifiableSet(addedEdges);
+    }
+
+    /**
+     * Returns edges removed from the graph.
+     *
+     * @return unmodifiable set of removed edges
+     */
+    public Set<E> getRemovedEdges() {
+        return Collections.unmodifiableSet(removedEdges);
+    }
+
+    /**
+     * Returns edges, which stayed in the graph, but whose weight was changed or
+     * which were removed and added again.
+     *
+     * @return unmodifiable set of changed edges
+     */
+    public Set<E> getChangedEdges() {
+        return Collections.unmodifiableSet(changedEdges);
+    }
+
+    /**
+     * Returns <tt>true</tt> if the graph has not changed.
+     *
+     * @return <tt>true</tt> if there are no changes
+     */
+    public boolean isEmpty() {
+        return addedVertices.isEmpty() && removedVertices.isEmpty() && addedEdges.isEmpty()
+                && removedEdges.isEmpty() && changedEdges.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "Delta:+" + addedVertices + "-" + removedVertices + "+" + addedEdges + "-" + removedEdges + "~"
+                + changedEdges;
+    }
+
+}
@@ -0,0 +1,273 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.Edge;
+import org.dgraph.util.DirectArray;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary file format for directed graphs, which can be opened without
+ * rebuilding the graph.
+ *
+ * <p>
+ * All numbers are little-endian. A file consists of:
+ * </p>
+ * <ol>
+ * <li>a header of six <tt>int</tt>s: magic number <tt>0x46524744</tt>
+ * ("DGRF"), format version, number of vertices <tt>n</tt>, number of edges
+ * <tt>m</tt>, a reserved zero and the length of the vertex dictionary in
+ * bytes;</li>
+ * <li>the vertex dictionary: vertices in the order of their indices, encoded
+ * by a {@link VertexCodec};</li>
+ * <li>columns of <tt>int</tt>s: outgoing offsets (<tt>n + 1</tt>), outgoing
+ * targets (<tt>m</tt>), incoming offsets (<tt>n + 1</tt>), incoming sources
+ * (<tt>m</tt>) and positions of incoming edges among outgoing ones
+ * (<tt>m</tt>);</li>
+ * <li>columns of <tt>double</tt>s: weights, capacities and flows
+ * (<tt>m</tt> each).</li>
+ * </ol>
+ * <p>
+ * The dictionary and every column start at a multiple of 8 bytes, the gaps are
+ * filled with zeros. The columns have the layout of {@link OffHeapDirectedGraph},
+ * so {@link #open(Path, VertexCodec)} maps them into memory as they are and
+ * only decodes the dictionary. Processes, which open the same file, share its
+ * pages in the page cache.
+ * </p>
+ *
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public final class GraphFile {
+
+    /**
+     * Encoding of vertices in the vertex dictionary.
+     *
+     * @param <V> type for vertices
+     */
+    public interface VertexCodec<V> {
+
+        /** Codec for {@link Integer} vertices. */
+        VertexCodec<Integer> INTEGER = new VertexCodec<Integer>() {
+
+            @Override
+            public Integer read(DataInput in) throws IOException {
+                return Integer.valueOf(in.readInt());
+            }
+
+            @Override
+            public void write(DataOutput out, Integer v) throws IOException {
+                out.writeInt(v.intValue());
+            }
+
+        };
+
+        /** Codec for {@link Long} vertices. */
+        VertexCodec<Long> LONG = new VertexCodec<Long>() {
+
+            @Override
+            public Long read(DataInput in) throws IOException {
+                return Long.valueOf(in.readLong());
+            }
+
+            @Override
+            public void write(DataOutput out, Long v) throws IOException {
+                out.writeLong(v.longValue());
+            }
+
+        };
+
+        /** Codec for {@link String} vertices. */
+        VertexCodec<String> STRING = new VertexCodec<String>() {
+
+            @Override
+            public String read(DataInput in) throws IOException {
+                return in.readUTF();
+            }
+
+            @Override
+            public void write(DataOutput out, String v) throws IOException {
+                out.writeUTF(v);
+            }
+
+        };
+
+        /**
+         * Reads a vertex.
+         *
+         * @param in input to read from
+         * @return the vertex
+         * @throws IOException if an I/O error occurs
+         */
+        V read(DataInput in) throws IOException;
+
+        /**
+         * Writes a vertex.
+         *
+         * @param out output to write to
+         * @param v   the vertex
+         * @throws IOException if an I/O error occurs
+         */
+        void write(DataOutput out, V v) throws IOException;
+
+    }
+
+    private static final int MAGIC = 0x46524744;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 24;
+
+    private GraphFile() {
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    /**
+     * Writes the given graph to a file. Weights of weighted edges and capacities
+     * and flows of flow edges are written as well.
+     *
+     * @param <V>   type for vertices
+     * @param graph graph to be written
+     * @param file  path of the file, which is created or overwritten
+     * @param codec encoding of the vertices
+     * @throws IOException if an I/O error occurs
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> void write(Graph<V, ? extends Edge<V>> graph, Path file, VertexCodec<V> codec)
+            throws IOException {
+        final OffHeapDirectedGraph<V> g = graph instanceof OffHeapDirectedGraph
+                ? (OffHeapDirectedGraph<V>) graph : new OffHeapDirectedGraph<>(graph);
+        final int n = g.sizeOfVertices();
+
+        final ByteArrayOutputStream dictionary = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(dictionary);
+        for (int v = 0; v < n; v++) {
+            codec.write(out, g.index.vertexAt(v));
+        }
+        out.flush();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(g.edgeCount).putInt(0).putInt(dictionary.size());
+            header.flip();
+            writeFully(channel, header);
+            writeFully(channel, ByteBuffer.wrap(dictionary.toByteArray()));
+            for (DirectArray column : new DirectArray[]{g.outOffsets, g.outTargets, g.inOffsets, g.inSources,
+                    g.inPositions, g.weights, g.capacities, g.flows}) {
+                pad(channel);
+                column.writeTo(channel);
+            }
+        }
+    }
+
+    private static void pad(FileChannel channel) throws IOException {
+        final long position = channel.position();
+        writeFully(channel, ByteBuffer.allocate((int) (align(position) - position)));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Opens a graph file read-only. Weights and flows of the returned graph
+     * cannot be changed: setting them throws
+     * {@link UnsupportedOperationException}, so algorithms, which write flows,
+     * like {@link org.dgraph.graph.algorithm.PushRelabel PushRelabel}, need a
+     * graph opened in {@link FileChannel.MapMode#PRIVATE PRIVATE} mode.
+     *
+     * @param <V>   type for vertices
+     * @param file  path of the file
+     * @param codec encoding of the vertices
+     * @return the graph served from the mapped file
+     * @throws IOException if an I/O error occurs or the file is not a graph file
+     */
+    public static <V> OffHeapDirectedGraph<V> open(Path file, VertexCodec<V> codec) throws IOException {
+        return open(file, codec, FileChannel.MapMode.READ_ONLY);
+    }
+
+    /**
+     * Opens a graph file. With {@link FileChannel.MapMode#PRIVATE PRIVATE}
+     * mode, weights and flows can be changed in memory without modifying the
+     * file, with {@link FileChannel.MapMode#READ_WRITE READ_WRITE} mode the
+     * changes are written to the file.
+     *
+     * @param <V>   type for vertices
+     * @param file  path of the file
+     * @param codec encoding of the vertices
+     * @param mode  mapping mode of weight, capacity and flow columns
+     * @return the graph served from the mapped file
+     * @throws IOException if an I/O error occurs or the file is not a graph file
+     */
+    public static <V> OffHeapDirectedGraph<V> open(Path file, VertexCodec<V> codec, FileChannel.MapMode mode)
+            throws IOException {
+        final boolean writable = mode != FileChannel.MapMode.READ_ONLY;
+        try (FileChannel channel = writable ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    throw new IOException("Unexpected end of graph file.");
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a graph file: " + file);
+            }
+            final int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported graph file version: " + version);
+            }
+            final int n = header.getInt();
+            final int m = header.getInt();
+            header.getInt();
+            final int dictionarySize = header.getInt();
+
+            final ByteBuffer dictionary = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, dictionarySize);
+            final byte[] bytes = new byte[dictionarySize];
+            dictionary.get(bytes);
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            final VertexIndex<V> index = new VertexIndex<>(n);
+            for (int v = 0; v < n; v++) {
+                if (index.add(codec.read(in)) != v) {
+                    throw new IOException("Duplicate vertex in graph file.");
+                }
+            }
+
+            /* Column i starts at offsets[i]; the last offset is the end of the file. */
+            final int[] lengths = {n + 1, m, n + 1, m, m, m, m, m};
+            final long[] offsets = new long[lengths.length + 1];
+            offsets[0] = align(HEADER_SIZE + (long) dictionarySize);
+            for (int i = 0; i < lengths.length; i++) {
+                offsets[i + 1] = align(offsets[i] + ((long) lengths[i] << (i < 5 ? 2 : 3)));
+            }
+            if (offsets[lengths.length] > channel.size()) {
+                throw new IOException("Unexpected end of graph file.");
+            }
+            final DirectArray[] columns = new DirectArray[lengths.length];
+            for (int i = 0; i < lengths.length; i++) {
+                columns[i] = i < 5 ? DirectArray.mapInts(channel, FileChannel.MapMode.READ_ONLY, offsets[i], lengths[i])
+                        : DirectArray.mapDoubles(channel, mode, offsets[i], lengths[i]);
+            }
+            return new OffHeapDirectedGraph<>(index, columns[0], columns[1], columns[2], columns[3], columns[4],
+                    columns[5], columns[6], columns[7]);
+        }
+    }
+
+}
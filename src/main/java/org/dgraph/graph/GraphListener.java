@@ -0,0 +1,78 @@
+package org.dgraph.graph;
+
+/**
+ * Listener of structural changes of a graph.
+ *
+ * <p>
+ * A listener registered with
+ * {@link AbstractDirectedGraph#addGraphListener(GraphListener)} is notified
+ * immediately after every change, when the graph is consistent again. A
+ * listener registered in batched mode with
+ * {@link AbstractDirectedGraph#addGraphListener(GraphListener, boolean)} is
+ * only notified by {@link #changesCommitted(GraphDelta)}, when
+ * {@link AbstractDirectedGraph#commitChanges()} is called, and receives the
+ * net changes since the previous commit. All methods do nothing by default.
+ * </p>
+ *
+ * <p>
+ * Listeners must not modify the graph, which notifies them.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @param <E> type for edges
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public interface GraphListener<V, E> {
+
+    /**
+     * Called after a vertex has been added to the graph.
+     *
+     * @param v the added vertex
+     */
+    default void vertexAdded(V v) {
+    }
+
+    /**
+     * Called after a vertex has been removed from the graph. Its edges have
+     * been removed and reported before.
+     *
+     * @param v the removed vertex
+     */
+    default void vertexRemoved(V v) {
+    }
+
+    /**
+     * Called after an edge has been added to the graph. Its vertices have been
+     * added and reported before, if they were not in the graph.
+     *
+     * @param e the added edge
+     */
+    default void edgeAdded(E e) {
+    }
+
+    /**
+     * Called after an edge has been removed from the graph.
+     *
+     * @param e the removed edge
+     */
+    default void edgeRemoved(E e) {
+    }
+
+    /**
+     * Called after the weight of an edge has been changed through the graph.
+     *
+     * @param e the edge
+     */
+    default void weightChanged(E e) {
+    }
+
+    /**
+     * Called in batched mode with the changes since the previous commit.
+     *
+     * @param delta the changes
+     */
+    default void changesCommitted(GraphDelta<? extends V, ? extends E> delta) {
+    }
+
+}
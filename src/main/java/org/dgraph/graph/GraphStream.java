@@ -0,0 +1,339 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.Edge;
+import org.dgraph.graph.edge.FlowEdge;
+import org.dgraph.graph.edge.WeightedEdge;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Compact streaming serialization of directed graphs.
+ *
+ * <p>
+ * Unlike Java serialization, which writes every edge as an object, this
+ * format writes every vertex once and refers to it by its index. A stream
+ * consists of:
+ * </p>
+ * <ol>
+ * <li>a header: magic number <tt>0x44475253</tt> ("DGRS"), a format version
+ * byte and a flags byte, which tells whether weights and whether capacities
+ * and flows follow each edge and whether the graph has loops;</li>
+ * <li>number of vertices <tt>n</tt> and number of edges <tt>m</tt> as
+ * varints;</li>
+ * <li>vertices in the order of their indices, encoded by a
+ * {@link GraphFile.VertexCodec VertexCodec};</li>
+ * <li>for every vertex its out-degree as a varint and its outgoing edges
+ * sorted by target: the difference between the index of the target and the
+ * index of the previous target as a varint, followed by raw <tt>double</tt>s
+ * of the weight, capacity and flow, if stored.</li>
+ * </ol>
+ * <p>
+ * Varints use 7 bits per byte, the highest bit tells whether more bytes
+ * follow. Reading creates all edges first and adds them to a graph
+ * preallocated for <tt>n</tt> vertices and <tt>m</tt> edges at once.
+ * </p>
+ * <p>
+ * Every edge is written once, from its source, so only graphs, which report
+ * each edge from one vertex, can be written. Undirected graphs report every
+ * edge from both of its ends and are rejected.
+ * </p>
+ *
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public final class GraphStream {
+
+    /**
+     * Factory of edges read from a stream.
+     *
+     * @param <V> type for vertices
+     * @param <E> type for edges
+     */
+    @FunctionalInterface
+    public interface EdgeFactory<V, E> {
+
+        /**
+         * Creates an edge. Values, which are not stored in the stream, are 0.
+         *
+         * @param source   source of the edge
+         * @param target   target of the edge
+         * @param weight   weight of the edge
+         * @param capacity capacity of the edge
+         * @param flow     flow of the edge
+         * @return the edge
+         */
+        E create(V source, V target, double weight, double capacity, double flow);
+
+    }
+
+    private static final int MAGIC = 0x44475253;
+
+    private static final int VERSION = 1;
+
+    private static final int WEIGHTS = 1;
+
+    private static final int FLOWS = 2;
+
+    private static final int LOOPS = 4;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private GraphStream() {
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in graph stream.");
+    }
+
+    /**
+     * Writes the given graph to a data output. Weights are written, if all edges
+     * are {@link WeightedEdge weighted}, capacities and flows, if all edges are
+     * {@link FlowEdge flow edges}.
+     *
+     * @param <V>   type for vertices
+     * @param <E>   type for edges
+     * @param graph graph to be written
+     * @param out   output to write to
+     * @param codec encoding of the vertices
+     * @throws IOException              if an I/O error occurs
+     * @throws IllegalArgumentException if the graph reports an edge from both
+     *                                  of its ends, like an undirected graph
+     */
+    public static <V, E extends Edge<V>> void write(Graph<V, E> graph, DataOutput out,
+                                                    GraphFile.VertexCodec<V> codec) throws IOException {
+        final IndexedGraph<V, E> g = IndexedGraph.of(graph);
+        final VertexIndex<V> index = g.getVertexIndex();
+        final int n = index.bound();
+        final int m = g.sizeOfEdges();
+        if (g.getOutOffset(n) != m) {
+            throw new IllegalArgumentException("Only graphs, which report each edge from one vertex, can be written.");
+        }
+        boolean weighted = m > 0, flows = m > 0, loops = false;
+        for (E e : g.getAllEdges()) {
+            weighted &= e instanceof WeightedEdge;
+            flows &= e instanceof FlowEdge;
+        }
+        for (int u = 0; u < n && !loops; u++) {
+            for (int i = g.getOutOffset(u), end = g.getOutOffset(u + 1); i < end && !loops; i++) {
+                loops = g.getOutTarget(i) == u;
+            }
+        }
+
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte((weighted ? WEIGHTS : 0) | (flows ? FLOWS : 0) | (loops ? LOOPS : 0));
+        writeVarInt(out, g.sizeOfVertices());
+        writeVarInt(out, m);
+        /* Indices of removed vertices are skipped, so the stream always has dense indices. */
+        final int[] ids = new int[n];
+        for (int u = 0, id = 0; u < n; u++) {
+            final V v = index.vertexAt(u);
+            if (v != null) {
+                ids[u] = id++;
+                codec.write(out, v);
+            }
+        }
+
+        long[] order = new long[16];
+        for (int u = 0; u < n; u++) {
+            if (index.vertexAt(u) == null) {
+                continue;
+            }
+            final int from = g.getOutOffset(u);
+            final int degree = g.getOutOffset(u + 1) - from;
+            if (order.length < degree) {
+                order = new long[Math.max(degree, order.length << 1)];
+            }
+            for (int k = 0; k < degree; k++) {
+                order[k] = (long) ids[g.getOutTarget(from + k)] << 32 | k;
+            }
+            Arrays.sort(order, 0, degree);
+            writeVarInt(out, degree);
+            int previous = 0;
+            for (int k = 0; k < degree; k++) {
+                final int target = (int) (order[k] >>> 32);
+                final int position = from + (int) order[k];
+                writeVarInt(out, target - previous);
+                previous = target;
+                if (weighted) {
+                    out.writeDouble(g.getOutWeight(position));
+                }
+                if (flows) {
+                    final FlowEdge<?> e = (FlowEdge<?>) g.getOutEdge(position);
+                    out.writeDouble(e.getCapacity());
+                    out.writeDouble(e.getFlow());
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the given graph to a channel. See
+     * {@link #write(Graph, DataOutput, GraphFile.VertexCodec)}.
+     *
+     * @param <V>     type for vertices
+     * @param <E>     type for edges
+     * @param graph   graph to be written
+     * @param channel channel to write to, which is left open
+     * @param codec   encoding of the vertices
+     * @throws IOException if an I/O error occurs
+     */
+    public static <V, E extends Edge<V>> void write(Graph<V, E> graph, WritableByteChannel channel,
+                                                    GraphFile.VertexCodec<V> codec) throws IOException {
+        final DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+        write(graph, out, codec);
+        out.flush();
+    }
+
+    /**
+     * Reads a graph from a data input into a new {@link DirectedGraph}, which
+     * can contain loops.
+     *
+     * @param <V>         type for vertices
+     * @param <E>         type for edges
+     * @param in          input to read from
+     * @param codec       encoding of the vertices
+     * @param edgeFactory factory of the edges
+     * @return the graph
+     * @throws IOException if an I/O error occurs or the stream is malformed
+     */
+    public static <V, E extends Edge<V>> DirectedGraph<V, E> read(DataInput in, GraphFile.VertexCodec<V> codec,
+                                                                  EdgeFactory<V, E> edgeFactory) throws IOException {
+        return read(in, codec, edgeFactory, (n, m) -> new DirectedGraph<>(null, true, n, m));
+    }
+
+    /**
+     * Reads a graph from a data input into a graph created by the given
+     * factory. If the stream has loops, the graph must accept them.
+     *
+     * @param <V>          type for vertices
+     * @param <E>          type for edges
+     * @param <G>          type for the graph
+     * @param in           input to read from
+     * @param codec        encoding of the vertices
+     * @param edgeFactory  factory of the edges
+     * @param graphFactory factory of an empty graph by the number of vertices
+     *                     and edges to be added
+     * @return the graph
+     * @throws IOException if an I/O error occurs, the stream is malformed or
+     *                     the graph rejects its loops
+     */
+    public static <V, E extends Edge<V>, G extends AbstractDirectedGraph<V, E>> G read(
+            DataInput in, GraphFile.VertexCodec<V> codec, EdgeFactory<V, E> edgeFactory,
+            BiFunction<Integer, Integer, G> graphFactory) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a graph stream.");
+        }
+        final int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported graph stream version: " + version);
+        }
+        final int flags = in.readUnsignedByte();
+        final boolean weighted = (flags & WEIGHTS) != 0;
+        final boolean flows = (flags & FLOWS) != 0;
+        final boolean loops = (flags & LOOPS) != 0;
+        final int n = readVarInt(in);
+        final int m = readVarInt(in);
+        if (n < 0 || m < 0) {
+            throw new IOException("Malformed graph stream.");
+        }
+
+        final Object[] vertices = new Object[n];
+        for (int v = 0; v < n; v++) {
+            vertices[v] = codec.read(in);
+        }
+        final boolean[] connected = new boolean[n];
+        final List<E> edges = new ArrayList<>(m);
+        E loop = null;
+        for (int u = 0; u < n; u++) {
+            @SuppressWarnings("unchecked") final V source = (V) vertices[u];
+            final int degree = readVarInt(in);
+            int target = 0;
+            for (int k = 0; k < degree; k++) {
+                target += readVarInt(in);
+                if (target < 0 || target >= n || edges.size() == m) {
+                    throw new IOException("Malformed graph stream.");
+                }
+                final double weight = weighted ? in.readDouble() : 0d;
+                final double capacity = flows ? in.readDouble() : 0d;
+                final double flow = flows ? in.readDouble() : 0d;
+                @SuppressWarnings("unchecked") final V v = (V) vertices[target];
+                final E e = edgeFactory.create(source, v, weight, capacity, flow);
+                if (target == u) {
+                    loop = e;
+                }
+                edges.add(e);
+                connected[u] = connected[target] = true;
+            }
+        }
+
+        if (loops != (loop != null)) {
+            throw new IOException("Malformed graph stream.");
+        }
+        final G graph = graphFactory.apply(n, m);
+        graph.addEdges(edges);
+        if (loop != null && !graph.containsEdge(loop)) {
+            throw new IOException("Graph stream contains loops, which the graph does not accept.");
+        }
+        for (int v = 0; v < n; v++) {
+            if (!connected[v]) {
+                @SuppressWarnings("unchecked") final V vertex = (V) vertices[v];
+                graph.addVertex(vertex);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Reads a graph from a channel into a graph created by the given factory.
+     * See {@link #read(DataInput, GraphFile.VertexCodec, EdgeFactory, BiFunction)}.
+     *
+     * @param <V>          type for vertices
+     * @param <E>          type for edges
+     * @param <G>          type for the graph
+     * @param channel      channel to read from, which is left open
+     * @param codec        encoding of the vertices
+     * @param edgeFactory  factory of the edges
+     * @param graphFactory factory of an empty graph by the number of vertices
+     *                     and edges to be added
+     * @return the graph
+     * @throws IOException if an I/O error occurs or the stream is malformed
+     */
+    public static <V, E extends Edge<V>, G extends AbstractDirectedGraph<V, E>> G read(
+            ReadableByteChannel channel, GraphFile.VertexCodec<V> codec, EdgeFactory<V, E> edgeFactory,
+            BiFunction<Integer, Integer, G> graphFactory) throws IOException {
+        return read(new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE)),
+                codec, edgeFactory, graphFactory);
+    }
+
+}
@@ -0,0 +1,584 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.Edge;
+import org.dgraph.graph.edge.WeightedEdge;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Implementation of a directed graph, which compares its vertices by reference.
+ *
+ * <p>
+ * All internal maps, including the vertex index, are identity maps, so
+ * <tt>equals()</tt> and <tt>hashCode()</tt> of the vertices are never called.
+ * The graph suits vertices, for which these methods are expensive, like deep
+ * domain objects, and vertices, which are equal but should stay distinct.
+ * Each vertex maps its successors and predecessors to the edges, which connect
+ * them, so there is no separate set of edges: an edge is found through its
+ * source, and only the edges between the same pair of vertices are compared
+ * with <tt>equals()</tt>. Edges like
+ * {@link org.dgraph.graph.edge.IdentitySimpleEdge} do not hash their vertices
+ * either.
+ * </p>
+ *
+ * <p>
+ * Returned sets are unmodifiable, {@link #getEdges(Object, Object)} returns a
+ * snapshot, other sets are live views.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @param <E> type for edges. Should implement
+ *            {@link org.dgraph.graph.edge.Edge Edge&lt;V&gt;} interface
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class IdentityDirectedGraph<V, E extends Edge<V>> implements Graph<V, E> {
+
+    /**
+     * Parallel edges between the same pair of vertices.
+     */
+    private static final class EdgeList extends ArrayList<Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        EdgeList(Object e1, Object e2) {
+            super(2);
+            add(e1);
+            add(e2);
+        }
+
+    }
+
+    /**
+     * Edges from or to a vertex grouped by the other end. A value of the map is
+     * either a single edge or an {@link EdgeList}. The adjacency itself is a
+     * read-only set view of the edges.
+     */
+    private final class Adjacency extends AbstractSet<E> {
+
+        private final V vertex;
+
+        private final boolean outgoing;
+
+        private final IdentityHashMap<V, Object> neighbours;
+
+        private int degree;
+
+        Adjacency(V vertex, boolean outgoing) {
+            this.vertex = vertex;
+            this.outgoing = outgoing;
+            neighbours = new IdentityHashMap<>(2);
+        }
+
+        /**
+         * Returns the stored edge, which is equal to the given one and connects
+         * the vertex with the given neighbour, or <tt>null</tt>.
+         */
+        @SuppressWarnings("unchecked")
+        E find(V neighbour, Object e) {
+            final Object value = neighbours.get(neighbour);
+            if (value instanceof EdgeList) {
+                for (Object stored : (EdgeList) value) {
+                    if (stored == e || stored.equals(e)) {
+                        return (E) stored;
+                    }
+                }
+                return null;
+            }
+            return value != null && (value == e || value.equals(e)) ? (E) value : null;
+        }
+
+        void link(V neighbour, E e) {
+            final Object old = neighbours.putIfAbsent(neighbour, e);
+            if (old instanceof EdgeList) {
+                ((EdgeList) old).add(e);
+            } else if (old != null) {
+                neighbours.put(neighbour, new EdgeList(old, e));
+            }
+            degree++;
+        }
+
+        void unlink(V neighbour, E e) {
+            final Object old = neighbours.get(neighbour);
+            if (old instanceof EdgeList) {
+                final EdgeList list = (EdgeList) old;
+                for (int i = 0; i < list.size(); i++) {
+                    if (list.get(i) == e) {
+                        list.remove(i);
+                        break;
+                    }
+                }
+                if (list.size() == 1) {
+                    neighbours.put(neighbour, list.get(0));
+                }
+            } else {
+                neighbours.remove(neighbour);
+            }
+            degree--;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge)) {
+                return false;
+            }
+            final Edge<?> e = (Edge<?>) o;
+            final Object end = outgoing ? e.getSource() : e.getTarget();
+            @SuppressWarnings("unchecked") final V other = (V) (outgoing ? e.getTarget() : e.getSource());
+            return end == vertex && find(other, e) != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEach(Consumer<? super E> action) {
+            for (Object value : neighbours.values()) {
+                if (value instanceof EdgeList) {
+                    for (Object e : (EdgeList) value) {
+                        action.accept((E) e);
+                    }
+                } else {
+                    action.accept((E) value);
+                }
+            }
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            final Iterator<Object> values = neighbours.values().iterator();
+            return new Iterator<E>() {
+
+                private EdgeList list;
+
+                private int position;
+
+                @Override
+                public boolean hasNext() {
+                    return list != null || values.hasNext();
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public E next() {
+                    if (list != null) {
+                        final Object e = list.get(position++);
+                        if (position == list.size()) {
+                            list = null;
+                        }
+                        return (E) e;
+                    }
+                    if (!values.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    final Object value = values.next();
+                    if (value instanceof EdgeList) {
+                        list = (EdgeList) value;
+                        position = 1;
+                        return (E) list.get(0);
+                    }
+                    return (E) value;
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+            return degree;
+        }
+
+    }
+
+    /**
+     * Outgoing and incoming edges of a vertex.
+     */
+    private final class Node {
+
+        private final Adjacency out, in;
+
+        Node(V vertex) {
+            out = new Adjacency(vertex, true);
+            in = new Adjacency(vertex, false);
+        }
+
+    }
+
+    /**
+     * Read-only set view of all edges, which are enumerated by their sources.
+     */
+    private final class EdgeSet extends AbstractSet<E> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return o instanceof Edge && containsEdge((E) o);
+        }
+
+        @Override
+        public void forEach(Consumer<? super E> action) {
+            for (Node node : vertices.values()) {
+                node.out.forEach(action);
+            }
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            final Iterator<Node> nodes = vertices.values().iterator();
+            return new Iterator<E>() {
+
+                private Iterator<E> edges = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!edges.hasNext() && nodes.hasNext()) {
+                        edges = nodes.next().out.iterator();
+                    }
+                    return edges.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return edges.next();
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+            return edgeCount;
+        }
+
+    }
+
+    private final IdentityHashMap<V, Node> vertices;
+
+    private final Set<E> edges = new EdgeSet();
+
+    private final VertexIndex<V> index;
+
+    private final boolean withLoops;
+
+    private final BiFunction<V, V, E> edgeFactory;
+
+    private int edgeCount;
+
+    /** Creates an instance of a new identity directed graph without loops. */
+    public IdentityDirectedGraph() {
+        this(null, false);
+    }
+
+    /**
+     * Creates an instance of a new identity directed graph with edge factory.
+     * The edge factory will be used in the {@link #addEdge(Object, Object)
+     * addEdge(V v1, V v2)} method. Otherwise, if no edge factory is given, this
+     * method will throw {@link UnsupportedOperationException}.
+     *
+     * @param edgeFactory the edge factory to create edge by given source and
+     *                    target vertices
+     * @param withLoops   specifies whether the graph can contain loops or not
+     */
+    public IdentityDirectedGraph(BiFunction<V, V, E> edgeFactory, boolean withLoops) {
+        this(edgeFactory, withLoops, 12);
+    }
+
+    /**
+     * Creates an instance of a new identity directed graph with edge factory and
+     * structures preallocated for the expected number of vertices.
+     *
+     * @param edgeFactory      the edge factory to create edge by given source and
+     *                         target vertices
+     * @param withLoops        specifies whether the graph can contain loops or not
+     * @param expectedVertices expected number of vertices
+     */
+    public IdentityDirectedGraph(BiFunction<V, V, E> edgeFactory, boolean withLoops, int expectedVertices) {
+        this.edgeFactory = edgeFactory;
+        this.withLoops = withLoops;
+        vertices = new IdentityHashMap<>(Math.max(expectedVertices, 1));
+        index = new VertexIndex<>(Math.max(expectedVertices, 1), true);
+    }
+
+    private Node node(V v) {
+        Node node = vertices.get(v);
+        if (node == null) {
+            node = new Node(v);
+            vertices.put(v, node);
+            index.add(v);
+        }
+        return node;
+    }
+
+    @Override
+    public boolean addEdge(E e) {
+        final V source = Objects.requireNonNull(e.getSource());
+        final V target = Objects.requireNonNull(e.getTarget());
+        if (!withLoops && source == target) {
+            return false;
+        }
+        final Node from = node(source);
+        if (from.out.find(target, e) != null) {
+            return false;
+        }
+        from.out.link(target, e);
+        node(target).in.link(source, e);
+        edgeCount++;
+        return true;
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2) {
+        if (edgeFactory == null) {
+            throw new UnsupportedOperationException("Edge factory is not specified.");
+        }
+        return addEdge(edgeFactory.apply(v1, v2));
+    }
+
+    @Override
+    public boolean addVertex(V v) {
+        Objects.requireNonNull(v);
+        if (vertices.containsKey(v)) {
+            return false;
+        }
+        node(v);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        vertices.clear();
+        index.clear();
+        edgeCount = 0;
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        if (e == null) {
+            return false;
+        }
+        final Node node = vertices.get(e.getSource());
+        return node != null && node.out.find(e.getTarget(), e) != null;
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) {
+        final Node node = vertices.get(v1);
+        return node != null && node.out.neighbours.containsKey(v2);
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return vertices.containsKey(v);
+    }
+
+    @Override
+    public Set<E> getAllEdges() {
+        return edges;
+    }
+
+    @Override
+    public Set<V> getAllVertices() {
+        return Collections.unmodifiableSet(vertices.keySet());
+    }
+
+    /**
+     * Returns the index of the vertices of this graph. The index is maintained
+     * by the graph and compares vertices by reference, so it stays valid between
+     * modifications.
+     *
+     * @return the vertex index of this graph
+     */
+    @Override
+    public VertexIndex<V> getVertexIndex() {
+        return index;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<E> getEdges(V v1, V v2) {
+        final Node node = vertices.get(v1);
+        final Object value = node == null ? null : node.out.neighbours.get(v2);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof EdgeList) {
+            final Set<E> result = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Object e : (EdgeList) value) {
+                result.add((E) e);
+            }
+            return Collections.unmodifiableSet(result);
+        }
+        return Collections.singleton((E) value);
+    }
+
+    @Override
+    public Set<E> getEdgesFromSource(V v) {
+        final Node node = vertices.get(v);
+        return node == null ? null : node.out;
+    }
+
+    @Override
+    public Set<E> getEdgesToTarget(V v) {
+        final Node node = vertices.get(v);
+        return node == null ? null : node.in;
+    }
+
+    @Override
+    public void forEachOutEdge(V v, Consumer<? super E> action) {
+        final Node node = vertices.get(v);
+        if (node != null) {
+            node.out.forEach(action);
+        }
+    }
+
+    @Override
+    public void forEachInEdge(V v, Consumer<? super E> action) {
+        final Node node = vertices.get(v);
+        if (node != null) {
+            node.in.forEach(action);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Neighbours are the keys of the adjacency of the vertex, so no ends of the
+     * edges are compared.
+     * </p>
+     */
+    @Override
+    public void forEachOutNeighbor(V v, ObjDoubleConsumer<? super V> action) {
+        final Node node = vertices.get(v);
+        if (node == null) {
+            return;
+        }
+        for (Map.Entry<V, Object> entry : node.out.neighbours.entrySet()) {
+            final Object value = entry.getValue();
+            if (value instanceof EdgeList) {
+                for (Object e : (EdgeList) value) {
+                    action.accept(entry.getKey(), weightOf(e));
+                }
+            } else {
+                action.accept(entry.getKey(), weightOf(value));
+            }
+        }
+    }
+
+    private static double weightOf(Object e) {
+        return e instanceof WeightedEdge ? ((WeightedEdge<?, ?>) e).getWeight() : 1d;
+    }
+
+    @Override
+    public int getInDegree(V v) {
+        final Node node = vertices.get(v);
+        return node == null ? -1 : node.in.degree;
+    }
+
+    @Override
+    public int getOutDegree(V v) {
+        final Node node = vertices.get(v);
+        return node == null ? -1 : node.out.degree;
+    }
+
+    @Override
+    public boolean removeAllEdges(Collection<E> e) {
+        Objects.requireNonNull(e);
+        boolean modified = false;
+        for (final Iterator<E> i = e.iterator(); i.hasNext(); ) {
+            modified |= removeEdge(i.next());
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeAllVertices(Collection<V> v) {
+        Objects.requireNonNull(v);
+        boolean modified = false;
+        for (final Iterator<V> i = v.iterator(); i.hasNext(); ) {
+            modified |= removeVertex(i.next());
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeEdge(E e) {
+        if (e == null) {
+            return false;
+        }
+        final V source = e.getSource();
+        final V target = e.getTarget();
+        final Node from = vertices.get(source);
+        final E stored = from == null ? null : from.out.find(target, e);
+        if (stored == null) {
+            return false;
+        }
+        from.out.unlink(target, stored);
+        vertices.get(target).in.unlink(source, stored);
+        edgeCount--;
+        return true;
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+        final Node node = vertices.remove(v);
+        if (node == null) {
+            return false;
+        }
+        /* All edges between the vertex and a neighbour go at once. */
+        for (Map.Entry<V, Object> entry : node.out.neighbours.entrySet()) {
+            final int count = count(entry.getValue());
+            edgeCount -= count;
+            final Node other = vertices.get(entry.getKey());
+            if (other != null) {
+                other.in.neighbours.remove(v);
+                other.in.degree -= count;
+            }
+        }
+        for (Map.Entry<V, Object> entry : node.in.neighbours.entrySet()) {
+            /* Loops have been counted with the outgoing edges. */
+            final Node other = vertices.get(entry.getKey());
+            if (other != null) {
+                final int count = count(entry.getValue());
+                edgeCount -= count;
+                other.out.neighbours.remove(v);
+                other.out.degree -= count;
+            }
+        }
+        index.remove(v);
+        return true;
+    }
+
+    private static int count(Object value) {
+        return value instanceof EdgeList ? ((EdgeList) value).size() : 1;
+    }
+
+    @Override
+    public int sizeOfEdges() {
+        return edgeCount;
+    }
+
+    @Override
+    public int sizeOfVertices() {
+        return vertices.size();
+    }
+
+    @Override
+    public String toString() {
+        return "Graph:" + edges;
+    }
+
+}
@@ -0,0 +1,142 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.Edge;
+
+import java.util.function.Consumer;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Interface for graphs, which keep their adjacency in compressed sparse row
+ * (CSR) form over dense vertex indices.
+ *
+ * <p>
+ * Outgoing edges of the vertex with index <tt>v</tt> occupy positions from
+ * {@code getOutOffset(v)} inclusive to {@code getOutOffset(v + 1)} exclusive.
+ * Incoming edges are laid out in the same way. Algorithms can detect this
+ * interface and walk the adjacency by positions without creating iterators or
+ * hashing vertices.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @param <E> type for edges. Should implement
+ *            {@link org.dgraph.graph.edge.Edge Edge&lt;V&gt;} interface
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public interface IndexedGraph<V, E extends Edge<V>> extends Graph<V, E> {
+
+    /**
+     * Returns the given graph, if it is already indexed, or its compressed
+     * snapshot otherwise.
+     *
+     * @param <V>   type for vertices
+     * @param <E>   type for edges
+     * @param graph the graph
+     * @return an indexed graph with the same vertices and edges
+     */
+    static <V, E extends Edge<V>> IndexedGraph<V, E> of(Graph<V, E> graph) {
+        return graph instanceof IndexedGraph ? (IndexedGraph<V, E>) graph : new CompressedDirectedGraph<>(graph);
+    }
+
+    /**
+     * Returns the index of the vertices of this graph. Indices of indexed graphs
+     * are dense, so they are lower than the number of vertices.
+     *
+     * @return the vertex index
+     */
+    @Override
+    VertexIndex<V> getVertexIndex();
+
+    /**
+     * Returns the first position of the outgoing edges of the vertex with the
+     * specified index.
+     *
+     * @param v index of the vertex, from 0 to the number of vertices inclusive
+     * @return the first position of the outgoing edges
+     */
+    int getOutOffset(int v);
+
+    /**
+     * Returns the index of the target vertex of the outgoing edge at the
+     * specified position.
+     *
+     * @param position position of the outgoing edge
+     * @return index of the target vertex
+     */
+    int getOutTarget(int position);
+
+    /**
+     * Returns the outgoing edge at the specified position.
+     *
+     * @param position position of the outgoing edge
+     * @return the edge
+     */
+    E getOutEdge(int position);
+
+    /**
+     * Returns the weight of the outgoing edge at the specified position. Edges,
+     * which are not weighted, have weight of 1.
+     *
+     * @param position position of the outgoing edge
+     * @return weight of the edge
+     */
+    double getOutWeight(int position);
+
+    /**
+     * Returns the first position of the incoming edges of the vertex with the
+     * specified index.
+     *
+     * @param v index of the vertex, from 0 to the number of vertices inclusive
+     * @return the first position of the incoming edges
+     */
+    int getInOffset(int v);
+
+    /**
+     * Returns the index of the source vertex of the incoming edge at the
+     * specified position.
+     *
+     * @param position position of the incoming edge
+     * @return index of the source vertex
+     */
+    int getInSource(int position);
+
+    /**
+     * Returns the incoming edge at the specified position.
+     *
+     * @param position position of the incoming edge
+     * @return the edge
+     */
+    E getInEdge(int position);
+
+    @Override
+    default void forEachOutEdge(V v, Consumer<? super E> action) {
+        final int u = getVertexIndex().indexOf(v);
+        if (u >= 0) {
+            for (int i = getOutOffset(u), end = getOutOffset(u + 1); i < end; i++) {
+                action.accept(getOutEdge(i));
+            }
+        }
+    }
+
+    @Override
+    default void forEachInEdge(V v, Consumer<? super E> action) {
+        final int u = getVertexIndex().indexOf(v);
+        if (u >= 0) {
+            for (int i = getInOffset(u), end = getInOffset(u + 1); i < end; i++) {
+                action.accept(getInEdge(i));
+            }
+        }
+    }
+
+    @Override
+    default void forEachOutNeighbor(V v, ObjDoubleConsumer<? super V> action) {
+        final VertexIndex<V> index = getVertexIndex();
+        final int u = index.indexOf(v);
+        if (u >= 0) {
+            for (int i = getOutOffset(u), end = getOutOffset(u + 1); i < end; i++) {
+                action.accept(index.vertexAt(getOutTarget(i)), getOutWeight(i));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,321 @@
+package org.dgraph.graph;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Implementation of a directed graph with primitive integer vertices.
+ *
+ * <p>
+ * Vertices are the integers from <tt>0</tt> to {@code sizeOfVertices() - 1}.
+ * Adjacency of each vertex is stored in growable <tt>int</tt> arrays, so no
+ * objects are allocated per edge. Parallel edges are allowed, every call of
+ * {@link #addEdge(int, int)} adds a new edge.
+ * </p>
+ *
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class IntDirectedGraph implements Serializable {
+
+    private static final long serialVersionUID = 2809871565311357024L;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final boolean withLoops;
+
+    private int[][] outTargets = new int[0][];
+
+    private int[][] inSources = new int[0][];
+
+    private int[] outDegrees = EMPTY;
+
+    private int[] inDegrees = EMPTY;
+
+    private int vertexCount;
+
+    private int edgeCount;
+
+    /** Creates an instance of a new directed graph without loops. */
+    public IntDirectedGraph() {
+        this(false);
+    }
+
+    /**
+     * Creates an instance of a new directed graph.
+     *
+     * @param withLoops specifies whether the graph can contain loops or not
+     */
+    public IntDirectedGraph(boolean withLoops) {
+        this.withLoops = withLoops;
+    }
+
+    /**
+     * Creates an instance of a new directed graph with preallocated space for
+     * the given number of vertices.
+     *
+     * @param expectedVertices expected number of vertices
+     * @param withLoops        specifies whether the graph can contain loops or not
+     */
+    public IntDirectedGraph(int expectedVertices, boolean withLoops) {
+        this(withLoops);
+        grow(expectedVertices);
+    }
+
+    private static int[] ensureCapacity(int[] array, int size) {
+        return size < array.length ? array : Arrays.copyOf(array, Math.max(4, array.length << 1));
+    }
+
+    private static int indexOf(int[] array, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    void grow(int capacity) {
+        if (capacity > outTargets.length) {
+            final int newCapacity = Math.max(capacity, outTargets.length + (outTargets.length >> 1));
+            outTargets = Arrays.copyOf(outTargets, newCapacity);
+            inSources = Arrays.copyOf(inSources, newCapacity);
+            outDegrees = Arrays.copyOf(outDegrees, newCapacity);
+            inDegrees = Arrays.copyOf(inDegrees, newCapacity);
+            for (int v = vertexCount; v < newCapacity; v++) {
+                outTargets[v] = EMPTY;
+                inSources[v] = EMPTY;
+            }
+        }
+    }
+
+    /**
+     * Appends an edge to the adjacency arrays.
+     *
+     * @return position of the new edge among the outgoing edges of the source, or
+     * -1 if the edge is a forbidden loop
+     */
+    int appendEdge(int v1, int v2) {
+        if (v1 < 0 || v2 < 0) {
+            throw new IllegalArgumentException("Vertices cannot be negative.");
+        }
+        if (!withLoops && v1 == v2) {
+            return -1;
+        }
+        ensureVertices(Math.max(v1, v2) + 1);
+        final int position = outDegrees[v1]++;
+        outTargets[v1] = ensureCapacity(outTargets[v1], position);
+        outTargets[v1][position] = v2;
+        inSources[v2] = ensureCapacity(inSources[v2], inDegrees[v2]);
+        inSources[v2][inDegrees[v2]++] = v1;
+        edgeCount++;
+        return position;
+    }
+
+    /**
+     * Removes the outgoing edge at the given position by moving the last outgoing
+     * edge of the source to its place.
+     */
+    void removeEdgeAt(int v1, int position) {
+        final int[] targets = outTargets[v1];
+        final int v2 = targets[position];
+        targets[position] = targets[--outDegrees[v1]];
+        final int[] sources = inSources[v2];
+        final int i = indexOf(sources, inDegrees[v2], v1);
+        sources[i] = sources[--inDegrees[v2]];
+        edgeCount--;
+    }
+
+    /**
+     * Adds a new edge to the graph. If current graph doesn't contain any of the
+     * vertices, they will be added to the graph automatically together with all
+     * vertices with lower numbers.
+     *
+     * @param v1 source vertex of the edge
+     * @param v2 target vertex of the edge
+     * @return <tt>true</tt> if the edge has been added, <tt>false</tt> if it is a
+     * loop and the graph does not allow loops
+     * @throws IllegalArgumentException if any of the vertices is negative
+     */
+    public boolean addEdge(int v1, int v2) {
+        return appendEdge(v1, v2) >= 0;
+    }
+
+    /**
+     * Adds a new vertex to the graph.
+     *
+     * @return the new vertex
+     */
+    public int addVertex() {
+        ensureVertices(vertexCount + 1);
+        return vertexCount - 1;
+    }
+
+    /**
+     * Makes sure, that the graph contains all vertices from <tt>0</tt> to
+     * {@code count - 1}.
+     *
+     * @param count required number of vertices
+     */
+    public void ensureVertices(int count) {
+        if (count > vertexCount) {
+            grow(count);
+            vertexCount = count;
+        }
+    }
+
+    /**
+     * Removes all of the vertices and edges from this graph. The graph will be
+     * empty after this call returns.
+     */
+    public void clear() {
+        outTargets = new int[0][];
+        inSources = new int[0][];
+        outDegrees = inDegrees = EMPTY;
+        vertexCount = edgeCount = 0;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this graph contains at least one edge from vertex
+     * {@code v1} to vertex {@code v2}.
+     *
+     * @param v1 source vertex of the edge
+     * @param v2 target vertex of the edge
+     * @return <tt>true</tt> if this graph contains the edge
+     */
+    public boolean containsEdge(int v1, int v2) {
+        return containsVertex(v1) && containsVertex(v2)
+                && indexOf(outTargets[v1], outDegrees[v1], v2) >= 0;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this graph contains the specified vertex.
+     *
+     * @param v vertex to be checked
+     * @return <tt>true</tt> if this graph contains the specified vertex
+     */
+    public boolean containsVertex(int v) {
+        return v >= 0 && v < vertexCount;
+    }
+
+    /**
+     * Returns the number of edges with {@code v} as their initial vertex.
+     *
+     * @param v initial vertex for getting the "out" degree
+     * @return the number of edges with {@code v} as their initial vertex. Returns
+     * -1, if the graph doesn't contain the specified vertex.
+     */
+    public int getOutDegree(int v) {
+        return containsVertex(v) ? outDegrees[v] : -1;
+    }
+
+    /**
+     * Returns the number of edges with {@code v} as their terminal vertex.
+     *
+     * @param v terminal vertex for getting the "in" degree
+     * @return the number of edges with {@code v} as their terminal vertex. Returns
+     * -1, if the graph doesn't contain the specified vertex.
+     */
+    public int getInDegree(int v) {
+        return containsVertex(v) ? inDegrees[v] : -1;
+    }
+
+    /**
+     * Returns the target of the <tt>i</tt>-th outgoing edge of the vertex
+     * {@code v}.
+     *
+     * @param v source vertex
+     * @param i position of the edge, from 0 to the "out" degree exclusive
+     * @return the target vertex
+     */
+    public int getOutTarget(int v, int i) {
+        return outTargets[v][i];
+    }
+
+    /**
+     * Returns the source of the <tt>i</tt>-th incoming edge of the vertex
+     * {@code v}.
+     *
+     * @param v target vertex
+     * @param i position of the edge, from 0 to the "in" degree exclusive
+     * @return the source vertex
+     */
+    public int getInSource(int v, int i) {
+        return inSources[v][i];
+    }
+
+    /**
+     * Removes one edge from vertex {@code v1} to vertex {@code v2}. Positions of
+     * the other outgoing edges of {@code v1} may change.
+     *
+     * @param v1 source vertex of the edge
+     * @param v2 target vertex of the edge
+     * @return <tt>true</tt> if the edge has been successfully removed
+     */
+    public boolean removeEdge(int v1, int v2) {
+        if (!containsVertex(v1) || !containsVertex(v2)) {
+            return false;
+        }
+        final int position = indexOf(outTargets[v1], outDegrees[v1], v2);
+        if (position < 0) {
+            return false;
+        }
+        removeEdgeAt(v1, position);
+        return true;
+    }
+
+    /**
+     * Removes all edges from and to the specified vertex. The vertex itself stays
+     * in the graph, so numbers of other vertices do not change.
+     *
+     * @param v vertex to be isolated
+     * @return <tt>true</tt> if any edge has been removed
+     */
+    public boolean isolateVertex(int v) {
+        if (!containsVertex(v)) {
+            return false;
+        }
+        final boolean modified = outDegrees[v] > 0 || inDegrees[v] > 0;
+        while (outDegrees[v] > 0) {
+            removeEdgeAt(v, outDegrees[v] - 1);
+        }
+        while (inDegrees[v] > 0) {
+            final int u = inSources[v][inDegrees[v] - 1];
+            removeEdgeAt(u, indexOf(outTargets[u], outDegrees[u], v));
+        }
+        return modified;
+    }
+
+    /**
+     * Returns the number of edges in this graph.
+     *
+     * @return the number of edges in this graph
+     */
+    public int sizeOfEdges() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns the number of vertices in this graph.
+     *
+     * @return the number of vertices in this graph
+     */
+    public int sizeOfVertices() {
+        return vertexCount;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("Graph:[");
+        for (int v = 0; v < vertexCount; v++) {
+            for (int i = 0; i < outDegrees[v]; i++) {
+                if (builder.length() > 7) {
+                    builder.append(", ");
+                }
+                builder.append('(').append(v).append(") -> (").append(outTargets[v][i]).append(')');
+            }
+        }
+        return builder.append(']').toString();
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.dgraph.graph;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Column of primitive <tt>int</tt> values keyed by edge id, for example
+ * integer capacities, labels or counters.
+ *
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public final class IntEdgeColumn extends EdgeColumn {
+
+    private static final long serialVersionUID = -6320998447208516421L;
+
+    private final int defaultValue;
+
+    private int[] values;
+
+    /**
+     * Creates a detached column with the given number of default values.
+     *
+     * @param name         name of the column
+     * @param size         number of values, usually the number of edges of a
+     *                     graph
+     * @param defaultValue initial value of every edge
+     * @throws IllegalArgumentException if the size is negative
+     */
+    public IntEdgeColumn(String name, int size, int defaultValue) {
+        super(name, size);
+        this.defaultValue = defaultValue;
+        values = new int[Math.max(size, MIN_CAPACITY)];
+        Arrays.fill(values, 0, size, defaultValue);
+    }
+
+    /**
+     * Returns the value, which new edges get.
+     *
+     * @return the default value
+     */
+    public int getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Returns the value of the edge with the specified id.
+     *
+     * @param id id of the edge, from 0 to the size of the column exclusive
+     * @return the value
+     * @throws IndexOutOfBoundsException if there is no edge with the given id
+     */
+    public int get(int id) {
+        return values[Objects.checkIndex(id, size)];
+    }
+
+    /**
+     * Assigns a new value to the edge with the specified id.
+     *
+     * @param id    id of the edge, from 0 to the size of the column exclusive
+     * @param value new value
+     * @throws IndexOutOfBoundsException if there is no edge with the given id
+     */
+    public void set(int id, int value) {
+        values[Objects.checkIndex(id, size)] = value;
+    }
+
+    /**
+     * Assigns the value to all edges.
+     *
+     * @param value new value
+     */
+    public void fill(int value) {
+        Arrays.fill(values, 0, size, value);
+    }
+
+    /**
+     * Returns a copy of the values ordered by edge ids.
+     *
+     * @return values of all edges
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Replaces the values of all edges. The value of the edge with id <tt>i</tt>
+     * is taken from position <tt>i</tt>.
+     *
+     * @param values new values ordered by edge ids
+     * @throws IllegalArgumentException if the length of the array differs from
+     *                                  the size of the column
+     */
+    public void setAll(int[] values) {
+        if (values.length != size) {
+            throw new IllegalArgumentException("Expected " + size + " values, but got " + values.length + ".");
+        }
+        System.arraycopy(values, 0, this.values, 0, size);
+    }
+
+    @Override
+    void append() {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] = defaultValue;
+    }
+
+    @Override
+    void removeAt(int id) {
+        values[id] = values[--size];
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.dgraph.graph;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of a weighted directed graph with primitive integer vertices.
+ *
+ * <p>
+ * Weights are stored in growable <tt>double</tt> arrays parallel to the
+ * adjacency arrays, so the weight of the <tt>i</tt>-th outgoing edge of a
+ * vertex is available by {@link #getOutWeight(int, int)}.
+ * </p>
+ *
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class IntWeightedDirectedGraph extends IntDirectedGraph {
+
+    private static final long serialVersionUID = -6420159371185337139L;
+
+    private static final double[] EMPTY = new double[0];
+
+    /** Default weight of the edges added without weight. */
+    public static final double DEFAULT_WEIGHT = 0d;
+
+    private double[][] outWeights;
+
+    /** Creates an instance of a new weighted directed graph without loops. */
+    public IntWeightedDirectedGraph() {
+        super(false);
+    }
+
+    /**
+     * Creates an instance of a new weighted directed graph.
+     *
+     * @param withLoops specifies whether the graph can contain loops or not
+     */
+    public IntWeightedDirectedGraph(boolean withLoops) {
+        super(withLoops);
+    }
+
+    /**
+     * Creates an instance of a new weighted directed graph with preallocated
+     * space for the given number of vertices.
+     *
+     * @param expectedVertices expected number of vertices
+     * @param withLoops        specifies whether the graph can contain loops or not
+     */
+    public IntWeightedDirectedGraph(int expectedVertices, boolean withLoops) {
+        super(expectedVertices, withLoops);
+    }
+
+    @Override
+    void grow(int capacity) {
+        super.grow(capacity);
+        /* This method is called from the super constructor before fields are initialized. */
+        final int oldCapacity = outWeights == null ? 0 : outWeights.length;
+        if (oldCapacity < capacity) {
+            outWeights = oldCapacity == 0 ? new double[capacity][]
+                    : Arrays.copyOf(outWeights, Math.max(capacity, oldCapacity + (oldCapacity >> 1)));
+            Arrays.fill(outWeights, oldCapacity, outWeights.length, EMPTY);
+        }
+    }
+
+    @Override
+    void removeEdgeAt(int v1, int position) {
+        final double[] weights = outWeights[v1];
+        weights[position] = weights[getOutDegree(v1) - 1];
+        super.removeEdgeAt(v1, position);
+    }
+
+    @Override
+    public boolean addEdge(int v1, int v2) {
+        return addEdge(v1, v2, DEFAULT_WEIGHT);
+    }
+
+    /**
+     * Adds a new weighted edge to the graph. If current graph doesn't contain any
+     * of the vertices, they will be added to the graph automatically together
+     * with all vertices with lower numbers.
+     *
+     * @param v1 source vertex of the edge
+     * @param v2 target vertex of the edge
+     * @param w  weight of the edge
+     * @return <tt>true</tt> if the edge has been added, <tt>false</tt> if it is a
+     * loop and the graph does not allow loops
+     * @throws IllegalArgumentException if any of the vertices is negative
+     */
+    public boolean addEdge(int v1, int v2, double w) {
+        final int position = appendEdge(v1, v2);
+        if (position < 0) {
+            return false;
+        }
+        double[] weights = outWeights[v1];
+        if (position == weights.length) {
+            weights = outWeights[v1] = Arrays.copyOf(weights, Math.max(4, weights.length << 1));
+        }
+        weights[position] = w;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        outWeights = new double[0][];
+    }
+
+    /**
+     * Returns the weight of the <tt>i</tt>-th outgoing edge of the vertex
+     * {@code v}.
+     *
+     * @param v source vertex
+     * @param i position of the edge, from 0 to the "out" degree exclusive
+     * @return weight of the edge
+     */
+    public double getOutWeight(int v, int i) {
+        return outWeights[v][i];
+    }
+
+    /**
+     * Assigns a new weight to the <tt>i</tt>-th outgoing edge of the vertex
+     * {@code v}.
+     *
+     * @param v source vertex
+     * @param i position of the edge, from 0 to the "out" degree exclusive
+     * @param w new weight of the edge
+     */
+    public void setOutWeight(int v, int i, double w) {
+        if (i >= getOutDegree(v)) {
+            throw new IndexOutOfBoundsException("Vertex " + v + " has no outgoing edge at position " + i + ".");
+        }
+        outWeights[v][i] = w;
+    }
+
+}
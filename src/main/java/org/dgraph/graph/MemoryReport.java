@@ -0,0 +1,239 @@
+package org.dgraph.graph;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Estimate of the heap memory held by a graph, broken down by structure.
+ *
+ * <p>
+ * Sizes are computed from the number of elements in each structure and the
+ * object layout of a 64-bit HotSpot JVM: compressed references, if the
+ * maximum heap is smaller than 32 GiB, and 8-byte object alignment. Hash
+ * tables are assumed to have grown from the default capacity, so tables of
+ * structures preallocated for bulk loading may be smaller. Vertex objects and
+ * objects referenced by edges, like boxed weights, are not counted, only the
+ * edge objects themselves.
+ * </p>
+ *
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public final class MemoryReport {
+
+    private static final boolean COMPRESSED = Runtime.getRuntime().maxMemory() < (32L << 30);
+
+    static final int HEADER = COMPRESSED ? 12 : 16;
+
+    static final int REFERENCE = COMPRESSED ? 4 : 8;
+
+    private static final int ARRAY_HEADER = COMPRESSED ? 16 : 20;
+
+    /* HashMap.Node has 3 references (key, value, next) and an int hash. */
+    private static final long HASH_NODE = object(3, 4);
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final ClassValue<Long> SHALLOW_SIZES = new ClassValue<Long>() {
+
+        @Override
+        protected Long computeValue(Class<?> type) {
+            long size = HEADER;
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        size += sizeOf(field.getType());
+                    }
+                }
+            }
+            return align(size);
+        }
+
+    };
+
+    private final long vertexSet, vertexIndex, adjacency, incoming, pairSets, edgeSet, edgeObjects;
+
+    private final int edgeCount;
+
+    MemoryReport(long vertexSet, long vertexIndex, long adjacency, long incoming, long pairSets, long edgeSet,
+                 long edgeObjects, int edgeCount) {
+        this.vertexSet = vertexSet;
+        this.vertexIndex = vertexIndex;
+        this.adjacency = adjacency;
+        this.incoming = incoming;
+        this.pairSets = pairSets;
+        this.edgeSet = edgeSet;
+        this.edgeObjects = edgeObjects;
+        this.edgeCount = edgeCount;
+    }
+
+    private static int sizeOf(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return REFERENCE;
+        }
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        return type == short.class || type == char.class ? 2 : 1;
+    }
+
+    static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    /**
+     * Returns the size of an object with the given number of reference fields
+     * and bytes of primitive fields.
+     */
+    static long object(int references, int primitiveBytes) {
+        return align(HEADER + (long) references * REFERENCE + primitiveBytes);
+    }
+
+    /**
+     * Returns the size of an array of the given length and element size.
+     */
+    static long array(int length, int elementSize) {
+        return align(ARRAY_HEADER + (long) length * elementSize);
+    }
+
+    /**
+     * Returns the size of a hash map with the given number of entries. The
+     * table is allocated with the first entry and doubles from the initial
+     * capacity, whenever it is filled by three quarters.
+     */
+    static long hashMap(int size, int initialCapacity, int extraReferences) {
+        /* HashMap has 4 references (table, entrySet, keySet, values) and 4 ints. */
+        long bytes = object(4 + extraReferences, 16) + (long) size * HASH_NODE;
+        if (size > 0) {
+            int capacity = initialCapacity;
+            while (capacity * 3L < size * 4L) {
+                capacity <<= 1;
+            }
+            bytes += array(capacity, REFERENCE);
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the size of a hash map with the default initial capacity.
+     */
+    static long hashMap(int size, int extraReferences) {
+        return hashMap(size, DEFAULT_CAPACITY, extraReferences);
+    }
+
+    /**
+     * Returns the size of a hash set, including its backing hash map.
+     */
+    static long hashSet(int size, int initialCapacity, int extraReferences) {
+        return object(1 + extraReferences, 0) + hashMap(size, initialCapacity, 0);
+    }
+
+    /**
+     * Returns the size of a hash set with the default initial capacity.
+     */
+    static long hashSet(int size, int extraReferences) {
+        return hashSet(size, DEFAULT_CAPACITY, extraReferences);
+    }
+
+    /**
+     * Returns the shallow size of an instance of the given class.
+     */
+    static long shallowSize(Class<?> type) {
+        return SHALLOW_SIZES.get(type);
+    }
+
+    /**
+     * Returns bytes held by the set of all vertices.
+     *
+     * @return bytes of the vertex set
+     */
+    public long getVertexSetBytes() {
+        return vertexSet;
+    }
+
+    /**
+     * Returns bytes held by the {@link VertexIndex} of the graph.
+     *
+     * @return bytes of the vertex index
+     */
+    public long getVertexIndexBytes() {
+        return vertexIndex;
+    }
+
+    /**
+     * Returns bytes held by the outgoing adjacency: the map from vertices to
+     * their outgoing edges grouped by target, and the sets of outgoing edges.
+     *
+     * @return bytes of the outgoing adjacency
+     */
+    public long getAdjacencyBytes() {
+        return adjacency;
+    }
+
+    /**
+     * Returns bytes held by the map from vertices to the sets of their incoming
+     * edges, and by those sets.
+     *
+     * @return bytes of the incoming adjacency
+     */
+    public long getIncomingBytes() {
+        return incoming;
+    }
+
+    /**
+     * Returns bytes held by the sets of parallel edges between the same pair
+     * of vertices.
+     *
+     * @return bytes of the parallel edge sets
+     */
+    public long getPairSetBytes() {
+        return pairSets;
+    }
+
+    /**
+     * Returns bytes held by the set of all edges.
+     *
+     * @return bytes of the edge set
+     */
+    public long getEdgeSetBytes() {
+        return edgeSet;
+    }
+
+    /**
+     * Returns bytes held by the edge objects.
+     *
+     * @return bytes of the edges
+     */
+    public long getEdgeObjectBytes() {
+        return edgeObjects;
+    }
+
+    /**
+     * Returns bytes held by all structures of the graph.
+     *
+     * @return total bytes
+     */
+    public long getTotalBytes() {
+        return vertexSet + vertexIndex + adjacency + incoming + pairSets + edgeSet + edgeObjects;
+    }
+
+    /**
+     * Returns the total number of bytes divided by the number of edges.
+     *
+     * @return bytes per edge, or 0 if the graph has no edges
+     */
+    public double getBytesPerEdge() {
+        return edgeCount == 0 ? 0d : (double) getTotalBytes() / edgeCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Memory: vertex set %d B, vertex index %d B, adjacency %d B, incoming %d B, "
+                        + "pair sets %d B, edge set %d B, edges %d B, total %d B (%.1f B per edge)", vertexSet,
+                vertexIndex, adjacency, incoming, pairSets, edgeSet, edgeObjects, getTotalBytes(), getBytesPerEdge());
+    }
+
+}
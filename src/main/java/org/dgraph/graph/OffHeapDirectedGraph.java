@@ -0,0 +1,594 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.Edge;
+import org.dgraph.graph.edge.FlowEdge;
+import org.dgraph.graph.edge.WeightedEdge;
+import org.dgraph.util.DirectArray;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Immutable directed graph, which keeps its adjacency, weights, capacities
+ * and flows outside of the Java heap.
+ *
+ * <p>
+ * The layout is the same as in {@link CompressedDirectedGraph}: outgoing edges
+ * are stored in compressed sparse row form sorted by the index of their
+ * target, incoming edges are sorted by the index of their source. All columns
+ * are {@link DirectArray}s, so only the vertex index stays on the heap.
+ * </p>
+ *
+ * <p>
+ * Edges are lightweight views of positions in the columns. Weights and flows
+ * can be changed through them, unless the graph has been opened from a
+ * {@link GraphFile} in read-only mode, but the structure of the graph is
+ * read-only: every method, which modifies the graph, throws
+ * {@link UnsupportedOperationException}.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class OffHeapDirectedGraph<V> implements IndexedGraph<V, OffHeapDirectedGraph<V>.OffHeapEdge> {
+
+    /**
+     * View of an edge stored in the columns of the graph. Views of the same
+     * edge are equal.
+     */
+    public final class OffHeapEdge implements WeightedEdge<V, Double>, FlowEdge<V> {
+
+        private static final String TO_STRING_FORMAT = "(%s) -{%.2f}-> (%s)";
+
+        private final int position;
+
+        private OffHeapEdge(int position) {
+            this.position = position;
+        }
+
+        private OffHeapDirectedGraph<V> graph() {
+            return OffHeapDirectedGraph.this;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof OffHeapDirectedGraph.OffHeapEdge)) {
+                return false;
+            }
+            final OffHeapDirectedGraph<?>.OffHeapEdge edge = (OffHeapDirectedGraph<?>.OffHeapEdge) obj;
+            return edge.graph() == graph() && edge.position == position;
+        }
+
+        @Override
+        public double getCapacity() {
+            return capacities.getDouble(position);
+        }
+
+        @Override
+        public double getFlow() {
+            return flows.getDouble(position);
+        }
+
+        /**
+         * Returns the position of this edge among the outgoing edges of the graph.
+         *
+         * @return the position of this edge
+         */
+        public int getPosition() {
+            return position;
+        }
+
+        @Override
+        public V getSource() {
+            return index.vertexAt(sourceOf(position));
+        }
+
+        @Override
+        public V getTarget() {
+            return index.vertexAt(outTargets.getInt(position));
+        }
+
+        @Override
+        public double getWeight() {
+            return weights.getDouble(position);
+        }
+
+        @Override
+        public int hashCode() {
+            return position;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @throws UnsupportedOperationException if the graph has been opened
+         *                                       from a file in read-only mode
+         */
+        @Override
+        public void setFlow(double flow) {
+            if (flows.isReadOnly()) {
+                throw new UnsupportedOperationException(READ_ONLY_VALUES);
+            }
+            flows.setDouble(position, flow);
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @throws UnsupportedOperationException if the graph has been opened
+         *                                       from a file in read-only mode
+         */
+        @Override
+        public void setWeight(Double weight) {
+            if (weights.isReadOnly()) {
+                throw new UnsupportedOperationException(READ_ONLY_VALUES);
+            }
+            weights.setDouble(position, weight.doubleValue());
+        }
+
+        @Override
+        public String toString() {
+            return String.format(TO_STRING_FORMAT, getSource(), getWeight(), getTarget());
+        }
+
+    }
+
+    final class EdgeRange extends AbstractSet<OffHeapEdge> {
+
+        private final DirectArray positions;
+
+        private final int from, to;
+
+        /**
+         * Creates a view of the outgoing edges from <tt>from</tt> to <tt>to</tt>,
+         * or of the incoming edges, if <tt>positions</tt> are given.
+         */
+        EdgeRange(DirectArray positions, int from, int to) {
+            this.positions = positions;
+            this.from = from;
+            this.to = to;
+        }
+
+        private int positionAt(int i) {
+            return positions == null ? i : positions.getInt(i);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof OffHeapDirectedGraph.OffHeapEdge)) {
+                return false;
+            }
+            final OffHeapDirectedGraph<?>.OffHeapEdge e = (OffHeapDirectedGraph<?>.OffHeapEdge) o;
+            if (e.graph() != OffHeapDirectedGraph.this) {
+                return false;
+            }
+            for (int i = from; i < to; i++) {
+                if (positionAt(i) == e.position) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Iterator<OffHeapEdge> iterator() {
+            return new Iterator<OffHeapEdge>() {
+
+                private int i = from;
+
+                @Override
+                public boolean hasNext() {
+                    return i < to;
+                }
+
+                @Override
+                public OffHeapEdge next() {
+                    if (i >= to) {
+                        throw new NoSuchElementException();
+                    }
+                    return new OffHeapEdge(positionAt(i++));
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+    }
+
+    final class VertexSet extends AbstractSet<V> {
+
+        @Override
+        public boolean contains(Object o) {
+            return index.indexOf(o) >= 0;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new Iterator<V>() {
+
+                private int i = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return i < index.bound();
+                }
+
+                @Override
+                public V next() {
+                    if (i >= index.bound()) {
+                        throw new NoSuchElementException();
+                    }
+                    return index.vertexAt(i++);
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+
+    }
+
+    private static final String READ_ONLY = "Off-heap graph is read-only.";
+
+    private static final String READ_ONLY_VALUES = "Graph file has been opened read-only.";
+
+    final VertexIndex<V> index;
+
+    final int edgeCount;
+
+    final DirectArray outOffsets, outTargets, inOffsets, inSources, inPositions;
+
+    final DirectArray weights, capacities, flows;
+
+    /**
+     * Creates a graph over prepared columns.
+     */
+    OffHeapDirectedGraph(VertexIndex<V> index, DirectArray outOffsets, DirectArray outTargets,
+            DirectArray inOffsets, DirectArray inSources, DirectArray inPositions,
+            DirectArray weights, DirectArray capacities, DirectArray flows) {
+        this.index = index;
+        this.edgeCount = outTargets.length();
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.inOffsets = inOffsets;
+        this.inSources = inSources;
+        this.inPositions = inPositions;
+        this.weights = weights;
+        this.capacities = capacities;
+        this.flows = flows;
+    }
+
+    /**
+     * Edges from one source vertex and indices of the vertices they lead to,
+     * which are kept in growable arrays reused for every row of the copy.
+     */
+    private static final class Row<V, E extends Edge<V>> implements Consumer<E> {
+
+        private final Graph<V, E> graph;
+
+        private final VertexIndex<V> index;
+
+        private V from;
+
+        private Object[] edges = new Object[16];
+
+        private long[] order = new long[16];
+
+        private int size;
+
+        private Row(Graph<V, E> graph, VertexIndex<V> index) {
+            this.graph = graph;
+            this.index = index;
+        }
+
+        private void collect(V v) {
+            from = v;
+            size = 0;
+            graph.forEachOutEdge(v, this);
+        }
+
+        @Override
+        public void accept(E e) {
+            if (size == edges.length) {
+                edges = Arrays.copyOf(edges, size << 1);
+                order = Arrays.copyOf(order, size << 1);
+            }
+            order[size] = (long) index.indexOf(graph.getOpposite(e, from)) << 32 | size;
+            edges[size++] = e;
+        }
+
+    }
+
+    /**
+     * Copies the given graph off the heap. Weights of
+     * {@link WeightedEdge weighted edges} and capacities and flows of
+     * {@link FlowEdge flow edges} are copied as well, other edges get weight of 1
+     * and zero capacity and flow.
+     *
+     * <p>
+     * The adjacency is taken from {@link Graph#forEachOutEdge}, with the other
+     * end of each edge given by {@link Graph#getOpposite}. An edge of an
+     * undirected graph is therefore copied as two directed edges, one from each
+     * of its ends.
+     * </p>
+     *
+     * @param graph graph to be copied
+     */
+    public OffHeapDirectedGraph(Graph<V, ? extends Edge<V>> graph) {
+        this(new Row<>(graph, new VertexIndex<>(graph.sizeOfVertices())));
+    }
+
+    private OffHeapDirectedGraph(Row<V, ?> row) {
+        final Graph<V, ?> graph = row.graph;
+        final int n = graph.sizeOfVertices();
+        index = row.index;
+        for (V v : graph.getAllVertices()) {
+            index.add(v);
+        }
+
+        /* Edges reported from a vertex may outnumber sizeOfEdges(), so count them first. */
+        int m = 0;
+        for (int u = 0; u < n; u++) {
+            row.collect(index.vertexAt(u));
+            m += row.size;
+        }
+        edgeCount = m;
+        outOffsets = DirectArray.ofInts(n + 1);
+        outTargets = DirectArray.ofInts(m);
+        inOffsets = DirectArray.ofInts(n + 1);
+        inSources = DirectArray.ofInts(m);
+        inPositions = DirectArray.ofInts(m);
+        weights = DirectArray.ofDoubles(m);
+        capacities = DirectArray.ofDoubles(m);
+        flows = DirectArray.ofDoubles(m);
+
+        /* Write rows one by one, sorting each of them by target on the heap. */
+        final int[] inDegrees = new int[n + 1];
+        int position = 0;
+        for (int u = 0; u < n; u++) {
+            outOffsets.setInt(u, position);
+            row.collect(index.vertexAt(u));
+            Arrays.sort(row.order, 0, row.size);
+            for (int k = 0; k < row.size; k++) {
+                final long key = row.order[k];
+                final int v = (int) (key >>> 32);
+                final Object e = row.edges[(int) key];
+                outTargets.setInt(position, v);
+                weights.setDouble(position, e instanceof WeightedEdge ? ((WeightedEdge<?, ?>) e).getWeight() : 1d);
+                if (e instanceof FlowEdge) {
+                    capacities.setDouble(position, ((FlowEdge<?>) e).getCapacity());
+                    flows.setDouble(position, ((FlowEdge<?>) e).getFlow());
+                }
+                inDegrees[v + 1]++;
+                position++;
+            }
+        }
+        outOffsets.setInt(n, position);
+
+        /* Scanning outgoing edges by source keeps incoming edges sorted by source. */
+        for (int v = 0; v < n; v++) {
+            inOffsets.setInt(v, inDegrees[v]);
+            inDegrees[v + 1] += inDegrees[v];
+        }
+        inOffsets.setInt(n, m);
+        for (int u = 0; u < n; u++) {
+            for (int i = outOffsets.getInt(u), end = outOffsets.getInt(u + 1); i < end; i++) {
+                final int p = inDegrees[outTargets.getInt(i)]++;
+                inSources.setInt(p, u);
+                inPositions.setInt(p, i);
+            }
+        }
+    }
+
+    private int lowerBound(int from, int to, int target) {
+        while (from < to) {
+            final int mid = (from + to) >>> 1;
+            if (outTargets.getInt(mid) < target) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    private int sourceOf(int position) {
+        int from = 0, to = index.bound();
+        while (from < to) {
+            final int mid = (from + to) >>> 1;
+            if (outOffsets.getInt(mid + 1) <= position) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    @Override
+    public VertexIndex<V> getVertexIndex() {
+        return index;
+    }
+
+    @Override
+    public int getOutOffset(int v) {
+        return outOffsets.getInt(v);
+    }
+
+    @Override
+    public int getOutTarget(int position) {
+        return outTargets.getInt(position);
+    }
+
+    @Override
+    public OffHeapEdge getOutEdge(int position) {
+        if (position < 0 || position >= edgeCount) {
+            throw new ArrayIndexOutOfBoundsException(position);
+        }
+        return new OffHeapEdge(position);
+    }
+
+    @Override
+    public double getOutWeight(int position) {
+        return weights.getDouble(position);
+    }
+
+    @Override
+    public int getInOffset(int v) {
+        return inOffsets.getInt(v);
+    }
+
+    @Override
+    public int getInSource(int position) {
+        return inSources.getInt(position);
+    }
+
+    @Override
+    public OffHeapEdge getInEdge(int position) {
+        return new OffHeapEdge(inPositions.getInt(position));
+    }
+
+    @Override
+    public boolean addEdge(OffHeapEdge e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean addVertex(V v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean containsEdge(OffHeapEdge e) {
+        return e != null && e.graph() == this;
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) {
+        final int u = index.indexOf(v1);
+        final int v = index.indexOf(v2);
+        if (u < 0 || v < 0) {
+            return false;
+        }
+        final int end = outOffsets.getInt(u + 1);
+        final int position = lowerBound(outOffsets.getInt(u), end, v);
+        return position < end && outTargets.getInt(position) == v;
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return index.indexOf(v) >= 0;
+    }
+
+    @Override
+    public Set<OffHeapEdge> getAllEdges() {
+        return new EdgeRange(null, 0, edgeCount);
+    }
+
+    @Override
+    public Set<V> getAllVertices() {
+        return new VertexSet();
+    }
+
+    @Override
+    public Set<OffHeapEdge> getEdges(V v1, V v2) {
+        final int u = index.indexOf(v1);
+        final int v = index.indexOf(v2);
+        if (u < 0 || v < 0) {
+            return null;
+        }
+        final int end = outOffsets.getInt(u + 1);
+        final int from = lowerBound(outOffsets.getInt(u), end, v);
+        int to = from;
+        while (to < end && outTargets.getInt(to) == v) {
+            to++;
+        }
+        return from == to ? null : new EdgeRange(null, from, to);
+    }
+
+    @Override
+    public Set<OffHeapEdge> getEdgesFromSource(V v) {
+        final int u = index.indexOf(v);
+        return u < 0 ? null : new EdgeRange(null, outOffsets.getInt(u), outOffsets.getInt(u + 1));
+    }
+
+    @Override
+    public Set<OffHeapEdge> getEdgesToTarget(V v) {
+        final int u = index.indexOf(v);
+        return u < 0 ? null : new EdgeRange(inPositions, inOffsets.getInt(u), inOffsets.getInt(u + 1));
+    }
+
+    @Override
+    public int getInDegree(V v) {
+        final int u = index.indexOf(v);
+        return u < 0 ? -1 : inOffsets.getInt(u + 1) - inOffsets.getInt(u);
+    }
+
+    @Override
+    public int getOutDegree(V v) {
+        final int u = index.indexOf(v);
+        return u < 0 ? -1 : outOffsets.getInt(u + 1) - outOffsets.getInt(u);
+    }
+
+    @Override
+    public boolean removeAllEdges(Collection<OffHeapEdge> e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeAllVertices(Collection<V> v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeEdge(OffHeapEdge e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public int sizeOfEdges() {
+        return edgeCount;
+    }
+
+    @Override
+    public int sizeOfVertices() {
+        return index.bound();
+    }
+
+    @Override
+    public String toString() {
+        return "Graph:" + getAllEdges();
+    }
+
+}
@@ -0,0 +1,168 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.Edge;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Read-only view of a directed graph with all edges reversed.
+ *
+ * <p>
+ * Outgoing edges of a vertex in the view are its incoming edges in the
+ * backing graph and vice versa. The edges themselves are the same instances,
+ * so their source and target stay as they are, and the view leads from the
+ * target of an edge to its source by {@link #getOpposite(Edge, Object)}. The
+ * other end of the edge is returned, rather than always its source, so views
+ * of views and of undirected graphs are traversed correctly as well. The view
+ * is created in constant time and reflects later changes of the graph.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @param <E> type for edges
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+final class ReversedView<V, E extends Edge<V>> implements Graph<V, E> {
+
+    private static final String READ_ONLY = "Reversed view is read-only.";
+
+    private final Graph<V, E> graph;
+
+    ReversedView(Graph<V, E> graph) {
+        this.graph = graph;
+    }
+
+    private static <T> Set<T> readOnly(Set<T> set) {
+        return set == null ? null : Collections.unmodifiableSet(set);
+    }
+
+    @Override
+    public boolean addEdge(E e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean addVertex(V v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        return graph.containsEdge(e);
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) {
+        return graph.containsEdge(v2, v1);
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return graph.containsVertex(v);
+    }
+
+    @Override
+    public Set<E> getAllEdges() {
+        return readOnly(graph.getAllEdges());
+    }
+
+    @Override
+    public Set<V> getAllVertices() {
+        return readOnly(graph.getAllVertices());
+    }
+
+    @Override
+    public int getOutDegree(V v) {
+        return graph.getInDegree(v);
+    }
+
+    @Override
+    public int getInDegree(V v) {
+        return graph.getOutDegree(v);
+    }
+
+    @Override
+    public VertexIndex<V> getVertexIndex() {
+        return graph.getVertexIndex();
+    }
+
+    @Override
+    public Set<E> getEdges(V v1, V v2) {
+        return readOnly(graph.getEdges(v2, v1));
+    }
+
+    @Override
+    public Set<E> getEdgesFromSource(V v) {
+        return readOnly(graph.getEdgesToTarget(v));
+    }
+
+    @Override
+    public Set<E> getEdgesToTarget(V v) {
+        return readOnly(graph.getEdgesFromSource(v));
+    }
+
+    @Override
+    public void forEachOutEdge(V v, Consumer<? super E> action) {
+        graph.forEachInEdge(v, action);
+    }
+
+    @Override
+    public void forEachInEdge(V v, Consumer<? super E> action) {
+        graph.forEachOutEdge(v, action);
+    }
+
+    @Override
+    public V getOpposite(E e, V v) {
+        final V source = e.getSource();
+        return source.equals(v) ? e.getTarget() : source;
+    }
+
+    @Override
+    public Graph<V, E> reversed() {
+        return graph;
+    }
+
+    @Override
+    public boolean removeAllEdges(Collection<E> e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeAllVertices(Collection<V> v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeEdge(E e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public int sizeOfEdges() {
+        return graph.sizeOfEdges();
+    }
+
+    @Override
+    public int sizeOfVertices() {
+        return graph.sizeOfVertices();
+    }
+
+}
@@ -0,0 +1,265 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.Edge;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Read-only view of the vertices and edges of a graph, which pass the given
+ * filters. An edge is in the view, if it passes the edge filter and both its
+ * vertices are in the view.
+ *
+ * <p>
+ * Nothing is copied: the filters are applied while the adjacency of the
+ * backing graph is traversed, so the view reflects later changes of the graph
+ * and of the state the filters read. Sizes and degrees are counted on every
+ * call.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @param <E> type for edges
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+final class SubgraphView<V, E extends Edge<V>> implements Graph<V, E> {
+
+    /**
+     * Read-only view of the elements of a set, which pass a filter.
+     */
+    private static final class FilteredSet<T> extends AbstractSet<T> {
+
+        private final Set<T> set;
+
+        private final Predicate<? super T> filter;
+
+        FilteredSet(Set<T> set, Predicate<? super T> filter) {
+            this.set = set;
+            this.filter = filter;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return set.contains(o) && filter.test((T) o);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            final Iterator<T> iterator = set.iterator();
+            return new Iterator<T>() {
+
+                private T next;
+
+                private boolean hasNext;
+
+                @Override
+                public boolean hasNext() {
+                    while (!hasNext && iterator.hasNext()) {
+                        final T element = iterator.next();
+                        if (filter.test(element)) {
+                            next = element;
+                            hasNext = true;
+                        }
+                    }
+                    return hasNext;
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    hasNext = false;
+                    return next;
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (T element : set) {
+                if (filter.test(element)) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+    }
+
+    private static final String READ_ONLY = "Subgraph view is read-only.";
+
+    private final Graph<V, E> graph;
+
+    private final Predicate<? super V> vertexFilter;
+
+    private final Predicate<? super E> edgeFilter;
+
+    SubgraphView(Graph<V, E> graph, Predicate<? super V> vertexFilter, Predicate<? super E> edgeFilter) {
+        this.graph = graph;
+        this.vertexFilter = vertexFilter == null ? v -> true : vertexFilter;
+        this.edgeFilter = edgeFilter == null ? e -> true : edgeFilter;
+    }
+
+    private boolean accepts(E e) {
+        return edgeFilter.test(e) && vertexFilter.test(e.getSource()) && vertexFilter.test(e.getTarget());
+    }
+
+    /**
+     * Checks an edge from a vertex, which is known to be in the view.
+     */
+    private boolean acceptsFrom(E e, V v) {
+        return edgeFilter.test(e) && vertexFilter.test(graph.getOpposite(e, v));
+    }
+
+    @Override
+    public boolean addEdge(E e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean addVertex(V v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        return e != null && graph.containsEdge(e) && accepts(e);
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) {
+        final Set<E> edges = getEdges(v1, v2);
+        return edges != null && !edges.isEmpty();
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return graph.containsVertex(v) && vertexFilter.test(v);
+    }
+
+    @Override
+    public Set<E> getAllEdges() {
+        return new FilteredSet<>(graph.getAllEdges(), this::accepts);
+    }
+
+    @Override
+    public Set<V> getAllVertices() {
+        return new FilteredSet<>(graph.getAllVertices(), vertexFilter);
+    }
+
+    @Override
+    public int getOutDegree(V v) {
+        final Set<E> edges = getEdgesFromSource(v);
+        return edges == null ? -1 : edges.size();
+    }
+
+    @Override
+    public int getInDegree(V v) {
+        final Set<E> edges = getEdgesToTarget(v);
+        return edges == null ? -1 : edges.size();
+    }
+
+    @Override
+    public Set<E> getEdges(V v1, V v2) {
+        if (!containsVertex(v1) || !containsVertex(v2)) {
+            return null;
+        }
+        final Set<E> edges = graph.getEdges(v1, v2);
+        return edges == null ? null : new FilteredSet<>(edges, edgeFilter);
+    }
+
+    @Override
+    public Set<E> getEdgesFromSource(V v) {
+        if (!containsVertex(v)) {
+            return null;
+        }
+        final Set<E> edges = graph.getEdgesFromSource(v);
+        return edges == null ? null : new FilteredSet<>(edges, e -> acceptsFrom(e, v));
+    }
+
+    @Override
+    public Set<E> getEdgesToTarget(V v) {
+        if (!containsVertex(v)) {
+            return null;
+        }
+        final Set<E> edges = graph.getEdgesToTarget(v);
+        return edges == null ? null : new FilteredSet<>(edges, this::accepts);
+    }
+
+    @Override
+    public void forEachOutEdge(V v, Consumer<? super E> action) {
+        if (containsVertex(v)) {
+            graph.forEachOutEdge(v, e -> {
+                if (acceptsFrom(e, v)) {
+                    action.accept(e);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void forEachInEdge(V v, Consumer<? super E> action) {
+        if (containsVertex(v)) {
+            graph.forEachInEdge(v, e -> {
+                if (accepts(e)) {
+                    action.accept(e);
+                }
+            });
+        }
+    }
+
+    @Override
+    public V getOpposite(E e, V v) {
+        return graph.getOpposite(e, v);
+    }
+
+    @Override
+    public boolean removeAllEdges(Collection<E> e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeAllVertices(Collection<V> v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeEdge(E e) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public int sizeOfEdges() {
+        return getAllEdges().size();
+    }
+
+    @Override
+    public int sizeOfVertices() {
+        return getAllVertices().size();
+    }
+
+}
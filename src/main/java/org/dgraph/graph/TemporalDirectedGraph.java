@@ -0,0 +1,105 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.TemporalEdge;
+
+/**
+ * Implementation of a directed graph, which keeps the history of its edges.
+ *
+ * <p>
+ * Every edge exists only during its interval of validity, which is stored in
+ * the edge as two primitive <tt>long</tt>s. The graph itself contains the
+ * edges of all times, and {@link #asOf(long)} returns a view of the graph at
+ * a given moment without copying it. Edges of different intervals between the
+ * same vertices should be multi-edges, like
+ * {@link org.dgraph.graph.edge.TemporalWeightedMultiEdge}, so that they are
+ * not equal to each other. Vertices are not temporal and are present at any
+ * moment.
+ * </p>
+ *
+ * <p>
+ * Time-respecting paths, which take every edge during its interval, are
+ * found by {@link org.dgraph.graph.algorithm.EarliestArrival}.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @param <E> type for edges. Should implement
+ *            {@link org.dgraph.graph.edge.TemporalEdge TemporalEdge&lt;V&gt;}
+ *            interface
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class TemporalDirectedGraph<V, E extends TemporalEdge<V>> extends DirectedGraph<V, E> {
+
+    private static final long serialVersionUID = -1618924016829542875L;
+
+    private long firstTime = Long.MAX_VALUE, lastTime = Long.MIN_VALUE;
+
+    /**
+     * Creates an instance of a new temporal directed graph, which can contain loops.
+     */
+    public TemporalDirectedGraph() {
+        super(true);
+    }
+
+    /**
+     * Creates an instance of a new temporal directed graph.
+     *
+     * @param withLoops specifies whether the graph can contain loops or not
+     */
+    public TemporalDirectedGraph(boolean withLoops) {
+        super(withLoops);
+    }
+
+    /**
+     * Creates an instance of a new temporal directed graph with space
+     * preallocated for the expected number of vertices and edges.
+     *
+     * @param withLoops        specifies whether the graph can contain loops or not
+     * @param expectedVertices expected number of vertices
+     * @param expectedEdges    expected number of edges of all times
+     */
+    public TemporalDirectedGraph(boolean withLoops, int expectedVertices, int expectedEdges) {
+        super(null, withLoops, expectedVertices, expectedEdges);
+    }
+
+    @Override
+    void edgeAdded(E e) {
+        firstTime = Math.min(firstTime, e.getValidFrom());
+        lastTime = Math.max(lastTime, e.getValidTo());
+    }
+
+    /**
+     * Returns a read-only view of this graph at the given moment, which contains
+     * all vertices and the edges valid at this moment. The view reflects later
+     * changes of this graph.
+     *
+     * @param time the moment
+     * @return the view of this graph at the moment
+     */
+    public Graph<V, E> asOf(long time) {
+        return subgraph(null, e -> e.isValidAt(time));
+    }
+
+    /**
+     * Returns the earliest start of the intervals of all edges ever added to this
+     * graph.
+     *
+     * @return the first moment, when any edge exists, or
+     * {@link Long#MAX_VALUE} if no edges have been added
+     */
+    public long getFirstTime() {
+        return firstTime;
+    }
+
+    /**
+     * Returns the latest end of the intervals of all edges ever added to this
+     * graph.
+     *
+     * @return the moment, when all edges have ceased to exist, or
+     * {@link Long#MIN_VALUE} if no edges have been added
+     */
+    public long getLastTime() {
+        return lastTime;
+    }
+
+}
@@ -0,0 +1,489 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.Edge;
+import org.dgraph.graph.edge.WeightedEdge;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Implementation of an undirected graph.
+ *
+ * <p>
+ * Every edge is stored once and connects its source and target in both
+ * directions: each vertex maps its neighbours to the edges, which connect
+ * them, so the edge is found from either end in constant time. Methods, which
+ * take a source and a target vertex, accept them in any order. Edges from a
+ * vertex are the same as edges to it: all edges incident to the vertex, a loop
+ * is counted once. Edges are still distinguished by {@code equals()}, so edges
+ * between the same vertices in opposite orientations are parallel edges.
+ * </p>
+ *
+ * <p>
+ * Returned sets are unmodifiable, {@link #getEdges(Object, Object)} returns a
+ * snapshot, other sets are live views.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @param <E> type for edges. Should implement
+ *            {@link org.dgraph.graph.edge.Edge Edge&lt;V&gt;} interface
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class UndirectedGraph<V, E extends Edge<V>> implements Graph<V, E> {
+
+    /**
+     * Parallel edges between the same pair of vertices.
+     */
+    private static final class EdgeList extends ArrayList<Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        EdgeList(Object e1, Object e2) {
+            super(2);
+            add(e1);
+            add(e2);
+        }
+
+    }
+
+    /**
+     * Edges incident to a vertex grouped by neighbour. A value of the map is
+     * either a single edge or an {@link EdgeList}. The adjacency itself is a
+     * read-only set view of the edges.
+     */
+    private final class Adjacency extends AbstractSet<E> {
+
+        private final V vertex;
+
+        private final HashMap<V, Object> neighbours;
+
+        private int degree;
+
+        Adjacency(V vertex) {
+            this.vertex = vertex;
+            neighbours = new HashMap<>(4);
+        }
+
+        void link(V neighbour, E e) {
+            final Object old = neighbours.putIfAbsent(neighbour, e);
+            if (old instanceof EdgeList) {
+                ((EdgeList) old).add(e);
+            } else if (old != null) {
+                neighbours.put(neighbour, new EdgeList(old, e));
+            }
+            degree++;
+        }
+
+        void unlink(V neighbour, E e) {
+            final Object old = neighbours.get(neighbour);
+            if (old instanceof EdgeList) {
+                final EdgeList list = (EdgeList) old;
+                list.remove(e);
+                if (list.size() == 1) {
+                    neighbours.put(neighbour, list.get(0));
+                }
+            } else {
+                neighbours.remove(neighbour);
+            }
+            degree--;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge) || !edges.contains(o)) {
+                return false;
+            }
+            final Edge<?> e = (Edge<?>) o;
+            return vertex.equals(e.getSource()) || vertex.equals(e.getTarget());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEach(Consumer<? super E> action) {
+            for (Object value : neighbours.values()) {
+                if (value instanceof EdgeList) {
+                    for (Object e : (EdgeList) value) {
+                        action.accept((E) e);
+                    }
+                } else {
+                    action.accept((E) value);
+                }
+            }
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            final Iterator<Object> values = neighbours.values().iterator();
+            return new Iterator<E>() {
+
+                private EdgeList list;
+
+                private int position;
+
+                @Override
+                public boolean hasNext() {
+                    return list != null || values.hasNext();
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public E next() {
+                    if (list != null) {
+                        final Object e = list.get(position++);
+                        if (position == list.size()) {
+                            list = null;
+                        }
+                        return (E) e;
+                    }
+                    if (!values.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    final Object value = values.next();
+                    if (value instanceof EdgeList) {
+                        list = (EdgeList) value;
+                        position = 1;
+                        return (E) list.get(0);
+                    }
+                    return (E) value;
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+            return degree;
+        }
+
+    }
+
+    private final HashMap<V, Adjacency> vertices;
+
+    private final Set<E> edges;
+
+    private final VertexIndex<V> index;
+
+    private final boolean withLoops;
+
+    private final BiFunction<V, V, E> edgeFactory;
+
+    /** Creates an instance of a new undirected graph without loops. */
+    public UndirectedGraph() {
+        this(null, false);
+    }
+
+    /**
+     * Creates an instance of a new undirected graph with edge factory. The edge
+     * factory will be used in the {@link #addEdge(Object, Object) addEdge(V v1,
+     * V v2)} method. Otherwise, if no edge factory is given, this method will
+     * throw {@link UnsupportedOperationException}.
+     *
+     * @param edgeFactory the edge factory to create edge by given source and
+     *                    target vertices
+     * @param withLoops   specifies whether the graph can contain loops or not
+     */
+    public UndirectedGraph(BiFunction<V, V, E> edgeFactory, boolean withLoops) {
+        this(edgeFactory, withLoops, 12, 12);
+    }
+
+    /**
+     * Creates an instance of a new undirected graph with edge factory and
+     * structures preallocated for the expected number of vertices and edges.
+     *
+     * @param edgeFactory      the edge factory to create edge by given source and
+     *                         target vertices
+     * @param withLoops        specifies whether the graph can contain loops or not
+     * @param expectedVertices expected number of vertices
+     * @param expectedEdges    expected number of edges
+     */
+    public UndirectedGraph(BiFunction<V, V, E> edgeFactory, boolean withLoops, int expectedVertices,
+                           int expectedEdges) {
+        this.edgeFactory = edgeFactory;
+        this.withLoops = withLoops;
+        vertices = new HashMap<>(AbstractDirectedGraph.capacityFor(expectedVertices));
+        edges = new HashSet<>(AbstractDirectedGraph.capacityFor(expectedEdges));
+        index = new VertexIndex<>(Math.max(expectedVertices, 1));
+    }
+
+    private Adjacency adjacency(V v) {
+        Adjacency adjacency = vertices.get(v);
+        if (adjacency == null) {
+            adjacency = new Adjacency(v);
+            vertices.put(v, adjacency);
+            index.add(v);
+        }
+        return adjacency;
+    }
+
+    @Override
+    public boolean addEdge(E e) {
+        final V source = Objects.requireNonNull(e.getSource());
+        final V target = Objects.requireNonNull(e.getTarget());
+        final boolean loop = source.equals(target);
+        if (!withLoops && loop || !edges.add(e)) {
+            return false;
+        }
+        adjacency(source).link(target, e);
+        if (!loop) {
+            adjacency(target).link(source, e);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2) {
+        if (edgeFactory == null) {
+            throw new UnsupportedOperationException("Edge factory is not specified.");
+        }
+        return addEdge(edgeFactory.apply(v1, v2));
+    }
+
+    @Override
+    public boolean addVertex(V v) {
+        Objects.requireNonNull(v);
+        if (vertices.containsKey(v)) {
+            return false;
+        }
+        adjacency(v);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        vertices.clear();
+        edges.clear();
+        index.clear();
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        return e != null && edges.contains(e);
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) {
+        final Adjacency adjacency = vertices.get(v1);
+        return adjacency != null && adjacency.neighbours.containsKey(v2);
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return vertices.containsKey(v);
+    }
+
+    @Override
+    public Set<E> getAllEdges() {
+        return Collections.unmodifiableSet(edges);
+    }
+
+    @Override
+    public Set<V> getAllVertices() {
+        return Collections.unmodifiableSet(vertices.keySet());
+    }
+
+    /**
+     * Returns the index of the vertices of this graph. The index is maintained
+     * by the graph, so it stays valid between modifications.
+     *
+     * @return the vertex index of this graph
+     */
+    @Override
+    public VertexIndex<V> getVertexIndex() {
+        return index;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<E> getEdges(V v1, V v2) {
+        final Adjacency adjacency = vertices.get(v1);
+        final Object value = adjacency == null ? null : adjacency.neighbours.get(v2);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof EdgeList) {
+            final Set<E> result = new HashSet<>();
+            for (Object e : (EdgeList) value) {
+                result.add((E) e);
+            }
+            return Collections.unmodifiableSet(result);
+        }
+        return Collections.singleton((E) value);
+    }
+
+    /**
+     * Returns a set view of the edges incident to the vertex <tt>v</tt>, in
+     * which it can be either the source or the target.
+     *
+     * @param v vertex of the edges
+     * @return an unmodifiable set view of the edges incident to the vertex
+     */
+    @Override
+    public Set<E> getEdgesFromSource(V v) {
+        return vertices.get(v);
+    }
+
+    /**
+     * Returns a set view of the edges incident to the vertex <tt>v</tt>, which
+     * is the same as {@link #getEdgesFromSource(Object)}.
+     *
+     * @param v vertex of the edges
+     * @return an unmodifiable set view of the edges incident to the vertex
+     */
+    @Override
+    public Set<E> getEdgesToTarget(V v) {
+        return vertices.get(v);
+    }
+
+    @Override
+    public void forEachOutEdge(V v, Consumer<? super E> action) {
+        final Adjacency adjacency = vertices.get(v);
+        if (adjacency != null) {
+            adjacency.forEach(action);
+        }
+    }
+
+    @Override
+    public void forEachInEdge(V v, Consumer<? super E> action) {
+        forEachOutEdge(v, action);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Neighbours are the keys of the adjacency of the vertex, so no ends of the
+     * edges are compared.
+     * </p>
+     */
+    @Override
+    public void forEachOutNeighbor(V v, ObjDoubleConsumer<? super V> action) {
+        final Adjacency adjacency = vertices.get(v);
+        if (adjacency == null) {
+            return;
+        }
+        for (Map.Entry<V, Object> entry : adjacency.neighbours.entrySet()) {
+            final Object value = entry.getValue();
+            if (value instanceof EdgeList) {
+                for (Object e : (EdgeList) value) {
+                    action.accept(entry.getKey(), weightOf(e));
+                }
+            } else {
+                action.accept(entry.getKey(), weightOf(value));
+            }
+        }
+    }
+
+    private static double weightOf(Object e) {
+        return e instanceof WeightedEdge ? ((WeightedEdge<?, ?>) e).getWeight() : 1d;
+    }
+
+    @Override
+    public V getOpposite(E e, V v) {
+        final V source = e.getSource();
+        return source.equals(v) ? e.getTarget() : source;
+    }
+
+    /**
+     * Returns this graph, since its edges have no direction.
+     *
+     * @return this graph
+     */
+    @Override
+    public Graph<V, E> reversed() {
+        return this;
+    }
+
+    @Override
+    public int getInDegree(V v) {
+        return getOutDegree(v);
+    }
+
+    @Override
+    public int getOutDegree(V v) {
+        final Adjacency adjacency = vertices.get(v);
+        return adjacency == null ? -1 : adjacency.degree;
+    }
+
+    @Override
+    public boolean removeAllEdges(Collection<E> e) {
+        Objects.requireNonNull(e);
+        boolean modified = false;
+        for (final Iterator<E> i = e.iterator(); i.hasNext(); ) {
+            modified |= removeEdge(i.next());
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeAllVertices(Collection<V> v) {
+        Objects.requireNonNull(v);
+        boolean modified = false;
+        for (final Iterator<V> i = v.iterator(); i.hasNext(); ) {
+            modified |= removeVertex(i.next());
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeEdge(E e) {
+        if (e == null || !edges.remove(e)) {
+            return false;
+        }
+        final V source = e.getSource();
+        final V target = e.getTarget();
+        vertices.get(source).unlink(target, e);
+        if (!source.equals(target)) {
+            vertices.get(target).unlink(source, e);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+        final Adjacency adjacency = vertices.remove(v);
+        if (adjacency == null) {
+            return false;
+        }
+        adjacency.forEach(edges::remove);
+        /* All edges between the vertex and a neighbour go at once. */
+        for (Map.Entry<V, Object> entry : adjacency.neighbours.entrySet()) {
+            final Adjacency other = vertices.get(entry.getKey());
+            if (other != null) {
+                other.neighbours.remove(v);
+                final Object value = entry.getValue();
+                other.degree -= value instanceof EdgeList ? ((EdgeList) value).size() : 1;
+            }
+        }
+        index.remove(v);
+        return true;
+    }
+
+    @Override
+    public int sizeOfEdges() {
+        return edges.size();
+    }
+
+    @Override
+    public int sizeOfVertices() {
+        return vertices.size();
+    }
+
+    @Override
+    public String toString() {
+        return "Graph:" + edges;
+    }
+
+}
@@ -0,0 +1,439 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.Edge;
+import org.dgraph.util.PersistentHashMap;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Directed graph with multi-version concurrency control.
+ *
+ * <p>
+ * Every modification commits a new immutable {@link Version} of the graph.
+ * Versions are built from {@link PersistentHashMap persistent maps}, so a
+ * commit copies only O(log n) nodes and shares everything else with the
+ * previous version. {@link #snapshot()} returns the current version in O(1)
+ * time. A snapshot never changes, so algorithms like
+ * {@link org.dgraph.graph.algorithm.Johnson Johnson} or
+ * {@link org.dgraph.graph.algorithm.FloydWarshall FloydWarshall} can run on it
+ * while other threads keep modifying the graph.
+ * </p>
+ *
+ * <p>
+ * Writers are serialized, readers never block. Reading methods of this graph
+ * read the latest committed version, and the sets they return belong to that
+ * version, so they do not reflect later modifications and cannot be modified.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @param <E> type for edges. Should implement
+ *            {@link org.dgraph.graph.edge.Edge Edge&lt;V&gt;} interface
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class VersionedDirectedGraph<V, E extends Edge<V>> implements Graph<V, E> {
+
+    static final class Adjacency<E> {
+
+        static final Adjacency<?> EMPTY = new Adjacency<>(PersistentHashMap.empty(), PersistentHashMap.empty());
+
+        final PersistentHashMap<E, E> outgoing;
+
+        final PersistentHashMap<E, E> incoming;
+
+        Adjacency(PersistentHashMap<E, E> outgoing, PersistentHashMap<E, E> incoming) {
+            this.outgoing = outgoing;
+            this.incoming = incoming;
+        }
+
+    }
+
+    /**
+     * Immutable state of a versioned graph. Every method, which modifies the
+     * graph, throws {@link UnsupportedOperationException}.
+     *
+     * @param <V> type for vertices
+     * @param <E> type for edges
+     */
+    public static final class Version<V, E extends Edge<V>> implements Graph<V, E> {
+
+        private static final String READ_ONLY = "Graph version is read-only.";
+
+        final PersistentHashMap<V, Adjacency<E>> vertices;
+
+        final PersistentHashMap<E, E> edges;
+
+        final long number;
+
+        Version(PersistentHashMap<V, Adjacency<E>> vertices, PersistentHashMap<E, E> edges, long number) {
+            this.vertices = vertices;
+            this.edges = edges;
+            this.number = number;
+        }
+
+        /**
+         * Returns the number of this version. The first version of a graph has
+         * number 0, every commit increments it.
+         *
+         * @return the number of this version
+         */
+        public long getNumber() {
+            return number;
+        }
+
+        @Override
+        public boolean addEdge(E e) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public boolean addEdge(V v1, V v2) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public boolean addVertex(V v) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public boolean containsEdge(E e) {
+            return edges.containsKey(e);
+        }
+
+        @Override
+        public boolean containsEdge(V v1, V v2) {
+            final Adjacency<E> adjacency = vertices.get(v1);
+            if (adjacency == null) {
+                return false;
+            }
+            for (E e : adjacency.outgoing.keySet()) {
+                if (e.getTarget().equals(v2)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean containsVertex(V v) {
+            return vertices.containsKey(v);
+        }
+
+        @Override
+        public Set<E> getAllEdges() {
+            return edges.keySet();
+        }
+
+        @Override
+        public Set<V> getAllVertices() {
+            return vertices.keySet();
+        }
+
+        @Override
+        public Set<E> getEdges(V v1, V v2) {
+            final Adjacency<E> adjacency = vertices.get(v1);
+            if (adjacency == null) {
+                return null;
+            }
+            final Set<E> result = new HashSet<>();
+            for (E e : adjacency.outgoing.keySet()) {
+                if (e.getTarget().equals(v2)) {
+                    result.add(e);
+                }
+            }
+            return result.isEmpty() ? null : Collections.unmodifiableSet(result);
+        }
+
+        @Override
+        public Set<E> getEdgesFromSource(V v) {
+            final Adjacency<E> adjacency = vertices.get(v);
+            return adjacency == null ? null : adjacency.outgoing.keySet();
+        }
+
+        @Override
+        public Set<E> getEdgesToTarget(V v) {
+            final Adjacency<E> adjacency = vertices.get(v);
+            return adjacency == null ? null : adjacency.incoming.keySet();
+        }
+
+        @Override
+        public int getInDegree(V v) {
+            final Adjacency<E> adjacency = vertices.get(v);
+            return adjacency == null ? -1 : adjacency.incoming.size();
+        }
+
+        @Override
+        public int getOutDegree(V v) {
+            final Adjacency<E> adjacency = vertices.get(v);
+            return adjacency == null ? -1 : adjacency.outgoing.size();
+        }
+
+        @Override
+        public boolean removeAllEdges(Collection<E> e) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public boolean removeAllVertices(Collection<V> v) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public boolean removeEdge(E e) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public boolean removeVertex(V v) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public int sizeOfEdges() {
+            return edges.size();
+        }
+
+        @Override
+        public int sizeOfVertices() {
+            return vertices.size();
+        }
+
+        @Override
+        public String toString() {
+            return "Graph:" + edges.keySet();
+        }
+
+    }
+
+    private final boolean withLoops;
+
+    private final BiFunction<V, V, E> edgeFactory;
+
+    private volatile Version<V, E> version = new Version<>(PersistentHashMap.empty(), PersistentHashMap.empty(), 0);
+
+    /** Creates an instance of a new versioned directed graph without loops. */
+    public VersionedDirectedGraph() {
+        this(null, false);
+    }
+
+    /**
+     * Creates an instance of a new versioned directed graph with edge factory.
+     * The edge factory will be used in the {@link #addEdge(Object, Object)
+     * addEdge(V v1, V v2)} method. Otherwise, if no edge factory is given, this
+     * method will throw {@link UnsupportedOperationException}.
+     *
+     * @param edgeFactory the edge factory to create edge by given source and
+     *                    target vertices
+     * @param withLoops   specifies whether the graph can contain loops or not
+     */
+    public VersionedDirectedGraph(BiFunction<V, V, E> edgeFactory, boolean withLoops) {
+        this.edgeFactory = edgeFactory;
+        this.withLoops = withLoops;
+    }
+
+    /**
+     * Returns the latest committed version of this graph. The returned graph
+     * is immutable and is not affected by later modifications of this graph.
+     *
+     * @return the current version
+     */
+    public Version<V, E> snapshot() {
+        return version;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V, E> Adjacency<E> adjacency(PersistentHashMap<V, Adjacency<E>> vertices, V v) {
+        final Adjacency<E> adjacency = vertices.get(v);
+        return adjacency == null ? (Adjacency<E>) Adjacency.EMPTY : adjacency;
+    }
+
+    private void commit(Version<V, E> current, PersistentHashMap<V, Adjacency<E>> vertices,
+                        PersistentHashMap<E, E> edges) {
+        version = new Version<>(vertices, edges, current.number + 1);
+    }
+
+    @Override
+    public synchronized boolean addEdge(E e) {
+        final V source = Objects.requireNonNull(e.getSource());
+        final V target = Objects.requireNonNull(e.getTarget());
+        if (!withLoops && source.equals(target)) {
+            return false;
+        }
+        final Version<V, E> current = version;
+        if (current.edges.containsKey(e)) {
+            return false;
+        }
+        PersistentHashMap<V, Adjacency<E>> vertices = current.vertices;
+        Adjacency<E> adjacency = adjacency(vertices, source);
+        vertices = vertices.plus(source, new Adjacency<>(adjacency.outgoing.plus(e, e), adjacency.incoming));
+        adjacency = adjacency(vertices, target);
+        vertices = vertices.plus(target, new Adjacency<>(adjacency.outgoing, adjacency.incoming.plus(e, e)));
+        commit(current, vertices, current.edges.plus(e, e));
+        return true;
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2) {
+        if (edgeFactory == null) {
+            throw new UnsupportedOperationException("Edge factory is not specified.");
+        }
+        return addEdge(edgeFactory.apply(v1, v2));
+    }
+
+    @Override
+    public synchronized boolean addVertex(V v) {
+        Objects.requireNonNull(v);
+        final Version<V, E> current = version;
+        if (current.vertices.containsKey(v)) {
+            return false;
+        }
+        commit(current, current.vertices.plus(v, adjacency(current.vertices, v)), current.edges);
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        commit(version, PersistentHashMap.empty(), PersistentHashMap.empty());
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        return version.containsEdge(e);
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) {
+        return version.containsEdge(v1, v2);
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return version.containsVertex(v);
+    }
+
+    @Override
+    public Set<E> getAllEdges() {
+        return version.getAllEdges();
+    }
+
+    @Override
+    public Set<V> getAllVertices() {
+        return version.getAllVertices();
+    }
+
+    @Override
+    public Set<E> getEdges(V v1, V v2) {
+        return version.getEdges(v1, v2);
+    }
+
+    @Override
+    public Set<E> getEdgesFromSource(V v) {
+        return version.getEdgesFromSource(v);
+    }
+
+    @Override
+    public Set<E> getEdgesToTarget(V v) {
+        return version.getEdgesToTarget(v);
+    }
+
+    @Override
+    public int getInDegree(V v) {
+        return version.getInDegree(v);
+    }
+
+    @Override
+    public int getOutDegree(V v) {
+        return version.getOutDegree(v);
+    }
+
+    @Override
+    public synchronized boolean removeAllEdges(Collection<E> e) {
+        Objects.requireNonNull(e);
+        boolean modified = false;
+        for (E edge : e) {
+            modified |= removeEdge(edge);
+        }
+        return modified;
+    }
+
+    @Override
+    public synchronized boolean removeAllVertices(Collection<V> v) {
+        Objects.requireNonNull(v);
+        boolean modified = false;
+        for (V vertex : v) {
+            modified |= removeVertex(vertex);
+        }
+        return modified;
+    }
+
+    @Override
+    public synchronized boolean removeEdge(E e) {
+        final Version<V, E> current = version;
+        if (e == null || !current.edges.containsKey(e)) {
+            return false;
+        }
+        final V source = e.getSource();
+        final V target = e.getTarget();
+        PersistentHashMap<V, Adjacency<E>> vertices = current.vertices;
+        Adjacency<E> adjacency = vertices.get(source);
+        vertices = vertices.plus(source, new Adjacency<>(adjacency.outgoing.minus(e), adjacency.incoming));
+        adjacency = vertices.get(target);
+        vertices = vertices.plus(target, new Adjacency<>(adjacency.outgoing, adjacency.incoming.minus(e)));
+        commit(current, vertices, current.edges.minus(e));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean removeVertex(V v) {
+        final Version<V, E> current = version;
+        final Adjacency<E> removed = current.vertices.get(v);
+        if (removed == null) {
+            return false;
+        }
+        PersistentHashMap<V, Adjacency<E>> vertices = current.vertices.minus(v);
+        PersistentHashMap<E, E> edges = current.edges;
+        for (E e : removed.outgoing.keySet()) {
+            edges = edges.minus(e);
+            final Adjacency<E> adjacency = vertices.get(e.getTarget());
+            if (adjacency != null) {
+                vertices = vertices.plus(e.getTarget(), new Adjacency<>(adjacency.outgoing, adjacency.incoming.minus(e)));
+            }
+        }
+        for (E e : removed.incoming.keySet()) {
+            edges = edges.minus(e);
+            final Adjacency<E> adjacency = vertices.get(e.getSource());
+            if (adjacency != null) {
+                vertices = vertices.plus(e.getSource(), new Adjacency<>(adjacency.outgoing.minus(e), adjacency.incoming));
+            }
+        }
+        commit(current, vertices, edges);
+        return true;
+    }
+
+    @Override
+    public int sizeOfEdges() {
+        return version.sizeOfEdges();
+    }
+
+    @Override
+    public int sizeOfVertices() {
+        return version.sizeOfVertices();
+    }
+
+    @Override
+    public String toString() {
+        return version.toString();
+    }
+
+}
@@ -0,0 +1,203 @@
+package org.dgraph.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Bidirectional mapping between vertices and small integer indices.
+ *
+ * <p>
+ * Indices are assigned when vertices are added. Index of a removed vertex is
+ * recycled by the next added vertex, so all indices stay lower than
+ * {@link #bound()}, which is never much larger than the number of vertices.
+ * Algorithms may use indices to keep their state in plain arrays of
+ * {@link #bound()} length instead of hash maps keyed by vertices.
+ * </p>
+ *
+ * <p>
+ * An index of a vertex stays the same while the vertex is in the graph, unless
+ * the index is explicitly compacted.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class VertexIndex<V> {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<V, Integer> indices;
+
+    private Object[] vertices;
+
+    private int[] free = EMPTY;
+
+    private int freeCount;
+
+    private int bound;
+
+    /**
+     * Creates an empty index with the given expected number of vertices.
+     *
+     * @param capacity expected number of vertices
+     */
+    VertexIndex(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * Creates an empty index with the given expected number of vertices, which
+     * compares vertices either with {@code equals()} or by reference.
+     *
+     * @param capacity expected number of vertices
+     * @param identity specifies whether vertices are compared by reference
+     */
+    VertexIndex(int capacity, boolean identity) {
+        indices = identity ? new IdentityHashMap<>(Math.max(16, capacity))
+                : new HashMap<>(Math.max(16, (int) (capacity / .75f) + 1));
+        vertices = new Object[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Adds a vertex to the index, if it is not indexed yet. A vacant index of a
+     * removed vertex is reused, if there is one.
+     *
+     * @param v vertex to be indexed
+     * @return index of the vertex
+     */
+    int add(V v) {
+        final Integer index = indices.get(v);
+        if (index != null) {
+            return index.intValue();
+        }
+        final int i;
+        if (freeCount > 0) {
+            i = free[--freeCount];
+        } else {
+            if (bound == vertices.length) {
+                vertices = Arrays.copyOf(vertices, bound << 1);
+            }
+            i = bound++;
+        }
+        vertices[i] = v;
+        indices.put(v, Integer.valueOf(i));
+        return i;
+    }
+
+    /**
+     * Removes all vertices from the index.
+     */
+    void clear() {
+        indices.clear();
+        Arrays.fill(vertices, 0, bound, null);
+        bound = freeCount = 0;
+    }
+
+    /**
+     * Renumbers vertices, so that their indices are dense from 0 to the number of
+     * vertices exclusive. Relative order of the vertices is kept.
+     *
+     * @return array, which maps old indices to new ones (-1 for vacant indices),
+     * or null if the index was already dense
+     */
+    int[] compact() {
+        if (freeCount == 0) {
+            return null;
+        }
+        final int[] mapping = new int[bound];
+        int size = 0;
+        for (int i = 0; i < bound; i++) {
+            if (vertices[i] == null) {
+                mapping[i] = -1;
+                continue;
+            }
+            @SuppressWarnings("unchecked") final V v = (V) vertices[i];
+            mapping[i] = size;
+            vertices[size] = v;
+            indices.put(v, Integer.valueOf(size++));
+        }
+        Arrays.fill(vertices, size, bound, null);
+        bound = size;
+        freeCount = 0;
+        return mapping;
+    }
+
+    /**
+     * Removes a vertex from the index. Its index becomes vacant and will be
+     * reused by the next added vertex.
+     *
+     * @param v vertex to be removed
+     * @return former index of the vertex, or -1 if the vertex was not indexed
+     */
+    int remove(Object v) {
+        final Integer index = indices.remove(v);
+        if (index == null) {
+            return -1;
+        }
+        final int i = index.intValue();
+        vertices[i] = null;
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, Math.max(4, freeCount << 1));
+        }
+        free[freeCount++] = i;
+        return i;
+    }
+
+    /**
+     * Returns the upper bound of the indices. All indices are lower than this
+     * number, so arrays of this length can hold per-vertex state.
+     *
+     * @return the upper bound of the indices
+     */
+    public int bound() {
+        return bound;
+    }
+
+    /**
+     * Returns the index of the specified vertex.
+     *
+     * @param v vertex to look up
+     * @return index of the vertex, or -1 if the vertex is not indexed
+     */
+    public int indexOf(Object v) {
+        final Integer index = indices.get(v);
+        return index == null ? -1 : index.intValue();
+    }
+
+    /**
+     * Returns the vertex with the specified index.
+     *
+     * @param index index of the vertex
+     * @return vertex with the specified index, or null if the index is vacant
+     * @throws ArrayIndexOutOfBoundsException if the index is out of bounds
+     */
+    @SuppressWarnings("unchecked")
+    public V vertexAt(int index) {
+        if (index >= bound) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return (V) vertices[index];
+    }
+
+    /**
+     * Returns the number of indexed vertices.
+     *
+     * @return the number of indexed vertices
+     */
+    public int size() {
+        return indices.size();
+    }
+
+    /**
+     * Estimates the heap memory held by this index, see {@link MemoryReport}.
+     */
+    long footprint() {
+        return MemoryReport.object(3, 8) + MemoryReport.hashMap(indices.size(), 0)
+                + Math.max(0, indices.size() - 128) * MemoryReport.object(0, 4)
+                + MemoryReport.array(vertices.length, MemoryReport.REFERENCE) + MemoryReport.array(free.length, 4);
+    }
+
+}
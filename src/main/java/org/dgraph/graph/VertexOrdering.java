@@ -0,0 +1,320 @@
+package org.dgraph.graph;
+
+import org.dgraph.graph.edge.Edge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Orders, in which snapshot graphs can number their vertices.
+ *
+ * <p>
+ * Graphs like {@link CompressedDirectedGraph} give vertices dense indices in
+ * the order of their vertex set, which scatters neighbours across their
+ * arrays. Orders other than {@link #NATURAL} place adjacent vertices close to
+ * each other, so traversals touch fewer cache lines and gap-encoded lists get
+ * shorter. Direction of edges is ignored when an order is computed.
+ * </p>
+ *
+ * <p>
+ * Indices of a snapshot are mapped back to vertices by its
+ * {@link VertexIndex}, and to indices of another graph by
+ * {@link #mapping(VertexIndex, VertexIndex)}.
+ * </p>
+ *
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public enum VertexOrdering {
+
+    /** Iteration order of the vertex set. */
+    NATURAL,
+
+    /** Breadth-first order of every connected component. */
+    BFS,
+
+    /**
+     * Reverse Cuthill-McKee order: breadth-first from a vertex of minimal
+     * degree, neighbours visited by increasing degree, reversed at the end. It
+     * keeps indices of neighbours close, so adjacency has a small bandwidth.
+     */
+    REVERSE_CUTHILL_MCKEE,
+
+    /** Vertices by decreasing degree, so that hubs share cache lines. */
+    DEGREE,
+
+    /**
+     * Communities found by label propagation, each stored contiguously in
+     * breadth-first order, so that densely connected vertices are close.
+     */
+    COMMUNITY;
+
+    private static final int PROPAGATION_ROUNDS = 10;
+
+    /**
+     * Symmetric adjacency in compressed sparse row form over the natural
+     * indices of the vertices.
+     */
+    private static final class Adjacency {
+
+        final int n;
+
+        final int[] offsets, neighbors;
+
+        <V> Adjacency(Graph<V, ?> graph, VertexIndex<V> index) {
+            n = index.bound();
+            final class Collector implements ObjDoubleConsumer<V> {
+
+                int[] sources = new int[Math.max(graph.sizeOfEdges(), 16)];
+
+                int[] targets = new int[sources.length];
+
+                int u, k;
+
+                @Override
+                public void accept(V target, double weight) {
+                    if (k == sources.length) {
+                        sources = Arrays.copyOf(sources, k * 2);
+                        targets = Arrays.copyOf(targets, k * 2);
+                    }
+                    sources[k] = u;
+                    targets[k++] = index.indexOf(target);
+                }
+
+            }
+            final Collector collector = new Collector();
+            for (int u = 0; u < n; u++) {
+                collector.u = u;
+                graph.forEachOutNeighbor(index.vertexAt(u), collector);
+            }
+            final int[] sources = collector.sources;
+            final int[] targets = collector.targets;
+            offsets = new int[n + 1];
+            for (int i = 0; i < collector.k; i++) {
+                offsets[sources[i] + 1]++;
+                offsets[targets[i] + 1]++;
+            }
+            for (int v = 0; v < n; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            final int[] next = Arrays.copyOf(offsets, n);
+            neighbors = new int[offsets[n]];
+            for (int i = 0; i < collector.k; i++) {
+                neighbors[next[sources[i]]++] = targets[i];
+                neighbors[next[targets[i]]++] = sources[i];
+            }
+        }
+
+        int degree(int v) {
+            return offsets[v + 1] - offsets[v];
+        }
+
+    }
+
+    /**
+     * Returns the vertices of the given graph in this order.
+     *
+     * @param <V>   type for vertices
+     * @param graph the graph
+     * @return list of all vertices of the graph
+     */
+    public <V> List<V> order(Graph<V, ? extends Edge<V>> graph) {
+        final List<V> vertices = new ArrayList<>(graph.getAllVertices());
+        if (this == NATURAL) {
+            return vertices;
+        }
+        final VertexIndex<V> index = new VertexIndex<>(vertices.size());
+        for (V v : vertices) {
+            index.add(v);
+        }
+        final Adjacency adjacency = new Adjacency(graph, index);
+        final int[] order;
+        switch (this) {
+            case BFS:
+                order = breadthFirst(adjacency, false);
+                break;
+            case REVERSE_CUTHILL_MCKEE:
+                order = breadthFirst(adjacency, true);
+                for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+                    final int temp = order[i];
+                    order[i] = order[j];
+                    order[j] = temp;
+                }
+                break;
+            case DEGREE:
+                order = byDegree(adjacency);
+                break;
+            default:
+                order = byCommunity(adjacency);
+                break;
+        }
+        vertices.clear();
+        for (int v : order) {
+            vertices.add(index.vertexAt(v));
+        }
+        return vertices;
+    }
+
+    /**
+     * Returns an array, which maps indices of the vertices in the index
+     * <tt>from</tt> to indices of the same vertices in the index <tt>to</tt>,
+     * for example from indices of a reordered snapshot to indices of the
+     * original graph.
+     *
+     * @param <V>  type for vertices
+     * @param from index to map from
+     * @param to   index to map to
+     * @return the mapping, -1 for vacant indices and vertices missing in
+     * <tt>to</tt>
+     */
+    public static <V> int[] mapping(VertexIndex<V> from, VertexIndex<V> to) {
+        final int[] mapping = new int[from.bound()];
+        for (int i = 0; i < mapping.length; i++) {
+            final V v = from.vertexAt(i);
+            mapping[i] = v == null ? -1 : to.indexOf(v);
+        }
+        return mapping;
+    }
+
+    /**
+     * Breadth-first order of all components. Components start from the first
+     * unvisited vertex, or from an unvisited vertex of minimal degree with
+     * neighbours visited by increasing degree, if <tt>byDegree</tt> is set.
+     */
+    private static int[] breadthFirst(Adjacency adjacency, boolean byDegree) {
+        final int n = adjacency.n;
+        final int[] order = new int[n];
+        final boolean[] visited = new boolean[n];
+        final int[] starts = byDegree ? byDegree(adjacency) : null;
+        long[] keys = new long[16];
+        int tail = 0;
+        for (int s = 0; s < n; s++) {
+            final int start = byDegree ? starts[n - 1 - s] : s;
+            if (visited[start]) {
+                continue;
+            }
+            visited[start] = true;
+            order[tail++] = start;
+            for (int head = tail - 1; head < tail; head++) {
+                final int u = order[head];
+                final int from = adjacency.offsets[u];
+                final int to = adjacency.offsets[u + 1];
+                if (!byDegree) {
+                    for (int i = from; i < to; i++) {
+                        final int v = adjacency.neighbors[i];
+                        if (!visited[v]) {
+                            visited[v] = true;
+                            order[tail++] = v;
+                        }
+                    }
+                    continue;
+                }
+                int size = 0;
+                if (keys.length < to - from) {
+                    keys = new long[to - from];
+                }
+                for (int i = from; i < to; i++) {
+                    final int v = adjacency.neighbors[i];
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        keys[size++] = (long) adjacency.degree(v) << 32 | v;
+                    }
+                }
+                Arrays.sort(keys, 0, size);
+                for (int k = 0; k < size; k++) {
+                    order[tail++] = (int) keys[k];
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Vertices by decreasing degree, ties by index.
+     */
+    private static int[] byDegree(Adjacency adjacency) {
+        final int n = adjacency.n;
+        final long[] keys = new long[n];
+        for (int v = 0; v < n; v++) {
+            keys[v] = (long) (Integer.MAX_VALUE - adjacency.degree(v)) << 32 | v;
+        }
+        Arrays.sort(keys);
+        final int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    /**
+     * Breadth-first order grouped by communities. Every vertex takes the most
+     * frequent label of its neighbours for a few rounds, communities are then
+     * ordered by their first vertex in breadth-first order.
+     */
+    private static int[] byCommunity(Adjacency adjacency) {
+        final int n = adjacency.n;
+        final int[] bfs = breadthFirst(adjacency, false);
+        final int[] labels = new int[n];
+        for (int v = 0; v < n; v++) {
+            labels[v] = v;
+        }
+        final int[] counts = new int[n];
+        final int[] touched = new int[n];
+        for (int round = 0; round < PROPAGATION_ROUNDS; round++) {
+            boolean changed = false;
+            for (int u : bfs) {
+                int size = 0;
+                int best = labels[u];
+                for (int i = adjacency.offsets[u]; i < adjacency.offsets[u + 1]; i++) {
+                    final int label = labels[adjacency.neighbors[i]];
+                    if (counts[label]++ == 0) {
+                        touched[size++] = label;
+                    }
+                }
+                /* The current label is kept on ties, so labels settle. */
+                for (int k = 0; k < size; k++) {
+                    final int label = touched[k];
+                    if (counts[label] > counts[best] || counts[label] == counts[best] && best != labels[u]
+                            && label < best) {
+                        best = label;
+                    }
+                }
+                for (int k = 0; k < size; k++) {
+                    counts[touched[k]] = 0;
+                }
+                if (best != labels[u]) {
+                    labels[u] = best;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+        }
+
+        /* Rank communities by their first vertex in breadth-first order. */
+        final int[] rank = counts;
+        Arrays.fill(rank, -1);
+        int communities = 0;
+        for (int u : bfs) {
+            if (rank[labels[u]] < 0) {
+                rank[labels[u]] = communities++;
+            }
+        }
+        final int[] offsets = new int[communities + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[rank[labels[u]] + 1]++;
+        }
+        for (int c = 0; c < communities; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        final int[] order = touched;
+        for (int u : bfs) {
+            order[offsets[rank[labels[u]]]++] = u;
+        }
+        return order;
+    }
+
+}
@@ -18,9 +18,11 @@ public class WeightedDirectedGraph<V, E extends WeightedEdge<V, W>, W> extends A
 
     private static final long serialVersionUID = 5337806344935553524L;
 
-    /** Creates an instance of a new weighted directed graph without loops. */
+    /**
+     * Creates an instance of a new weighted directed graph, which can contain loops.
+     */
     public WeightedDirectedGraph() {
-        super(null, false);
+        super(null, true);
     }
 
     /**
@@ -33,8 +35,8 @@ public class WeightedDirectedGraph<V, E extends WeightedEdge<V, W>, W> extends A
     }
 
     /**
-     * Creates an instance of a new weighted directed graph without loops and with
-     * edge factory. The edge factory will be used in the
+     * Creates an instance of a new weighted directed graph, which can contain
+     * loops, with edge factory. The edge factory will be used in the
      * {@link #addEdge(Object, Object) addEdge(V v1, V v2)} and
      * {@link #addEdge(Object, Object, Object) addEdge(V v1, V v2, W w)} methods.
      * Otherwise, if no edge factory is given, these methods will throw
@@ -44,7 +46,7 @@ public class WeightedDirectedGraph<V, E extends WeightedEdge<V, W>, W> extends A
      *                    target vertices
      */
     public WeightedDirectedGraph(BiFunction<V, V, E> edgeFactory) {
-        super(edgeFactory, false);
+        super(edgeFactory, true);
     }
 
     /**
@@ -62,4 +64,21 @@ public class WeightedDirectedGraph<V, E extends WeightedEdge<V, W>, W> extends A
         super(edgeFactory, withLoops);
     }
 
+    /**
+     * Creates an instance of a new weighted directed graph with edge factory and
+     * with space preallocated for the expected number of vertices and edges. Use
+     * it together with {@link #addEdges(java.util.Collection) addEdges} to load
+     * large graphs.
+     *
+     * @param edgeFactory      the edge factory to create edge by given source and
+     *                         target vertices, or <tt>null</tt>
+     * @param withLoops        specifies whether the graph can contain loops or not
+     * @param expectedVertices expected number of vertices
+     * @param expectedEdges    expected number of edges
+     */
+    public WeightedDirectedGraph(BiFunction<V, V, E> edgeFactory, boolean withLoops, int expectedVertices,
+            int expectedEdges) {
+        super(edgeFactory, withLoops, expectedVertices, expectedEdges);
+    }
+
 }
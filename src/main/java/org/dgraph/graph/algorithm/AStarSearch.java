@@ -1,15 +1,15 @@
 package org.dgraph.graph.algorithm;
 
 import org.dgraph.graph.Graph;
+import org.dgraph.graph.IndexedGraph;
+import org.dgraph.graph.VertexIndex;
 import org.dgraph.graph.edge.WeightedEdge;
 import org.dgraph.graph.path.SimpleWeightedPath;
 import org.dgraph.graph.path.WeightedPath;
-import org.dgraph.util.FibonacciHeap;
-import org.dgraph.util.FibonacciHeap.Node;
-import org.dgraph.util.Tuple;
+import org.dgraph.util.IndexedDaryHeap;
 
-import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Set;
 import java.util.function.BiFunction;
 
 /**
@@ -22,69 +22,145 @@ public class AStarSearch {
             Graph<V, E> graph, V source, V target,
             BiFunction<V, V, Double> heuristic
     ) {
+        if (graph instanceof IndexedGraph) {
+            return findShortestPathIndexed((IndexedGraph<V, E>) graph, source, target, heuristic);
+        }
 
-        /* Keep track on previous vertices, to reconstruct the shortest path. */
-        final HashMap<V, E> previous = new HashMap<>(graph.sizeOfVertices());
+        final VertexIndex<V> index = graph.getVertexIndex();
+        final int s = index.indexOf(source);
+        final int t = index.indexOf(target);
+        if (s < 0 || t < 0) {
+            return null;
+        }
 
-        /* Keep track on vertices with distance passed inserted to Fibonacci heap. */
-        final HashMap<V, Node<Tuple<V, Double>>> heapNodes = new HashMap<>(graph.sizeOfVertices());
-        final FibonacciHeap<Tuple<V, Double>> heap = new FibonacciHeap<>();
+        /* Passed distances and preceding edges are kept by vertex index. */
+        final double[] distance = new double[index.bound()];
+        final int[] parent = new int[index.bound()];
+        final Object[] previous = new Object[index.bound()];
+        final IndexedDaryHeap heap = new IndexedDaryHeap(index.bound());
 
         /* Insert the source vertex to the heap. */
-        heapNodes.put(source, heap.enqueue(new Tuple<>(source, 0d), 0d));
+        heap.enqueue(s, 0d);
         while (!heap.isEmpty()) {
-            final Node<Tuple<V, Double>> cur = heap.dequeueMin();
+            final int u = heap.dequeueMin();
 
             /* Target vertex is reached. */
-            if (cur.equals(target)) {
+            if (u == t) {
                 break;
             }
 
             /* Go through each edge from the currently picked vertex. */
-            for (E e : graph.getEdgesFromSource(cur.getValue().getItem1())) {
+            final V from = index.vertexAt(u);
+            final Set<E> outgoing = graph.getEdgesFromSource(from);
+
+            /* The vertex may have been removed since the index was taken. */
+            if (outgoing == null) {
+                continue;
+            }
+            for (E e : outgoing) {
 
                 /* A* search algorithm works only with non-negative weights. */
-                if (e.getWeight() < 0) {
+                final double weight = e.getWeight();
+                if (weight < 0) {
                     throw new IllegalArgumentException("A* search algorithm can be applied only for graphs with non negative weights.");
                 }
 
-                final V adj = e.getTarget();
+                final V to = graph.getOpposite(e, from);
+                final int adj = index.indexOf(to);
 
-                /* Calculate the distance using a sum of the passed distance and weight of the edge. */
-                final double newDistance = cur.getValue().getItem2().doubleValue() + e.getWeight();
+                /* Vertices added after the index was taken are not searched. */
+                if (adj < 0) {
+                    continue;
+                }
 
-                final Node<Tuple<V, Double>> next = heapNodes.get(adj);
+                /* Calculate the distance using a sum of the passed distance and weight of the edge. */
+                final double newDistance = distance[u] + weight;
 
                 /* If this vertex has never been added to the heap or its previous distance was larger the the new one. */
-                if (next == null || next.getValue().getItem2().doubleValue() > newDistance) {
+                if (!heap.wasEnqueued(adj) || distance[adj] > newDistance) {
+                    distance[adj] = newDistance;
+                    final double priority = newDistance + heuristic.apply(to, target);
+
                     /* Check, whether the vertex is in the heap. */
-                    if (next == null || next.isDequeued()) {
-                        heapNodes.put(adj, heap.enqueue(new Tuple<>(adj, newDistance), newDistance + heuristic.apply(adj, target)));
+                    if (!heap.contains(adj)) {
+                        heap.enqueue(adj, priority);
                     }
-                        /* Otherwise decrease the key of the node in the heap. */
+                    /* Otherwise decrease its key in the heap. */
                     else {
-                        heap.decreaseKey(next, newDistance + heuristic.apply(adj, target));
+                        heap.decreaseKey(adj, priority);
                     }
 
                     /* Change a preceding vertex. */
-                    previous.put(adj, e);
+                    parent[adj] = u;
+                    previous[adj] = e;
                 }
             }
         }
 
         /* Check, whether target node has been reached. */
-        if (!heapNodes.containsKey(target)) {
+        if (!heap.wasEnqueued(t)) {
             return null;
         }
 
         /* Path reconstruction. */
         final LinkedList<E> edges = new LinkedList<>();
-        V cur = target;
-        E curEdge;
-        while (!cur.equals(source)) {
-            curEdge = previous.get(cur);
-            edges.push(curEdge);
-            cur = curEdge.getSource();
+        for (int cur = t; cur != s; cur = parent[cur]) {
+            @SuppressWarnings("unchecked") final E e = (E) previous[cur];
+            edges.push(e);
+        }
+        return new SimpleWeightedPath<>(source, target, edges);
+    }
+
+    private static <V, E extends WeightedEdge<V, W>, W> WeightedPath<V, E> findShortestPathIndexed(
+            IndexedGraph<V, E> graph, V source, V target,
+            BiFunction<V, V, Double> heuristic
+    ) {
+        final VertexIndex<V> index = graph.getVertexIndex();
+        final int s = index.indexOf(source);
+        final int t = index.indexOf(target);
+        if (s < 0 || t < 0) {
+            return null;
+        }
+
+        /* Passed distances and preceding edge positions are kept by vertex index. */
+        final double[] distance = new double[index.bound()];
+        final int[] parent = new int[index.bound()];
+        final int[] previous = new int[index.bound()];
+        final IndexedDaryHeap heap = new IndexedDaryHeap(index.bound());
+
+        heap.enqueue(s, 0d);
+        while (!heap.isEmpty()) {
+            final int u = heap.dequeueMin();
+            if (u == t) {
+                break;
+            }
+            for (int i = graph.getOutOffset(u), end = graph.getOutOffset(u + 1); i < end; i++) {
+                final double weight = graph.getOutWeight(i);
+                if (weight < 0) {
+                    throw new IllegalArgumentException("A* search algorithm can be applied only for graphs with non negative weights.");
+                }
+                final int adj = graph.getOutTarget(i);
+                final double newDistance = distance[u] + weight;
+                if (!heap.wasEnqueued(adj) || distance[adj] > newDistance) {
+                    distance[adj] = newDistance;
+                    final double priority = newDistance + heuristic.apply(index.vertexAt(adj), target);
+                    if (!heap.contains(adj)) {
+                        heap.enqueue(adj, priority);
+                    } else {
+                        heap.decreaseKey(adj, priority);
+                    }
+                    parent[adj] = u;
+                    previous[adj] = i;
+                }
+            }
+        }
+
+        if (!heap.wasEnqueued(t)) {
+            return null;
+        }
+        final LinkedList<E> edges = new LinkedList<>();
+        for (int cur = t; cur != s; cur = parent[cur]) {
+            edges.push(graph.getOutEdge(previous[cur]));
         }
         return new SimpleWeightedPath<>(source, target, edges);
     }
@@ -1,17 +1,17 @@
 package org.dgraph.graph.algorithm;
 
 import org.dgraph.graph.Graph;
+import org.dgraph.graph.IndexedGraph;
+import org.dgraph.graph.VertexIndex;
 import org.dgraph.graph.edge.WeightedEdge;
 import org.dgraph.graph.path.SimpleWeightedPath;
 import org.dgraph.graph.path.WeightedPath;
-import org.dgraph.util.Tuple;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 public class BellmanFord {
 
@@ -35,80 +35,91 @@ public class BellmanFord {
      *                            IllegalArgumentException if a negative cycle exists
      * @return Map with all vertices from a given graph as keys, and paths as
      * values. If there was no single path between two vertices, path will
-     * be returning the distance as Double.POSITIVE_INFINITY
+     * be returning the distance as Double.POSITIVE_INFINITY. The source is
+     * always mapped to an empty path, even if the graph does not contain it
      */
     public static <V, E extends WeightedEdge<V, ?>> Map<V, WeightedPath<V, E>> findAllShortestPaths(
             Graph<V, E> graph,
             V source,
             boolean checkNegativeCycles
     ) {
-        final int vSize = graph.sizeOfVertices();
-        final Map<V, Tuple<E, Double>> info = new HashMap<>(vSize);
-        info.put(source, new Tuple<>(null, 0d));
-        final Set<E> edges = graph.getAllEdges();
-        for (int i = 2; i < vSize; i++) {// vSize - 1 times
-            boolean hasChanges = false;
-            for (E e : edges) {
-                final V src = e.getSource();
-                if (!info.containsKey(src)) {
-                    continue;
-                }
-                final V trg = e.getTarget();
-                final double distance = info.get(src).getItem2() + e.getWeight();
-                final boolean hasKey = info.containsKey(trg);
-                if (!hasKey || info.get(trg).getItem2() > distance) {
-                    final Tuple<E, Double> t;
-                    if (hasKey) {
-                        t = info.get(trg);
-                    } else {
-                        t = new Tuple<E, Double>();
-                        info.put(trg, t);
-                    }
-                    t.setItem1(e);
-                    t.setItem2(distance);
-                    hasChanges = true;
+        final IndexedGraph<V, E> indexed = IndexedGraph.of(graph);
+        final VertexIndex<V> index = indexed.getVertexIndex();
+        final int n = index.bound();
+        final double[] distance = new double[n];
+        final int[] parent = new int[n];
+        final int[] previous = new int[n];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        final int s = index.indexOf(source);
+        if (s >= 0) {
+            distance[s] = 0d;
+            for (int k = 1; k < n; k++) {// vSize - 1 times
+                if (!relaxAll(indexed, distance, parent, previous)) {
+                    break;
                 }
             }
-            if (!hasChanges) {
-                break;
+            if (checkNegativeCycles && relaxAll(indexed, distance.clone(), parent.clone(), previous.clone())) {
+                throw new IllegalArgumentException("Graph contains a negative-weight cycle");
             }
         }
         final Map<V, WeightedPath<V, E>> result = new HashMap<>();
-        result.put(source, new SimpleWeightedPath<>(source, source, Collections.emptyList()));
-        for (V v : graph.getAllVertices()) {
-            if (!info.containsKey(v)) {
-                result.put(v, new SimpleWeightedPath<>(source, v, null));
-            } else {
-                for (E e : graph.getEdgesFromSource(v)) {
-                    final V adj = e.getTarget();
-                    if (checkNegativeCycles && info.containsKey(adj) && info.get(adj)
-                            .getItem2()
-                            .doubleValue() > info.get(v).getItem2().doubleValue() + e.getWeight()) {
-                        throw new IllegalArgumentException("Graph contains a negative-weight cycle");
-                    }
+        for (int v = 0; v < n; v++) {
+            final V target = index.vertexAt(v);
+            if (distance[v] == Double.POSITIVE_INFINITY) {
+                result.put(target, new SimpleWeightedPath<>(source, target, null));
+                continue;
+            }
+            final LinkedList<E> edges = new LinkedList<>();
+            for (int cur = v; cur != s; cur = parent[cur]) {
+                if (edges.size() == n) {
+                    throw new IllegalArgumentException("Graph contains a negative-weight cycle");
                 }
-                buildPath(info, result, source, v);
+                edges.push(indexed.getOutEdge(previous[cur]));
             }
+            result.put(target, new SimpleWeightedPath<>(source, target, edges));
+        }
+        if (s < 0) {
+            result.put(source, new SimpleWeightedPath<>(source, source, Collections.emptyList()));
         }
         return result;
     }
 
-    private static <V, E extends WeightedEdge<V, ?>> void buildPath(
-            Map<V, Tuple<E, Double>> info,
-            Map<V, WeightedPath<V, E>> result,
-            V source,
-            V target
-    ) {
-        if (!result.containsKey(target)) {
-            final Tuple<E, Double> tuple = info.get(target);
-            final E edge = tuple.getItem1();
-            if (!result.containsKey(edge.getSource())) {
-                buildPath(info, result, source, edge.getSource());
+    /**
+     * Relaxes every edge of the graph once.
+     *
+     * @return true, if any distance has been decreased
+     */
+    static boolean relaxAll(IndexedGraph<?, ?> graph, double[] distance, int[] parent, int[] previous) {
+        return relaxAll(graph, null, distance, parent, previous);
+    }
+
+    /**
+     * Relaxes every edge of the graph once, taking the weights by the positions
+     * of the outgoing edges from the given array, or from the graph, if the
+     * array is <tt>null</tt>.
+     *
+     * @return true, if any distance has been decreased
+     */
+    static boolean relaxAll(IndexedGraph<?, ?> graph, double[] weights, double[] distance, int[] parent,
+            int[] previous) {
+        boolean hasChanges = false;
+        for (int u = 0; u < distance.length; u++) {
+            final double uDistance = distance[u];
+            if (uDistance == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            for (int i = graph.getOutOffset(u), end = graph.getOutOffset(u + 1); i < end; i++) {
+                final int v = graph.getOutTarget(i);
+                final double newDistance = uDistance + (weights == null ? graph.getOutWeight(i) : weights[i]);
+                if (newDistance < distance[v]) {
+                    distance[v] = newDistance;
+                    parent[v] = u;
+                    previous[v] = i;
+                    hasChanges = true;
+                }
             }
-            final List<E> temp = new LinkedList<E>(result.get(edge.getSource()).getEdges());
-            temp.add(edge);
-            result.put(target, new SimpleWeightedPath<>(source, target, temp));
         }
+        return hasChanges;
     }
 
 }
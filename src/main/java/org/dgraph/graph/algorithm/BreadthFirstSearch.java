@@ -1,43 +1,151 @@
 package org.dgraph.graph.algorithm;
 
+import org.dgraph.graph.GapCompressedDirectedGraph;
 import org.dgraph.graph.Graph;
+import org.dgraph.graph.IndexedGraph;
+import org.dgraph.graph.VertexIndex;
 import org.dgraph.graph.edge.Edge;
 import org.dgraph.graph.path.Path;
 import org.dgraph.graph.path.SimplePath;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.function.Consumer;
 
 public class BreadthFirstSearch {
 
     public static <V, E extends Edge<V>> Path<V, E> findPath(Graph<V, E> graph, V source, V target) {
-        final HashMap<V, E> previous = new HashMap<>();
-        final LinkedList<V> queue = new LinkedList<>();
-        previous.put(source, null);
-        queue.offer(source);
-        while (!queue.isEmpty()) {
-            final V cur = queue.poll();
-            if (cur.equals(target)) {
+        if (graph instanceof IndexedGraph) {
+            return findPathIndexed((IndexedGraph<V, E>) graph, source, target);
+        }
+        if (graph instanceof GapCompressedDirectedGraph) {
+            return findPathGapCompressed((GapCompressedDirectedGraph<V, E>) graph, source, target);
+        }
+        final VertexIndex<V> index = graph.getVertexIndex();
+        final int s = index.indexOf(source);
+        final int t = index.indexOf(target);
+        if (s < 0 || t < 0) {
+            return null;
+        }
+        final int[] parent = new int[index.bound()];
+        final Object[] previous = new Object[index.bound()];
+        Arrays.fill(parent, -1);
+        final int[] queue = new int[index.bound()];
+
+        final class Visitor implements Consumer<E> {
+
+            int cur, tail;
+
+            V from;
+
+            @Override
+            public void accept(E e) {
+                final int adj = index.indexOf(graph.getOpposite(e, from));
+                if (adj >= 0 && parent[adj] < 0) {
+                    parent[adj] = cur;
+                    previous[adj] = e;
+                    queue[tail++] = adj;
+                }
+            }
+
+        }
+        final Visitor visitor = new Visitor();
+        int head = 0;
+        parent[s] = s;
+        queue[visitor.tail++] = s;
+        while (head < visitor.tail) {
+            final int cur = queue[head++];
+            if (cur == t) {
+                break;
+            }
+            visitor.cur = cur;
+            visitor.from = index.vertexAt(cur);
+            graph.forEachOutEdge(visitor.from, visitor);
+        }
+        if (parent[t] < 0) {
+            return null;
+        }
+        final LinkedList<E> edges = new LinkedList<>();
+        for (int cur = t; cur != s; cur = parent[cur]) {
+            @SuppressWarnings("unchecked") final E e = (E) previous[cur];
+            edges.push(e);
+        }
+        return new SimplePath<>(source, target, edges);
+    }
+
+    private static <V, E extends Edge<V>> Path<V, E> findPathIndexed(IndexedGraph<V, E> graph, V source, V target) {
+        final VertexIndex<V> index = graph.getVertexIndex();
+        final int s = index.indexOf(source);
+        final int t = index.indexOf(target);
+        if (s < 0 || t < 0) {
+            return null;
+        }
+        final int[] parent = new int[index.bound()];
+        final int[] previous = new int[index.bound()];
+        Arrays.fill(parent, -1);
+        final int[] queue = new int[index.bound()];
+        int head = 0, tail = 0;
+        parent[s] = s;
+        queue[tail++] = s;
+        while (head < tail) {
+            final int cur = queue[head++];
+            if (cur == t) {
+                break;
+            }
+            for (int i = graph.getOutOffset(cur), end = graph.getOutOffset(cur + 1); i < end; i++) {
+                final int adj = graph.getOutTarget(i);
+                if (parent[adj] < 0) {
+                    parent[adj] = cur;
+                    previous[adj] = i;
+                    queue[tail++] = adj;
+                }
+            }
+        }
+        if (parent[t] < 0) {
+            return null;
+        }
+        final LinkedList<E> edges = new LinkedList<>();
+        for (int cur = t; cur != s; cur = parent[cur]) {
+            edges.push(graph.getOutEdge(previous[cur]));
+        }
+        return new SimplePath<>(source, target, edges);
+    }
+
+    /* Lists are decoded by a single iterator and edges are created only for the found path. */
+    private static <V, E extends Edge<V>> Path<V, E> findPathGapCompressed(GapCompressedDirectedGraph<V, E> graph,
+                                                                          V source, V target) {
+        final VertexIndex<V> index = graph.getVertexIndex();
+        final int s = index.indexOf(source);
+        final int t = index.indexOf(target);
+        if (s < 0 || t < 0) {
+            return null;
+        }
+        final int[] parent = new int[index.bound()];
+        Arrays.fill(parent, -1);
+        final int[] queue = new int[index.bound()];
+        final GapCompressedDirectedGraph.NeighborIterator successors = graph.successors(s);
+        int head = 0, tail = 0;
+        parent[s] = s;
+        queue[tail++] = s;
+        while (head < tail) {
+            final int cur = queue[head++];
+            if (cur == t) {
                 break;
             }
-            for (E e : graph.getEdgesFromSource(cur)) {
-                final V adj = e.getTarget();
-                if (!previous.containsKey(adj)) {
-                    previous.put(adj, e);
-                    queue.offer(adj);
+            for (successors.reset(cur); successors.hasNext(); ) {
+                final int adj = successors.nextInt();
+                if (parent[adj] < 0) {
+                    parent[adj] = cur;
+                    queue[tail++] = adj;
                 }
             }
         }
-        if (!previous.containsKey(target)) {
+        if (parent[t] < 0) {
             return null;
         }
         final LinkedList<E> edges = new LinkedList<>();
-        V cur = target;
-        E curEdge;
-        while (!cur.equals(source)) {
-            curEdge = previous.get(cur);
-            edges.push(curEdge);
-            cur = curEdge.getSource();
+        for (int cur = t; cur != s; cur = parent[cur]) {
+            edges.push(graph.createEdge(parent[cur], cur));
         }
         return new SimplePath<>(source, target, edges);
     }
@@ -1,43 +1,150 @@
 package org.dgraph.graph.algorithm;
 
+import org.dgraph.graph.GapCompressedDirectedGraph;
 import org.dgraph.graph.Graph;
+import org.dgraph.graph.IndexedGraph;
+import org.dgraph.graph.VertexIndex;
 import org.dgraph.graph.edge.Edge;
 import org.dgraph.graph.path.Path;
 import org.dgraph.graph.path.SimplePath;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.function.Consumer;
 
 public class DepthFirstSearch {
 
     public static <V, E extends Edge<V>> Path<V, E> findPath(Graph<V, E> graph, V source, V target) {
-        final HashMap<V, E> previous = new HashMap<>();
-        final LinkedList<V> stack = new LinkedList<>();
-        previous.put(source, null);
-        stack.push(source);
-        while (!stack.isEmpty()) {
-            final V cur = stack.pop();
-            if (cur.equals(target)) {
+        if (graph instanceof IndexedGraph) {
+            return findPathIndexed((IndexedGraph<V, E>) graph, source, target);
+        }
+        if (graph instanceof GapCompressedDirectedGraph) {
+            return findPathGapCompressed((GapCompressedDirectedGraph<V, E>) graph, source, target);
+        }
+        final VertexIndex<V> index = graph.getVertexIndex();
+        final int s = index.indexOf(source);
+        final int t = index.indexOf(target);
+        if (s < 0 || t < 0) {
+            return null;
+        }
+        final int[] parent = new int[index.bound()];
+        final Object[] previous = new Object[index.bound()];
+        Arrays.fill(parent, -1);
+        final int[] stack = new int[index.bound()];
+
+        final class Visitor implements Consumer<E> {
+
+            int cur, top;
+
+            V from;
+
+            @Override
+            public void accept(E e) {
+                final int adj = index.indexOf(graph.getOpposite(e, from));
+                if (adj >= 0 && parent[adj] < 0) {
+                    parent[adj] = cur;
+                    previous[adj] = e;
+                    stack[top++] = adj;
+                }
+            }
+
+        }
+        final Visitor visitor = new Visitor();
+        parent[s] = s;
+        stack[visitor.top++] = s;
+        while (visitor.top > 0) {
+            final int cur = stack[--visitor.top];
+            if (cur == t) {
+                break;
+            }
+            visitor.cur = cur;
+            visitor.from = index.vertexAt(cur);
+            graph.forEachOutEdge(visitor.from, visitor);
+        }
+        if (parent[t] < 0) {
+            return null;
+        }
+        final LinkedList<E> edges = new LinkedList<>();
+        for (int cur = t; cur != s; cur = parent[cur]) {
+            @SuppressWarnings("unchecked") final E e = (E) previous[cur];
+            edges.push(e);
+        }
+        return new SimplePath<>(source, target, edges);
+    }
+
+    private static <V, E extends Edge<V>> Path<V, E> findPathIndexed(IndexedGraph<V, E> graph, V source, V target) {
+        final VertexIndex<V> index = graph.getVertexIndex();
+        final int s = index.indexOf(source);
+        final int t = index.indexOf(target);
+        if (s < 0 || t < 0) {
+            return null;
+        }
+        final int[] parent = new int[index.bound()];
+        final int[] previous = new int[index.bound()];
+        Arrays.fill(parent, -1);
+        final int[] stack = new int[index.bound()];
+        int top = 0;
+        parent[s] = s;
+        stack[top++] = s;
+        while (top > 0) {
+            final int cur = stack[--top];
+            if (cur == t) {
+                break;
+            }
+            for (int i = graph.getOutOffset(cur), end = graph.getOutOffset(cur + 1); i < end; i++) {
+                final int adj = graph.getOutTarget(i);
+                if (parent[adj] < 0) {
+                    parent[adj] = cur;
+                    previous[adj] = i;
+                    stack[top++] = adj;
+                }
+            }
+        }
+        if (parent[t] < 0) {
+            return null;
+        }
+        final LinkedList<E> edges = new LinkedList<>();
+        for (int cur = t; cur != s; cur = parent[cur]) {
+            edges.push(graph.getOutEdge(previous[cur]));
+        }
+        return new SimplePath<>(source, target, edges);
+    }
+
+    /* Lists are decoded by a single iterator and edges are created only for the found path. */
+    private static <V, E extends Edge<V>> Path<V, E> findPathGapCompressed(GapCompressedDirectedGraph<V, E> graph,
+                                                                          V source, V target) {
+        final VertexIndex<V> index = graph.getVertexIndex();
+        final int s = index.indexOf(source);
+        final int t = index.indexOf(target);
+        if (s < 0 || t < 0) {
+            return null;
+        }
+        final int[] parent = new int[index.bound()];
+        Arrays.fill(parent, -1);
+        final int[] stack = new int[index.bound()];
+        final GapCompressedDirectedGraph.NeighborIterator successors = graph.successors(s);
+        int top = 0;
+        parent[s] = s;
+        stack[top++] = s;
+        while (top > 0) {
+            final int cur = stack[--top];
+            if (cur == t) {
                 break;
             }
-            for (E e : graph.getEdgesFromSource(cur)) {
-                final V adj = e.getTarget();
-                if (!previous.containsKey(adj)) {
-                    previous.put(adj, e);
-                    stack.push(adj);
+            for (successors.reset(cur); successors.hasNext(); ) {
+                final int adj = successors.nextInt();
+                if (parent[adj] < 0) {
+                    parent[adj] = cur;
+                    stack[top++] = adj;
                 }
             }
         }
-        if (!previous.containsKey(target)) {
+        if (parent[t] < 0) {
             return null;
         }
         final LinkedList<E> edges = new LinkedList<>();
-        V cur = target;
-        E curEdge;
-        while (!cur.equals(source)) {
-            curEdge = previous.get(cur);
-            edges.push(curEdge);
-            cur = curEdge.getSource();
+        for (int cur = t; cur != s; cur = parent[cur]) {
+            edges.push(graph.createEdge(parent[cur], cur));
         }
         return new SimplePath<>(source, target, edges);
     }
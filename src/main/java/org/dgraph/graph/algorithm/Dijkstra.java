@@ -1,14 +1,15 @@
 package org.dgraph.graph.algorithm;
 
 import org.dgraph.graph.Graph;
+import org.dgraph.graph.IndexedGraph;
+import org.dgraph.graph.VertexIndex;
 import org.dgraph.graph.edge.WeightedEdge;
 import org.dgraph.graph.path.SimpleWeightedPath;
 import org.dgraph.graph.path.WeightedPath;
-import org.dgraph.util.FibonacciHeap;
-import org.dgraph.util.FibonacciHeap.Node;
+import org.dgraph.util.IndexedDaryHeap;
 
-import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.function.Consumer;
 
 public class Dijkstra {
 
@@ -17,43 +18,126 @@ public class Dijkstra {
             V source,
             V target
     ) {
-        final HashMap<V, Node<V>> heapNodes = new HashMap<>(graph.sizeOfVertices());
-        final HashMap<V, E> previous = new HashMap<>(graph.sizeOfVertices());
-        final FibonacciHeap<V> heap = new FibonacciHeap<>();
-        heapNodes.put(source, heap.enqueue(source, 0d));
+        return findShortestPath(graph, source, target, new IndexedDaryHeap(0));
+    }
+
+    /**
+     * Finds a shortest path between two vertices, reusing the given heap. The
+     * heap is reset and grown to the size of the graph before the search, so one
+     * heap can serve many queries without reallocating.
+     *
+     * @param graph  the weighted graph with non negative weights
+     * @param source the source vertex
+     * @param target the target vertex
+     * @param heap   the heap to reuse
+     * @return the path, or null if the target cannot be reached
+     */
+    public static <V, E extends WeightedEdge<V, W>, W> WeightedPath<V, E> findShortestPath(
+            Graph<V, E> graph,
+            V source,
+            V target,
+            IndexedDaryHeap heap
+    ) {
+        if (graph instanceof IndexedGraph) {
+            return findShortestPathIndexed((IndexedGraph<V, E>) graph, source, target, heap);
+        }
+        final VertexIndex<V> index = graph.getVertexIndex();
+        final int s = index.indexOf(source);
+        final int t = index.indexOf(target);
+        if (s < 0 || t < 0) {
+            return null;
+        }
+        final int[] parent = new int[index.bound()];
+        final Object[] previous = new Object[index.bound()];
+        heap.reset();
+        heap.ensureCapacity(index.bound());
+
+        final class Visitor implements Consumer<E> {
+
+            int u;
+
+            double distance;
+
+            V from;
+
+            @Override
+            public void accept(E e) {
+                final double weight = e.getWeight();
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Dijkstra's algorithm can be applied only for graphs with non negative weights.");
+                }
+                final int adj = index.indexOf(graph.getOpposite(e, from));
+                if (adj >= 0 && heap.offer(adj, distance + weight)) {
+                    parent[adj] = u;
+                    previous[adj] = e;
+                }
+            }
+
+        }
+        final Visitor visitor = new Visitor();
+        heap.enqueue(s, 0d);
+        while (!heap.isEmpty()) {
+            final int u = heap.dequeueMin();
+            if (u == t) {
+                break;
+            }
+            visitor.u = u;
+            visitor.distance = heap.getKey(u);
+            visitor.from = index.vertexAt(u);
+            graph.forEachOutEdge(visitor.from, visitor);
+        }
+        if (!heap.wasEnqueued(t)) {
+            return null;
+        }
+        final LinkedList<E> edges = new LinkedList<>();
+        for (int cur = t; cur != s; cur = parent[cur]) {
+            @SuppressWarnings("unchecked") final E e = (E) previous[cur];
+            edges.push(e);
+        }
+        return new SimpleWeightedPath<>(source, target, edges);
+    }
+
+    private static <V, E extends WeightedEdge<V, W>, W> WeightedPath<V, E> findShortestPathIndexed(
+            IndexedGraph<V, E> graph,
+            V source,
+            V target,
+            IndexedDaryHeap heap
+    ) {
+        final VertexIndex<V> index = graph.getVertexIndex();
+        final int s = index.indexOf(source);
+        final int t = index.indexOf(target);
+        if (s < 0 || t < 0) {
+            return null;
+        }
+        final int[] parent = new int[index.bound()];
+        final int[] previous = new int[index.bound()];
+        heap.reset();
+        heap.ensureCapacity(index.bound());
+        heap.enqueue(s, 0d);
         while (!heap.isEmpty()) {
-            final Node<V> cur = heap.dequeueMin();
-            //V cur = heap.dequeueMin().getValue();
-            if (cur.equals(target)) {
+            final int u = heap.dequeueMin();
+            if (u == t) {
                 break;
             }
-            for (E e : graph.getEdgesFromSource(cur.getValue())) {
-                if (e.getWeight() < 0) {
+            final double distance = heap.getKey(u);
+            for (int i = graph.getOutOffset(u), end = graph.getOutOffset(u + 1); i < end; i++) {
+                final double weight = graph.getOutWeight(i);
+                if (weight < 0) {
                     throw new IllegalArgumentException("Dijkstra's algorithm can be applied only for graphs with non negative weights.");
                 }
-                final V adj = e.getTarget();
-                final double newDistance = cur.getPriority() + e.getWeight();
-                final Node<V> next = heapNodes.get(adj);
-                if (next == null || next.getPriority() > newDistance) {
-                    if (next == null || next.isDequeued()) {
-                        heapNodes.put(adj, heap.enqueue(adj, newDistance));
-                    } else {
-                        heap.decreaseKey(next, newDistance);
-                    }
-                    previous.put(adj, e);
+                final int adj = graph.getOutTarget(i);
+                if (heap.offer(adj, distance + weight)) {
+                    parent[adj] = u;
+                    previous[adj] = i;
                 }
             }
         }
-        if (!heapNodes.containsKey(target)) {
+        if (!heap.wasEnqueued(t)) {
             return null;
         }
         final LinkedList<E> edges = new LinkedList<>();
-        V cur = target;
-        E curEdge;
-        while (!cur.equals(source)) {
-            curEdge = previous.get(cur);
-            edges.push(curEdge);
-            cur = curEdge.getSource();
+        for (int cur = t; cur != s; cur = parent[cur]) {
+            edges.push(graph.getOutEdge(previous[cur]));
         }
         return new SimpleWeightedPath<>(source, target, edges);
     }
@@ -0,0 +1,202 @@
+package org.dgraph.graph.algorithm;
+
+import org.dgraph.graph.Graph;
+import org.dgraph.graph.VertexIndex;
+import org.dgraph.graph.edge.TemporalEdge;
+import org.dgraph.graph.path.TemporalPath;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Search for time-respecting paths in graphs of temporal edges.
+ *
+ * <p>
+ * A path leaves its source not earlier than the given start time and may wait
+ * at any vertex. An edge can be entered at any moment of its interval of
+ * validity, and it takes its duration to get to the other end. The search
+ * finds a path with the earliest arrival at the target, in the manner of
+ * Dijkstra's algorithm over arrival times.
+ * </p>
+ */
+public class EarliestArrival {
+
+    /**
+     * Binary heap of vertex indices ordered by their arrival times. The times
+     * are read from the array of the search, so they are compared as exact
+     * <tt>long</tt>s, which a heap of <tt>double</tt> keys can not do for times
+     * above 2<sup>53</sup>, like epoch nanoseconds.
+     */
+    private static final class ArrivalQueue {
+
+        private final long[] arrival;
+
+        private final int[] heap, position;
+
+        private int size;
+
+        ArrivalQueue(long[] arrival) {
+            this.arrival = arrival;
+            heap = new int[arrival.length];
+            position = new int[arrival.length];
+            Arrays.fill(position, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /** Enqueues the index or moves it up after its arrival has decreased. */
+        void offer(int index) {
+            int pos = position[index];
+            if (pos < 0) {
+                pos = size++;
+            }
+            final long key = arrival[index];
+            while (pos > 0) {
+                final int parent = heap[(pos - 1) >>> 1];
+                if (arrival[parent] <= key) {
+                    break;
+                }
+                heap[pos] = parent;
+                position[parent] = pos;
+                pos = (pos - 1) >>> 1;
+            }
+            heap[pos] = index;
+            position[index] = pos;
+        }
+
+        int poll() {
+            final int min = heap[0];
+            position[min] = -1;
+            final int last = heap[--size];
+            if (size > 0) {
+                final long key = arrival[last];
+                int pos = 0;
+                while (true) {
+                    int child = (pos << 1) + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && arrival[heap[child + 1]] < arrival[heap[child]]) {
+                        child++;
+                    }
+                    if (arrival[heap[child]] >= key) {
+                        break;
+                    }
+                    heap[pos] = heap[child];
+                    position[heap[pos]] = pos;
+                    pos = child;
+                }
+                heap[pos] = last;
+                position[last] = pos;
+            }
+            return min;
+        }
+
+    }
+
+    /**
+     * Finds a time-respecting path with the earliest arrival, where every edge is
+     * passed instantly, so only the intervals of the edges matter.
+     *
+     * @param graph     the graph
+     * @param source    source vertex of the path
+     * @param target    target vertex of the path
+     * @param startTime the earliest moment to leave the source
+     * @return the path, or <tt>null</tt> if the target can not be reached
+     */
+    public static <V, E extends TemporalEdge<V>> TemporalPath<V, E> findPath(
+            Graph<V, E> graph,
+            V source,
+            V target,
+            long startTime
+    ) {
+        return findPath(graph, source, target, startTime, e -> 0L);
+    }
+
+    /**
+     * Finds a time-respecting path with the earliest arrival, where every edge
+     * takes the given duration.
+     *
+     * @param graph     the graph
+     * @param source    source vertex of the path
+     * @param target    target vertex of the path
+     * @param startTime the earliest moment to leave the source
+     * @param duration  non negative time to pass each edge
+     * @return the path, or <tt>null</tt> if the target can not be reached
+     * @throws IllegalArgumentException if any traversed edge has a negative
+     *                                  duration
+     */
+    public static <V, E extends TemporalEdge<V>> TemporalPath<V, E> findPath(
+            Graph<V, E> graph,
+            V source,
+            V target,
+            long startTime,
+            ToLongFunction<? super E> duration
+    ) {
+        final VertexIndex<V> index = graph.getVertexIndex();
+        final int s = index.indexOf(source);
+        final int t = index.indexOf(target);
+        if (s < 0 || t < 0) {
+            return null;
+        }
+        final long[] arrival = new long[index.bound()];
+        final int[] parent = new int[index.bound()];
+        final Object[] previous = new Object[index.bound()];
+        final ArrivalQueue heap = new ArrivalQueue(arrival);
+        Arrays.fill(arrival, Long.MAX_VALUE);
+
+        final class Visitor implements Consumer<E> {
+
+            int u;
+
+            V from;
+
+            @Override
+            public void accept(E e) {
+                final long departure = Math.max(arrival[u], e.getValidFrom());
+                if (departure >= e.getValidTo()) {
+                    return;
+                }
+                final long time = duration.applyAsLong(e);
+                if (time < 0) {
+                    throw new IllegalArgumentException("Durations of the edges can not be negative.");
+                }
+                final int adj = index.indexOf(graph.getOpposite(e, from));
+                final long newArrival = departure + time;
+                if (adj >= 0 && newArrival < arrival[adj]) {
+                    arrival[adj] = newArrival;
+                    heap.offer(adj);
+                    parent[adj] = u;
+                    previous[adj] = e;
+                }
+            }
+
+        }
+        final Visitor visitor = new Visitor();
+        arrival[s] = startTime;
+        heap.offer(s);
+        while (!heap.isEmpty()) {
+            final int u = heap.poll();
+            if (u == t) {
+                break;
+            }
+            visitor.u = u;
+            visitor.from = index.vertexAt(u);
+            graph.forEachOutEdge(visitor.from, visitor);
+        }
+        if (arrival[t] == Long.MAX_VALUE) {
+            return null;
+        }
+        final LinkedList<E> edges = new LinkedList<>();
+        for (int cur = t; cur != s; cur = parent[cur]) {
+            @SuppressWarnings("unchecked") final E e = (E) previous[cur];
+            edges.push(e);
+        }
+        return new TemporalPath<>(source, target, edges, startTime, arrival[t]);
+    }
+
+}
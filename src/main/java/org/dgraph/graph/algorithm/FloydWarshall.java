@@ -1,45 +1,38 @@
 package org.dgraph.graph.algorithm;
 
 import org.dgraph.graph.Graph;
+import org.dgraph.graph.IndexedGraph;
+import org.dgraph.graph.VertexIndex;
 import org.dgraph.graph.edge.WeightedEdge;
 import org.dgraph.graph.path.SimpleWeightedPath;
 import org.dgraph.graph.path.WeightedPath;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 public class FloydWarshall {
 
     public static <V, E extends WeightedEdge<V, ?>> Map<V, Map<V, WeightedPath<V, E>>> findAllShortestPaths(Graph<V, E> graph) {
-        final int N = graph.sizeOfVertices();
-        final ArrayList<V> vertices = new ArrayList<>(N);
+        final IndexedGraph<V, E> indexed = IndexedGraph.of(graph);
+        final VertexIndex<V> vertices = indexed.getVertexIndex();
+        final int N = vertices.bound();
         final double[][] distances = new double[N][N];
-        final Integer[][] previousVertex = new Integer[N][N];
+        final int[][] previousVertex = new int[N][N];
         @SuppressWarnings("unchecked") final E[][] previousEdge = (E[][]) new WeightedEdge[N][N];
-        for (V v : graph.getAllVertices()) {
-            vertices.add(v);
-        }
         for (int i = 0; i < N; i++) {
-            for (int j = 0; j < N; j++) {
-                if (i == j) {
-                    distances[i][j] = 0;
-                } else {
-                    distances[i][j] = Double.POSITIVE_INFINITY;
-                }
-                final Set<E> edges = graph.getEdges(vertices.get(i), vertices.get(j));
-                if (edges != null) {
-                    for (E e : edges) {
-                        if (e.getWeight() < distances[i][j]) {
-                            distances[i][j] = e.getWeight();
-                            previousVertex[i][j] = i;
-                            previousEdge[i][j] = e;
-                        }
-                    }
+            Arrays.fill(distances[i], Double.POSITIVE_INFINITY);
+            distances[i][i] = 0;
+            for (int p = indexed.getOutOffset(i), end = indexed.getOutOffset(i + 1); p < end; p++) {
+                final int j = indexed.getOutTarget(p);
+                final double weight = indexed.getOutWeight(p);
+                if (weight < distances[i][j]) {
+                    distances[i][j] = weight;
+                    previousVertex[i][j] = i;
+                    previousEdge[i][j] = indexed.getOutEdge(p);
                 }
             }
         }
@@ -62,25 +55,25 @@ public class FloydWarshall {
                 throw new IllegalArgumentException("Graph contains a negative-weight cycle");
             }
             final HashMap<V, WeightedPath<V, E>> map = new HashMap<>();
-            final V source = vertices.get(i);
+            final V source = vertices.vertexAt(i);
             map.put(source, new SimpleWeightedPath<>(source, source, Collections.emptyList()));
             result.put(source, map);
         }
 
         for (int i = 0; i < N; i++) {
-            final V source = vertices.get(i);
+            final V source = vertices.vertexAt(i);
             final Map<V, WeightedPath<V, E>> map = result.get(source);
             for (int j = 0; j < N; j++) {
-                final V target = vertices.get(j);
-                buildPath(previousEdge, previousVertex, map, source, target, i, j);
+                final V target = vertices.vertexAt(j);
+                buildPath(vertices, previousEdge, previousVertex, map, source, target, i, j);
             }
         }
         return result;
     }
 
     private static <V, E extends WeightedEdge<V, ?>> void buildPath(
-            E[][] previousEdge, Integer[][] previousVertex, Map<V, WeightedPath<V, E>> map, V source,
-            V target, int sourceIndex, int targetIndex
+            VertexIndex<V> vertices, E[][] previousEdge, int[][] previousVertex, Map<V, WeightedPath<V, E>> map,
+            V source, V target, int sourceIndex, int targetIndex
     ) {
         if (!map.containsKey(target)) {
             final E edge = previousEdge[sourceIndex][targetIndex];
@@ -88,10 +81,13 @@ public class FloydWarshall {
                 map.put(target, new SimpleWeightedPath<>(source, target, null));
                 return;
             }
-            if (!map.containsKey(edge.getSource())) {
-                buildPath(previousEdge, previousVertex, map, source, edge.getSource(), sourceIndex, previousVertex[sourceIndex][targetIndex]);
+            /* The previous vertex is not always the source of the edge, e.g. in reversed views. */
+            final int previousIndex = previousVertex[sourceIndex][targetIndex];
+            final V previous = vertices.vertexAt(previousIndex);
+            if (!map.containsKey(previous)) {
+                buildPath(vertices, previousEdge, previousVertex, map, source, previous, sourceIndex, previousIndex);
             }
-            final List<E> temp = new LinkedList<E>(map.get(edge.getSource()).getEdges());
+            final List<E> temp = new LinkedList<E>(map.get(previous).getEdges());
             temp.add(edge);
             map.put(target, new SimpleWeightedPath<>(source, target, temp));
         }
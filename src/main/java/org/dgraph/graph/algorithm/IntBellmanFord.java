@@ -0,0 +1,109 @@
+package org.dgraph.graph.algorithm;
+
+import org.dgraph.graph.IntWeightedDirectedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Bellman-Ford algorithm specialized for weighted graphs with primitive integer
+ * vertices. Unlike Dijkstra's algorithm, it is capable of handling negative
+ * weights and runs in O(|V|*|E|) time.
+ *
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class IntBellmanFord {
+
+    /**
+     * Finds distances of shortest paths from the source vertex to all other
+     * vertices.
+     *
+     * @param graph               the weighted graph
+     * @param source              the source vertex
+     * @param checkNegativeCycles if true, method will throw
+     *                            IllegalArgumentException if a negative cycle is
+     *                            reachable from the source
+     * @return array of distances indexed by vertices. Unreachable vertices have
+     * the distance of Double.POSITIVE_INFINITY
+     */
+    public static double[] findAllShortestDistances(
+            IntWeightedDirectedGraph graph,
+            int source,
+            boolean checkNegativeCycles
+    ) {
+        return findAllShortestDistances(graph, source, checkNegativeCycles, null);
+    }
+
+    /**
+     * Finds distances of shortest paths from the source vertex to all other
+     * vertices and fills the preceding vertex of each vertex on its shortest
+     * path.
+     *
+     * @param graph               the weighted graph
+     * @param source              the source vertex
+     * @param checkNegativeCycles if true, method will throw
+     *                            IllegalArgumentException if a negative cycle is
+     *                            reachable from the source
+     * @param previous            array to be filled with preceding vertices, -1
+     *                            for unreachable vertices. Can be null
+     * @return array of distances indexed by vertices. Unreachable vertices have
+     * the distance of Double.POSITIVE_INFINITY
+     */
+    public static double[] findAllShortestDistances(
+            IntWeightedDirectedGraph graph,
+            int source,
+            boolean checkNegativeCycles,
+            int[] previous
+    ) {
+        final int n = graph.sizeOfVertices();
+        final double[] distance = new double[n];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        if (previous != null) {
+            Arrays.fill(previous, 0, n, -1);
+        }
+        if (!graph.containsVertex(source)) {
+            return distance;
+        }
+        distance[source] = 0d;
+        if (previous != null) {
+            previous[source] = source;
+        }
+        for (int k = 1; k < n; k++) {// |V| - 1 times
+            boolean hasChanges = false;
+            for (int u = 0; u < n; u++) {
+                final double uDistance = distance[u];
+                if (uDistance == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (int i = 0, degree = graph.getOutDegree(u); i < degree; i++) {
+                    final int v = graph.getOutTarget(u, i);
+                    final double newDistance = uDistance + graph.getOutWeight(u, i);
+                    if (newDistance < distance[v]) {
+                        distance[v] = newDistance;
+                        if (previous != null) {
+                            previous[v] = u;
+                        }
+                        hasChanges = true;
+                    }
+                }
+            }
+            if (!hasChanges) {
+                return distance;
+            }
+        }
+        if (checkNegativeCycles) {
+            for (int u = 0; u < n; u++) {
+                if (distance[u] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (int i = 0, degree = graph.getOutDegree(u); i < degree; i++) {
+                    if (distance[u] + graph.getOutWeight(u, i) < distance[graph.getOutTarget(u, i)]) {
+                        throw new IllegalArgumentException("Graph contains a negative-weight cycle");
+                    }
+                }
+            }
+        }
+        return distance;
+    }
+
+}
@@ -0,0 +1,63 @@
+package org.dgraph.graph.algorithm;
+
+import org.dgraph.graph.IntDirectedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Breadth-first search specialized for graphs with primitive integer vertices.
+ *
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class IntBreadthFirstSearch {
+
+    /**
+     * Finds a path with the minimal number of edges between two vertices.
+     *
+     * @param graph  the graph
+     * @param source the source vertex
+     * @param target the target vertex
+     * @return vertices of the path from the source to the target inclusive, or
+     * null if the target cannot be reached
+     */
+    public static int[] findPath(IntDirectedGraph graph, int source, int target) {
+        if (!graph.containsVertex(source) || !graph.containsVertex(target)) {
+            return null;
+        }
+        final int n = graph.sizeOfVertices();
+        final int[] previous = new int[n];
+        final int[] queue = new int[n];
+        Arrays.fill(previous, -1);
+        int head = 0, tail = 0;
+        previous[source] = source;
+        queue[tail++] = source;
+        while (head < tail) {
+            final int cur = queue[head++];
+            if (cur == target) {
+                break;
+            }
+            for (int i = 0, degree = graph.getOutDegree(cur); i < degree; i++) {
+                final int adj = graph.getOutTarget(cur, i);
+                if (previous[adj] < 0) {
+                    previous[adj] = cur;
+                    queue[tail++] = adj;
+                }
+            }
+        }
+        return previous[target] < 0 ? null : buildPath(previous, source, target);
+    }
+
+    static int[] buildPath(int[] previous, int source, int target) {
+        int length = 1;
+        for (int cur = target; cur != source; cur = previous[cur]) {
+            length++;
+        }
+        final int[] path = new int[length];
+        for (int cur = target; length > 0; cur = previous[cur]) {
+            path[--length] = cur;
+        }
+        return path;
+    }
+
+}
@@ -0,0 +1,81 @@
+package org.dgraph.graph.algorithm;
+
+import org.dgraph.graph.IntWeightedDirectedGraph;
+import org.dgraph.util.IndexedDaryHeap;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra's algorithm specialized for weighted graphs with primitive integer
+ * vertices.
+ *
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class IntDijkstra {
+
+    /**
+     * Finds a shortest path between two vertices.
+     *
+     * @param graph  the weighted graph with non negative weights
+     * @param source the source vertex
+     * @param target the target vertex
+     * @return vertices of the path from the source to the target inclusive, or
+     * null if the target cannot be reached
+     */
+    public static int[] findShortestPath(IntWeightedDirectedGraph graph, int source, int target) {
+        if (!graph.containsVertex(source) || !graph.containsVertex(target)) {
+            return null;
+        }
+        final int[] previous = new int[graph.sizeOfVertices()];
+        run(graph, source, target, new double[graph.sizeOfVertices()], previous);
+        return previous[target] < 0 ? null : IntBreadthFirstSearch.buildPath(previous, source, target);
+    }
+
+    /**
+     * Finds distances of shortest paths from the source vertex to all other
+     * vertices.
+     *
+     * @param graph  the weighted graph with non negative weights
+     * @param source the source vertex
+     * @return array of distances indexed by vertices. Unreachable vertices have
+     * the distance of Double.POSITIVE_INFINITY
+     */
+    public static double[] findShortestDistances(IntWeightedDirectedGraph graph, int source) {
+        final double[] distance = new double[graph.sizeOfVertices()];
+        if (graph.containsVertex(source)) {
+            run(graph, source, -1, distance, new int[distance.length]);
+        } else {
+            Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        }
+        return distance;
+    }
+
+    private static void run(IntWeightedDirectedGraph graph, int source, int target, double[] distance, int[] previous) {
+        final IndexedDaryHeap heap = new IndexedDaryHeap(distance.length);
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, -1);
+        distance[source] = 0d;
+        previous[source] = source;
+        heap.enqueue(source, 0d);
+        int cur;
+        while ((cur = heap.dequeueMin()) >= 0) {
+            if (cur == target) {
+                break;
+            }
+            for (int i = 0, degree = graph.getOutDegree(cur); i < degree; i++) {
+                final double weight = graph.getOutWeight(cur, i);
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Dijkstra's algorithm can be applied only for graphs with non negative weights.");
+                }
+                final int adj = graph.getOutTarget(cur, i);
+                final double newDistance = distance[cur] + weight;
+                if (newDistance < distance[adj] && heap.offer(adj, newDistance)) {
+                    distance[adj] = newDistance;
+                    previous[adj] = cur;
+                }
+            }
+        }
+    }
+
+}
@@ -1,19 +1,117 @@
 package org.dgraph.graph.algorithm;
 
+import org.dgraph.graph.AttributedGraph;
+import org.dgraph.graph.DoubleEdgeColumn;
 import org.dgraph.graph.Graph;
+import org.dgraph.graph.IndexedGraph;
+import org.dgraph.graph.VertexIndex;
+import org.dgraph.graph.edge.Edge;
 import org.dgraph.graph.edge.FlowEdge;
 import org.dgraph.graph.edge.WeightedEdge;
-import org.dgraph.graph.path.WeightedPath;
-import org.dgraph.util.FibonacciHeap;
-import org.dgraph.util.FibonacciHeap.Node;
+import org.dgraph.util.IndexedDaryHeap;
 import org.dgraph.util.Tuple;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.Arrays;
 
 public class MinCostMaxFlow {
 
+    /**
+     * Cost, capacity and flow of the arcs of an indexed graph. An arc is the
+     * position of an outgoing edge, or -1 - the position of an incoming edge.
+     */
+    private interface Arcs {
+
+        double cost(int arc);
+
+        double capacity(int arc);
+
+        double flow(int arc);
+
+        void setFlow(int arc, double flow);
+
+    }
+
+    /**
+     * Arcs, which keep their attributes in the edges.
+     */
+    private static final class EdgeArcs<E extends WeightedEdge<?, ?> & FlowEdge<?>> implements Arcs {
+
+        private final IndexedGraph<?, E> graph;
+
+        EdgeArcs(IndexedGraph<?, E> graph) {
+            this.graph = graph;
+        }
+
+        private E edge(int arc) {
+            return arc >= 0 ? graph.getOutEdge(arc) : graph.getInEdge(-1 - arc);
+        }
+
+        @Override
+        public double cost(int arc) {
+            return edge(arc).getWeight();
+        }
+
+        @Override
+        public double capacity(int arc) {
+            return edge(arc).getCapacity();
+        }
+
+        @Override
+        public double flow(int arc) {
+            return edge(arc).getFlow();
+        }
+
+        @Override
+        public void setFlow(int arc, double flow) {
+            edge(arc).setFlow(flow);
+        }
+
+    }
+
+    /**
+     * Arcs, which keep their attributes in columns keyed by edge ids.
+     */
+    private static final class ColumnArcs implements Arcs {
+
+        private final int[] outIds, inIds;
+
+        private final DoubleEdgeColumn cost, capacity, flow;
+
+        ColumnArcs(int[] outIds, int[] inIds, DoubleEdgeColumn cost, DoubleEdgeColumn capacity,
+                DoubleEdgeColumn flow) {
+            this.outIds = outIds;
+            this.inIds = inIds;
+            this.cost = cost;
+            this.capacity = capacity;
+            this.flow = flow;
+        }
+
+        private int id(int arc) {
+            return arc >= 0 ? outIds[arc] : inIds[-1 - arc];
+        }
+
+        @Override
+        public double cost(int arc) {
+            return cost.get(id(arc));
+        }
+
+        @Override
+        public double capacity(int arc) {
+            return capacity.get(id(arc));
+        }
+
+        @Override
+        public double flow(int arc) {
+            return flow.get(id(arc));
+        }
+
+        @Override
+        public void setFlow(int arc, double flow) {
+            this.flow.set(id(arc), flow);
+        }
+
+    }
+
     private static double error = 1e-10;
 
     public static double getDoubleError() {
@@ -30,118 +128,174 @@ public class MinCostMaxFlow {
             Graph<V, E> network, V source, V sink,
             boolean resetFlowOnStart
     ) {
-        final int vSize = network.sizeOfVertices();
-        final HashMap<V, Node<V>> heapNodes = new HashMap<>(vSize);
-        final HashMap<V, HashSet<E>> reverseEdges = new HashMap<>(vSize);
-        final HashMap<V, E> previousEdge = new HashMap<>(vSize);
-        final HashMap<V, Double> distance = new HashMap<>(vSize);
-        final HashMap<V, Double> currentFlow = new HashMap<>(vSize);
+        final IndexedGraph<V, E> graph = IndexedGraph.of(network);
+        return getMaximumFlowWithMinCost(graph, source, sink, new EdgeArcs<>(graph), resetFlowOnStart);
+    }
+
+    /**
+     * Finds the maximum flow with the minimum cost, reading costs and capacities
+     * from columns of the network and writing flows to a column. The edges are
+     * not touched, so several computations with their own flow columns can run
+     * over the same network, while it is not modified.
+     *
+     * @param network          the network
+     * @param source           source vertex of the flow
+     * @param sink             sink vertex of the flow
+     * @param cost             cost of a unit of flow through each edge
+     * @param capacity         capacity of each edge
+     * @param flow             column to read and write the flow of each edge
+     * @param resetFlowOnStart specifies whether the flows are set to 0 first
+     * @return the maximum flow and its cost
+     * @throws IllegalArgumentException if the size of any column differs from
+     *                                  the number of edges
+     */
+    public static <V, E extends Edge<V>> Tuple<Double, Double> getMaximumFlowWithMinCost(
+            AttributedGraph<V, E> network, V source, V sink,
+            DoubleEdgeColumn cost, DoubleEdgeColumn capacity, DoubleEdgeColumn flow,
+            boolean resetFlowOnStart
+    ) {
+        final int m = network.sizeOfEdges();
+        for (DoubleEdgeColumn column : Arrays.asList(cost, capacity, flow)) {
+            if (column.size() != m) {
+                throw new IllegalArgumentException(
+                        "Column " + column.getName() + " has " + column.size() + " values, but the network has " + m
+                                + " edges.");
+            }
+        }
+        final IndexedGraph<V, E> graph = IndexedGraph.of(network);
+        final int[] outIds = new int[m];
+        final int[] inIds = new int[m];
+        for (int i = 0; i < m; i++) {
+            outIds[i] = network.getEdgeId(graph.getOutEdge(i));
+            inIds[i] = network.getEdgeId(graph.getInEdge(i));
+        }
+        return getMaximumFlowWithMinCost(graph, source, sink, new ColumnArcs(outIds, inIds, cost, capacity, flow),
+                resetFlowOnStart);
+    }
+
+    private static <V> Tuple<Double, Double> getMaximumFlowWithMinCost(
+            IndexedGraph<V, ?> graph, V source, V sink, Arcs arcs,
+            boolean resetFlowOnStart
+    ) {
+        final VertexIndex<V> index = graph.getVertexIndex();
+        final int vSize = index.bound();
+        final int s = index.indexOf(source);
+        final int t = index.indexOf(sink);
+        if (s < 0 || t < 0) {
+            return new Tuple<>(0d, 0d);
+        }
+
+        /* Previous arc of each vertex: position of an outgoing edge, or -1 - position of an incoming edge. */
+        final int[] previousArc = new int[vSize];
+        final int[] parent = new int[vSize];
+        final double[] potential = new double[vSize];
+        /* One heap serves all augmentations, keys of dequeued vertices are their distances. */
+        final IndexedDaryHeap heap = new IndexedDaryHeap(vSize);
 
         boolean negativeCosts = false;
-        for (E e : network.getAllEdges()) {
-            if (e.getWeight() < 0) {
+        for (int i = 0, end = graph.getOutOffset(vSize); i < end; i++) {
+            if (arcs.cost(i) < 0) {
                 negativeCosts = true;
             }
-            reverseEdges.get(e.getTarget()).add(e);
             if (resetFlowOnStart) {
-                e.setFlow(Double.valueOf(0d));
+                arcs.setFlow(i, 0d);
             }
         }
 
         double maxFlow = 0;
-        for (E e : network.getEdgesFromSource(source)) {
-            if (e.getCapacity() > 0) {
-                maxFlow += e.getCapacity();
+        for (int i = graph.getOutOffset(s), end = graph.getOutOffset(s + 1); i < end; i++) {
+            if (arcs.capacity(i) > 0) {
+                maxFlow += arcs.capacity(i);
             }
         }
 
         if (negativeCosts) {
-            final Map<V, WeightedPath<V, E>> dist = BellmanFord.findAllShortestPaths(network, source, false);
-            for (V v : dist.keySet()) {
-                distance.put(v, dist.get(v).getDistance());
-                currentFlow.put(v, Double.valueOf(0d));
+            final double[] costs = new double[graph.getOutOffset(vSize)];
+            for (int i = 0; i < costs.length; i++) {
+                costs[i] = arcs.cost(i);
             }
-        } else {
-            for (V v : network.getAllVertices()) {
-                distance.put(v, Double.valueOf(0d));
-                currentFlow.put(v, Double.valueOf(0d));
+            Arrays.fill(potential, Double.POSITIVE_INFINITY);
+            potential[s] = 0d;
+            for (int k = 1; k < vSize; k++) {
+                if (!BellmanFord.relaxAll(graph, costs, potential, parent, previousArc)) {
+                    break;
+                }
+            }
+            for (int v = 0; v < vSize; v++) {
+                if (potential[v] == Double.POSITIVE_INFINITY) {
+                    potential[v] = 0d;
+                }
             }
         }
 
         double flow = 0;
         double flowCost = 0;
         while (flow < maxFlow) {
-            final FibonacciHeap<V> heap = new FibonacciHeap<>();
-            heapNodes.clear();
-            heapNodes.put(source, heap.enqueue(source, 0d));
+            heap.reset();
+            heap.enqueue(s, 0d);
             while (!heap.isEmpty()) {
-                final Node<V> cur = heap.dequeueMin();
-                final V u = cur.getValue();
-                final double uDist = distance.get(u).doubleValue();
-                for (E e : network.getEdgesFromSource(u)) {
-                    final V v = e.getTarget();
-                    final double vDist = distance.get(v).doubleValue();
-                    if (Double.isInfinite(uDist) || Double.isInfinite(vDist) || e.getCapacity() < e.getFlow() - error) {
-                        continue;
-                    }
-                    final double newPriority = cur.getPriority() + e.getWeight() + distance.get(u)
-                            .doubleValue() - distance.get(v).doubleValue();
-                    final Node<V> next = heapNodes.get(v);
-                    if (next == null || next.getPriority() > newPriority + error) {
-                        if (next == null || next.isDequeued()) {
-                            heapNodes.put(v, heap.enqueue(v, newPriority));
-                        } else {
-                            heap.decreaseKey(next, newPriority);
-                        }
-                        previousEdge.put(v, e);
-                        final double curFlow = currentFlow.get(v).doubleValue();
-                        currentFlow.put(v, Math.min(curFlow, e.getCapacity() - e.getFlow()));
+                final int u = heap.dequeueMin();
+                final double distance = heap.getKey(u);
+                for (int i = graph.getOutOffset(u), end = graph.getOutOffset(u + 1); i < end; i++) {
+                    if (arcs.capacity(i) - arcs.flow(i) > error) {
+                        final int v = graph.getOutTarget(i);
+                        relax(heap, distance, v, arcs.cost(i) + potential[u] - potential[v], parent, previousArc, u, i);
                     }
                 }
-                for (E e : reverseEdges.get(u)) {
-                    final V v = e.getSource();
-                    final double vDist = distance.get(v).doubleValue();
-                    if (Double.isInfinite(uDist) || Double.isInfinite(vDist) || e.getFlow() < error) {
-                        continue;
-                    }
-                    final double newPriority = cur.getPriority() + e.getWeight() + distance.get(u)
-                            .doubleValue() - distance.get(v).doubleValue();
-                    final Node<V> next = heapNodes.get(v);
-                    if (next == null || next.getPriority() > newPriority + error) {
-                        if (next == null || next.isDequeued()) {
-                            heapNodes.put(v, heap.enqueue(v, newPriority));
-                        } else {
-                            heap.decreaseKey(next, newPriority);
-                        }
-                        previousEdge.put(v, e);
-                        final double curFlow = currentFlow.get(v).doubleValue();
-                        currentFlow.put(v, Math.min(curFlow, e.getFlow()));
+                for (int i = graph.getInOffset(u), end = graph.getInOffset(u + 1); i < end; i++) {
+                    if (arcs.flow(-1 - i) > error) {
+                        final int v = graph.getInSource(i);
+                        relax(heap, distance, v, -arcs.cost(-1 - i) + potential[u] - potential[v], parent, previousArc, u, -1 - i);
                     }
                 }
             }
-            if (heapNodes.get(sink) == null) {
+            if (!heap.wasEnqueued(t)) {
                 break;
             }
-            for (V v : network.getAllVertices()) {
-                final double vDist = distance.get(v).doubleValue();
-                distance.put(v, Double.valueOf(vDist + heapNodes.get(v).getPriority()));
+            for (int v = 0; v < vSize; v++) {
+                if (heap.wasEnqueued(v)) {
+                    potential[v] += heap.getKey(v);
+                }
+            }
+
+            double deltaFlow = maxFlow - flow;
+            for (int v = t; v != s; v = parent[v]) {
+                final int arc = previousArc[v];
+                if (arc >= 0) {
+                    deltaFlow = Math.min(deltaFlow, arcs.capacity(arc) - arcs.flow(arc));
+                } else {
+                    deltaFlow = Math.min(deltaFlow, arcs.flow(arc));
+                }
             }
-            final double deltaFlow = Math.min(currentFlow.get(sink).doubleValue(), maxFlow - flow);
             flow += deltaFlow;
-            V v = sink;
-            for (final E e = previousEdge.get(v); !v.equals(source); ) {
-                if (e.getTarget().equals(v)) {
-                    e.setFlow(e.getFlow() + deltaFlow);
-                    flowCost += deltaFlow * e.getWeight();
-                    v = e.getSource();
+            for (int v = t; v != s; v = parent[v]) {
+                final int arc = previousArc[v];
+                if (arc >= 0) {
+                    arcs.setFlow(arc, arcs.flow(arc) + deltaFlow);
+                    flowCost += deltaFlow * arcs.cost(arc);
                 } else {
-                    e.setFlow(e.getFlow() - deltaFlow);
-                    flowCost -= deltaFlow * e.getWeight();
-                    v = e.getTarget();
+                    arcs.setFlow(arc, arcs.flow(arc) - deltaFlow);
+                    flowCost -= deltaFlow * arcs.cost(arc);
                 }
             }
         }
         return new Tuple<>(flow, flowCost);
     }
 
+    private static void relax(
+            IndexedDaryHeap heap, double distance, int v, double cost,
+            int[] parent, int[] previousArc, int u, int arc
+    ) {
+        final double newPriority = distance + cost;
+        if (!heap.wasEnqueued(v) || heap.getKey(v) > newPriority + error) {
+            if (heap.contains(v)) {
+                heap.decreaseKey(v, newPriority);
+            } else {
+                heap.enqueue(v, newPriority);
+            }
+            parent[v] = u;
+            previousArc[v] = arc;
+        }
+    }
+
 }
@@ -1,11 +1,10 @@
 package org.dgraph.graph.algorithm;
 
 import org.dgraph.graph.Graph;
+import org.dgraph.graph.IndexedGraph;
+import org.dgraph.graph.VertexIndex;
 import org.dgraph.graph.edge.FlowEdge;
 
-import java.util.HashMap;
-import java.util.HashSet;
-
 public class PushRelabel {
 
     private static double error = 0.0000000001;
@@ -23,104 +22,126 @@ public class PushRelabel {
     public static <V, E extends FlowEdge<V>> double getMaximumFlow(
             Graph<V, E> network, V source, V sink, boolean resetFlowOnStart
     ) {
-        final int vSize = network.sizeOfVertices();
-        final HashMap<V, Integer> label = new HashMap<>(vSize);
-        final HashMap<V, Double> excess = new HashMap<>(vSize);
-        final HashMap<V, HashSet<E>> reverseEdges = new HashMap<>(vSize);
-
-        for (V v : network.getAllVertices()) {
-            excess.put(v, Double.valueOf(0d));
-            label.put(v, Integer.valueOf(0));
-            reverseEdges.put(v, new HashSet<E>());
+        final IndexedGraph<V, E> graph = IndexedGraph.of(network);
+        final VertexIndex<V> index = graph.getVertexIndex();
+        final int vSize = index.bound();
+        final int s = index.indexOf(source);
+        final int t = index.indexOf(sink);
+        if (s < 0 || t < 0) {
+            return 0d;
         }
-
-        for (E e : network.getAllEdges()) {
-            reverseEdges.get(e.getTarget()).add(e);
-            if (resetFlowOnStart) {
-                e.setFlow(Double.valueOf(0d));
+        final int[] label = new int[vSize];
+        final double[] excess = new double[vSize];
+
+        /* Arcs of a vertex are its outgoing edges followed by its incoming edges. */
+        final int[] currentArc = new int[vSize];
+        final int[] queue = new int[vSize];
+        final boolean[] active = new boolean[vSize];
+        int head = 0, size = 0;
+
+        for (int v = 0; v < vSize; v++) {
+            for (int i = graph.getOutOffset(v), end = graph.getOutOffset(v + 1); i < end; i++) {
+                final E e = graph.getOutEdge(i);
+                if (resetFlowOnStart) {
+                    e.setFlow(0d);
+                }
+                excess[v] -= e.getFlow();
+                excess[graph.getOutTarget(i)] += e.getFlow();
             }
         }
 
-        HashSet<V> activeVertices = new HashSet<>();
-        label.put(source, Integer.valueOf(vSize));
-        for (E e : network.getEdgesFromSource(source)) {
-            if (e.getCapacity() > 0) {
+        label[s] = vSize;
+        for (int i = graph.getOutOffset(s), end = graph.getOutOffset(s + 1); i < end; i++) {
+            final E e = graph.getOutEdge(i);
+            final double diff = e.getCapacity() - e.getFlow();
+            if (diff > 0) {
                 e.setFlow(e.getCapacity());
-                excess.put(e.getTarget(), Double.valueOf(e.getCapacity()));
-                if (!e.getTarget().equals(sink)) {
-                    activeVertices.add(e.getTarget());
-                }
+                excess[s] -= diff;
+                excess[graph.getOutTarget(i)] += diff;
+            }
+        }
+        for (int i = graph.getInOffset(s), end = graph.getInOffset(s + 1); i < end; i++) {
+            final E e = graph.getInEdge(i);
+            if (e.getFlow() > 0) {
+                excess[s] += e.getFlow();
+                excess[graph.getInSource(i)] -= e.getFlow();
+                e.setFlow(0d);
+            }
+        }
+        for (int v = 0; v < vSize; v++) {
+            if (v != s && v != t && excess[v] > error) {
+                active[v] = true;
+                queue[size++] = v;
             }
         }
 
-        HashSet<V> newActiveVertices = new HashSet<>();
-        while (!activeVertices.isEmpty()) {
-
-            active:
-            for (V v : activeVertices) {
-                int minLabel = 2 * vSize;
-                final int vLabel = label.get(v).intValue();
-                final double vExcess = excess.get(v).doubleValue();
-                boolean pushed = false;
-                for (E e : network.getEdgesFromSource(v)) {
-                    final V t = e.getTarget();
-                    if (e.getFlow() < e.getCapacity()) {
-                        minLabel = Math.min(minLabel, label.get(t).intValue());
-                        if (vLabel < label.get(t).intValue()) {
-                            pushed = true;
-                            newActiveVertices.add(t);
-                            final double diff = e.getCapacity() - e.getFlow();
-                            if (diff - vExcess > -error) {
-                                excess.put(v, Double.valueOf(0d));
-                                excess.put(t, excess.get(t).doubleValue() + vExcess);
-                                e.setFlow(e.getFlow() + vExcess);
-                                continue active;
-                            } else {
-                                excess.put(t, excess.get(t).doubleValue() + diff);
-                                excess.put(v, vExcess - diff);
-                                e.setFlow(e.getFlow() + diff);
+        while (size > 0) {
+            final int v = queue[head];
+            head = head + 1 == vSize ? 0 : head + 1;
+            size--;
+            active[v] = false;
+
+            /* Discharge the vertex. */
+            final int outStart = graph.getOutOffset(v);
+            final int outDegree = graph.getOutOffset(v + 1) - outStart;
+            final int inStart = graph.getInOffset(v) - outDegree;
+            final int degree = outDegree + graph.getInOffset(v + 1) - graph.getInOffset(v);
+            while (excess[v] > error) {
+                final int arc = currentArc[v];
+                if (arc == degree) {
+                    // Relabel
+                    int minLabel = Integer.MAX_VALUE;
+                    for (int a = 0; a < degree; a++) {
+                        if (a < outDegree) {
+                            final E e = graph.getOutEdge(outStart + a);
+                            if (e.getCapacity() - e.getFlow() > error) {
+                                minLabel = Math.min(minLabel, label[graph.getOutTarget(outStart + a)]);
                             }
+                        } else if (graph.getInEdge(inStart + a).getFlow() > error) {
+                            minLabel = Math.min(minLabel, label[graph.getInSource(inStart + a)]);
                         }
                     }
-                }
-                for (E e : reverseEdges.get(v)) {
-                    final V t = e.getSource();
-                    if (e.getFlow() > 0) {
-                        minLabel = Math.min(minLabel, label.get(t).intValue());
-                        if (vLabel < label.get(t).intValue()) {
-                            pushed = true;
-                            newActiveVertices.add(t);
-                            final double diff = e.getFlow();
-                            if (e.getFlow() - vExcess > -error) {
-                                excess.put(v, Double.valueOf(0d));
-                                excess.put(t, excess.get(t).doubleValue() + vExcess);
-                                e.setFlow(Math.abs(e.getFlow() - vExcess) < error ? 0d : e
-                                        .getFlow()
-                                        - vExcess);
-                                continue active;
-                            } else {
-                                excess.put(t, excess.get(t).doubleValue() + diff);
-                                excess.put(v, vExcess - diff);
-                                e.setFlow(0d);
-                            }
-                        }
+                    if (minLabel == Integer.MAX_VALUE) {
+                        break;
                     }
+                    label[v] = minLabel + 1;
+                    currentArc[v] = 0;
+                    continue;
+                }
+                final int w;
+                final double diff;
+                final E e;
+                if (arc < outDegree) {
+                    e = graph.getOutEdge(outStart + arc);
+                    w = graph.getOutTarget(outStart + arc);
+                    diff = e.getCapacity() - e.getFlow();
+                } else {
+                    e = graph.getInEdge(inStart + arc);
+                    w = graph.getInSource(inStart + arc);
+                    diff = e.getFlow();
+                }
+                if (diff <= error || label[v] != label[w] + 1) {
+                    currentArc[v]++;
+                    continue;
                 }
 
-                // Relabel
-                if (!pushed) {
-                    label.put(v, minLabel + 1);
+                // Push
+                final double delta = Math.min(excess[v], diff);
+                if (arc < outDegree) {
+                    e.setFlow(diff - delta < error ? e.getCapacity() : e.getFlow() + delta);
+                } else {
+                    e.setFlow(diff - delta < error ? 0d : e.getFlow() - delta);
+                }
+                excess[v] -= delta;
+                excess[w] += delta;
+                if (!active[w] && w != s && w != t) {
+                    active[w] = true;
+                    queue[(head + size++) % vSize] = w;
                 }
-                newActiveVertices.add(v);
             }
-
-            final HashSet<V> temp = activeVertices;
-            activeVertices = newActiveVertices;
-            newActiveVertices = temp;
-            newActiveVertices.clear();
         }
 
-        return excess.get(sink).doubleValue();
+        return excess[t];
     }
 
 }
@@ -0,0 +1,50 @@
+package org.dgraph.graph.edge;
+
+/**
+ * Implementation of a simple edge, which compares its vertices by reference.
+ *
+ * <p>
+ * Neither <tt>equals()</tt> nor <tt>hashCode()</tt> of the vertices is ever
+ * called, so the edge suits vertices, for which these methods are expensive,
+ * in graphs like {@link org.dgraph.graph.IdentityDirectedGraph}.
+ * </p>
+ *
+ * @param <V> type for vertices
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class IdentitySimpleEdge<V> extends AbstractEdge<V> {
+
+    private final int hash;
+
+    /**
+     * Constructor for the identity simple edge.<br>
+     * Two identity simple edges will be treated equivalent only if they have the
+     * same source and the same target vertices.
+     *
+     * @param source source of this edge
+     * @param target target of this edge
+     */
+    public IdentitySimpleEdge(V source, V target) {
+        super(source, target);
+        hash = 37 * System.identityHashCode(source) + System.identityHashCode(target);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof IdentitySimpleEdge)) {
+            return false;
+        }
+        final IdentitySimpleEdge<?> edge = (IdentitySimpleEdge<?>) obj;
+        return hash == edge.hash && source == edge.source && target == edge.target;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+}
@@ -0,0 +1,37 @@
+package org.dgraph.graph.edge;
+
+/**
+ * Interface for edges, which exist only during a half-open interval of time
+ * <tt>[validFrom, validTo)</tt>.
+ *
+ * @param <V> type for vertices
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public interface TemporalEdge<V> extends Edge<V> {
+
+    /**
+     * Retrieves the first moment, when this edge exists.
+     *
+     * @return the start of the interval, inclusive
+     */
+    long getValidFrom();
+
+    /**
+     * Retrieves the moment, when this edge ceases to exist.
+     *
+     * @return the end of the interval, exclusive
+     */
+    long getValidTo();
+
+    /**
+     * Checks whether this edge exists at the given moment.
+     *
+     * @param time the moment
+     * @return <tt>true</tt> if the moment is within the interval of this edge
+     */
+    default boolean isValidAt(long time) {
+        return getValidFrom() <= time && time < getValidTo();
+    }
+
+}
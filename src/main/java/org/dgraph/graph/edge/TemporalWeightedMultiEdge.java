@@ -0,0 +1,66 @@
+package org.dgraph.graph.edge;
+
+/**
+ * Implementation of a weighted multi-edge with an interval of validity. Being
+ * a multi-edge, it lets a graph keep several intervals of a connection between
+ * the same vertices.
+ *
+ * @param <V> type for vertices
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class TemporalWeightedMultiEdge<V> extends WeightedMultiEdge<V> implements TemporalEdge<V> {
+
+    private static final String TO_STRING_FORMAT = "(%s) -{%.2f, [%d, %d)}-> (%s)";
+
+    private final long validFrom, validTo;
+
+    /**
+     * Constructor for the temporal multi-edge. Default weight of the edge is set
+     * to 0.
+     *
+     * @param source    source of this edge
+     * @param target    target of this edge
+     * @param validFrom the first moment, when this edge exists
+     * @param validTo   the moment, when this edge ceases to exist
+     * @throws IllegalArgumentException if the interval ends before it starts
+     */
+    public TemporalWeightedMultiEdge(V source, V target, long validFrom, long validTo) {
+        this(source, target, 0d, validFrom, validTo);
+    }
+
+    /**
+     * Constructor for the temporal multi-edge.
+     *
+     * @param source    source of this edge
+     * @param target    target of this edge
+     * @param weight    weight of this edge
+     * @param validFrom the first moment, when this edge exists
+     * @param validTo   the moment, when this edge ceases to exist
+     * @throws IllegalArgumentException if the interval ends before it starts
+     */
+    public TemporalWeightedMultiEdge(V source, V target, double weight, long validFrom, long validTo) {
+        super(source, target, weight);
+        if (validTo < validFrom) {
+            throw new IllegalArgumentException("Interval [" + validFrom + ", " + validTo + ") ends before it starts.");
+        }
+        this.validFrom = validFrom;
+        this.validTo = validTo;
+    }
+
+    @Override
+    public long getValidFrom() {
+        return validFrom;
+    }
+
+    @Override
+    public long getValidTo() {
+        return validTo;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(TO_STRING_FORMAT, source, getWeight(), validFrom, validTo, target);
+    }
+
+}
@@ -2,9 +2,9 @@ package org.dgraph.graph.path;
 
 import org.dgraph.graph.edge.Edge;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class SimplePath<V, E extends Edge<V>> implements Path<V, E> {
 
@@ -23,7 +23,14 @@ public class SimplePath<V, E extends Edge<V>> implements Path<V, E> {
             this.vertices = null;
         } else {
             this.edges = Collections.unmodifiableList(edges);
-            final List<V> vertices = edges.stream().map(edge -> edge.getSource()).collect(Collectors.toList());
+            /* Edges of undirected graphs can be passed from their target to their source. */
+            final List<V> vertices = new ArrayList<>(edges.size() + 1);
+            V current = source;
+            for (E edge : edges) {
+                vertices.add(current);
+                final V from = edge.getSource();
+                current = from == current || from.equals(current) ? edge.getTarget() : from;
+            }
             vertices.add(target);
             this.vertices = Collections.unmodifiableList(vertices);
         }
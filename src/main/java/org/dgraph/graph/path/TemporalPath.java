@@ -0,0 +1,40 @@
+package org.dgraph.graph.path;
+
+import org.dgraph.graph.edge.TemporalEdge;
+
+import java.util.List;
+
+public class TemporalPath<V, E extends TemporalEdge<V>> extends SimplePath<V, E> {
+
+    private final long departureTime, arrivalTime;
+
+    public TemporalPath(V source, V target, List<E> edges, long departureTime, long arrivalTime) {
+        super(source, target, edges);
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+    }
+
+    /**
+     * Returns the moment, when the path may start at its source.
+     *
+     * @return the departure time
+     */
+    public long getDepartureTime() {
+        return departureTime;
+    }
+
+    /**
+     * Returns the moment, when the path reaches its target.
+     *
+     * @return the arrival time
+     */
+    public long getArrivalTime() {
+        return arrivalTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Path[%d, %d]:", departureTime, arrivalTime) + getEdges();
+    }
+
+}
@@ -0,0 +1,230 @@
+package org.dgraph.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Fixed-size array of primitive numbers stored outside of the Java heap.
+ *
+ * <p>
+ * Elements are kept in direct {@link ByteBuffer}s allocated in slabs of up to
+ * 1 GiB each, so the array can hold more than 2 GiB of data, while the garbage
+ * collector sees only a few small buffer objects. Each array holds elements of
+ * a single width: either 4-byte <tt>int</tt>s or 8-byte <tt>double</tt>s in
+ * little-endian byte order. An array can also be mapped from a file, in which
+ * case its elements are served by the page cache. Memory is released, when
+ * the array becomes unreachable.
+ * </p>
+ *
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public final class DirectArray {
+
+    private static final int SLAB_SHIFT = 30;
+
+    private static final long SLAB_MASK = (1L << SLAB_SHIFT) - 1;
+
+    private final ByteBuffer[] slabs;
+
+    private final int shift;
+
+    private final int length;
+
+    private DirectArray(ByteBuffer[] slabs, int length, int shift) {
+        this.slabs = slabs;
+        this.length = length;
+        this.shift = shift;
+    }
+
+    private static DirectArray allocate(int length, int shift) {
+        final ByteBuffer[] slabs = new ByteBuffer[slabCount(length, shift)];
+        for (int i = 0; i < slabs.length; i++) {
+            slabs[i] = ByteBuffer.allocateDirect(slabSize(length, shift, i)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new DirectArray(slabs, length, shift);
+    }
+
+    private static DirectArray map(FileChannel channel, FileChannel.MapMode mode, long position, int length, int shift)
+            throws IOException {
+        final ByteBuffer[] slabs = new ByteBuffer[slabCount(length, shift)];
+        for (int i = 0; i < slabs.length; i++) {
+            slabs[i] = channel.map(mode, position + ((long) i << SLAB_SHIFT), slabSize(length, shift, i))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new DirectArray(slabs, length, shift);
+    }
+
+    private static int slabCount(int length, int shift) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Illegal length: " + length);
+        }
+        return (int) ((((long) length << shift) + SLAB_MASK) >>> SLAB_SHIFT);
+    }
+
+    private static int slabSize(int length, int shift, int slab) {
+        return (int) Math.min(((long) length << shift) - ((long) slab << SLAB_SHIFT), 1L << SLAB_SHIFT);
+    }
+
+    /**
+     * Allocates an array of <tt>int</tt>s filled with zeros.
+     *
+     * @param length number of elements
+     * @return the array
+     */
+    public static DirectArray ofInts(int length) {
+        return allocate(length, 2);
+    }
+
+    /**
+     * Allocates an array of <tt>double</tt>s filled with zeros.
+     *
+     * @param length number of elements
+     * @return the array
+     */
+    public static DirectArray ofDoubles(int length) {
+        return allocate(length, 3);
+    }
+
+    /**
+     * Maps an array of <tt>int</tt>s from a region of a file. Changes of the
+     * elements are written to the file according to the mapping mode.
+     *
+     * @param channel  channel of the file
+     * @param mode     mapping mode
+     * @param position position of the first byte of the array in the file
+     * @param length   number of elements
+     * @return the array
+     * @throws IOException if the region cannot be mapped
+     */
+    public static DirectArray mapInts(FileChannel channel, FileChannel.MapMode mode, long position, int length)
+            throws IOException {
+        return map(channel, mode, position, length, 2);
+    }
+
+    /**
+     * Maps an array of <tt>double</tt>s from a region of a file. Changes of the
+     * elements are written to the file according to the mapping mode.
+     *
+     * @param channel  channel of the file
+     * @param mode     mapping mode
+     * @param position position of the first byte of the array in the file
+     * @param length   number of elements
+     * @return the array
+     * @throws IOException if the region cannot be mapped
+     */
+    public static DirectArray mapDoubles(FileChannel channel, FileChannel.MapMode mode, long position, int length)
+            throws IOException {
+        return map(channel, mode, position, length, 3);
+    }
+
+    private ByteBuffer slab(long offset) {
+        return slabs[(int) (offset >>> SLAB_SHIFT)];
+    }
+
+    private long offset(int i) {
+        if (i < 0 || i >= length) {
+            throw new ArrayIndexOutOfBoundsException(i);
+        }
+        return (long) i << shift;
+    }
+
+    /**
+     * Returns the <tt>int</tt> element at the specified position.
+     *
+     * @param i position of the element
+     * @return the element
+     * @throws ArrayIndexOutOfBoundsException if the position is out of bounds
+     */
+    public int getInt(int i) {
+        final long offset = offset(i);
+        return slab(offset).getInt((int) (offset & SLAB_MASK));
+    }
+
+    /**
+     * Replaces the <tt>int</tt> element at the specified position.
+     *
+     * @param i     position of the element
+     * @param value new value of the element
+     * @throws ArrayIndexOutOfBoundsException if the position is out of bounds
+     */
+    public void setInt(int i, int value) {
+        final long offset = offset(i);
+        slab(offset).putInt((int) (offset & SLAB_MASK), value);
+    }
+
+    /**
+     * Returns the <tt>double</tt> element at the specified position.
+     *
+     * @param i position of the element
+     * @return the element
+     * @throws ArrayIndexOutOfBoundsException if the position is out of bounds
+     */
+    public double getDouble(int i) {
+        final long offset = offset(i);
+        return slab(offset).getDouble((int) (offset & SLAB_MASK));
+    }
+
+    /**
+     * Replaces the <tt>double</tt> element at the specified position.
+     *
+     * @param i     position of the element
+     * @param value new value of the element
+     * @throws ArrayIndexOutOfBoundsException if the position is out of bounds
+     */
+    public void setDouble(int i, double value) {
+        final long offset = offset(i);
+        slab(offset).putDouble((int) (offset & SLAB_MASK), value);
+    }
+
+    /**
+     * Writes all elements to the channel in the same byte order, in which
+     * {@link #mapInts mapInts} and {@link #mapDoubles mapDoubles} read them.
+     *
+     * @param channel channel to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        for (ByteBuffer slab : slabs) {
+            final ByteBuffer buffer = slab.duplicate();
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Returns the size of all elements in bytes.
+     *
+     * @return the size in bytes
+     */
+    public long byteSize() {
+        return (long) length << shift;
+    }
+
+    /**
+     * Checks, whether the elements can be changed. Only arrays mapped from a
+     * file in {@link FileChannel.MapMode#READ_ONLY READ_ONLY} mode are
+     * read-only.
+     *
+     * @return true, if setting an element throws
+     * {@link java.nio.ReadOnlyBufferException}
+     */
+    public boolean isReadOnly() {
+        return slabs.length > 0 && slabs[0].isReadOnly();
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int length() {
+        return length;
+    }
+
+}
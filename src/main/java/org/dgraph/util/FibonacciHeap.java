@@ -221,7 +221,7 @@ public class FibonacciHeap<T> {
         }
 
         if (min != null) {
-            @SuppressWarnings("rawtypes") final Node[] visited = new Node[32 - Integer.numberOfLeadingZeros(size)];
+            @SuppressWarnings("rawtypes") final Node[] visited = new Node[((32 - Integer.numberOfLeadingZeros(size)) * 3 >> 1) + 2];
             Node<T> cur = min.right, temp;
             min.parent = null;
             visited[min.rank] = min;
@@ -257,6 +257,9 @@ public class FibonacciHeap<T> {
                     }
                     temp.parent = cur;
                     cur.rank++;
+                    if (temp == min) {
+                        min = cur;
+                    }
                 }
                 visited[cur.rank] = cur;
                 if (cur.priority < min.priority) {
@@ -0,0 +1,337 @@
+package org.dgraph.util;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a priority queue of integer indices, like vertex
+ * indices, backed by an implicit d-ary heap.
+ * <p>
+ * Keys are kept in a <tt>double[]</tt> by index, the heap itself is an
+ * <tt>int[]</tt> of indices and one more <tt>int[]</tt> keeps the position of
+ * every index in the heap, so no objects are created per element. Enqueue,
+ * decrease key and delete work in O(log n) and dequeue minimum in O(d log n /
+ * log d) time. The key of a dequeued index stays available until the next
+ * {@link #reset()}, so it can serve as the final distance in Dijkstra-like
+ * algorithms. A reset takes time proportional to the number of indices
+ * enqueued since the previous one, so the same heap can be reused for many
+ * queries without reallocating.
+ * <p>
+ * In this particular library, this queue has been used in algorithms like
+ * Dijkstra, MinCostMaxFlow and Johnson.
+ *
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class IndexedDaryHeap {
+
+    private static final int ABSENT = -1, DEQUEUED = -2;
+
+    private final int arity;
+
+    private double[] keys;
+
+    private int[] heap, position, enqueued;
+
+    private int size, enqueuedSize;
+
+    /**
+     * Creates an empty 4-ary heap for indices from 0 to <tt>capacity</tt>
+     * exclusive.
+     *
+     * @param capacity bound of the indices
+     */
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, 4);
+    }
+
+    /**
+     * Creates an empty heap with the given number of children per node for
+     * indices from 0 to <tt>capacity</tt> exclusive.
+     *
+     * @param capacity bound of the indices
+     * @param arity    number of children per node, at least 2
+     */
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative.");
+        }
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2.");
+        }
+        this.arity = arity;
+        keys = new double[capacity];
+        heap = new int[capacity];
+        position = new int[capacity];
+        enqueued = new int[capacity];
+        Arrays.fill(keys, Double.POSITIVE_INFINITY);
+        Arrays.fill(position, ABSENT);
+    }
+
+    private void siftUp(int pos) {
+        final int index = heap[pos];
+        final double key = keys[index];
+        while (pos > 0) {
+            final int parentPos = (pos - 1) / arity;
+            final int parent = heap[parentPos];
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[pos] = parent;
+            position[parent] = pos;
+            pos = parentPos;
+        }
+        heap[pos] = index;
+        position[index] = pos;
+    }
+
+    private void siftDown(int pos) {
+        final int index = heap[pos];
+        final double key = keys[index];
+        while (true) {
+            final int first = pos * arity + 1;
+            if (first >= size) {
+                break;
+            }
+            int best = first;
+            double bestKey = keys[heap[first]];
+            for (int child = first + 1, end = Math.min(first + arity, size); child < end; child++) {
+                final double childKey = keys[heap[child]];
+                if (childKey < bestKey) {
+                    best = child;
+                    bestKey = childKey;
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            heap[pos] = heap[best];
+            position[heap[pos]] = pos;
+            pos = best;
+        }
+        heap[pos] = index;
+        position[index] = pos;
+    }
+
+    private void remove(int pos) {
+        final int index = heap[pos];
+        position[index] = DEQUEUED;
+        if (pos == --size) {
+            return;
+        }
+        final int last = heap[size];
+        heap[pos] = last;
+        position[last] = pos;
+        if (pos > 0 && keys[heap[(pos - 1) / arity]] > keys[last]) {
+            siftUp(pos);
+        } else {
+            siftDown(pos);
+        }
+    }
+
+    /**
+     * Enqueues the specified index into the heap with the specified key. The
+     * index may have been dequeued before, but must not be in the heap. Its key
+     * must be a valid double, so every value except NaN will be accepted.
+     *
+     * @param index index to insert
+     * @param key   key, which represents order of the given index
+     */
+    public void enqueue(int index, double key) {
+        if (Double.isNaN(key)) {
+            throw new IllegalArgumentException("Key cannot be NaN.");
+        }
+        if (position[index] >= 0) {
+            throw new IllegalArgumentException("Index is already in the heap.");
+        }
+        if (position[index] == ABSENT) {
+            enqueued[enqueuedSize++] = index;
+        }
+        keys[index] = key;
+        heap[size] = index;
+        siftUp(size++);
+    }
+
+    /**
+     * Decreases the key of the given index, which must be in the heap. The new
+     * key must be a valid double and be less than the old one.
+     *
+     * @param index index to decrease
+     * @param key   new key
+     */
+    public void decreaseKey(int index, double key) {
+        if (Double.isNaN(key)) {
+            throw new IllegalArgumentException("New key cannot be NaN.");
+        }
+        if (position[index] < 0) {
+            throw new IllegalArgumentException("Index is not in the heap.");
+        }
+        if (key > keys[index]) {
+            throw new IllegalArgumentException("New key cannot exceed old.");
+        }
+        keys[index] = key;
+        siftUp(position[index]);
+    }
+
+    /**
+     * Enqueues the index, if it has never been enqueued since the last reset, or
+     * decreases its key, if it is in the heap and the new key is less. Dequeued
+     * indices are left untouched. This is the relaxation step of Dijkstra's
+     * algorithm.
+     *
+     * @param index index to insert or decrease
+     * @param key   new key
+     * @return true, if the key of the index has been set
+     */
+    public boolean offer(int index, double key) {
+        final int pos = position[index];
+        if (pos == ABSENT) {
+            enqueue(index, key);
+            return true;
+        }
+        if (pos >= 0 && key < keys[index]) {
+            keys[index] = key;
+            siftUp(pos);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Dequeues the index with the minimum key from the heap.
+     *
+     * @return the index with the minimal key, or -1 if the heap is empty
+     */
+    public int dequeueMin() {
+        if (size == 0) {
+            return -1;
+        }
+        final int min = heap[0];
+        remove(0);
+        return min;
+    }
+
+    /**
+     * Deletes the given index from the heap. The index will be counting as
+     * dequeued.
+     *
+     * @param index index to delete
+     */
+    public void delete(int index) {
+        if (position[index] < 0) {
+            throw new IllegalArgumentException("Index is not in the heap.");
+        }
+        remove(position[index]);
+    }
+
+    /**
+     * Retrieves the index with the minimum key without removing it.
+     *
+     * @return the index with the minimal key, or -1 if the heap is empty
+     */
+    public int getMin() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    /**
+     * Returns the current key of the index in the heap or the last key of a
+     * dequeued index.
+     *
+     * @param index the index
+     * @return the key, or {@link Double#POSITIVE_INFINITY} if the index has not
+     * been enqueued since the last reset
+     */
+    public double getKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Checks, whether the index is in the heap.
+     *
+     * @param index the index
+     * @return true, if the index has been enqueued and not dequeued
+     */
+    public boolean contains(int index) {
+        return position[index] >= 0;
+    }
+
+    /**
+     * Checks, whether the index has been dequeued or deleted from the heap.
+     *
+     * @param index the index
+     * @return true, if the index has been dequeued since the last reset and not
+     * enqueued again
+     */
+    public boolean isDequeued(int index) {
+        return position[index] == DEQUEUED;
+    }
+
+    /**
+     * Checks, whether the index has ever been enqueued since the last reset.
+     *
+     * @param index the index
+     * @return true, if the index is in the heap or has been dequeued
+     */
+    public boolean wasEnqueued(int index) {
+        return position[index] != ABSENT;
+    }
+
+    /**
+     * Empties the heap and forgets all keys, so it can be reused. Only the
+     * indices enqueued since the last reset are cleared.
+     */
+    public void reset() {
+        for (int i = 0; i < enqueuedSize; i++) {
+            final int index = enqueued[i];
+            keys[index] = Double.POSITIVE_INFINITY;
+            position[index] = ABSENT;
+        }
+        size = 0;
+        enqueuedSize = 0;
+    }
+
+    /**
+     * Grows the heap to accept indices from 0 to <tt>capacity</tt> exclusive.
+     *
+     * @param capacity bound of the indices
+     */
+    public void ensureCapacity(int capacity) {
+        final int old = keys.length;
+        if (capacity <= old) {
+            return;
+        }
+        keys = Arrays.copyOf(keys, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+        position = Arrays.copyOf(position, capacity);
+        enqueued = Arrays.copyOf(enqueued, capacity);
+        Arrays.fill(keys, old, capacity, Double.POSITIVE_INFINITY);
+        Arrays.fill(position, old, capacity, ABSENT);
+    }
+
+    /**
+     * Retrieves the bound of the indices accepted by the heap.
+     *
+     * @return the capacity of the heap
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Checks, whether current heap is empty.
+     *
+     * @return true, if heap contains no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Retrieves the size of the heap.
+     *
+     * @return number of indices in the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+}
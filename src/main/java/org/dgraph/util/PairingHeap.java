@@ -0,0 +1,299 @@
+package org.dgraph.util;
+
+import java.util.Objects;
+
+/**
+ * This class represents a priority queue backed by a pairing heap, as
+ * described by Fredman, Sedgewick, Sleator and Tarjan in 1986. Insert, merge
+ * and find-minimum work in O(1) time, decrease key in o(log n) and delete and
+ * delete minimum in O(log n) amortized time. Every node keeps only three links
+ * and minimums are consolidated by the two-pass pairing, so in practice it is
+ * usually faster than {@link FibonacciHeap}, which has the same public
+ * contract.
+ *
+ * @param <T> type for values
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public class PairingHeap<T> {
+
+    /**
+     * Identity of a heap shared by its nodes. When a heap is merged into
+     * another one, its owner is forwarded to the owner of the other heap, so the
+     * nodes change their heap without being visited.
+     */
+    private static final class Owner {
+
+        private Owner next;
+
+    }
+
+    public static class Node<T> {
+
+        private Owner owner;
+        private final T value;
+        private double priority;
+        /* The previous sibling, or the parent of the first child. */
+        private Node<T> child, next, prev;
+        private boolean isDequeued;
+
+        private Node(T value, double priority, Owner owner) {
+            this.value = value;
+            this.priority = priority;
+            this.owner = owner;
+        }
+
+        /**
+         * Returns the value of the node.
+         *
+         * @return value of the node
+         */
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * Returns the priority of the node
+         *
+         * @return priority of the node
+         */
+        public double getPriority() {
+            return priority;
+        }
+
+        /**
+         * Returns a dequeued state of the node.
+         *
+         * @return true, if this node was dequeued or deleted from a heap
+         */
+        public boolean isDequeued() {
+            return isDequeued;
+        }
+
+    }
+
+    private Node<T> root = null;
+    private Owner owner = new Owner();
+    private int size;
+
+    private static Owner find(Owner owner) {
+        while (owner.next != null) {
+            if (owner.next.next != null) {
+                owner.next = owner.next.next;
+            }
+            owner = owner.next;
+        }
+        return owner;
+    }
+
+    private void check(Node<T> node) {
+        if (find(node.owner) != owner) {
+            throw new IllegalArgumentException("Given node belongs to another heap.");
+        }
+        node.owner = owner;
+        if (node.isDequeued) {
+            throw new IllegalStateException("Given node has been dequeued.");
+        }
+    }
+
+    /**
+     * Links two roots, which have no siblings, and returns the new root.
+     */
+    private static <T> Node<T> link(Node<T> a, Node<T> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (b.priority <= a.priority) {
+            final Node<T> t = a;
+            a = b;
+            b = t;
+        }
+        b.prev = a;
+        b.next = a.child;
+        if (a.child != null) {
+            a.child.prev = b;
+        }
+        a.child = b;
+        return a;
+    }
+
+    /**
+     * Detaches the node with its subtree from its parent and siblings.
+     */
+    private static <T> void cut(Node<T> node) {
+        if (node.prev.child == node) {
+            node.prev.child = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.next = node.prev = null;
+    }
+
+    /**
+     * Combines the given siblings into a single tree by the two-pass pairing:
+     * pairs are linked from left to right, then the results from right to left.
+     */
+    private static <T> Node<T> combine(Node<T> first) {
+        Node<T> stack = null;
+        while (first != null) {
+            final Node<T> a = first;
+            final Node<T> b = a.next;
+            a.prev = null;
+            if (b == null) {
+                a.next = stack;
+                stack = a;
+                break;
+            }
+            first = b.next;
+            a.next = b.prev = b.next = null;
+            final Node<T> pair = link(a, b);
+            pair.next = stack;
+            stack = pair;
+        }
+        if (stack == null) {
+            return null;
+        }
+        Node<T> result = stack;
+        stack = stack.next;
+        result.next = null;
+        while (stack != null) {
+            final Node<T> next = stack.next;
+            stack.next = null;
+            result = link(result, stack);
+            stack = next;
+        }
+        return result;
+    }
+
+    /**
+     * Enqueues the specified element into the heap with the specified priority.
+     * Its priority must be a valid double, so every value except NaN will be
+     * accepted.
+     *
+     * @param value    value to insert
+     * @param priority priority, which represents order of the given value
+     * @return a node representing that element in the heap
+     */
+    public Node<T> enqueue(T value, double priority) {
+        if (Double.isNaN(priority)) {
+            throw new IllegalArgumentException("Priority cannot be NaN.");
+        }
+        size++;
+        final Node<T> newNode = new Node<>(value, priority, owner);
+        root = link(root, newNode);
+        return newNode;
+    }
+
+    /**
+     * Merges current heap with the given one. After merge the second heap will be
+     * empty, and its nodes will belong to the current heap.
+     *
+     * @param heap heap to merge with
+     */
+    public void merge(PairingHeap<T> heap) {
+        if (heap == null || heap == this || heap.root == null) {
+            return;
+        }
+        root = link(root, heap.root);
+        size += heap.size;
+        heap.owner.next = owner;
+        heap.owner = new Owner();
+        heap.root = null;
+        heap.size = 0;
+    }
+
+    /**
+     * Deletes node from the current heap. The node will be counting as dequeued.
+     *
+     * @param node node to delete
+     */
+    public void delete(Node<T> node) {
+        Objects.requireNonNull(node, "Cannot delete null from the heap.");
+        check(node);
+        if (node == root) {
+            dequeueMin();
+            return;
+        }
+        cut(node);
+        root = link(root, combine(node.child));
+        size--;
+        node.child = null;
+        node.isDequeued = true;
+    }
+
+    /**
+     * Decrease key of the given key to a new priority. The new priority must be a
+     * valid double and be less than the old priority. In case when it is bigger
+     * than the old one, delete this node first and then add a new node with same
+     * value and new priority.
+     *
+     * @param node        node to decrease
+     * @param newPriority new priority
+     */
+    public void decreaseKey(Node<T> node, double newPriority) {
+        Objects.requireNonNull(node, "Node cannot be a null.");
+        check(node);
+        if (Double.isNaN(newPriority)) {
+            throw new IllegalArgumentException("New priority cannot be NaN.");
+        }
+        if (newPriority > node.priority) {
+            throw new IllegalArgumentException("New priority cannot exceed old.");
+        }
+        node.priority = newPriority;
+        if (node != root) {
+            cut(node);
+            root = link(root, node);
+        }
+    }
+
+    /**
+     * Dequeues the minimum from the heap.
+     *
+     * @return a node representing the element with minimal priority in the heap
+     */
+    public Node<T> dequeueMin() {
+        if (root == null) {
+            return null;
+        }
+        final Node<T> res = root;
+        root = combine(res.child);
+        size--;
+        res.child = null;
+        res.isDequeued = true;
+        return res;
+    }
+
+    /**
+     * Retrieves a minimum from the heap.
+     *
+     * @return a node representing the element with minimal priority in the heap
+     */
+    public Node<T> getMin() {
+        return root;
+    }
+
+    /**
+     * Checks, whether current heap is empty.
+     *
+     * @return true, if heap contains no elements
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Retrieves the size of the heap.
+     *
+     * @return number of nodes in the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+}
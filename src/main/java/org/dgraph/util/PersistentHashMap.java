@@ -0,0 +1,323 @@
+package org.dgraph.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable hash map backed by a hash array mapped trie, as described by
+ * Bagwell in 2001.
+ *
+ * <p>
+ * {@link #plus(Object, Object) plus} and {@link #minus(Object) minus} return a
+ * new map and leave this one unchanged. The new map shares all nodes of the
+ * trie with this one, except for the O(log n) nodes on the path to the changed
+ * key, so old versions of a map stay valid and cheap to keep. Lookups run in
+ * O(log n) time with a base of 32. Methods of {@link Map}, which modify the
+ * map, throw {@link UnsupportedOperationException}. Keys cannot be
+ * <tt>null</tt>.
+ * </p>
+ *
+ * @param <K> type for keys
+ * @param <V> type for values
+ * @author Andrii Dzhyrma
+ * @since 1.0
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+    /**
+     * Node of the trie. Every present slot takes two elements of the array:
+     * either a key and its value, or <tt>null</tt> and a child node. Nodes
+     * below the last level of hash bits keep colliding keys in a plain list of
+     * pairs and do not use the bitmap.
+     */
+    private static final class Node {
+
+        final int bitmap;
+
+        final Object[] array;
+
+        Node(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+    }
+
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final int MAX_DEPTH = (Integer.SIZE + BITS - 1) / BITS + 1;
+
+    private static final Object MISSING = new Object();
+
+    private static final Node EMPTY_NODE = new Node(0, new Object[0]);
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(EMPTY_NODE, 0);
+
+    private final Node root;
+
+    private final int size;
+
+    private Set<Map.Entry<K, V>> entrySet;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns an empty map.
+     *
+     * @param <K> type for keys
+     * @param <V> type for values
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    private static Object[] insert(Object[] array, int i, Object key, Object value) {
+        final Object[] result = new Object[array.length + 2];
+        System.arraycopy(array, 0, result, 0, i);
+        result[i] = key;
+        result[i + 1] = value;
+        System.arraycopy(array, i, result, i + 2, array.length - i);
+        return result;
+    }
+
+    private static Object[] delete(Object[] array, int i) {
+        final Object[] result = new Object[array.length - 2];
+        System.arraycopy(array, 0, result, 0, i);
+        System.arraycopy(array, i + 2, result, i, array.length - i - 2);
+        return result;
+    }
+
+    private static Object[] replace(Object[] array, int i, Object key, Object value) {
+        final Object[] result = array.clone();
+        result[i] = key;
+        result[i + 1] = value;
+        return result;
+    }
+
+    private static Object find(Node node, Object key, int hash, int shift) {
+        while (shift < Integer.SIZE) {
+            final int bit = 1 << ((hash >>> shift) & MASK);
+            if ((node.bitmap & bit) == 0) {
+                return MISSING;
+            }
+            final int i = Integer.bitCount(node.bitmap & (bit - 1)) << 1;
+            final Object k = node.array[i];
+            if (k != null) {
+                return key.equals(k) ? node.array[i + 1] : MISSING;
+            }
+            node = (Node) node.array[i + 1];
+            shift += BITS;
+        }
+        for (int i = 0; i < node.array.length; i += 2) {
+            if (key.equals(node.array[i])) {
+                return node.array[i + 1];
+            }
+        }
+        return MISSING;
+    }
+
+    private static Node put(Node node, Object key, int hash, Object value, int shift) {
+        if (shift >= Integer.SIZE) {
+            for (int i = 0; i < node.array.length; i += 2) {
+                if (key.equals(node.array[i])) {
+                    return new Node(0, replace(node.array, i, key, value));
+                }
+            }
+            return new Node(0, insert(node.array, node.array.length, key, value));
+        }
+        final int bit = 1 << ((hash >>> shift) & MASK);
+        final int i = Integer.bitCount(node.bitmap & (bit - 1)) << 1;
+        if ((node.bitmap & bit) == 0) {
+            return new Node(node.bitmap | bit, insert(node.array, i, key, value));
+        }
+        final Object k = node.array[i];
+        final Object v = node.array[i + 1];
+        if (k == null) {
+            return new Node(node.bitmap, replace(node.array, i, null, put((Node) v, key, hash, value, shift + BITS)));
+        }
+        if (key.equals(k)) {
+            return new Node(node.bitmap, replace(node.array, i, key, value));
+        }
+        final Node child = put(put(EMPTY_NODE, k, k.hashCode(), v, shift + BITS), key, hash, value, shift + BITS);
+        return new Node(node.bitmap, replace(node.array, i, null, child));
+    }
+
+    private static Node remove(Node node, Object key, int hash, int shift) {
+        if (shift >= Integer.SIZE) {
+            for (int i = 0; i < node.array.length; i += 2) {
+                if (key.equals(node.array[i])) {
+                    return new Node(0, delete(node.array, i));
+                }
+            }
+            return node;
+        }
+        final int bit = 1 << ((hash >>> shift) & MASK);
+        final int i = Integer.bitCount(node.bitmap & (bit - 1)) << 1;
+        final Object k = node.array[i];
+        if (k != null) {
+            return new Node(node.bitmap & ~bit, delete(node.array, i));
+        }
+        final Node child = remove((Node) node.array[i + 1], key, hash, shift + BITS);
+        if (child.array.length == 0) {
+            return new Node(node.bitmap & ~bit, delete(node.array, i));
+        }
+        /* A single remaining entry moves up to keep the trie shallow. */
+        if (child.array.length == 2 && child.array[0] != null) {
+            return new Node(node.bitmap, replace(node.array, i, child.array[0], child.array[1]));
+        }
+        return new Node(node.bitmap, replace(node.array, i, null, child));
+    }
+
+    /**
+     * Returns a map, which contains all mappings of this map and maps the
+     * specified key to the specified value.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the new map, or this map, if it already contains the same mapping
+     * @throws NullPointerException if the key is <tt>null</tt>
+     */
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        final int hash = key.hashCode();
+        final Object old = find(root, key, hash, 0);
+        if (old == value && old != MISSING) {
+            return this;
+        }
+        return new PersistentHashMap<>(put(root, key, hash, value, 0), old == MISSING ? size + 1 : size);
+    }
+
+    /**
+     * Returns a map, which contains all mappings of this map except for the
+     * mapping of the specified key.
+     *
+     * @param key key whose mapping is to be removed
+     * @return the new map, or this map, if it does not contain the key
+     */
+    public PersistentHashMap<K, V> minus(Object key) {
+        if (!containsKey(key)) {
+            return this;
+        }
+        return size == 1 ? empty() : new PersistentHashMap<>(remove(root, key, key.hashCode(), 0), size - 1);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && find(root, key, key.hashCode(), 0) != MISSING;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        final Object value = find(root, key, key.hashCode(), 0);
+        return value == MISSING ? null : (V) value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Map.Entry<K, V>>() {
+
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    if (!(o instanceof Map.Entry)) {
+                        return false;
+                    }
+                    final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+                    final Object key = entry.getKey();
+                    if (key == null) {
+                        return false;
+                    }
+                    final Object value = find(root, key, key.hashCode(), 0);
+                    return value != MISSING && Objects.equals(value, entry.getValue());
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+            };
+        }
+        return entrySet;
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+
+        private final int[] positions = new int[MAX_DEPTH];
+
+        private int depth;
+
+        private Map.Entry<K, V> next;
+
+        EntryIterator() {
+            arrays[0] = root.array;
+            advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            while (depth >= 0) {
+                final Object[] array = arrays[depth];
+                final int i = positions[depth];
+                if (i >= array.length) {
+                    depth--;
+                    continue;
+                }
+                positions[depth] = i + 2;
+                if (array[i] == null) {
+                    depth++;
+                    arrays[depth] = ((Node) array[i + 1]).array;
+                    positions[depth] = 0;
+                } else {
+                    next = new SimpleImmutableEntry<>((K) array[i], (V) array[i + 1]);
+                    return;
+                }
+            }
+            next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final Map.Entry<K, V> result = next;
+            advance();
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,312 @@
+package org.dzhyrma.dgraph
+
+import org.dzhyrma.dgraph.edge.Edge
+import java.util.Collections
+import kotlin.math.max
+
+/**
+ * Mutable graph backed by arrays.
+ *
+ * Every vertex gets a dense index, and its outgoing and incoming edges are kept in arrays together with the indices of
+ * their targets and sources. Traversing adjacent edges with [forEachEdge] doesn't hash vertices and creates neither
+ * iterators nor sets. Indices of removed vertices are reused by new ones.
+ *
+ * An undirected graph stores every edge once and keeps it in the arrays of both its ends together with the index of
+ * the other end. Edges from a vertex are then the same as edges to it, and [forEachEdge] passes the other end of each
+ * edge as its target.
+ *
+ * This graph uses `equals()` to distinguish edges, so it can contain several edges between the same vertices, if they
+ * are not equal to each other.
+ *
+ * @param <V> type for vertices
+ * @param <E> type for edges. Should implement Edge interface
+ */
+open class ArrayGraph<V, E : Edge<V>> internal constructor(
+    private val edgeFactory: ((V, V) -> E)?,
+    expectedVertices: Int,
+    expectedEdges: Int,
+    /**
+     * Returns `true` if edges of this graph lead only from their source to their target.
+     */
+    val directed: Boolean,
+    private val weighted: Boolean,
+) : MutableGraph<V, E> {
+
+    /**
+     * Creates an empty graph.
+     *
+     * @param edgeFactory factory to create an edge by given source and target vertices
+     * @param expectedVertices expected number of vertices
+     * @param expectedEdges expected number of edges
+     * @param directed `false` to create an undirected graph
+     */
+    constructor(
+        edgeFactory: ((V, V) -> E)? = null,
+        expectedVertices: Int = DEFAULT_CAPACITY,
+        expectedEdges: Int = DEFAULT_CAPACITY,
+        directed: Boolean = true,
+    ) : this(edgeFactory, expectedVertices, expectedEdges, directed, false)
+
+    private val nodes = HashMap<V, Node>(capacityFor(expectedVertices))
+
+    private val edgeSet = HashSet<E>(capacityFor(expectedEdges))
+
+    @PublishedApi
+    internal var nodeAt: Array<Node?> = arrayOfNulls(max(expectedVertices, 1))
+        private set
+
+    private var bound = 0
+
+    private var freeIds = IntArray(0)
+
+    private var freeCount = 0
+
+    override val vertices: Set<V> = Collections.unmodifiableSet(nodes.keys)
+
+    override val edges: Set<E> = Collections.unmodifiableSet(edgeSet)
+
+    @PublishedApi
+    internal fun nodeOf(vertex: V): Node? = nodes[vertex]
+
+    /**
+     * Performs the given [action] on each outgoing edge of the [source] vertex. The action must not modify this graph.
+     */
+    inline fun forEachEdge(source: V, action: (E) -> Unit) {
+        val node = nodeOf(source) ?: return
+        val edges = node.outEdges
+        for (i in 0 until node.outSize) {
+            @Suppress("UNCHECKED_CAST")
+            action(edges[i] as E)
+        }
+    }
+
+    /**
+     * Performs the given [action] on each outgoing edge of the [source] vertex and its target. The action must not
+     * modify this graph.
+     */
+    inline fun forEachEdge(source: V, action: (E, V) -> Unit) {
+        val node = nodeOf(source) ?: return
+        val nodes = nodeAt
+        val targets = node.outTargets
+        val edges = node.outEdges
+        for (i in 0 until node.outSize) {
+            @Suppress("UNCHECKED_CAST")
+            action(edges[i] as E, nodes[targets[i]]!!.vertex as V)
+        }
+    }
+
+    override fun containsEdge(v1: V, v2: V): Boolean = findEdge(v1, v2) != null
+
+    override fun containsEdge(edge: E): Boolean = edgeSet.contains(edge)
+
+    override fun containsVertex(vertex: V): Boolean = nodes.containsKey(vertex)
+
+    override fun findEdge(v1: V, v2: V): E? {
+        val source = nodes[v1] ?: return null
+        val target = nodes[v2] ?: return null
+        @Suppress("UNCHECKED_CAST")
+        if (!directed || source.outSize <= target.inSize) {
+            for (i in 0 until source.outSize) {
+                if (source.outTargets[i] == target.id) return source.outEdges[i] as E
+            }
+        } else {
+            for (i in 0 until target.inSize) {
+                if (target.inSources[i] == source.id) return target.inEdges[i] as E
+            }
+        }
+        return null
+    }
+
+    override fun getEdgesFromSource(vertex: V): Set<E> = nodes[vertex]?.let { AdjacentEdges(it, true) } ?: emptySet()
+
+    override fun getEdgesToTarget(vertex: V): Set<E> = nodes[vertex]?.let { AdjacentEdges(it, !directed) } ?: emptySet()
+
+    override fun getOutDegree(vertex: V): Int = nodes[vertex]?.outSize ?: -1
+
+    override fun getInDegree(vertex: V): Int = nodes[vertex]?.let { if (directed) it.inSize else it.outSize } ?: -1
+
+    override fun addEdge(v1: V, v2: V): Boolean {
+        val factory = checkNotNull(edgeFactory) { "Edge factory is not specified." }
+        return addEdge(factory(v1, v2))
+    }
+
+    override fun addEdge(edge: E): Boolean = insertEdge(edge, 0.0)
+
+    /**
+     * Adds the [edge] with the given [weight], which is stored only if this graph is weighted.
+     */
+    protected fun insertEdge(edge: E, weight: Double): Boolean {
+        if (!edgeSet.add(edge)) return false
+        val source = nodes[edge.source] ?: newNode(edge.source)
+        val target = nodes[edge.target] ?: newNode(edge.target)
+        source.addOut(target.id, edge, weight, weighted)
+        when {
+            directed -> target.addIn(source.id, edge)
+            target !== source -> target.addOut(source.id, edge, weight, weighted)
+        }
+        return true
+    }
+
+    override fun addVertex(vertex: V): Boolean {
+        if (nodes.containsKey(vertex)) return false
+        newNode(vertex)
+        return true
+    }
+
+    private fun newNode(vertex: V): Node {
+        val id = if (freeCount > 0) freeIds[--freeCount] else bound++
+        if (id == nodeAt.size) {
+            nodeAt = nodeAt.copyOf(id * 2)
+        }
+        return Node(vertex, id).also {
+            nodeAt[id] = it
+            nodes[vertex] = it
+        }
+    }
+
+    override fun clear() {
+        nodes.clear()
+        edgeSet.clear()
+        nodeAt.fill(null)
+        bound = 0
+        freeCount = 0
+    }
+
+    override fun removeEdge(v1: V, v2: V): Boolean = findEdge(v1, v2)?.let { removeEdge(it) } ?: false
+
+    override fun removeEdge(edge: E): Boolean {
+        if (!edgeSet.remove(edge)) return false
+        val source = nodes[edge.source]!!
+        val target = nodes[edge.target]!!
+        source.removeOut(edge)
+        when {
+            directed -> target.removeIn(edge)
+            target !== source -> target.removeOut(edge)
+        }
+        return true
+    }
+
+    override fun removeVertex(vertex: V): Boolean {
+        val node = nodes.remove(vertex) ?: return false
+        for (i in 0 until node.outSize) {
+            val edge = node.outEdges[i]
+            edgeSet.remove(edge)
+            val target = nodeAt[node.outTargets[i]]!!
+            when {
+                target === node -> Unit
+                directed -> target.removeIn(edge)
+                else -> target.removeOut(edge)
+            }
+        }
+        for (i in 0 until node.inSize) {
+            val edge = node.inEdges[i]
+            // Loops have already been removed with the outgoing edges.
+            if (edgeSet.remove(edge)) nodeAt[node.inSources[i]]!!.removeOut(edge)
+        }
+        nodeAt[node.id] = null
+        if (freeCount == freeIds.size) {
+            freeIds = freeIds.copyOf(max(freeCount * 2, MIN_ADJACENCY))
+        }
+        freeIds[freeCount++] = node.id
+        return true
+    }
+
+    /**
+     * Vertex with its adjacent edges. Removal moves the last edge into the place of the removed one.
+     */
+    @PublishedApi
+    internal class Node(
+        @JvmField val vertex: Any?,
+        @JvmField val id: Int,
+    ) {
+        @JvmField var outSize = 0
+        @JvmField var outTargets = EMPTY_INTS
+        @JvmField var outEdges = EMPTY_EDGES
+        @JvmField var outWeights = EMPTY_DOUBLES
+        @JvmField var inSize = 0
+        @JvmField var inSources = EMPTY_INTS
+        @JvmField var inEdges = EMPTY_EDGES
+
+        fun addOut(target: Int, edge: Any?, weight: Double, weighted: Boolean) {
+            if (outSize == outTargets.size) {
+                val capacity = max(outSize * 2, MIN_ADJACENCY)
+                outTargets = outTargets.copyOf(capacity)
+                outEdges = outEdges.copyOf(capacity)
+                if (weighted) outWeights = outWeights.copyOf(capacity)
+            }
+            outTargets[outSize] = target
+            outEdges[outSize] = edge
+            if (weighted) outWeights[outSize] = weight
+            outSize++
+        }
+
+        fun addIn(source: Int, edge: Any?) {
+            if (inSize == inSources.size) {
+                val capacity = max(inSize * 2, MIN_ADJACENCY)
+                inSources = inSources.copyOf(capacity)
+                inEdges = inEdges.copyOf(capacity)
+            }
+            inSources[inSize] = source
+            inEdges[inSize] = edge
+            inSize++
+        }
+
+        fun removeOut(edge: Any?) {
+            val i = outEdges.indexOf(edge)
+            val last = --outSize
+            outTargets[i] = outTargets[last]
+            outEdges[i] = outEdges[last]
+            outEdges[last] = null
+            if (outWeights.isNotEmpty()) outWeights[i] = outWeights[last]
+        }
+
+        fun removeIn(edge: Any?) {
+            val i = inEdges.indexOf(edge)
+            val last = --inSize
+            inSources[i] = inSources[last]
+            inEdges[i] = inEdges[last]
+            inEdges[last] = null
+        }
+    }
+
+    /**
+     * Read-only view of the outgoing or incoming edges of a vertex.
+     */
+    private inner class AdjacentEdges(private val node: Node, private val outgoing: Boolean) : AbstractSet<E>() {
+
+        override val size: Int
+            get() = if (outgoing) node.outSize else node.inSize
+
+        override fun contains(element: E): Boolean = edgeSet.contains(element) && when {
+            !directed -> element.source == node.vertex || element.target == node.vertex
+            outgoing -> element.source == node.vertex
+            else -> element.target == node.vertex
+        }
+
+        override fun iterator(): Iterator<E> = object : Iterator<E> {
+            private var index = 0
+
+            override fun hasNext(): Boolean = index < size
+
+            @Suppress("UNCHECKED_CAST")
+            override fun next(): E {
+                if (!hasNext()) throw NoSuchElementException()
+                return (if (outgoing) node.outEdges else node.inEdges)[index++] as E
+            }
+        }
+    }
+
+    companion object {
+        const val DEFAULT_CAPACITY = 16
+
+        private const val MIN_ADJACENCY = 4
+
+        private val EMPTY_INTS = IntArray(0)
+
+        private val EMPTY_EDGES = arrayOfNulls<Any?>(0)
+
+        private val EMPTY_DOUBLES = DoubleArray(0)
+
+        private fun capacityFor(expected: Int) = max(expected * 4 / 3 + 1, DEFAULT_CAPACITY)
+    }
+}
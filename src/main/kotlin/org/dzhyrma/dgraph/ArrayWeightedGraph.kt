@@ -0,0 +1,47 @@
+package org.dzhyrma.dgraph
+
+import org.dzhyrma.dgraph.edge.WeightedEdge
+
+/**
+ * Mutable weighted graph backed by arrays. See [ArrayGraph].
+ *
+ * Weights are stored next to the indices of the targets, so [forEachEdge] reads them without touching the edges. An
+ * edge added without a weight keeps its own [WeightedEdge.weight].
+ *
+ * @param <V> type for vertices
+ * @param <E> type for weighted edges
+ */
+class ArrayWeightedGraph<V, E : WeightedEdge<V>>(
+    private val edgeFactory: ((V, V, Double) -> E)? = null,
+    expectedVertices: Int = DEFAULT_CAPACITY,
+    expectedEdges: Int = DEFAULT_CAPACITY,
+    directed: Boolean = true,
+) : ArrayGraph<V, E>(null, expectedVertices, expectedEdges, directed, true), MutableWeightedGraph<V, E> {
+
+    /**
+     * Performs the given [action] on each outgoing edge of the [source] vertex, its target and its weight. The action
+     * must not modify this graph.
+     */
+    inline fun forEachEdge(source: V, action: (E, V, Double) -> Unit) {
+        val node = nodeOf(source) ?: return
+        val nodes = nodeAt
+        val targets = node.outTargets
+        val edges = node.outEdges
+        val weights = node.outWeights
+        for (i in 0 until node.outSize) {
+            @Suppress("UNCHECKED_CAST")
+            action(edges[i] as E, nodes[targets[i]]!!.vertex as V, weights[i])
+        }
+    }
+
+    override fun addEdge(v1: V, v2: V): Boolean = addEdge(v1, v2, MutableWeightedGraph.DEFAULT_WEIGHT)
+
+    override fun addEdge(edge: E): Boolean = insertEdge(edge, edge.weight)
+
+    override fun addEdge(v1: V, v2: V, weight: Double): Boolean {
+        val factory = checkNotNull(edgeFactory) { "Edge factory is not specified." }
+        return insertEdge(factory(v1, v2, weight), weight)
+    }
+
+    override fun addEdge(edge: E, weight: Double): Boolean = insertEdge(edge, weight)
+}
@@ -169,16 +169,24 @@ interface MutableGraph<V, E : Edge<V>> : Graph<V, E> {
 /**
  * Performs the given [action] on each adjacent edge.
  */
-fun <V, E : Edge<V>> Graph<V, E>.forEachEdge(source: V, action: (E) -> Unit) {
-    getEdgesFromSource(source).forEach { action(it) }
+inline fun <V, E : Edge<V>> Graph<V, E>.forEachEdge(source: V, action: (E) -> Unit) {
+    if (this is ArrayGraph<V, E>) {
+        forEachEdge(source, action)
+    } else {
+        getEdgesFromSource(source).forEach { action(it) }
+    }
 }
 
 /**
  * Performs the given [action] on each adjacent edge and target vertex.
  */
-fun <V, E : Edge<V>> Graph<V, E>.forEachEdge(source: V, action: (E, V) -> Unit) {
-    getEdgesFromSource(source).forEach {
-        val target = if (it.source == source) it.target else it.source
-        action(it, target)
+inline fun <V, E : Edge<V>> Graph<V, E>.forEachEdge(source: V, action: (E, V) -> Unit) {
+    if (this is ArrayGraph<V, E>) {
+        forEachEdge(source, action)
+    } else {
+        getEdgesFromSource(source).forEach {
+            val target = if (it.source == source) it.target else it.source
+            action(it, target)
+        }
     }
 }
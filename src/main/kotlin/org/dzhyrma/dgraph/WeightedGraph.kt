@@ -55,9 +55,13 @@ interface MutableWeightedGraph<V, E : WeightedEdge<V>> : MutableGraph<V, E>, Wei
 /**
  * Performs the given [action] on each adjacent edge, target vertex and edge's weight.
  */
-fun <V, E : WeightedEdge<V>> Graph<V, E>.forEachEdge(source: V, action: (E, V, Double) -> Unit) {
-    getEdgesFromSource(source).forEach {
-        val target = if (it.source == source) it.target else it.source
-        action(it, target, it.weight)
+inline fun <V, E : WeightedEdge<V>> Graph<V, E>.forEachEdge(source: V, action: (E, V, Double) -> Unit) {
+    if (this is ArrayWeightedGraph<V, E>) {
+        forEachEdge(source, action)
+    } else {
+        getEdgesFromSource(source).forEach {
+            val target = if (it.source == source) it.target else it.source
+            action(it, target, it.weight)
+        }
     }
 }
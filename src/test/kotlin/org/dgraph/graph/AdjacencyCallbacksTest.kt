@@ -0,0 +1,93 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.edge.Edge
+import org.dgraph.graph.edge.SimpleEdge
+import org.dgraph.graph.edge.WeightedEdge
+import org.dgraph.graph.edge.WeightedSimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.util.Random
+
+class AdjacencyCallbacksTest {
+
+    private fun <G : Graph<Int, WeightedSimpleEdge<Int>>> randomGraph(g: G): G {
+        val random = Random(0)
+        for (i in 0 until SIZE * 4) {
+            g.addEdge(WeightedSimpleEdge(random.nextInt(SIZE), random.nextInt(SIZE), random.nextInt(10).toDouble()))
+        }
+        g.addVertex(SIZE)
+        return g
+    }
+
+    /**
+     * Checks the callbacks against the view sets and the degrees of every
+     * vertex and returns the number of edges reported by forEachOutEdge.
+     */
+    private fun <E : Edge<Int>> assertContract(g: Graph<Int, E>): Int {
+        var reported = 0
+        for (v in g.allVertices) {
+            val outgoing = ArrayList<E>()
+            g.forEachOutEdge(v) { outgoing.add(it) }
+            assertEquals(g.getOutDegree(v), outgoing.size)
+            assertEquals(g.getEdgesFromSource(v), outgoing.toSet())
+            reported += outgoing.size
+
+            val incoming = ArrayList<E>()
+            g.forEachInEdge(v) { incoming.add(it) }
+            assertEquals(g.getInDegree(v), incoming.size)
+            assertEquals(g.getEdgesToTarget(v), incoming.toSet())
+
+            /* Each edge leads to its opposite end, which it enters. */
+            val neighbors = ArrayList<Pair<Int, Double>>()
+            g.forEachOutNeighbor(v) { u, weight -> neighbors.add(u to weight) }
+            assertEquals(outgoing.map { g.getOpposite(it, v) to ((it as? WeightedEdge<*, *>)?.weight ?: 1.0) }, neighbors)
+            for (e in outgoing) {
+                assertTrue(e in g.getEdgesToTarget(g.getOpposite(e, v)))
+            }
+        }
+        var none = 0
+        g.forEachOutEdge(SIZE + 1) { none++ }
+        g.forEachInEdge(SIZE + 1) { none++ }
+        assertEquals(0, none)
+        return reported
+    }
+
+    @Test
+    fun testDirected() {
+        val g = randomGraph(WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>())
+        assertEquals(g.sizeOfEdges(), assertContract(g))
+        assertEquals(g.sizeOfEdges(), assertContract(g.reversed()))
+        assertEquals(g.sizeOfEdges(), assertContract(CompressedDirectedGraph(g)))
+        assertEquals(g.sizeOfEdges(), assertContract(IndexedGraph.of(g.reversed())))
+        val view = g.subgraph({ it % 3 != 0 }, { it.weight < 5 })
+        assertEquals(view.sizeOfEdges(), assertContract(view))
+
+        val identity = randomGraph(IdentityDirectedGraph<Int, WeightedSimpleEdge<Int>>())
+        assertEquals(identity.sizeOfEdges(), assertContract(identity))
+
+        val simple = DirectedGraph<Int, SimpleEdge<Int>>({ v1, v2 -> SimpleEdge(v1, v2) }, false)
+        g.allEdges.forEach { simple.addEdge(it.source, it.target) }
+        val gap = GapCompressedDirectedGraph(simple, { v1, v2 -> SimpleEdge(v1, v2) })
+        assertEquals(simple.sizeOfEdges(), assertContract(gap))
+    }
+
+    @Test
+    fun testUndirected() {
+        val g = randomGraph(UndirectedGraph<Int, WeightedSimpleEdge<Int>>({ v1, v2 -> WeightedSimpleEdge(v1, v2, 1.0) }, true))
+        val loops = g.allEdges.count { it.source == it.target }
+        assertTrue(loops > 0)
+
+        /* Every edge is reported from both of its ends, a loop once. */
+        val expected = g.sizeOfEdges() * 2 - loops
+        assertEquals(expected, assertContract(g))
+        assertEquals(expected, assertContract(CompressedDirectedGraph(g)))
+        assertEquals(g.sizeOfEdges(), CompressedDirectedGraph(g).sizeOfEdges())
+        val view = g.subgraph({ it % 3 != 0 }, { it.weight < 5 })
+        assertEquals(view.sizeOfEdges() * 2 - view.allEdges.count { it.source == it.target }, assertContract(view))
+    }
+
+    companion object {
+        private const val SIZE = 100
+    }
+}
@@ -0,0 +1,104 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.algorithm.AStarSearch
+import org.dgraph.graph.algorithm.BreadthFirstSearch
+import org.dgraph.graph.algorithm.DepthFirstSearch
+import org.dgraph.graph.algorithm.Dijkstra
+import org.dgraph.graph.edge.WeightedSimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.Random
+
+class CompressedDirectedGraphTest {
+
+    private fun randomGraph(): WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double> {
+        val g = WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>()
+        val random = Random(0)
+        for (i in 0 until SIZE * 5) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            if (v1 != v2) g.addEdge(WeightedSimpleEdge(v1, v2, random.nextInt(10).toDouble()))
+        }
+        g.addVertex(SIZE)
+        return g
+    }
+
+    @Test
+    fun testSnapshotEquivalence() {
+        val g = randomGraph()
+        val snapshot = g.toCompressedSnapshot()
+        assertEquals(g.allVertices, snapshot.allVertices)
+        assertEquals(g.allEdges, snapshot.allEdges)
+        assertEquals(g.sizeOfVertices(), snapshot.sizeOfVertices())
+        assertEquals(g.sizeOfEdges(), snapshot.sizeOfEdges())
+        for (v in 0..SIZE + 1) {
+            assertEquals(g.containsVertex(v), snapshot.containsVertex(v))
+            assertEquals(g.getOutDegree(v), snapshot.getOutDegree(v))
+            assertEquals(g.getInDegree(v), snapshot.getInDegree(v))
+            assertEquals(g.getEdgesFromSource(v), snapshot.getEdgesFromSource(v))
+            assertEquals(g.getEdgesToTarget(v), snapshot.getEdgesToTarget(v))
+            for (u in 0 until 20) {
+                assertEquals(g.containsEdge(v, u), snapshot.containsEdge(v, u))
+                assertEquals(g.getEdges(v, u), snapshot.getEdges(v, u))
+            }
+        }
+        g.allEdges.forEach { assertTrue(snapshot.containsEdge(it)) }
+        assertFalse(snapshot.containsEdge(WeightedSimpleEdge(0, SIZE + 1, 1.0)))
+
+        /* Rows are sorted by the index of the neighbour. */
+        val index = snapshot.vertexIndex
+        for (v in 0 until index.bound()) {
+            for (i in snapshot.getOutOffset(v) + 1 until snapshot.getOutOffset(v + 1)) {
+                assertTrue(snapshot.getOutTarget(i - 1) <= snapshot.getOutTarget(i))
+            }
+            for (i in snapshot.getInOffset(v) + 1 until snapshot.getInOffset(v + 1)) {
+                assertTrue(snapshot.getInSource(i - 1) <= snapshot.getInSource(i))
+            }
+        }
+    }
+
+    @Test
+    fun testSearches() {
+        val g = randomGraph()
+        val snapshot = g.toCompressedSnapshot()
+        val random = Random(1)
+        for (i in 0 until 100) {
+            val source = random.nextInt(SIZE + 1)
+            val target = random.nextInt(SIZE + 1)
+            val path = Dijkstra.findShortestPath(snapshot, source, target)
+            assertEquals(Dijkstra.findShortestPath(g, source, target)?.distance, path?.distance)
+            assertEquals(path?.distance, AStarSearch.findShortestPath(snapshot, source, target) { _, _ -> 0.0 }?.distance)
+            assertEquals(BreadthFirstSearch.findPath(g, source, target)?.edges?.size,
+                BreadthFirstSearch.findPath(snapshot, source, target)?.edges?.size)
+            val dfs = DepthFirstSearch.findPath(snapshot, source, target)
+            assertEquals(path == null, dfs == null)
+            dfs?.edges?.forEach { assertTrue(g.containsEdge(it)) }
+        }
+        assertNull(Dijkstra.findShortestPath(snapshot, 0, SIZE))
+    }
+
+    @Test
+    fun testSnapshotIsImmutable() {
+        val g = randomGraph()
+        val snapshot = g.toCompressedSnapshot()
+        val edges = g.sizeOfEdges()
+        assertThrows<UnsupportedOperationException> { snapshot.addEdge(0, 1) }
+        assertThrows<UnsupportedOperationException> { snapshot.addVertex(SIZE + 1) }
+        assertThrows<UnsupportedOperationException> { snapshot.removeVertex(0) }
+        assertThrows<UnsupportedOperationException> { snapshot.clear() }
+        assertThrows<UnsupportedOperationException> { snapshot.allEdges.clear() }
+
+        /* Later modifications of the graph are not reflected. */
+        g.removeVertex(0)
+        assertTrue(snapshot.containsVertex(0))
+        assertEquals(edges, snapshot.sizeOfEdges())
+    }
+
+    companion object {
+        private const val SIZE = 300
+    }
+}
@@ -0,0 +1,177 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.algorithm.BreadthFirstSearch
+import org.dgraph.graph.algorithm.Dijkstra
+import org.dgraph.graph.edge.Edge
+import org.dgraph.graph.edge.SimpleEdge
+import org.dgraph.graph.edge.WeightedSimpleEdge
+import org.dgraph.graph.path.Path
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNotNull
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.util.Random
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+class ConcurrentDirectedGraphTest {
+
+    private val g = ConcurrentDirectedGraph<Int, SimpleEdge<Int>>({ v1, v2 -> SimpleEdge(v1, v2) }, false)
+
+    @Test
+    fun test() {
+        assertTrue(g.addEdge(0, 1))
+        assertFalse(g.addEdge(0, 1))
+        assertFalse(g.addEdge(1, 1))
+        assertTrue(g.addEdge(1, 2))
+        assertEquals(3, g.sizeOfVertices())
+        assertEquals(2, g.sizeOfEdges())
+        assertNotNull(g.getEdges(0, 1))
+        assertNull(g.getEdges(0, 2))
+        assertTrue(g.removeVertex(1))
+        assertEquals(2, g.sizeOfVertices())
+        assertEquals(0, g.sizeOfEdges())
+        assertEquals(0, g.getOutDegree(0))
+        assertEquals(0, g.getInDegree(2))
+    }
+
+    @Test
+    fun testConcurrentWrites() {
+        val errors = ConcurrentLinkedQueue<Throwable>()
+        val running = AtomicBoolean(true)
+        val start = CountDownLatch(1)
+        val writers = (0 until THREADS).map { t ->
+            Thread {
+                try {
+                    start.await()
+                    val random = Random(t.toLong())
+                    for (i in 0 until OPERATIONS) {
+                        val v1 = random.nextInt(VERTICES)
+                        val v2 = random.nextInt(VERTICES)
+                        when (random.nextInt(10)) {
+                            0 -> g.removeVertex(v1)
+                            1, 2, 3 -> g.removeEdge(SimpleEdge(v1, v2))
+                            else -> g.addEdge(v1, v2)
+                        }
+                    }
+                } catch (e: Throwable) {
+                    errors.add(e)
+                }
+            }
+        }
+        val readers = (0 until THREADS).map {
+            Thread {
+                try {
+                    start.await()
+                    val random = Random()
+                    while (running.get()) {
+                        val v = random.nextInt(VERTICES)
+                        g.getEdgesFromSource(v)?.forEach { assertEquals(v, it.source) }
+                        g.getEdgesToTarget(v)?.forEach { assertEquals(v, it.target) }
+                        BreadthFirstSearch.findPath(g.snapshot(), v, random.nextInt(VERTICES))
+                    }
+                } catch (e: Throwable) {
+                    errors.add(e)
+                }
+            }
+        }
+        (writers + readers).forEach { it.start() }
+        start.countDown()
+        writers.forEach { it.join() }
+        running.set(false)
+        readers.forEach { it.join() }
+
+        errors.firstOrNull()?.let { throw it }
+        var outgoing = 0
+        var incoming = 0
+        for (v in g.allVertices) {
+            for (e in g.getEdgesFromSource(v)) {
+                assertTrue(g.containsEdge(e))
+                assertTrue(g.getEdgesToTarget(e.target).contains(e))
+            }
+            outgoing += g.getOutDegree(v)
+            incoming += g.getInDegree(v)
+        }
+        assertEquals(g.sizeOfEdges(), outgoing)
+        assertEquals(g.sizeOfEdges(), incoming)
+        for (e in g.allEdges) {
+            assertTrue(g.containsVertex(e.source))
+            assertTrue(g.containsVertex(e.target))
+        }
+    }
+
+    private fun <E : Edge<Int>> assertPath(path: Path<Int, E>?, source: Int, target: Int) {
+        if (path == null) {
+            return
+        }
+        var v = source
+        for (e in path.edges) {
+            assertEquals(v, e.source)
+            v = e.target
+        }
+        assertEquals(target, v)
+    }
+
+    @Test
+    fun testSearchesWhileGrowing() {
+        val weighted = ConcurrentDirectedGraph<Int, WeightedSimpleEdge<Int>>({ v1, v2 -> WeightedSimpleEdge(v1, v2, 1.0) }, false)
+        for (v in 1 until VERTICES) {
+            weighted.addEdge(v - 1, v)
+        }
+        val errors = ConcurrentLinkedQueue<Throwable>()
+        val running = AtomicBoolean(true)
+        val start = CountDownLatch(1)
+        val next = AtomicInteger(VERTICES)
+
+        /* Writers keep linking known vertices to new ones, which the searches have not indexed. */
+        val writers = (0 until THREADS).map { t ->
+            Thread {
+                try {
+                    start.await()
+                    val random = Random(t.toLong())
+                    for (i in 0 until OPERATIONS) {
+                        val v = next.getAndIncrement()
+                        weighted.addEdge(random.nextInt(v), v)
+                        weighted.addEdge(v, random.nextInt(v))
+                    }
+                } catch (e: Throwable) {
+                    errors.add(e)
+                }
+            }
+        }
+        val readers = (0 until THREADS).map {
+            Thread {
+                try {
+                    start.await()
+                    val random = Random()
+                    while (running.get()) {
+                        val source = random.nextInt(VERTICES)
+                        val target = random.nextInt(VERTICES)
+                        assertPath(BreadthFirstSearch.findPath(weighted, source, target), source, target)
+                        assertPath(Dijkstra.findShortestPath(weighted, source, target), source, target)
+                    }
+                } catch (e: Throwable) {
+                    errors.add(e)
+                }
+            }
+        }
+        (writers + readers).forEach { it.start() }
+        start.countDown()
+        writers.forEach { it.join() }
+        running.set(false)
+        readers.forEach { it.join() }
+
+        errors.firstOrNull()?.let { throw it }
+        assertNotNull(BreadthFirstSearch.findPath(weighted, 0, VERTICES - 1))
+    }
+
+    companion object {
+        private const val THREADS = 4
+        private const val VERTICES = 1000
+        private const val OPERATIONS = 100000
+    }
+}
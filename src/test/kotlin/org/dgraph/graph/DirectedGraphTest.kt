@@ -0,0 +1,205 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.algorithm.BreadthFirstSearch
+import org.dgraph.graph.edge.MultiEdge
+import org.dgraph.graph.edge.SimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.Random
+
+class DirectedGraphTest {
+
+    private val factory = { v1: Int, v2: Int -> SimpleEdge(v1, v2) }
+
+    private fun listen(g: DirectedGraph<Int, SimpleEdge<Int>>, events: MutableList<String>) {
+        g.addGraphListener(object : GraphListener<Int, SimpleEdge<Int>> {
+            override fun vertexAdded(v: Int) {
+                events.add("+$v")
+            }
+
+            override fun edgeAdded(e: SimpleEdge<Int>) {
+                events.add("+${e.source}>${e.target}")
+            }
+        })
+    }
+
+    @Test
+    fun testAddEdgesDuplicates() {
+        val g = DirectedGraph(factory, false)
+        val events = mutableListOf<String>()
+        assertTrue(g.addEdge(0, 1))
+        listen(g, events)
+
+        /* Duplicates inside the batch and of existing edges are skipped. */
+        assertTrue(g.addEdges(listOf(SimpleEdge(0, 1), SimpleEdge(1, 2), SimpleEdge(1, 2), SimpleEdge(2, 2),
+            SimpleEdge(2, 0), SimpleEdge(1, 2))))
+        assertEquals(3, g.sizeOfEdges())
+        assertEquals(3, g.sizeOfVertices())
+        assertEquals(1, g.getOutDegree(1))
+        assertEquals(1, g.getInDegree(2))
+        assertEquals(1, g.getEdges(1, 2).size)
+        assertFalse(g.containsEdge(2, 2))
+        assertEquals(listOf("+2", "+1>2", "+2>0"), events)
+
+        /* Nothing changes, if every edge is already in the graph or is a loop. */
+        events.clear()
+        assertFalse(g.addEdges(listOf(SimpleEdge(0, 1), SimpleEdge(2, 0), SimpleEdge(1, 1))))
+        assertFalse(g.addEdges(emptyList()))
+        assertTrue(events.isEmpty())
+        assertEquals(3, g.sizeOfEdges())
+
+        /* A rejected loop does not add its vertex either. */
+        val loops = DirectedGraph(factory, false)
+        assertFalse(loops.addEdges(listOf(SimpleEdge(5, 5))))
+        assertEquals(0, loops.sizeOfVertices())
+
+        assertThrows<NullPointerException> { g.addEdges(listOf(SimpleEdge(0, null))) }
+        assertEquals(3, g.sizeOfEdges())
+    }
+
+    @Test
+    fun testAddEdgesSameAsAddEdge() {
+        val random = Random(0)
+        val batch = DirectedGraph(factory, true, SIZE, SIZE * 4)
+        val single = DirectedGraph(factory, true)
+        for (round in 0 until 5) {
+            val edges = List(SIZE) { SimpleEdge(random.nextInt(SIZE), random.nextInt(SIZE)) }
+            var expected = false
+            for (e in edges) {
+                expected = single.addEdge(e) or expected
+            }
+            assertEquals(expected, batch.addEdges(edges))
+            assertEquals(single.allVertices, batch.allVertices)
+            assertEquals(single.allEdges, batch.allEdges)
+        }
+        for (v in single.allVertices) {
+            assertEquals(single.getEdgesFromSource(v), batch.getEdgesFromSource(v))
+            assertEquals(single.getEdgesToTarget(v), batch.getEdgesToTarget(v))
+        }
+        assertFalse(batch.addEdges(single.allEdges.toList()))
+    }
+
+    @Test
+    fun testParallelEdges() {
+        val g = DirectedGraph<Int, MultiEdge<Int>>()
+        val (a, b, c) = List(3) { MultiEdge(0, 1) }
+        assertTrue(g.addEdge(a))
+        val view = g.getEdges(0, 1)
+        val outgoing = g.getEdgesFromSource(0)
+        assertEquals(setOf(a), view)
+
+        /* The second edge replaces the stored edge by a set, the last but one removal restores it. */
+        assertTrue(g.addEdge(b))
+        assertTrue(g.addEdge(c))
+        assertFalse(g.addEdge(c))
+        assertEquals(setOf(a, b, c), view)
+        assertTrue(g.removeEdge(b))
+        assertTrue(g.removeEdge(c))
+        assertFalse(g.removeEdge(c))
+        assertEquals(setOf(a), view)
+        assertEquals(1, view.size)
+        assertTrue(g.addEdge(b))
+        assertEquals(setOf(a, b), view)
+        assertEquals(setOf(a, b), outgoing)
+        assertEquals(2, g.getInDegree(1))
+
+        /* Views stay live, when the edges between the vertices are removed through them and added back. */
+        assertTrue(view.remove(a))
+        assertEquals(setOf(b), g.getEdges(0, 1))
+        view.clear()
+        assertFalse(g.containsEdge(0, 1))
+        assertTrue(view.isEmpty())
+        assertTrue(view.add(c))
+        assertFalse(view.add(MultiEdge(1, 0)))
+        assertTrue(g.addEdge(a))
+        assertEquals(setOf(a, c), view)
+        assertEquals(2, g.sizeOfEdges())
+        assertTrue(g.removeVertex(1))
+        assertTrue(view.isEmpty())
+    }
+
+    @Test
+    fun testCompactVertexIndex() {
+        val removals = listOf<(DirectedGraph<Int, SimpleEdge<Int>>) -> Unit>(
+            { it.removeVertex(4) },
+            { it.allVertices.remove(4) },
+            { it.allVertices.removeIf { v -> v == 4 || v == 7 } },
+            { it.allVertices.retainAll(listOf(1, 2, 3)) },
+            { it.removeAllVertices(listOf(0, 9)) })
+        for (removal in removals) {
+            val g = DirectedGraph(factory, true)
+            for (v in 0 until 10) {
+                g.addEdge(v, (v + 1) % 10)
+                g.addEdge(v, v)
+            }
+            val index = g.vertexIndex
+            removal(g)
+            assertEquals(10, index.bound())
+            val paths = g.allVertices.associateWith { BreadthFirstSearch.findPath(g, it, g.allVertices.first())?.edges }
+            g.compactVertexIndex()
+            /* Searches give the same paths, also on a snapshot taken after the compaction. */
+            val snapshot = g.toCompressedSnapshot()
+            for ((v, edges) in paths) {
+                assertEquals(edges, BreadthFirstSearch.findPath(g, v, g.allVertices.first())?.edges)
+                assertEquals(edges, BreadthFirstSearch.findPath(snapshot, v, g.allVertices.first())?.edges)
+            }
+            assertEquals(g.sizeOfVertices(), index.size())
+            assertEquals(g.sizeOfVertices(), index.bound())
+            /* Relative order of the remaining vertices is kept. */
+            val order = (0 until index.bound()).map { index.vertexAt(it) }
+            assertEquals(order.sorted(), order)
+            g.allVertices.forEach { assertEquals(it, index.vertexAt(index.indexOf(it))) }
+            assertEquals(g.sizeOfEdges(), g.allEdges.count { g.containsVertex(it.source) && g.containsVertex(it.target) })
+        }
+
+        /* A vacant index is reused by the next vertex, so nothing is left to compact. */
+        val g = DirectedGraph(factory, false)
+        (0 until 5).forEach { g.addVertex(it) }
+        g.removeVertex(2)
+        g.addVertex(5)
+        assertEquals(2, g.vertexIndex.indexOf(5))
+        g.compactVertexIndex()
+        assertEquals(5, g.vertexIndex.bound())
+    }
+
+    @Test
+    fun testMemoryReport() {
+        val g = DirectedGraph<Int, MultiEdge<Int>>()
+        val empty = g.memoryReport()
+        assertEquals(0, empty.edgeObjectBytes)
+        assertEquals(0, empty.pairSetBytes)
+        for (v in 0 until SIZE) {
+            g.addEdge(MultiEdge(v, (v + 1) % SIZE))
+        }
+        val simple = g.memoryReport()
+        assertEquals(0, simple.pairSetBytes)
+        assertTrue(simple.adjacencyBytes > empty.adjacencyBytes)
+        assertTrue(simple.incomingBytes > empty.incomingBytes)
+        assertTrue(simple.edgeObjectBytes > 0)
+        assertEquals(simple.vertexSetBytes + simple.vertexIndexBytes + simple.adjacencyBytes + simple.incomingBytes
+            + simple.pairSetBytes + simple.edgeSetBytes + simple.edgeObjectBytes, simple.totalBytes)
+        assertEquals(simple.totalBytes.toDouble() / SIZE, simple.bytesPerEdge, 1e-9)
+
+        /* Parallel edges are kept in pair sets. */
+        for (v in 0 until SIZE step 2) {
+            g.addEdge(MultiEdge(v, (v + 1) % SIZE))
+        }
+        val parallel = g.memoryReport()
+        assertTrue(parallel.pairSetBytes > 0)
+        assertTrue(parallel.edgeObjectBytes > simple.edgeObjectBytes)
+        for (v in 0 until SIZE step 2) {
+            g.removeEdge(g.getEdges(v, (v + 1) % SIZE)!!.first())
+        }
+        assertEquals(0, g.memoryReport().pairSetBytes)
+        assertEquals(simple.edgeObjectBytes, g.memoryReport().edgeObjectBytes)
+        g.clear()
+        assertEquals(0, g.memoryReport().edgeObjectBytes)
+    }
+
+    companion object {
+        private const val SIZE = 200
+    }
+}
@@ -0,0 +1,99 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.algorithm.MinCostMaxFlow
+import org.dgraph.graph.edge.FlowWeightedSimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.Random
+
+class EdgeAttributesTest {
+
+    @Test
+    fun testColumnsFollowEdges() {
+        val g = ColumnWeightedDirectedGraph<Int>()
+        g.addEdge(0, 1, 1.0)
+        val labels = g.edgeAttributes.addIntColumn("label", 7)
+        val stamps = g.edgeAttributes.addLongColumn("stamp", -1L)
+        assertEquals(1, labels.size())
+        assertEquals(7, labels.get(0))
+        g.addEdge(1, 2, 2.0)
+        g.addEdge(2, 3, 3.0)
+        for (id in 0 until g.sizeOfEdges()) {
+            labels.set(id, g.getEdge(id).target)
+            stamps.set(id, g.getEdge(id).source * 1_000_000_000_000L)
+        }
+
+        assertTrue(g.removeEdge(g.getEdge(0)))
+        assertEquals(2, labels.size())
+        for (id in 0 until g.sizeOfEdges()) {
+            val e = g.getEdge(id)
+            assertEquals(id, g.getEdgeId(e))
+            assertEquals(e.target, labels.get(id))
+            assertEquals(e.source * 1_000_000_000_000L, stamps.get(id))
+            assertEquals(e.weight, g.weightColumn.get(id))
+        }
+        assertThrows<IndexOutOfBoundsException> { labels.get(2) }
+
+        assertEquals(setOf("label", "stamp"), g.edgeAttributes.columnNames)
+        assertThrows<IllegalArgumentException> { g.edgeAttributes.addDoubleColumn("label", 0.0) }
+        assertThrows<IllegalArgumentException> { g.edgeAttributes.getDoubleColumn("label") }
+        assertTrue(g.edgeAttributes.removeColumn("label"))
+        assertFalse(g.edgeAttributes.removeColumn("label"))
+        assertNull(g.edgeAttributes.getIntColumn("label"))
+        g.addEdge(3, 4)
+        assertEquals(2, labels.size())
+        assertEquals(3, stamps.size())
+        assertEquals(-1L, stamps.get(2))
+    }
+
+    @Test
+    fun testMinCostMaxFlow() {
+        val random = Random(0)
+        val edges = HashMap<Pair<Int, Int>, FlowWeightedSimpleEdge<Int>>()
+        val objects = WeightedDirectedGraph<Int, FlowWeightedSimpleEdge<Int>, Double>()
+        val columns = ColumnWeightedDirectedGraph<Int>()
+        val capacity = columns.edgeAttributes.addDoubleColumn("capacity", 0.0)
+        for (i in 0 until SIZE * 4) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            if (v1 == v2 || v2 == 0 || edges.containsKey(v1 to v2)) continue
+            /* Negative costs only leave the source, so there are no negative cycles. */
+            val cost = random.nextInt(20) - if (v1 == 0) 25.0 else 0.0
+            val e = FlowWeightedSimpleEdge(v1, v2, random.nextInt(10).toDouble(), 0.0, cost)
+            edges[v1 to v2] = e
+            objects.addEdge(e)
+            columns.addEdge(v1, v2, e.weight)
+            capacity.set(columns.getEdgeId(columns.getEdges(v1, v2).first()), e.capacity)
+        }
+
+        val expected = MinCostMaxFlow.getMaximumFlowWithMinCost(objects, 0, SIZE - 1, true)
+        assertTrue(expected.item1 > 0)
+        val flow = DoubleEdgeColumn("flow", columns.sizeOfEdges(), 0.0)
+        val actual = MinCostMaxFlow.getMaximumFlowWithMinCost(columns, 0, SIZE - 1, columns.weightColumn, capacity,
+            flow, true)
+        assertEquals(expected.item1, actual.item1, 1e-9)
+        assertEquals(expected.item2, actual.item2, 1e-9)
+        for (id in 0 until columns.sizeOfEdges()) {
+            val e = columns.getEdge(id)
+            assertEquals(edges[e.source to e.target]!!.flow, flow.get(id), 1e-9)
+        }
+
+        /* Another metric over the same topology. */
+        val unit = columns.edgeAttributes.addDoubleColumn("unit", 1.0)
+        val other = MinCostMaxFlow.getMaximumFlowWithMinCost(columns, 0, SIZE - 1, unit, capacity,
+            DoubleEdgeColumn("flow", columns.sizeOfEdges(), 0.0), true)
+        assertEquals(expected.item1, other.item1, 1e-9)
+        assertThrows<IllegalArgumentException> {
+            MinCostMaxFlow.getMaximumFlowWithMinCost(columns, 0, 1, unit, capacity, DoubleEdgeColumn("flow", 1, 0.0),
+                true)
+        }
+    }
+
+    companion object {
+        private const val SIZE = 200
+    }
+}
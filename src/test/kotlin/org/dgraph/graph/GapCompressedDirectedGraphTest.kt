@@ -0,0 +1,66 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.algorithm.BreadthFirstSearch
+import org.dgraph.graph.algorithm.DepthFirstSearch
+import org.dgraph.graph.edge.SimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.Random
+
+class GapCompressedDirectedGraphTest {
+
+    private val factory = { v1: Int, v2: Int -> SimpleEdge(v1, v2) }
+
+    @Test
+    fun testSameAsSource() {
+        val g = DirectedGraph<Int, SimpleEdge<Int>>(factory, false)
+        val random = Random(0)
+        for (i in 0 until SIZE * 5) {
+            val v1 = random.nextInt(SIZE)
+            /* Mostly close neighbours with a few long jumps in both directions. */
+            val v2 = if (random.nextInt(4) == 0) random.nextInt(SIZE) else (v1 + random.nextInt(21) - 10 + SIZE) % SIZE
+            g.addEdge(v1, v2)
+        }
+        g.addVertex(SIZE)
+        val c = GapCompressedDirectedGraph(g, factory)
+
+        assertEquals(g.allVertices, c.allVertices)
+        assertEquals(g.allEdges, c.allEdges)
+        assertEquals(g.sizeOfEdges(), c.sizeOfEdges())
+        for (v in g.allVertices) {
+            assertEquals(g.getEdgesFromSource(v), c.getEdgesFromSource(v))
+            assertEquals(g.getEdgesToTarget(v), c.getEdgesToTarget(v))
+            assertEquals(g.getInDegree(v), c.getInDegree(v))
+            assertEquals(g.getOutDegree(v), c.getOutDegree(v))
+        }
+        for (i in 0 until SIZE) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            assertEquals(g.containsEdge(v1, v2), c.containsEdge(v1, v2))
+            assertEquals(g.containsEdge(SimpleEdge(v1, v2)), c.containsEdge(SimpleEdge(v1, v2)))
+            assertEquals(BreadthFirstSearch.findPath(g, v1, v2)?.edges?.size,
+                BreadthFirstSearch.findPath(c, v1, v2)?.edges?.size)
+            DepthFirstSearch.findPath(c, v1, v2)?.edges?.forEach { assertTrue(g.containsEdge(it)) }
+        }
+        assertTrue(c.adjacencyBytes < g.sizeOfEdges() * 2L * 4)
+    }
+
+    @Test
+    fun testWithoutIncoming() {
+        val g = DirectedGraph<Int, SimpleEdge<Int>>(factory, false)
+        g.addEdge(0, Int.MAX_VALUE)
+        g.addEdge(Int.MAX_VALUE, 0)
+        val c = GapCompressedDirectedGraph(g, factory, false)
+        assertEquals(g.allEdges, c.allEdges)
+        assertFalse(c.containsEdge(0, 0))
+        assertThrows<UnsupportedOperationException> { c.getEdgesToTarget(0) }
+        assertThrows<UnsupportedOperationException> { c.addEdge(1, 2) }
+    }
+
+    companion object {
+        private const val SIZE = 1000
+    }
+}
@@ -0,0 +1,136 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.algorithm.Dijkstra
+import org.dgraph.graph.algorithm.PushRelabel
+import org.dgraph.graph.edge.FlowWeightedSimpleEdge
+import org.dgraph.graph.edge.SimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.io.IOException
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.Random
+
+class GraphFileTest {
+
+    private fun network(): WeightedDirectedGraph<Int, FlowWeightedSimpleEdge<Int>, Double> {
+        val g = WeightedDirectedGraph<Int, FlowWeightedSimpleEdge<Int>, Double>()
+        val random = Random(0)
+        for (i in 0 until SIZE * 4) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            if (v1 != v2) {
+                g.addEdge(FlowWeightedSimpleEdge(v1, v2, random.nextInt(10).toDouble(), 0.0,
+                    (1 + random.nextInt(9)).toDouble()))
+            }
+        }
+        return g
+    }
+
+    private fun withFile(action: (Path) -> Unit) {
+        val file = Files.createTempFile("graph", ".dgrf")
+        try {
+            action(file)
+        } finally {
+            Files.deleteIfExists(file)
+        }
+    }
+
+    @Test
+    fun testRoundTrip() = withFile { file ->
+        val g = network()
+        GraphFile.write(g, file, GraphFile.VertexCodec.INTEGER)
+        val copy = GraphFile.open(file, GraphFile.VertexCodec.INTEGER)
+        assertEquals(g.allVertices, copy.allVertices)
+        assertEquals(g.sizeOfEdges(), copy.sizeOfEdges())
+        for (e in g.allEdges) {
+            val stored = copy.getEdges(e.source, e.target)!!.single()
+            assertEquals(e.weight, stored.weight)
+            assertEquals(e.capacity, stored.capacity)
+            assertEquals(e.flow, stored.flow)
+        }
+        for (v in g.allVertices) {
+            assertEquals(g.getOutDegree(v), copy.getOutDegree(v))
+            assertEquals(g.getInDegree(v), copy.getInDegree(v))
+            assertEquals(Dijkstra.findShortestPath(g, 0, v)?.distance, Dijkstra.findShortestPath(copy, 0, v)?.distance)
+        }
+
+        /* Writing an opened graph again gives the same bytes. */
+        withFile { other ->
+            GraphFile.write(copy, other, GraphFile.VertexCodec.INTEGER)
+            assertTrue(Files.readAllBytes(file).contentEquals(Files.readAllBytes(other)))
+        }
+
+        val strings = DirectedGraph<String, SimpleEdge<String>>()
+        strings.addEdge(SimpleEdge("a", "b"))
+        strings.addEdge(SimpleEdge("b", "été"))
+        GraphFile.write(strings, file, GraphFile.VertexCodec.STRING)
+        val opened = GraphFile.open(file, GraphFile.VertexCodec.STRING)
+        assertEquals(strings.allVertices, opened.allVertices)
+        assertTrue(opened.containsEdge("b", "été"))
+        assertEquals(1.0, opened.getEdges("a", "b")!!.single().weight)
+    }
+
+    @Test
+    fun testHeader() = withFile { file ->
+        GraphFile.write(network(), file, GraphFile.VertexCodec.INTEGER)
+        val bytes = Files.readAllBytes(file)
+        val header = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN)
+        assertEquals(0x46524744, header.getInt(0))
+        assertEquals(1, header.getInt(4))
+        assertEquals(SIZE, header.getInt(8))
+        assertEquals(network().sizeOfEdges(), header.getInt(12))
+        assertEquals(SIZE * 4, header.getInt(20))
+
+        header.putInt(4, 2)
+        Files.write(file, bytes)
+        assertThrows<IOException> { GraphFile.open(file, GraphFile.VertexCodec.INTEGER) }
+        header.putInt(4, 1)
+        header.putInt(0, 0)
+        Files.write(file, bytes)
+        assertThrows<IOException> { GraphFile.open(file, GraphFile.VertexCodec.INTEGER) }
+        header.putInt(0, 0x46524744)
+        Files.write(file, bytes.copyOf(bytes.size - 8))
+        assertThrows<IOException> { GraphFile.open(file, GraphFile.VertexCodec.INTEGER) }
+        Files.write(file, bytes.copyOf(10))
+        assertThrows<IOException> { GraphFile.open(file, GraphFile.VertexCodec.INTEGER) }
+    }
+
+    @Test
+    fun testMapModes() = withFile { file ->
+        val g = network()
+        GraphFile.write(g, file, GraphFile.VertexCodec.INTEGER)
+        val expected = PushRelabel.getMaximumFlow(g, 0, SIZE - 1, true)
+        assertTrue(expected > 0)
+
+        val readOnly = GraphFile.open(file, GraphFile.VertexCodec.INTEGER)
+        val edge = readOnly.allEdges.first()
+        assertThrows<UnsupportedOperationException> { edge.setFlow(1.0) }
+        assertThrows<UnsupportedOperationException> { edge.setWeight(1.0) }
+        assertThrows<UnsupportedOperationException> { PushRelabel.getMaximumFlow(readOnly, 0, SIZE - 1, true) }
+
+        /* Private changes are not written to the file. */
+        val private = GraphFile.open(file, GraphFile.VertexCodec.INTEGER, FileChannel.MapMode.PRIVATE)
+        assertEquals(expected, PushRelabel.getMaximumFlow(private, 0, SIZE - 1, true), 1e-9)
+        assertTrue(private.allEdges.any { it.flow > 0 })
+        assertTrue(GraphFile.open(file, GraphFile.VertexCodec.INTEGER).allEdges.all { it.flow == 0.0 })
+
+        val shared = GraphFile.open(file, GraphFile.VertexCodec.INTEGER, FileChannel.MapMode.READ_WRITE)
+        assertEquals(expected, PushRelabel.getMaximumFlow(shared, 0, SIZE - 1, true), 1e-9)
+        shared.allEdges.first().setWeight(42.0)
+        val reopened = GraphFile.open(file, GraphFile.VertexCodec.INTEGER)
+        assertEquals(42.0, reopened.allEdges.first().weight)
+        for (e in shared.allEdges) {
+            assertEquals(e.flow, reopened.getOutEdge(e.position).flow)
+        }
+    }
+
+    companion object {
+        private const val SIZE = 100
+    }
+}
@@ -0,0 +1,134 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.edge.WeightedSimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+class GraphListenerTest {
+
+    private val g = WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>({ v1, v2 -> WeightedSimpleEdge(v1, v2) })
+
+    private fun listen(events: MutableList<String>) {
+        g.addGraphListener(object : GraphListener<Int, WeightedSimpleEdge<Int>> {
+            override fun vertexAdded(v: Int) {
+                events.add("+$v")
+            }
+
+            override fun vertexRemoved(v: Int) {
+                events.add("-$v")
+            }
+
+            override fun edgeAdded(e: WeightedSimpleEdge<Int>) {
+                assertTrue(g.getEdgesToTarget(e.target).contains(e))
+                events.add("+${e.source}>${e.target}")
+            }
+
+            override fun edgeRemoved(e: WeightedSimpleEdge<Int>) {
+                events.add("-${e.source}>${e.target}")
+            }
+
+            override fun weightChanged(e: WeightedSimpleEdge<Int>) {
+                events.add("~${e.source}>${e.target}")
+            }
+        })
+    }
+
+    @Test
+    fun testImmediate() {
+        val events = mutableListOf<String>()
+        listen(events)
+        g.addEdge(1, 2)
+        g.setWeight(g.getEdges(1, 2).first(), 5.0)
+        g.removeVertex(2)
+        assertEquals(listOf("+1", "+2", "+1>2", "~1>2", "-1>2", "-2"), events)
+    }
+
+    @Test
+    fun testBatched() {
+        val deltas = mutableListOf<GraphDelta<out Int, out WeightedSimpleEdge<Int>>>()
+        g.addGraphListener(object : GraphListener<Int, WeightedSimpleEdge<Int>> {
+            override fun changesCommitted(delta: GraphDelta<out Int, out WeightedSimpleEdge<Int>>) {
+                deltas.add(delta)
+            }
+        }, true)
+        g.addEdge(1, 2)
+        g.addEdge(2, 3)
+        g.commitChanges()
+        g.removeVertex(3)
+        g.addEdge(4, 5)
+        g.removeEdge(WeightedSimpleEdge(4, 5))
+        g.setWeight(g.getEdges(1, 2).first(), 5.0)
+        g.commitChanges()
+        g.commitChanges()
+
+        assertEquals(2, deltas.size)
+        assertEquals(setOf(1, 2, 3), deltas[0].addedVertices)
+        assertEquals(2, deltas[0].addedEdges.size)
+        assertEquals(setOf(4, 5), deltas[1].addedVertices)
+        assertEquals(setOf(3), deltas[1].removedVertices)
+        assertEquals(setOf(WeightedSimpleEdge(2, 3)), deltas[1].removedEdges)
+        assertEquals(setOf(WeightedSimpleEdge(1, 2)), deltas[1].changedEdges)
+        assertTrue(deltas[1].addedEdges.isEmpty())
+    }
+
+    @Test
+    fun testViewSets() {
+        val events = mutableListOf<String>()
+        g.addEdge(1, 2)
+        listen(events)
+
+        /* Edges added or removed through the views of a vertex are reported like the ones of the graph. */
+        assertTrue(g.getEdgesFromSource(1).add(WeightedSimpleEdge(1, 3)))
+        assertTrue(g.getEdgesToTarget(2).add(WeightedSimpleEdge(4, 2)))
+        assertTrue(g.getEdgesFromSource(1).remove(WeightedSimpleEdge(1, 2)))
+        assertTrue(g.getEdgesToTarget(2).remove(WeightedSimpleEdge(4, 2)))
+        assertEquals(listOf("+3", "+1>3", "+4", "+4>2", "-1>2", "-4>2"), events)
+
+        events.clear()
+        g.addEdge(3, 1)
+        g.addEdge(4, 1)
+        events.clear()
+        g.getEdgesToTarget(1).removeIf { it.source == 3 }
+        g.getEdgesToTarget(1).retainAll(emptyList())
+        g.getEdgesFromSource(1).clear()
+        assertEquals(listOf("-3>1", "-4>1", "-1>3"), events)
+        assertEquals(0, g.sizeOfEdges())
+
+        /* Batched listeners see them as well. */
+        val deltas = mutableListOf<GraphDelta<out Int, out WeightedSimpleEdge<Int>>>()
+        g.addGraphListener(object : GraphListener<Int, WeightedSimpleEdge<Int>> {
+            override fun changesCommitted(delta: GraphDelta<out Int, out WeightedSimpleEdge<Int>>) {
+                deltas.add(delta)
+            }
+        }, true)
+        g.getEdgesFromSource(1).add(WeightedSimpleEdge(1, 2))
+        g.getEdgesToTarget(3).add(WeightedSimpleEdge(4, 3))
+        g.commitChanges()
+        g.getEdgesToTarget(2).clear()
+        g.commitChanges()
+        assertEquals(setOf(WeightedSimpleEdge(1, 2), WeightedSimpleEdge(4, 3)), deltas[0].addedEdges)
+        assertEquals(setOf(WeightedSimpleEdge(1, 2)), deltas[1].removedEdges)
+    }
+
+    @Test
+    fun testSetWeightOfEqualEdge() {
+        val changed = mutableListOf<WeightedSimpleEdge<Int>>()
+        g.addEdge(WeightedSimpleEdge(1, 2, 5.0))
+        g.addGraphListener(object : GraphListener<Int, WeightedSimpleEdge<Int>> {
+            override fun weightChanged(e: WeightedSimpleEdge<Int>) {
+                changed.add(e)
+            }
+        })
+        val stored = g.getEdges(1, 2).first()
+        val copy = WeightedSimpleEdge(1, 2, 0.0)
+        assertTrue(g.setWeight(copy, 9.0))
+        assertEquals(9.0, stored.weight)
+        assertEquals(0.0, copy.weight)
+        assertSame(stored, changed.single())
+        assertFalse(g.setWeight(WeightedSimpleEdge(2, 1, 0.0), 1.0))
+        assertEquals(1, changed.size)
+    }
+}
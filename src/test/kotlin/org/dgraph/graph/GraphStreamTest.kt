@@ -0,0 +1,98 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.edge.FlowSimpleEdge
+import org.dgraph.graph.edge.SimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.util.Random
+
+class GraphStreamTest {
+
+    @Test
+    fun testRoundTrip() {
+        val g = DirectedGraph<String, FlowSimpleEdge<String>>()
+        val random = Random(0)
+        for (i in 0 until SIZE) {
+            val v1 = "v" + random.nextInt(SIZE / 10)
+            val v2 = "v" + random.nextInt(SIZE / 10)
+            g.addEdge(FlowSimpleEdge(v1, v2, random.nextDouble(), random.nextDouble()))
+        }
+        g.addVertex("isolated")
+
+        val bytes = ByteArrayOutputStream()
+        GraphStream.write(g, DataOutputStream(bytes), GraphFile.VertexCodec.STRING)
+        val h = GraphStream.read(DataInputStream(ByteArrayInputStream(bytes.toByteArray())),
+            GraphFile.VertexCodec.STRING) { source, target, _, capacity, flow ->
+            FlowSimpleEdge(source, target, capacity, flow)
+        }
+
+        assertEquals(g.allVertices, h.allVertices)
+        assertEquals(g.allEdges, h.allEdges)
+        for (e in g.allEdges) {
+            val copy = h.getEdges(e.source, e.target).first()
+            assertEquals(e.capacity, copy.capacity)
+            assertEquals(e.flow, copy.flow)
+        }
+    }
+
+    private fun roundTrip(g: Graph<Int, SimpleEdge<Int>>,
+        graphFactory: (Int, Int) -> DirectedGraph<Int, SimpleEdge<Int>>): DirectedGraph<Int, SimpleEdge<Int>> {
+        val bytes = ByteArrayOutputStream()
+        GraphStream.write(g, DataOutputStream(bytes), GraphFile.VertexCodec.INTEGER)
+        return GraphStream.read(DataInputStream(ByteArrayInputStream(bytes.toByteArray())),
+            GraphFile.VertexCodec.INTEGER, { source, target, _, _, _ -> SimpleEdge(source, target) }, graphFactory)
+    }
+
+    @Test
+    fun testLoops() {
+        val g = DirectedGraph<Int, SimpleEdge<Int>>()
+        g.addEdge(SimpleEdge(1, 1))
+        g.addEdge(SimpleEdge(1, 2))
+        val bytes = ByteArrayOutputStream()
+        GraphStream.write(g, DataOutputStream(bytes), GraphFile.VertexCodec.INTEGER)
+        val h = GraphStream.read(DataInputStream(ByteArrayInputStream(bytes.toByteArray())),
+            GraphFile.VertexCodec.INTEGER) { source, target, _, _, _ -> SimpleEdge(source, target) }
+        assertEquals(g.allEdges, h.allEdges)
+
+        /* A graph, which rejects the loops, is not returned without them. */
+        assertThrows<IOException> { roundTrip(g) { n, m -> DirectedGraph(null, false, n, m) } }
+        g.removeEdge(SimpleEdge(1, 1))
+        assertEquals(g.allEdges, roundTrip(g) { n, m -> DirectedGraph(null, false, n, m) }.allEdges)
+    }
+
+    @Test
+    fun testUndirectedRejected() {
+        val g = UndirectedGraph<Int, SimpleEdge<Int>>()
+        g.addEdge(SimpleEdge(1, 2))
+        g.addEdge(SimpleEdge(2, 3))
+        assertThrows<IllegalArgumentException> { GraphStream.write(g, DataOutputStream(ByteArrayOutputStream()),
+            GraphFile.VertexCodec.INTEGER) }
+
+        /* Reversed views report each edge once, from its target. */
+        val d = DirectedGraph<Int, SimpleEdge<Int>>()
+        d.addEdge(SimpleEdge(1, 2))
+        d.addEdge(SimpleEdge(2, 3))
+        assertEquals(setOf(SimpleEdge(2, 1), SimpleEdge(3, 2)),
+            roundTrip(d.reversed()) { n, m -> DirectedGraph(null, true, n, m) }.allEdges)
+    }
+
+    @Test
+    fun testMalformed() {
+        assertThrows<IOException> {
+            GraphStream.read(DataInputStream(ByteArrayInputStream(ByteArray(8))),
+                GraphFile.VertexCodec.INTEGER) { source, target, _, capacity, flow ->
+                FlowSimpleEdge(source, target, capacity, flow)
+            }
+        }
+    }
+
+    companion object {
+        private const val SIZE = 10000
+    }
+}
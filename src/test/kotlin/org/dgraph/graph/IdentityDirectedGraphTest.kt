@@ -0,0 +1,151 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.algorithm.BreadthFirstSearch
+import org.dgraph.graph.edge.IdentitySimpleEdge
+import org.dgraph.graph.edge.SimpleEdge
+import org.dgraph.graph.edge.TemporalWeightedMultiEdge
+import org.dgraph.graph.edge.WeightedSimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.Random
+
+class IdentityDirectedGraphTest {
+
+    /** Vertex, which must never be hashed or compared. */
+    private class Opaque(val id: Int) {
+        override fun equals(other: Any?): Boolean = throw AssertionError("equals() called")
+
+        override fun hashCode(): Int = throw AssertionError("hashCode() called")
+
+        override fun toString() = "v$id"
+    }
+
+    @Test
+    fun testSameAsDirectedGraph() {
+        val g = IdentityDirectedGraph<Int, SimpleEdge<Int>>({ v1, v2 -> SimpleEdge(v1, v2) }, false)
+        val copy = DirectedGraph<Int, SimpleEdge<Int>>({ v1, v2 -> SimpleEdge(v1, v2) }, false)
+        val random = Random(0)
+        /* Small boxed integers are cached, so equal vertices are the same objects. */
+        for (i in 0 until SIZE * 5) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            if (v1 != v2) assertEquals(copy.addEdge(v1, v2), g.addEdge(v1, v2))
+        }
+        for (i in 0 until SIZE) {
+            val v = random.nextInt(SIZE)
+            when (i % 3) {
+                0 -> assertEquals(copy.removeVertex(v), g.removeVertex(v))
+                1 -> copy.getEdgesFromSource(v)?.firstOrNull()?.let { assertTrue(g.removeEdge(SimpleEdge(it.source, it.target))); copy.removeEdge(it) }
+                else -> assertEquals(copy.addEdge(v, (v + 1) % SIZE), g.addEdge(v, (v + 1) % SIZE))
+            }
+        }
+        assertEquals(copy.allVertices, g.allVertices)
+        assertEquals(copy.allEdges, g.allEdges.toSet())
+        assertEquals(copy.sizeOfEdges(), g.sizeOfEdges())
+        assertEquals(copy.sizeOfEdges(), g.allEdges.size)
+        for (v in 0 until SIZE) {
+            assertEquals(copy.getOutDegree(v), g.getOutDegree(v))
+            assertEquals(copy.getInDegree(v), g.getInDegree(v))
+            assertEquals(copy.getEdgesToTarget(v), g.getEdgesToTarget(v)?.toSet())
+            for (u in 0 until 10) {
+                assertEquals(copy.containsEdge(v, u), g.containsEdge(v, u))
+                assertEquals(BreadthFirstSearch.findPath(copy, v, u)?.edges?.size,
+                    BreadthFirstSearch.findPath(g, v, u)?.edges?.size)
+            }
+        }
+        val index = g.vertexIndex
+        g.allVertices.forEach { assertEquals(it, index.vertexAt(index.indexOf(it))) }
+        assertThrows<UnsupportedOperationException> { g.allEdges.clear() }
+        assertThrows<UnsupportedOperationException> { g.getEdgesFromSource(g.allVertices.first { g.getOutDegree(it) > 0 }).clear() }
+    }
+
+    @Test
+    fun testVerticesAreNeverHashed() {
+        val vertices = Array(SIZE) { Opaque(it) }
+        val g = IdentityDirectedGraph<Opaque, IdentitySimpleEdge<Opaque>>({ v1, v2 -> IdentitySimpleEdge(v1, v2) }, false)
+        for (i in 0 until SIZE - 1) {
+            g.addEdge(vertices[i], vertices[i + 1])
+            if (i % 2 == 0 && i + 2 < SIZE) {
+                g.addEdge(vertices[i], vertices[i + 2])
+            }
+        }
+        assertEquals(SIZE, g.sizeOfVertices())
+        assertEquals(SIZE - 1 + (SIZE - 1) / 2, g.sizeOfEdges())
+        val path = BreadthFirstSearch.findPath(g, vertices[0], vertices[SIZE - 1])!!
+        assertEquals(SIZE / 2, path.edges.size)
+        assertEquals(vertices[SIZE - 1], path.vertices.last())
+        assertTrue(g.containsVertex(vertices[3]))
+        assertFalse(g.containsVertex(Opaque(3)))
+        assertTrue(g.removeVertex(vertices[1]))
+        assertEquals(1, BreadthFirstSearch.findPath(g, vertices[0], vertices[2])!!.edges.size)
+        assertNull(g.getEdges(vertices[0], vertices[1]))
+        assertEquals(1, g.getEdges(vertices[0], vertices[2])!!.size)
+        assertEquals(-1, g.getOutDegree(vertices[1]))
+        assertEquals(0, g.getInDegree(vertices[0]))
+    }
+
+    @Test
+    fun testIdentityEdges() {
+        val vertices = Array(4) { Opaque(it) }
+        val g = IdentityDirectedGraph<Opaque, IdentitySimpleEdge<Opaque>>({ v1, v2 -> IdentitySimpleEdge(v1, v2) }, false)
+        assertTrue(g.addEdge(vertices[0], vertices[1]))
+        assertFalse(g.addEdge(vertices[0], vertices[1]))
+        assertFalse(g.addEdge(vertices[0], vertices[0]))
+        assertTrue(g.addEdge(vertices[1], vertices[0]))
+        assertTrue(g.containsEdge(IdentitySimpleEdge(vertices[0], vertices[1])))
+        assertFalse(g.containsEdge(IdentitySimpleEdge(vertices[0], vertices[2])))
+        assertEquals(setOf(IdentitySimpleEdge(vertices[0], vertices[1]), IdentitySimpleEdge(vertices[1], vertices[0])),
+            g.allEdges.toSet())
+        assertTrue(g.removeEdge(IdentitySimpleEdge(vertices[1], vertices[0])))
+        assertEquals(1, g.sizeOfEdges())
+        assertEquals(0, g.getInDegree(vertices[0]))
+        g.clear()
+        assertEquals(0, g.sizeOfEdges())
+        assertEquals(0, g.sizeOfVertices())
+
+        val loops = IdentityDirectedGraph<Opaque, IdentitySimpleEdge<Opaque>>({ v1, v2 -> IdentitySimpleEdge(v1, v2) }, true)
+        assertTrue(loops.addEdge(vertices[0], vertices[0]))
+        assertTrue(loops.addEdge(vertices[0], vertices[1]))
+        assertTrue(loops.addEdge(vertices[2], vertices[0]))
+        assertEquals(2, loops.getOutDegree(vertices[0]))
+        assertEquals(2, loops.getInDegree(vertices[0]))
+        assertTrue(loops.removeVertex(vertices[0]))
+        assertEquals(0, loops.sizeOfEdges())
+        assertEquals(0, loops.getInDegree(vertices[1]))
+        assertEquals(0, loops.getOutDegree(vertices[2]))
+    }
+
+    @Test
+    fun testLoopsFlag() {
+        for (withLoops in listOf(false, true)) {
+            val graphs = listOf<Graph<Int, SimpleEdge<Int>>>(
+                DirectedGraph({ v1, v2 -> SimpleEdge(v1, v2) }, withLoops),
+                UndirectedGraph({ v1, v2 -> SimpleEdge(v1, v2) }, withLoops),
+                IdentityDirectedGraph({ v1, v2 -> SimpleEdge(v1, v2) }, withLoops))
+            for (g in graphs) {
+                assertEquals(withLoops, g.addEdge(1, 1))
+                assertEquals(withLoops, g.addEdge(SimpleEdge(2, 2)))
+                assertEquals(withLoops, g.containsEdge(1, 1))
+                assertTrue(g.addEdge(1, 2))
+            }
+            val bulk = DirectedGraph<Int, SimpleEdge<Int>>({ v1, v2 -> SimpleEdge(v1, v2) }, withLoops)
+            assertTrue(bulk.addEdges(listOf(SimpleEdge(3, 3), SimpleEdge(3, 4))))
+            assertEquals(withLoops, bulk.containsEdge(3, 3))
+            assertEquals(if (withLoops) 2 else 1, bulk.sizeOfEdges())
+        }
+
+        /* Graphs of the directed family created without the flag keep accepting loops. */
+        assertTrue(DirectedGraph<Int, SimpleEdge<Int>>({ v1, v2 -> SimpleEdge(v1, v2) }).addEdge(0, 0))
+        assertTrue(DirectedGraph<Int, SimpleEdge<Int>>().addEdge(SimpleEdge(0, 0)))
+        assertTrue(WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>().addEdge(WeightedSimpleEdge(0, 0, 1.0)))
+        assertTrue(TemporalDirectedGraph<Int, TemporalWeightedMultiEdge<Int>>().addEdge(TemporalWeightedMultiEdge(0, 0, 1.0, 0L, 1L)))
+    }
+
+    companion object {
+        private const val SIZE = 100
+    }
+}
@@ -0,0 +1,149 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.algorithm.BellmanFord
+import org.dgraph.graph.algorithm.Dijkstra
+import org.dgraph.graph.algorithm.IntBellmanFord
+import org.dgraph.graph.algorithm.IntDijkstra
+import org.dgraph.graph.edge.SimpleEdge
+import org.dgraph.graph.edge.WeightedSimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.Random
+
+class IntDirectedGraphTest {
+
+    @Test
+    fun testAddAndRemove() {
+        val g = IntDirectedGraph()
+        assertTrue(g.addEdge(0, 3))
+        assertTrue(g.addEdge(0, 3))
+        assertTrue(g.addEdge(3, 1))
+        assertEquals(4, g.sizeOfVertices())
+        assertEquals(3, g.sizeOfEdges())
+        assertEquals(2, g.getOutDegree(0))
+        assertEquals(2, g.getInDegree(3))
+        assertEquals(0, g.getOutDegree(2))
+        assertEquals(-1, g.getOutDegree(4))
+        assertTrue(g.containsEdge(3, 1))
+        assertFalse(g.containsEdge(1, 3))
+        assertEquals(4, g.addVertex())
+
+        assertTrue(g.removeEdge(0, 3))
+        assertTrue(g.containsEdge(0, 3))
+        assertFalse(g.removeEdge(1, 0))
+        assertTrue(g.isolateVertex(3))
+        assertFalse(g.isolateVertex(3))
+        assertEquals(0, g.sizeOfEdges())
+        assertEquals(5, g.sizeOfVertices())
+        assertThrows<IllegalArgumentException> { g.addEdge(-1, 0) }
+        g.clear()
+        assertEquals(0, g.sizeOfVertices())
+        assertFalse(g.containsVertex(0))
+    }
+
+    @Test
+    fun testLoopsFlag() {
+        for (withLoops in listOf(false, true)) {
+            val directed = DirectedGraph<Int, SimpleEdge<Int>>({ v1, v2 -> SimpleEdge(v1, v2) }, withLoops).addEdge(1, 1)
+            assertEquals(withLoops, directed)
+            val graphs = listOf(IntDirectedGraph(withLoops), IntDirectedGraph(4, withLoops),
+                IntWeightedDirectedGraph(withLoops), IntWeightedDirectedGraph(4, withLoops))
+            for (g in graphs) {
+                assertEquals(directed, g.addEdge(1, 1))
+                assertEquals(withLoops, g.containsEdge(1, 1))
+                assertEquals(if (withLoops) 1 else 0, g.sizeOfEdges())
+            }
+            assertEquals(withLoops, IntWeightedDirectedGraph(withLoops).addEdge(2, 2, 5.0))
+        }
+        assertFalse(IntDirectedGraph().addEdge(0, 0))
+        assertFalse(IntWeightedDirectedGraph().addEdge(0, 0))
+    }
+
+    @Test
+    fun testWeights() {
+        val g = IntWeightedDirectedGraph()
+        assertTrue(g.addEdge(0, 1, 2.0))
+        assertTrue(g.addEdge(0, 2))
+        assertTrue(g.addEdge(0, 3, 4.0))
+        assertEquals(IntWeightedDirectedGraph.DEFAULT_WEIGHT, g.getOutWeight(0, 1))
+        g.setOutWeight(0, 1, 3.0)
+        assertTrue(g.removeEdge(0, 1))
+        /* The last edge moves to the place of the removed one together with its weight. */
+        assertEquals(3, g.getOutTarget(0, 0))
+        assertEquals(4.0, g.getOutWeight(0, 0))
+        assertEquals(2, g.getOutTarget(0, 1))
+        assertEquals(3.0, g.getOutWeight(0, 1))
+        assertThrows<IndexOutOfBoundsException> { g.setOutWeight(0, 2, 1.0) }
+    }
+
+    @Test
+    fun testShortestPaths() {
+        val g = IntWeightedDirectedGraph(SIZE, false)
+        val expected = WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>()
+        val random = Random(0)
+        for (v in 0 until SIZE) {
+            expected.addVertex(v)
+        }
+        g.ensureVertices(SIZE)
+        for (i in 0 until SIZE * 4) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            if (v1 == v2 || g.containsEdge(v1, v2)) {
+                continue
+            }
+            val weight = random.nextInt(10).toDouble()
+            assertTrue(g.addEdge(v1, v2, weight))
+            expected.addEdge(WeightedSimpleEdge(v1, v2, weight))
+        }
+        for (s in 0 until SIZE step 7) {
+            val distances = IntDijkstra.findShortestDistances(g, s)
+            assertEquals(distances.toList(), IntBellmanFord.findAllShortestDistances(g, s, true).toList())
+            val paths = BellmanFord.findAllShortestPaths(expected, s, true)
+            for (t in 0 until SIZE) {
+                assertEquals(paths[t]!!.distance, distances[t])
+                val path = IntDijkstra.findShortestPath(g, s, t)
+                assertEquals(Dijkstra.findShortestPath(expected, s, t)?.distance, path?.let { distances[t] })
+                if (path != null) {
+                    assertEquals(s, path.first())
+                    assertEquals(t, path.last())
+                    assertEquals(distances[t], (1 until path.size).sumOf { k ->
+                        val u = path[k - 1]
+                        (0 until g.getOutDegree(u)).filter { g.getOutTarget(u, it) == path[k] }
+                            .minOf { g.getOutWeight(u, it) }
+                    })
+                }
+            }
+        }
+        assertNull(IntDijkstra.findShortestPath(g, 0, SIZE))
+        assertEquals(Double.POSITIVE_INFINITY, IntDijkstra.findShortestDistances(g, SIZE)[0])
+    }
+
+    @Test
+    fun testNegativeWeights() {
+        val g = IntWeightedDirectedGraph()
+        g.addEdge(0, 1, 4.0)
+        g.addEdge(0, 2, 1.0)
+        g.addEdge(2, 1, -2.0)
+        g.addEdge(1, 3, 1.0)
+        g.ensureVertices(5)
+        val previous = IntArray(5)
+        assertEquals(listOf(0.0, -1.0, 1.0, 0.0, Double.POSITIVE_INFINITY),
+            IntBellmanFord.findAllShortestDistances(g, 0, true, previous).toList())
+        assertEquals(listOf(0, 2, 0, 1, -1), previous.toList())
+        assertThrows<IllegalArgumentException> { IntDijkstra.findShortestDistances(g, 0) }
+
+        g.addEdge(3, 2, -1.0)
+        assertThrows<IllegalArgumentException> { IntBellmanFord.findAllShortestDistances(g, 0, true) }
+        IntBellmanFord.findAllShortestDistances(g, 0, false)
+        /* The cycle cannot be reached from the vertex 4. */
+        assertEquals(0.0, IntBellmanFord.findAllShortestDistances(g, 4, true)[4])
+    }
+
+    companion object {
+        private const val SIZE = 300
+    }
+}
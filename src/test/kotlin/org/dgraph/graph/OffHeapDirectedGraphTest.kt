@@ -0,0 +1,72 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.algorithm.Dijkstra
+import org.dgraph.graph.edge.WeightedSimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.util.Random
+
+class OffHeapDirectedGraphTest {
+
+    @Test
+    fun testCopyOfDirectedGraph() {
+        val g = WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>()
+        val random = Random(0)
+        for (i in 0 until SIZE * 5) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            if (v1 != v2) g.addEdge(WeightedSimpleEdge(v1, v2, (1 + random.nextInt(9)).toDouble()))
+        }
+        val copy = OffHeapDirectedGraph(g)
+        assertEquals(g.sizeOfVertices(), copy.sizeOfVertices())
+        assertEquals(g.sizeOfEdges(), copy.sizeOfEdges())
+        for (v in g.allVertices) {
+            assertEquals(g.getOutDegree(v), copy.getOutDegree(v))
+            assertEquals(g.getInDegree(v), copy.getInDegree(v))
+        }
+        g.allEdges.forEach { assertTrue(copy.containsEdge(it.source, it.target)) }
+        assertDistances(g, copy)
+
+        /* A reversed view reports incoming edges, which lead to their sources. */
+        val reversed = OffHeapDirectedGraph(g.reversed())
+        g.allEdges.forEach { assertTrue(reversed.containsEdge(it.target, it.source)) }
+        assertDistances(g.reversed(), reversed)
+    }
+
+    @Test
+    fun testCopyOfUndirectedGraph() {
+        val g = UndirectedGraph<Int, WeightedSimpleEdge<Int>>()
+        val random = Random(1)
+        for (i in 0 until SIZE * 3) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            if (v1 != v2 && !g.containsEdge(v1, v2)) {
+                g.addEdge(WeightedSimpleEdge(v1, v2, (1 + random.nextInt(9)).toDouble()))
+            }
+        }
+        val copy = OffHeapDirectedGraph(g)
+        /* Every undirected edge becomes two directed ones. */
+        assertEquals(g.sizeOfEdges() * 2, copy.sizeOfEdges())
+        for (e in g.allEdges) {
+            assertTrue(copy.containsEdge(e.source, e.target))
+            assertTrue(copy.containsEdge(e.target, e.source))
+        }
+        assertDistances(g, copy)
+    }
+
+    private fun <E : WeightedSimpleEdge<Int>> assertDistances(expected: Graph<Int, E>,
+                                                              actual: OffHeapDirectedGraph<Int>) {
+        val random = Random(SIZE.toLong())
+        for (i in 0 until 50) {
+            val source = random.nextInt(SIZE)
+            val target = random.nextInt(SIZE)
+            assertEquals(Dijkstra.findShortestPath(expected, source, target)?.distance,
+                Dijkstra.findShortestPath(actual, source, target)?.distance)
+        }
+    }
+
+    companion object {
+        private const val SIZE = 200
+    }
+}
@@ -0,0 +1,156 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.algorithm.BellmanFord
+import org.dgraph.graph.algorithm.BreadthFirstSearch
+import org.dgraph.graph.algorithm.DepthFirstSearch
+import org.dgraph.graph.algorithm.Dijkstra
+import org.dgraph.graph.algorithm.FloydWarshall
+import org.dgraph.graph.algorithm.Johnson
+import org.dgraph.graph.edge.SimpleEdge
+import org.dgraph.graph.edge.WeightedSimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.Random
+
+class ReversedViewTest {
+
+    @Test
+    fun testSameAsReversedCopy() {
+        val factory = { v1: Int, v2: Int -> SimpleEdge(v1, v2) }
+        val g = DirectedGraph<Int, SimpleEdge<Int>>(factory, true)
+        val copy = DirectedGraph<Int, SimpleEdge<Int>>(factory, true)
+        val random = Random(0)
+        for (i in 0 until SIZE * 5) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            g.addEdge(v1, v2)
+            copy.addEdge(v2, v1)
+        }
+        val r = g.reversed()
+        assertSame(g, r.reversed())
+        assertEquals(copy.allVertices, r.allVertices)
+        assertEquals(copy.sizeOfEdges(), r.sizeOfEdges())
+        for (v in g.allVertices) {
+            assertEquals(copy.getEdgesFromSource(v).map { it.target }.toSet(), r.getEdgesFromSource(v).map { it.source }.toSet())
+            assertEquals(copy.getOutDegree(v), r.getOutDegree(v))
+            assertEquals(copy.getInDegree(v), r.getInDegree(v))
+            r.forEachOutEdge(v) { assertEquals(v, it.target) }
+        }
+        for (i in 0 until SIZE) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            assertEquals(copy.containsEdge(v1, v2), r.containsEdge(v1, v2))
+            val path = BreadthFirstSearch.findPath(r, v1, v2)
+            assertEquals(BreadthFirstSearch.findPath(copy, v1, v2)?.edges?.size, path?.edges?.size)
+            if (path != null) {
+                assertEquals(v1, path.vertices.first())
+                assertEquals(v2, path.vertices.last())
+                path.edges.forEach { assertTrue(g.containsEdge(it)) }
+            }
+            assertEquals(path == null, DepthFirstSearch.findPath(r, v1, v2) == null)
+        }
+
+        /* The view is live and read-only. */
+        g.addEdge(SIZE, 0)
+        assertTrue(r.containsEdge(0, SIZE))
+        assertFalse(r.containsEdge(SIZE, 0))
+        assertThrows<UnsupportedOperationException> { r.addEdge(0, 1) }
+        assertThrows<UnsupportedOperationException> { r.getEdgesFromSource(0).clear() }
+    }
+
+    @Test
+    fun testDijkstra() {
+        val g = WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>()
+        for (i in 0 until SIZE) {
+            g.addEdge(WeightedSimpleEdge(i, i + 1, 1.0))
+            g.addEdge(WeightedSimpleEdge(i, i + 2, 3.0))
+        }
+        assertEquals(SIZE.toDouble(), Dijkstra.findShortestPath(g.reversed(), SIZE, 0).distance)
+        assertEquals(null, Dijkstra.findShortestPath(g.reversed(), 0, SIZE))
+    }
+
+    @Test
+    fun testAllPairsAlgorithms() {
+        val g = WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>()
+        val copy = WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>()
+        val random = Random(1)
+        for (i in 0 until 40 * 4) {
+            val v1 = random.nextInt(40)
+            val v2 = random.nextInt(40)
+            val weight = 1.0 + random.nextInt(9)
+            if (v1 != v2 && g.addEdge(WeightedSimpleEdge(v1, v2, weight))) {
+                copy.addEdge(WeightedSimpleEdge(v2, v1, weight))
+            }
+        }
+        val r = g.reversed()
+        val floyd = FloydWarshall.findAllShortestPaths(r)
+        val johnson = Johnson.findAllShortestPaths(r)
+        val expected = FloydWarshall.findAllShortestPaths(copy)
+        for (s in g.allVertices) {
+            val bellman = BellmanFord.findAllShortestPaths(r, s, true)
+            for (t in g.allVertices) {
+                val distance = expected[s]!![t]!!.distance
+                assertEquals(distance, floyd[s]!![t]!!.distance)
+                assertEquals(distance, johnson[s]!![t]!!.distance)
+                assertEquals(distance, bellman[t]!!.distance)
+                floyd[s]!![t]!!.edges?.forEach { assertTrue(g.containsEdge(it)) }
+            }
+        }
+
+        val chain = WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>()
+        chain.addEdge(WeightedSimpleEdge(0, 1, 1.0))
+        chain.addEdge(WeightedSimpleEdge(1, 2, 1.0))
+        val reversed = chain.reversed()
+        assertEquals(2.0, BellmanFord.findAllShortestPaths(reversed, 2, true)[0]!!.distance)
+        assertEquals(2.0, FloydWarshall.findAllShortestPaths(reversed)[2]!![0]!!.distance)
+        assertEquals(2.0, Johnson.findAllShortestPaths(reversed)[2]!![0]!!.distance)
+        assertEquals(Double.POSITIVE_INFINITY, Johnson.findAllShortestPaths(reversed)[0]!![2]!!.distance)
+        assertTrue(IndexedGraph.of(reversed).containsEdge(chain.getEdges(0, 1).first()))
+    }
+
+    @Test
+    fun testNestedViews() {
+        val chain = DirectedGraph<Int, SimpleEdge<Int>>({ v1, v2 -> SimpleEdge(v1, v2) })
+        chain.addEdge(1, 2)
+        chain.addEdge(2, 3)
+        val neighbors = { g: Graph<Int, SimpleEdge<Int>>, v: Int ->
+            val result = ArrayList<Int>()
+            g.forEachOutNeighbor(v) { u, _ -> result.add(u) }
+            result.sorted()
+        }
+
+        /* Reversing twice around a subgraph gives the graph back. */
+        val twice = chain.reversed().subgraph({ true }, null).reversed()
+        assertEquals(listOf(2), neighbors(twice, 1))
+        assertEquals(listOf(1, 2), BreadthFirstSearch.findPath(twice, 1, 3)!!.edges.map { it.source })
+        assertEquals(2, DepthFirstSearch.findPath(twice, 1, 3)!!.edges.size)
+        assertNull(BreadthFirstSearch.findPath(twice, 3, 1))
+        val reversed = chain.subgraph({ true }, null).reversed()
+        assertEquals(listOf(1), neighbors(reversed, 2))
+        assertEquals(2, BreadthFirstSearch.findPath(reversed, 3, 1)!!.edges.size)
+
+        /* Edges of undirected graphs lead to their other end in either direction. */
+        val undirected = UndirectedGraph<Int, SimpleEdge<Int>>({ v1, v2 -> SimpleEdge(v1, v2) }, false)
+        undirected.addEdge(1, 2)
+        undirected.addEdge(2, 3)
+        val view = undirected.subgraph({ true }, null).reversed()
+        assertEquals(listOf(1, 3), neighbors(view, 2))
+        assertEquals(2, BreadthFirstSearch.findPath(view, 1, 3)!!.edges.size)
+        assertEquals(2, BreadthFirstSearch.findPath(view, 3, 1)!!.edges.size)
+    }
+
+    @Test
+    fun testUndirected() {
+        val g = UndirectedGraph<Int, SimpleEdge<Int>>({ v1, v2 -> SimpleEdge(v1, v2) }, false)
+        assertSame(g, g.reversed())
+    }
+
+    companion object {
+        private const val SIZE = 300
+    }
+}
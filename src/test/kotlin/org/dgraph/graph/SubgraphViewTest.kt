@@ -0,0 +1,127 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.algorithm.BreadthFirstSearch
+import org.dgraph.graph.edge.SimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.BitSet
+import java.util.Random
+
+class SubgraphViewTest {
+
+    private val factory = { v1: Int, v2: Int -> SimpleEdge(v1, v2) }
+
+    private fun randomGraph(g: Graph<Int, SimpleEdge<Int>>): Graph<Int, SimpleEdge<Int>> {
+        val random = Random(0)
+        for (i in 0 until SIZE * 5) {
+            g.addEdge(random.nextInt(SIZE), random.nextInt(SIZE))
+        }
+        return g
+    }
+
+    /** Compares the view with a physical copy of the same subgraph. */
+    private fun assertSameAsCopy(view: Graph<Int, SimpleEdge<Int>>, graph: Graph<Int, SimpleEdge<Int>>,
+        vertexFilter: (Int) -> Boolean, edgeFilter: (SimpleEdge<Int>) -> Boolean) {
+        val vertices = graph.allVertices.filter(vertexFilter).toSet()
+        val edges = graph.allEdges.filter { edgeFilter(it) && it.source in vertices && it.target in vertices }.toSet()
+        assertEquals(vertices, view.allVertices)
+        assertEquals(edges, view.allEdges)
+        assertEquals(vertices.size, view.sizeOfVertices())
+        assertEquals(edges.size, view.sizeOfEdges())
+        for (v in graph.allVertices) {
+            if (v !in vertices) {
+                assertFalse(view.containsVertex(v))
+                assertNull(view.getEdgesFromSource(v))
+                assertEquals(-1, view.getOutDegree(v))
+                continue
+            }
+            val outgoing = graph.getEdgesFromSource(v).filter { it in edges }.toSet()
+            assertEquals(outgoing, view.getEdgesFromSource(v))
+            assertEquals(graph.getEdgesToTarget(v).filter { it in edges }.toSet(), view.getEdgesToTarget(v))
+            assertEquals(outgoing.size, view.getOutDegree(v))
+            val visited = HashSet<SimpleEdge<Int>>()
+            view.forEachOutEdge(v) { visited.add(it) }
+            assertEquals(outgoing, visited)
+        }
+        for (e in graph.allEdges) {
+            assertEquals(e in edges, view.containsEdge(e))
+            assertEquals(e in edges, view.containsEdge(e.source, e.target))
+        }
+    }
+
+    @Test
+    fun testSubgraph() {
+        val g = randomGraph(DirectedGraph(factory, true))
+        val vertexFilter = { v: Int -> v % 3 != 0 }
+        val edgeFilter = { e: SimpleEdge<Int> -> (e.source + e.target) % 4 != 0 }
+        val view = g.subgraph(vertexFilter, edgeFilter)
+        assertSameAsCopy(view, g, vertexFilter, edgeFilter)
+
+        val copy = DirectedGraph<Int, SimpleEdge<Int>>(factory, true)
+        view.allVertices.forEach { copy.addVertex(it) }
+        view.allEdges.forEach { copy.addEdge(it) }
+        for (v in 1 until SIZE step 3) {
+            assertEquals(BreadthFirstSearch.findPath(copy, 1, v)?.edges?.size,
+                BreadthFirstSearch.findPath(view, 1, v)?.edges?.size)
+        }
+
+        /* The view is live. */
+        g.addEdge(1, SIZE + 1)
+        assertTrue(view.containsEdge(1, SIZE + 1))
+        g.removeVertex(1)
+        assertFalse(view.containsVertex(1))
+        assertThrows<UnsupportedOperationException> { view.addEdge(2, 4) }
+        assertThrows<UnsupportedOperationException> { view.removeVertex(2) }
+    }
+
+    @Test
+    fun testInducedAndMasks() {
+        val g = randomGraph(DirectedGraph(factory, true))
+        val selected = (0 until SIZE / 2).toSet()
+        assertSameAsCopy(g.induced(selected), g, { it in selected }, { true })
+
+        val index = g.vertexIndex
+        val mask = BitSet()
+        g.allVertices.filter { it % 2 == 0 }.forEach { mask.set(index.indexOf(it)) }
+        assertSameAsCopy(g.subgraph(mask), g, { it % 2 == 0 }, { true })
+        mask.clear()
+        assertTrue(g.subgraph(mask).allVertices.isEmpty())
+    }
+
+    @Test
+    fun testEdgeMask() {
+        val g = ColumnWeightedDirectedGraph<Int>(true)
+        val random = Random(0)
+        for (i in 0 until SIZE * 5) {
+            g.addEdge(random.nextInt(SIZE), random.nextInt(SIZE), 1.0)
+        }
+        val closed = BitSet()
+        val open = BitSet()
+        for (id in 0 until g.sizeOfEdges()) {
+            (if (random.nextInt(4) == 0) closed else open).set(id)
+        }
+        val view = g.subgraph(null, open)
+        assertEquals(open.cardinality(), view.sizeOfEdges())
+        for (id in 0 until g.sizeOfEdges()) {
+            assertEquals(open.get(id), view.containsEdge(g.getEdge(id)))
+        }
+        val vertexMask = BitSet()
+        vertexMask.set(0, g.vertexIndex.bound())
+        assertEquals(view.allEdges, g.subgraph(vertexMask, open).allEdges)
+    }
+
+    @Test
+    fun testUndirected() {
+        val g = randomGraph(UndirectedGraph(factory, true))
+        val vertexFilter = { v: Int -> v % 5 != 0 }
+        assertSameAsCopy(g.subgraph(vertexFilter, null), g, vertexFilter, { true })
+    }
+
+    companion object {
+        private const val SIZE = 300
+    }
+}
@@ -0,0 +1,122 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.algorithm.Dijkstra
+import org.dgraph.graph.algorithm.EarliestArrival
+import org.dgraph.graph.edge.TemporalWeightedMultiEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.Random
+
+class TemporalDirectedGraphTest {
+
+    private fun edge(v1: Int, v2: Int, weight: Double, from: Long, to: Long) =
+        TemporalWeightedMultiEdge(v1, v2, weight, from, to)
+
+    @Test
+    fun testAsOf() {
+        val g = TemporalDirectedGraph<Int, TemporalWeightedMultiEdge<Int>>()
+        val random = Random(0)
+        val all = ArrayList<TemporalWeightedMultiEdge<Int>>()
+        for (i in 0 until SIZE * 5) {
+            val from = random.nextInt(DAYS).toLong()
+            val e = edge(random.nextInt(SIZE), random.nextInt(SIZE), 1.0 + random.nextInt(5), from,
+                from + 1 + random.nextInt(DAYS))
+            if (e.source != e.target && g.addEdge(e)) all.add(e)
+        }
+        assertEquals(all.minOf { it.validFrom }, g.firstTime)
+        assertEquals(all.maxOf { it.validTo }, g.lastTime)
+
+        for (day in -1L..DAYS * 2L) {
+            val view = g.asOf(day)
+            val expected = all.filter { it.validFrom <= day && day < it.validTo }.toSet()
+            assertEquals(expected, view.allEdges)
+            assertEquals(g.allVertices, view.allVertices)
+            val copy = WeightedDirectedGraph<Int, TemporalWeightedMultiEdge<Int>, Double>()
+            g.allVertices.forEach { copy.addVertex(it) }
+            expected.forEach { copy.addEdge(it) }
+            for (v in 0 until 10) {
+                assertEquals(Dijkstra.findShortestPath(copy, 0, v)?.distance,
+                    Dijkstra.findShortestPath(view, 0, v)?.distance)
+            }
+        }
+    }
+
+    @Test
+    fun testEarliestArrival() {
+        val g = TemporalDirectedGraph<Int, TemporalWeightedMultiEdge<Int>>()
+        /* 1 -> 3 closes right after 0 -> 1 opens, so only instant edges make it through 1. */
+        g.addEdge(edge(0, 1, 1.0, 10, 20))
+        g.addEdge(edge(1, 3, 1.0, 0, 11))
+        g.addEdge(edge(0, 2, 5.0, 0, 5))
+        g.addEdge(edge(2, 3, 1.0, 30, 40))
+        g.addEdge(edge(0, 3, 1.0, 100, 200))
+        g.addEdge(edge(3, 0, 1.0, 0, 1000))
+
+        val instant = EarliestArrival.findPath(g, 0, 3, 0)!!
+        assertEquals(10, instant.arrivalTime)
+        assertEquals(listOf(0, 1, 3), instant.vertices)
+
+        /* With durations, 1 -> 3 closes before it can be entered. */
+        val timed = EarliestArrival.findPath(g, 0, 3, 0) { it.weight.toLong() }!!
+        assertEquals(listOf(0, 2, 3), timed.vertices)
+        assertEquals(31, timed.arrivalTime)
+        assertEquals(0, timed.departureTime)
+
+        assertEquals(listOf(0, 3), EarliestArrival.findPath(g, 0, 3, 50)!!.vertices)
+        assertEquals(100, EarliestArrival.findPath(g, 0, 3, 50)!!.arrivalTime)
+        assertNull(EarliestArrival.findPath(g, 0, 3, 200))
+        assertEquals(0, EarliestArrival.findPath(g, 0, 0, 200)!!.edges.size)
+        assertNull(EarliestArrival.findPath(g, 0, 42, 0))
+        assertThrows<IllegalArgumentException> { EarliestArrival.findPath(g, 0, 3, 0) { -1L } }
+        assertThrows<IllegalArgumentException> { edge(0, 1, 1.0, 5, 4) }
+    }
+
+    @Test
+    fun testEarliestArrivalOnView() {
+        val g = TemporalDirectedGraph<Int, TemporalWeightedMultiEdge<Int>>()
+        for (i in 0 until SIZE) {
+            g.addEdge(edge(i, i + 1, 1.0, i.toLong(), i + 2L))
+        }
+        val path = EarliestArrival.findPath(g, 0, SIZE, 0) { 1L }!!
+        assertEquals(SIZE.toLong(), path.arrivalTime)
+        assertTrue(path.edges.all { g.containsEdge(it) })
+        assertNull(EarliestArrival.findPath(g.reversed(), 0, SIZE, 0))
+        assertNull(EarliestArrival.findPath(g, 0, SIZE, 0) { 2L })
+    }
+
+    @Test
+    fun testEarliestArrivalOfLargeTimes() {
+        /* Epoch nanoseconds are far above 2^53, where neighbouring times are not distinguished as doubles. */
+        val base = 1L shl 60
+        val random = Random(0)
+        val small = TemporalDirectedGraph<Int, TemporalWeightedMultiEdge<Int>>()
+        val large = TemporalDirectedGraph<Int, TemporalWeightedMultiEdge<Int>>()
+        for (i in 0 until SIZE * 5) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            val from = random.nextInt(DAYS * 10).toLong()
+            val to = from + 1 + random.nextInt(DAYS * 10)
+            val weight = 1.0 + random.nextInt(5)
+            if (small.addEdge(edge(v1, v2, weight, from, to))) {
+                large.addEdge(edge(v1, v2, weight, base + from, base + to))
+            }
+        }
+        for (i in 0 until 100) {
+            val source = random.nextInt(SIZE)
+            val target = random.nextInt(SIZE)
+            val start = random.nextInt(DAYS).toLong()
+            val expected = EarliestArrival.findPath(small, source, target, start) { it.weight.toLong() }
+            val path = EarliestArrival.findPath(large, source, target, base + start) { it.weight.toLong() }
+            assertEquals(expected?.arrivalTime?.plus(base), path?.arrivalTime)
+        }
+    }
+
+    companion object {
+        private const val SIZE = 200
+
+        private const val DAYS = 30
+    }
+}
@@ -0,0 +1,125 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.algorithm.AStarSearch
+import org.dgraph.graph.algorithm.BellmanFord
+import org.dgraph.graph.algorithm.BreadthFirstSearch
+import org.dgraph.graph.algorithm.DepthFirstSearch
+import org.dgraph.graph.algorithm.Dijkstra
+import org.dgraph.graph.algorithm.FloydWarshall
+import org.dgraph.graph.algorithm.Johnson
+import org.dgraph.graph.edge.SimpleEdge
+import org.dgraph.graph.edge.WeightedSimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.util.Random
+
+class UndirectedGraphTest {
+
+    @Test
+    fun testSymmetry() {
+        val g = UndirectedGraph<Int, SimpleEdge<Int>>({ v1, v2 -> SimpleEdge(v1, v2) }, true)
+        assertTrue(g.addEdge(0, 1))
+        assertTrue(g.addEdge(1, 0))
+        assertTrue(g.addEdge(1, 1))
+        assertTrue(g.addEdge(1, 2))
+        assertTrue(g.containsEdge(2, 1))
+        assertEquals(2, g.getEdges(0, 1).size)
+        assertEquals(4, g.getOutDegree(1))
+        assertEquals(g.getEdgesFromSource(1), g.getEdgesToTarget(1))
+        assertEquals(setOf(SimpleEdge(0, 1), SimpleEdge(1, 0)), g.getEdgesFromSource(0))
+
+        assertTrue(g.removeEdge(SimpleEdge(1, 0)))
+        assertEquals(setOf(SimpleEdge(0, 1)), g.getEdges(1, 0))
+        assertTrue(g.removeVertex(1))
+        assertEquals(0, g.sizeOfEdges())
+        assertEquals(0, g.getOutDegree(0))
+        assertFalse(g.containsEdge(0, 1))
+        assertNull(g.getEdges(2, 1))
+    }
+
+    @Test
+    fun testSearches() {
+        val g = UndirectedGraph<Int, WeightedSimpleEdge<Int>>()
+        val doubled = WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>()
+        val random = Random(0)
+        for (i in 0 until SIZE * 3) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            if (v1 == v2 || g.containsEdge(v1, v2)) {
+                continue
+            }
+            val weight = random.nextDouble()
+            g.addEdge(WeightedSimpleEdge(v1, v2, weight))
+            doubled.addEdge(WeightedSimpleEdge(v1, v2, weight))
+            doubled.addEdge(WeightedSimpleEdge(v2, v1, weight))
+        }
+        assertEquals(doubled.sizeOfEdges(), g.sizeOfEdges() * 2)
+
+        for (i in 0 until 50) {
+            val source = random.nextInt(SIZE)
+            val target = random.nextInt(SIZE)
+            val expected = Dijkstra.findShortestPath(doubled, source, target)
+            val path = Dijkstra.findShortestPath(g, source, target)
+            assertEquals(expected?.distance, path?.distance)
+            assertEquals(expected?.distance, AStarSearch.findShortestPath(g, source, target) { _, _ -> 0.0 }?.distance)
+            assertEquals(BreadthFirstSearch.findPath(doubled, source, target)?.edges?.size,
+                BreadthFirstSearch.findPath(g, source, target)?.edges?.size)
+            val dfs = DepthFirstSearch.findPath(g, source, target)
+            if (path != null && dfs != null) {
+                for (k in path.edges.indices) {
+                    assertTrue(g.containsEdge(path.vertices[k], path.vertices[k + 1]))
+                }
+                assertEquals(target, dfs.vertices.last())
+                for (k in dfs.edges.indices) {
+                    assertTrue(g.containsEdge(dfs.vertices[k], dfs.vertices[k + 1]))
+                }
+            }
+        }
+    }
+
+    @Test
+    fun testAllPairsAlgorithms() {
+        val g = UndirectedGraph<Int, WeightedSimpleEdge<Int>>()
+        val doubled = WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>()
+        val random = Random(0)
+        for (i in 0 until 40 * 3) {
+            val v1 = random.nextInt(40)
+            val v2 = random.nextInt(40)
+            if (v1 == v2 || g.containsEdge(v1, v2)) {
+                continue
+            }
+            val weight = (1 + random.nextInt(9)).toDouble()
+            g.addEdge(WeightedSimpleEdge(v1, v2, weight))
+            doubled.addEdge(WeightedSimpleEdge(v1, v2, weight))
+            doubled.addEdge(WeightedSimpleEdge(v2, v1, weight))
+        }
+        /* Every edge is reported from both of its ends, but counted once. */
+        val snapshot = IndexedGraph.of(g)
+        assertEquals(g.sizeOfEdges(), snapshot.sizeOfEdges())
+        assertEquals(g.allEdges, snapshot.allEdges.toSet())
+        g.allEdges.forEach { assertTrue(snapshot.containsEdge(it)) }
+
+        val floyd = FloydWarshall.findAllShortestPaths(g)
+        val johnson = Johnson.findAllShortestPaths(g)
+        val expected = FloydWarshall.findAllShortestPaths(doubled)
+        for (s in g.allVertices) {
+            val bellman = BellmanFord.findAllShortestPaths(g, s, true)
+            for (t in g.allVertices) {
+                val distance = expected[s]!![t]!!.distance
+                assertEquals(distance, floyd[s]!![t]!!.distance)
+                assertEquals(distance, johnson[s]!![t]!!.distance)
+                assertEquals(distance, bellman[t]!!.distance)
+                floyd[s]!![t]!!.edges?.let { edges ->
+                    assertEquals(distance, edges.sumOf { it.weight })
+                }
+            }
+        }
+    }
+
+    companion object {
+        private const val SIZE = 1000
+    }
+}
@@ -0,0 +1,62 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.edge.SimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.Random
+
+class VersionedDirectedGraphTest {
+
+    private val g = VersionedDirectedGraph<Int, SimpleEdge<Int>>({ v1, v2 -> SimpleEdge(v1, v2) }, false)
+
+    @Test
+    fun testSnapshotIsolation() {
+        for (i in 0 until SIZE) {
+            g.addEdge(i, i + 1)
+        }
+        val snapshot = g.snapshot()
+        g.removeVertex(SIZE / 2)
+        g.addEdge(0, SIZE)
+
+        assertEquals(SIZE + 1, snapshot.sizeOfVertices())
+        assertEquals(SIZE, snapshot.sizeOfEdges())
+        assertTrue(snapshot.containsVertex(SIZE / 2))
+        assertFalse(snapshot.containsEdge(0, SIZE))
+        assertEquals(SIZE, g.sizeOfVertices())
+        assertEquals(SIZE - 1, g.sizeOfEdges())
+        assertTrue(g.containsEdge(0, SIZE))
+        assertEquals(snapshot.number + 2, g.snapshot().number)
+        assertThrows<UnsupportedOperationException> { snapshot.addEdge(0, 1) }
+    }
+
+    @Test
+    fun testRandom() {
+        val expected = DirectedGraph<Int, SimpleEdge<Int>>({ v1, v2 -> SimpleEdge(v1, v2) }, true)
+        val random = Random(0)
+        for (i in 0 until SIZE * 10) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            if (v1 == v2) {
+                continue
+            }
+            when (random.nextInt(10)) {
+                0 -> assertEquals(expected.removeVertex(v1), g.removeVertex(v1))
+                1, 2, 3 -> assertEquals(expected.removeEdge(SimpleEdge(v1, v2)), g.removeEdge(SimpleEdge(v1, v2)))
+                else -> assertEquals(expected.addEdge(v1, v2), g.addEdge(v1, v2))
+            }
+        }
+        assertEquals(expected.allVertices, g.allVertices)
+        assertEquals(expected.allEdges, g.allEdges)
+        for (v in expected.allVertices) {
+            assertEquals(expected.getEdgesFromSource(v), g.getEdgesFromSource(v))
+            assertEquals(expected.getEdgesToTarget(v), g.getEdgesToTarget(v))
+        }
+    }
+
+    companion object {
+        private const val SIZE = 1000
+    }
+}
@@ -0,0 +1,96 @@
+package org.dgraph.graph
+
+import org.dgraph.graph.algorithm.BreadthFirstSearch
+import org.dgraph.graph.edge.SimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.util.Random
+
+class VertexOrderingTest {
+
+    private val factory = { v1: Int, v2: Int -> SimpleEdge(v1, v2) }
+
+    /** Grid with scattered vertex ids, so that the natural order has no locality. */
+    private fun grid(): DirectedGraph<Int, SimpleEdge<Int>> {
+        val ids = (0 until SIDE * SIDE).shuffled(kotlin.random.Random(0))
+        val g = DirectedGraph<Int, SimpleEdge<Int>>(factory, false)
+        for (x in 0 until SIDE) {
+            for (y in 0 until SIDE) {
+                val v = ids[x * SIDE + y]
+                if (x + 1 < SIDE) g.addEdge(v, ids[(x + 1) * SIDE + y])
+                if (y + 1 < SIDE) g.addEdge(ids[x * SIDE + y + 1], v)
+            }
+        }
+        g.addVertex(-1)
+        return g
+    }
+
+    /** Mean distance between the indices of the ends of an edge. */
+    private fun meanGap(c: IndexedGraph<Int, SimpleEdge<Int>>): Double {
+        var sum = 0L
+        for (u in 0 until c.sizeOfVertices()) {
+            for (i in c.getOutOffset(u) until c.getOutOffset(u + 1)) {
+                sum += Math.abs(c.getOutTarget(i) - u)
+            }
+        }
+        return sum.toDouble() / c.sizeOfEdges()
+    }
+
+    @Test
+    fun testOrders() {
+        val g = grid()
+        val natural = CompressedDirectedGraph(g)
+        val random = Random(0)
+        for (ordering in VertexOrdering.values()) {
+            val order = ordering.order(g)
+            assertEquals(g.sizeOfVertices(), order.size)
+            assertEquals(g.allVertices, order.toSet())
+
+            val c = CompressedDirectedGraph(g, ordering)
+            assertEquals(order, c.allVertices.toList())
+            assertEquals(g.allEdges, c.allEdges)
+            for (i in 0 until 20) {
+                val v1 = random.nextInt(SIDE * SIDE)
+                val v2 = random.nextInt(SIDE * SIDE)
+                assertEquals(BreadthFirstSearch.findPath(natural, v1, v2)?.edges?.size,
+                    BreadthFirstSearch.findPath(c, v1, v2)?.edges?.size)
+            }
+
+            val mapping = VertexOrdering.mapping(c.vertexIndex, natural.vertexIndex)
+            for (i in mapping.indices) {
+                assertEquals(c.vertexIndex.vertexAt(i), natural.vertexIndex.vertexAt(mapping[i]))
+            }
+        }
+        for (ordering in listOf(VertexOrdering.BFS, VertexOrdering.REVERSE_CUTHILL_MCKEE, VertexOrdering.COMMUNITY)) {
+            assertTrue(meanGap(CompressedDirectedGraph(g, ordering)) * 10 < meanGap(natural))
+        }
+        val degree = VertexOrdering.DEGREE.order(g)
+        assertEquals(-1, degree.last())
+        assertEquals(4, g.getInDegree(degree.first()) + g.getOutDegree(degree.first()))
+    }
+
+    @Test
+    fun testGapCompressed() {
+        val g = grid()
+        val natural = GapCompressedDirectedGraph(g, factory)
+        val ordered = GapCompressedDirectedGraph(g, factory, true, VertexOrdering.REVERSE_CUTHILL_MCKEE)
+        assertEquals(g.allEdges, ordered.allEdges)
+        assertTrue(ordered.adjacencyBytes < natural.adjacencyBytes)
+    }
+
+    @Test
+    fun testUndirected() {
+        val g = UndirectedGraph<Int, SimpleEdge<Int>>(factory, false)
+        for (i in 0 until SIDE) {
+            g.addEdge(i, (i * 7 + 3) % SIDE)
+        }
+        for (ordering in VertexOrdering.values()) {
+            assertEquals(g.allVertices, ordering.order(g).toSet())
+        }
+    }
+
+    companion object {
+        private const val SIDE = 50
+    }
+}
@@ -0,0 +1,77 @@
+package org.dgraph.graph.algorithm
+
+import org.dgraph.graph.DirectedGraph
+import org.dgraph.graph.Graph
+import org.dgraph.graph.WeightedDirectedGraph
+import org.dgraph.graph.edge.FlowEdge
+import org.dgraph.graph.edge.FlowSimpleEdge
+import org.dgraph.graph.edge.FlowWeightedSimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+class MaximumFlowTest {
+
+    /** Edges of the flow network from CLRS, figure 26.1, with the source 0 and the sink 5. */
+    private val clrs = listOf(
+        Triple(0, 1, 16.0), Triple(0, 2, 13.0), Triple(2, 1, 4.0), Triple(1, 3, 12.0), Triple(3, 2, 9.0),
+        Triple(2, 4, 14.0), Triple(4, 3, 7.0), Triple(3, 5, 20.0), Triple(4, 5, 4.0))
+
+    private fun <E : FlowEdge<Int>> assertFeasible(network: Graph<Int, E>, source: Int, sink: Int, value: Double) {
+        for (e in network.allEdges) {
+            assertTrue(e.flow >= -1e-9 && e.flow <= e.capacity + 1e-9)
+        }
+        for (v in network.allVertices) {
+            val balance = network.getEdgesToTarget(v).sumOf { it.flow } - network.getEdgesFromSource(v).sumOf { it.flow }
+            when (v) {
+                source -> assertEquals(-value, balance, 1e-9)
+                sink -> assertEquals(value, balance, 1e-9)
+                else -> assertEquals(0.0, balance, 1e-9)
+            }
+        }
+    }
+
+    @Test
+    fun testPushRelabel() {
+        val network = DirectedGraph<Int, FlowSimpleEdge<Int>>()
+        clrs.forEach { (u, v, c) -> network.addEdge(FlowSimpleEdge(u, v, c)) }
+        assertEquals(23.0, PushRelabel.getMaximumFlow(network, 0, 5, true), 1e-9)
+        assertFeasible(network, 0, 5, 23.0)
+        /* A saturated network gives the same value without resetting the flow. */
+        assertEquals(23.0, PushRelabel.getMaximumFlow(network, 0, 5, false), 1e-9)
+        assertFeasible(network, 0, 5, 23.0)
+
+        network.addVertex(6)
+        assertEquals(0.0, PushRelabel.getMaximumFlow(network, 0, 6, true), 1e-9)
+        assertEquals(0.0, PushRelabel.getMaximumFlow(network, 0, 7, true), 1e-9)
+    }
+
+    @Test
+    fun testMinCostMaxFlow() {
+        val network = WeightedDirectedGraph<Int, FlowWeightedSimpleEdge<Int>, Double>()
+        clrs.forEach { (u, v, c) -> network.addEdge(FlowWeightedSimpleEdge(u, v, c, 0.0, 1.0)) }
+        val result = MinCostMaxFlow.getMaximumFlowWithMinCost(network, 0, 5, true)
+        assertEquals(23.0, result.item1, 1e-9)
+        assertFeasible(network, 0, 5, 23.0)
+        assertEquals(network.allEdges.sumOf { it.flow * it.weight }, result.item2, 1e-9)
+
+        /* Two routes of cost 2 and 10 carrying 2 and 3 units, and then a negative shortcut. */
+        val routes = WeightedDirectedGraph<Int, FlowWeightedSimpleEdge<Int>, Double>()
+        routes.addEdge(FlowWeightedSimpleEdge(0, 1, 2.0, 0.0, 1.0))
+        routes.addEdge(FlowWeightedSimpleEdge(1, 3, 3.0, 0.0, 1.0))
+        routes.addEdge(FlowWeightedSimpleEdge(0, 2, 3.0, 0.0, 5.0))
+        routes.addEdge(FlowWeightedSimpleEdge(2, 3, 3.0, 0.0, 5.0))
+        var flow = MinCostMaxFlow.getMaximumFlowWithMinCost(routes, 0, 3, true)
+        assertEquals(5.0, flow.item1, 1e-9)
+        assertEquals(34.0, flow.item2, 1e-9)
+        routes.addEdge(FlowWeightedSimpleEdge(2, 1, 1.0, 0.0, -7.0))
+        flow = MinCostMaxFlow.getMaximumFlowWithMinCost(routes, 0, 3, true)
+        assertEquals(5.0, flow.item1, 1e-9)
+        /* One unit moves from 2 -> 3 of cost 5 to 2 -> 1 -> 3 of cost -6. */
+        assertEquals(23.0, flow.item2, 1e-9)
+        assertFeasible(routes, 0, 3, 5.0)
+
+        routes.addVertex(4)
+        assertEquals(0.0, MinCostMaxFlow.getMaximumFlowWithMinCost(routes, 0, 4, true).item1, 1e-9)
+    }
+}
@@ -0,0 +1,152 @@
+package org.dgraph.graph.algorithm
+
+import org.dgraph.graph.IndexedGraph
+import org.dgraph.graph.WeightedDirectedGraph
+import org.dgraph.graph.edge.WeightedSimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.Random
+
+class ShortestPathsTest {
+
+    /**
+     * 0 -4-> 1, 0 -1-> 2, 2 -(-2)-> 1, 1 -1-> 3, 3 -2-> 4, 2 -6-> 4 and the
+     * isolated vertex 5.
+     */
+    private fun graph(): WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double> {
+        val g = WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>()
+        g.addEdge(WeightedSimpleEdge(0, 1, 4.0))
+        g.addEdge(WeightedSimpleEdge(0, 2, 1.0))
+        g.addEdge(WeightedSimpleEdge(2, 1, -2.0))
+        g.addEdge(WeightedSimpleEdge(1, 3, 1.0))
+        g.addEdge(WeightedSimpleEdge(3, 4, 2.0))
+        g.addEdge(WeightedSimpleEdge(2, 4, 6.0))
+        g.addVertex(5)
+        return g
+    }
+
+    /** Adds 4 -(-3)-> 2, which closes the cycle 2, 1, 3, 4 of weight -2. */
+    private fun withNegativeCycle() = graph().apply { addEdge(WeightedSimpleEdge(4, 2, -3.0)) }
+
+    private fun randomGraph(seed: Long): WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double> {
+        val g = WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>()
+        val random = Random(seed)
+        for (i in 0 until SIZE * 4) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            /* Weights differ from non negative ones by potentials of the vertices, so no cycle is negative. */
+            if (v1 != v2) g.addEdge(WeightedSimpleEdge(v1, v2, random.nextInt(10) + (v2 % 7 - v1 % 7).toDouble()))
+        }
+        return g
+    }
+
+    @Test
+    fun testBellmanFord() {
+        val paths = BellmanFord.findAllShortestPaths(graph(), 0, true)
+        assertEquals(listOf(0.0, -1.0, 1.0, 0.0, 2.0, Double.POSITIVE_INFINITY), (0..5).map { paths[it]!!.distance })
+        assertEquals(listOf(0, 2, 1, 3, 4), paths[4]!!.vertices)
+        assertTrue(paths[0]!!.edges.isEmpty())
+        assertNull(paths[5]!!.edges)
+
+        assertThrows<IllegalArgumentException> { BellmanFord.findAllShortestPaths(withNegativeCycle(), 0, true) }
+        /* The cycle cannot be reached from the vertex 5. */
+        val isolated = BellmanFord.findAllShortestPaths(withNegativeCycle(), 5, true)
+        assertEquals(0.0, isolated[5]!!.distance)
+        assertEquals(Double.POSITIVE_INFINITY, isolated[0]!!.distance)
+
+        /* The source is mapped to an empty path, even if it is not in the graph. */
+        val missing = BellmanFord.findAllShortestPaths(graph(), 6, true)
+        assertEquals(7, missing.size)
+        assertEquals(0.0, missing[6]!!.distance)
+        assertEquals(Double.POSITIVE_INFINITY, missing[0]!!.distance)
+    }
+
+    @Test
+    fun testFloydWarshall() {
+        val paths = FloydWarshall.findAllShortestPaths(graph())
+        assertEquals(listOf(0.0, -1.0, 1.0, 0.0, 2.0, Double.POSITIVE_INFINITY), (0..5).map { paths[0]!![it]!!.distance })
+        assertEquals(3.0, paths[1]!![4]!!.distance)
+        assertEquals(listOf(2, 1, 3, 4), paths[2]!![4]!!.vertices)
+        assertEquals(Double.POSITIVE_INFINITY, paths[4]!![0]!!.distance)
+        assertNull(paths[5]!![0]!!.edges)
+        assertEquals(0.0, paths[5]!![5]!!.distance)
+
+        assertThrows<IllegalArgumentException> { FloydWarshall.findAllShortestPaths(withNegativeCycle()) }
+    }
+
+    @Test
+    fun testJohnson() {
+        val paths = Johnson.findAllShortestPaths(graph())
+        assertEquals(listOf(0.0, -1.0, 1.0, 0.0, 2.0, Double.POSITIVE_INFINITY), (0..5).map { paths[0]!![it]!!.distance })
+        assertEquals(3.0, paths[1]!![4]!!.distance)
+        assertEquals(listOf(2, 1, 3, 4), paths[2]!![4]!!.vertices)
+        assertEquals(Double.POSITIVE_INFINITY, paths[4]!![0]!!.distance)
+        assertNull(paths[5]!![0]!!.edges)
+        assertEquals(0.0, paths[5]!![5]!!.distance)
+
+        assertThrows<IllegalArgumentException> { Johnson.findAllShortestPaths(withNegativeCycle()) }
+    }
+
+    @Test
+    fun testAgreement() {
+        for (seed in 0L until 3L) {
+            val g = randomGraph(seed)
+            val floyd = FloydWarshall.findAllShortestPaths(g)
+            val johnson = Johnson.findAllShortestPaths(g)
+            for (s in g.allVertices) {
+                val bellman = BellmanFord.findAllShortestPaths(g, s, true)
+                for (t in g.allVertices) {
+                    val distance = bellman[t]!!.distance
+                    assertEquals(distance, floyd[s]!![t]!!.distance, 1e-9)
+                    assertEquals(distance, johnson[s]!![t]!!.distance, 1e-9)
+                    bellman[t]!!.edges?.let { edges -> assertEquals(distance, edges.sumOf { it.weight }, 1e-9) }
+                    johnson[s]!![t]!!.edges?.let { edges -> assertEquals(distance, edges.sumOf { it.weight }, 1e-9) }
+                }
+            }
+        }
+    }
+
+    @Test
+    fun testAStar() {
+        /* A grid with random weights of at least 1, so the Manhattan distance never overestimates. */
+        val g = WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>()
+        val random = Random(0)
+        for (v in 0 until GRID * GRID) {
+            if (v % GRID + 1 < GRID) {
+                g.addEdge(WeightedSimpleEdge(v, v + 1, 1.0 + random.nextInt(5)))
+                g.addEdge(WeightedSimpleEdge(v + 1, v, 1.0 + random.nextInt(5)))
+            }
+            if (v + GRID < GRID * GRID) {
+                g.addEdge(WeightedSimpleEdge(v, v + GRID, 1.0 + random.nextInt(5)))
+                g.addEdge(WeightedSimpleEdge(v + GRID, v, 1.0 + random.nextInt(5)))
+            }
+        }
+        g.addVertex(GRID * GRID)
+        val manhattan = { v: Int, t: Int -> (Math.abs(v % GRID - t % GRID) + Math.abs(v / GRID - t / GRID)).toDouble() }
+        val indexed = IndexedGraph.of(g)
+        for (i in 0 until 50) {
+            val source = random.nextInt(GRID * GRID)
+            val target = random.nextInt(GRID * GRID)
+            val expected = Dijkstra.findShortestPath(g, source, target).distance
+            for (graph in listOf(g, indexed)) {
+                val path = AStarSearch.findShortestPath(graph, source, target, manhattan)
+                assertEquals(expected, path.distance, 1e-9)
+                assertEquals(expected, path.edges.sumOf { it.weight }, 1e-9)
+            }
+        }
+        assertNull(AStarSearch.findShortestPath(g, 0, GRID * GRID, manhattan))
+        assertNull(AStarSearch.findShortestPath(indexed, 0, GRID * GRID + 1, manhattan))
+        assertTrue(AStarSearch.findShortestPath(g, 3, 3, manhattan).edges.isEmpty())
+        g.addEdge(WeightedSimpleEdge(0, GRID + 1, -1.0))
+        assertThrows<IllegalArgumentException> { AStarSearch.findShortestPath(g, 0, GRID * GRID - 1, manhattan) }
+    }
+
+    companion object {
+        private const val GRID = 20
+
+        private const val SIZE = 40
+    }
+}
@@ -0,0 +1,77 @@
+package org.dgraph.util
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Test
+import java.util.PriorityQueue
+import java.util.Random
+
+class FibonacciHeapTest {
+
+    /**
+     * Runs random enqueues, decreases and dequeues and checks every dequeued
+     * priority against a binary heap.
+     */
+    private fun randomOperations(seed: Long, operations: Int, priorities: Int) {
+        val random = Random(seed)
+        val h = FibonacciHeap<Int>()
+        val nodes = ArrayList<FibonacciHeap.Node<Int>>()
+        val expected = PriorityQueue<Double>()
+        for (i in 0 until operations) {
+            val k = random.nextInt(10)
+            if (k < 5) {
+                val priority = random.nextInt(priorities).toDouble()
+                nodes.add(h.enqueue(i, priority))
+                expected.add(priority)
+            } else if (k < 8 && nodes.isNotEmpty()) {
+                val node = nodes[random.nextInt(nodes.size)]
+                if (node.isDequeued) continue
+                val priority = node.priority - random.nextInt(priorities)
+                expected.remove(node.priority)
+                expected.add(priority)
+                h.decreaseKey(node, priority)
+            } else {
+                assertEquals(expected.poll(), h.dequeueMin()?.priority)
+            }
+            assertEquals(expected.size, h.size())
+            assertEquals(expected.peek(), h.min?.priority)
+        }
+        while (!expected.isEmpty()) {
+            assertEquals(expected.poll(), h.dequeueMin().priority)
+        }
+        assertNull(h.dequeueMin())
+    }
+
+    @Test
+    fun testMinAfterLinkingEqualPriorities() {
+        /* Consolidation used to keep the minimum on a root linked under another one of equal priority. */
+        for (seed in 0L until 20L) {
+            randomOperations(seed, 200, 3)
+        }
+    }
+
+    @Test
+    fun testConsolidationOfHighRanks() {
+        /* Cascading cuts leave trees of a rank above log2 of the size, which overflowed the consolidation array. */
+        for (seed in 0L until 20L) {
+            randomOperations(seed, 2000, 1000)
+        }
+    }
+
+    @Test
+    fun testSort() {
+        val h = FibonacciHeap<Int>()
+        val random = Random(0)
+        val priorities = DoubleArray(SIZE) { random.nextInt(SIZE).toDouble() }
+        priorities.forEachIndexed { i, priority -> h.enqueue(i, priority) }
+        priorities.sort()
+        for (priority in priorities) {
+            assertEquals(priority, h.dequeueMin().priority)
+        }
+        assertEquals(0, h.size())
+    }
+
+    companion object {
+        private const val SIZE = 10000
+    }
+}
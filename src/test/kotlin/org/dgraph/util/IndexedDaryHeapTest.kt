@@ -0,0 +1,122 @@
+package org.dgraph.util
+
+import org.dgraph.graph.WeightedDirectedGraph
+import org.dgraph.graph.algorithm.Dijkstra
+import org.dgraph.graph.algorithm.Johnson
+import org.dgraph.graph.edge.WeightedSimpleEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.Random
+
+class IndexedDaryHeapTest {
+
+    @Test
+    fun testSortRandom() {
+        for (arity in 2..5) {
+            val h = IndexedDaryHeap(SIZE, arity)
+            val generator = Random(arity.toLong())
+            val keys = DoubleArray(SIZE) { generator.nextInt().toDouble() }
+            keys.forEachIndexed { i, key -> h.enqueue(i, key) }
+            assertEquals(SIZE, h.size())
+            var prev = Double.NEGATIVE_INFINITY
+            while (!h.isEmpty) {
+                val min = h.min
+                assertEquals(min, h.dequeueMin())
+                assertTrue(prev <= h.getKey(min))
+                assertEquals(keys[min], h.getKey(min))
+                assertTrue(h.isDequeued(min))
+                prev = h.getKey(min)
+            }
+            assertEquals(-1, h.dequeueMin())
+            assertEquals(-1, h.min)
+        }
+    }
+
+    @Test
+    fun testDecreaseKeyAndDelete() {
+        val h = IndexedDaryHeap(SIZE)
+        for (i in 0 until SIZE) {
+            h.enqueue(i, i + 2000.0)
+        }
+        for (i in SIZE - 1 downTo 0 step 2) {
+            h.decreaseKey(i, i - SIZE.toDouble())
+        }
+        for (i in 0 until SIZE step 4) {
+            h.delete(i)
+            assertFalse(h.contains(i))
+        }
+        assertEquals(SIZE - SIZE / 4, h.size())
+        var expected = 1
+        while (!h.isEmpty) {
+            val min = h.dequeueMin()
+            if (expected < SIZE) {
+                assertEquals(expected, min)
+                expected += 2
+            }
+        }
+        assertThrows<IllegalArgumentException> { h.decreaseKey(4, 0.0) }
+        assertThrows<IllegalArgumentException> { h.delete(3) }
+    }
+
+    @Test
+    fun testOfferAndReset() {
+        val h = IndexedDaryHeap(4)
+        assertTrue(h.offer(2, 5.0))
+        assertFalse(h.offer(2, 6.0))
+        assertTrue(h.offer(2, 3.0))
+        assertTrue(h.offer(1, 4.0))
+        assertEquals(2, h.dequeueMin())
+        assertFalse(h.offer(2, 0.0))
+        assertEquals(3.0, h.getKey(2))
+        assertTrue(h.wasEnqueued(2))
+        assertFalse(h.wasEnqueued(0))
+        assertThrows<IllegalArgumentException> { h.enqueue(1, 1.0) }
+        assertThrows<IllegalArgumentException> { h.decreaseKey(1, 5.0) }
+        assertThrows<IllegalArgumentException> { h.enqueue(0, Double.NaN) }
+
+        /* A dequeued index may be enqueued again. */
+        h.enqueue(2, 1.0)
+        assertEquals(2, h.min)
+
+        h.reset()
+        assertTrue(h.isEmpty)
+        for (i in 0 until 4) {
+            assertFalse(h.wasEnqueued(i))
+            assertEquals(Double.POSITIVE_INFINITY, h.getKey(i))
+        }
+        h.ensureCapacity(10)
+        assertEquals(10, h.capacity())
+        h.enqueue(9, 1.0)
+        h.enqueue(3, 2.0)
+        assertEquals(9, h.dequeueMin())
+        assertEquals(3, h.dequeueMin())
+        assertThrows<IllegalArgumentException> { IndexedDaryHeap(4, 1) }
+    }
+
+    @Test
+    fun testShortestPaths() {
+        val g = WeightedDirectedGraph<Int, WeightedSimpleEdge<Int>, Double>()
+        val random = Random(0)
+        for (i in 0 until 60 * 5) {
+            val v1 = random.nextInt(60)
+            val v2 = random.nextInt(60)
+            if (v1 != v2) g.addEdge(WeightedSimpleEdge(v1, v2, random.nextInt(10).toDouble()))
+        }
+        val all = Johnson.findAllShortestPaths(g)
+        val heap = IndexedDaryHeap(0)
+        for (s in g.allVertices) {
+            for (t in g.allVertices) {
+                val path = Dijkstra.findShortestPath(g, s, t, heap)
+                assertEquals(Dijkstra.findShortestPath(g, s, t)?.distance, path?.distance)
+                assertEquals(path?.distance, all[s]!![t]!!.edges?.sumOf { it.weight })
+            }
+        }
+    }
+
+    companion object {
+        private const val SIZE = 100000
+    }
+}
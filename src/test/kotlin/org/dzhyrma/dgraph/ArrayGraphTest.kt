@@ -0,0 +1,111 @@
+package org.dzhyrma.dgraph
+
+import org.dzhyrma.dgraph.algo.AStarSearch
+import org.dzhyrma.dgraph.edge.SimpleEdge
+import org.dzhyrma.dgraph.edge.SimpleWeightedEdge
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.Random
+
+class ArrayGraphTest {
+
+    private val g = ArrayGraph<Int, SimpleEdge<Int>>({ v1, v2 -> SimpleEdge(v1, v2) })
+
+    @Test
+    fun testAddRemove() {
+        assertTrue(g.addEdge(0, 1))
+        assertFalse(g.addEdge(0, 1))
+        assertTrue(g.addEdge(1, 1))
+        assertTrue(g.addEdge(2, 1))
+        assertEquals(3, g.vertices.size)
+        assertEquals(SimpleEdge(0, 1), g.findEdge(0, 1))
+        assertNull(g.findEdge(1, 0))
+        assertEquals(setOf(SimpleEdge(1, 1)), g.getEdgesFromSource(1))
+        assertEquals(3, g.getInDegree(1))
+
+        assertTrue(g.removeVertex(1))
+        assertEquals(setOf(0, 2), g.vertices)
+        assertTrue(g.edges.isEmpty())
+        assertEquals(0, g.getOutDegree(0))
+        assertEquals(-1, g.getOutDegree(1))
+
+        assertTrue(g.addEdge(3, 0))
+        assertEquals(setOf(SimpleEdge(3, 0)), g.getEdgesToTarget(0))
+        g.clear()
+        assertTrue(g.vertices.isEmpty())
+        assertThrows<IllegalStateException> { ArrayGraph<Int, SimpleEdge<Int>>().addEdge(0, 1) }
+    }
+
+    @Test
+    fun testRandom() {
+        val random = Random(0)
+        val expected = HashSet<SimpleEdge<Int>>()
+        for (i in 0 until SIZE * 10) {
+            val v1 = random.nextInt(SIZE)
+            val v2 = random.nextInt(SIZE)
+            when (random.nextInt(10)) {
+                0 -> {
+                    assertEquals(g.containsVertex(v1), g.removeVertex(v1))
+                    expected.removeIf { it.source == v1 || it.target == v1 }
+                }
+                1, 2, 3 -> assertEquals(expected.remove(SimpleEdge(v1, v2)), g.removeEdge(v1, v2))
+                else -> assertEquals(expected.add(SimpleEdge(v1, v2)), g.addEdge(v1, v2))
+            }
+        }
+        assertEquals(expected, g.edges)
+        for (v in g.vertices) {
+            val outgoing = ArrayList<SimpleEdge<Int>>()
+            g.forEachEdge(v) { edge, target ->
+                assertEquals(edge.target, target)
+                outgoing.add(edge)
+            }
+            assertEquals(expected.filter { it.source == v }.toSet(), outgoing.toSet())
+            assertEquals(outgoing.toSet(), g.getEdgesFromSource(v))
+            assertEquals(expected.filter { it.target == v }.toSet(), g.getEdgesToTarget(v))
+        }
+    }
+
+    @Test
+    fun testAStar() {
+        val w = ArrayWeightedGraph<Int, SimpleWeightedEdge<Int>>({ v1, v2, weight -> SimpleWeightedEdge(v1, v2, weight) })
+        for (i in 0 until SIZE) {
+            w.addEdge(i, i + 1, 1.0)
+            w.addEdge(i, i + 2, 3.0)
+        }
+        assertTrue(w.addEdge(SimpleWeightedEdge(0, SIZE, 10.0)))
+        w.forEachEdge(0) { edge, _, weight -> assertEquals(edge.weight, weight) }
+
+        val path = AStarSearch.perform(w, 0, SIZE) { 0.0 }
+        assertEquals(10.0, path?.distance)
+        w.removeEdge(0, SIZE)
+        assertEquals(SIZE.toDouble(), AStarSearch.perform(w, 0, SIZE) { 0.0 }?.distance)
+    }
+
+    @Test
+    fun testUndirected() {
+        val u = ArrayWeightedGraph<Int, SimpleWeightedEdge<Int>>({ v1, v2, weight -> SimpleWeightedEdge(v1, v2, weight) },
+            directed = false)
+        for (i in 0 until SIZE) {
+            u.addEdge(i + 1, i, 1.0)
+        }
+        u.addEdge(SIZE, SIZE, 1.0)
+        assertEquals(SimpleWeightedEdge(1, 0, 1.0), u.findEdge(0, 1))
+        assertEquals(2, u.getInDegree(SIZE))
+        assertEquals(u.getEdgesFromSource(1), u.getEdgesToTarget(1))
+        u.forEachEdge(1) { edge, target, _ -> assertEquals(if (edge.source == 1) edge.target else edge.source, target) }
+
+        assertEquals(SIZE.toDouble(), AStarSearch.perform(u, 0, SIZE) { 0.0 }?.distance)
+        assertEquals((0..SIZE).toList(), AStarSearch.perform(u, 0, SIZE) { 0.0 }?.vertices)
+        assertTrue(u.removeVertex(SIZE))
+        assertEquals(SIZE - 1, u.edges.size)
+        assertEquals(1, u.getOutDegree(SIZE - 1))
+    }
+
+    companion object {
+        private const val SIZE = 1000
+    }
+}